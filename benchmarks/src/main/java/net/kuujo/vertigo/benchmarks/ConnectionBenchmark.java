@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.InputConnectionContext;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.instance.impl.ControlledInputConnection;
+import net.kuujo.vertigo.instance.impl.ControlledOutputConnection;
+import net.kuujo.vertigo.message.impl.VertigoMessageFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single hop send/receive through a controlled output and input connection.<p>
+ *
+ * {@link #send()} measures throughput for a batch of messages, {@link #roundTrip()}
+ * measures the latency of a single message. When {@code acked} is set, each message
+ * is acked by the receiver and an operation completes once the ack is received by the
+ * sender, otherwise it completes once the message is received.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionBenchmark extends VertxBenchmark {
+  private static final int BATCH_SIZE = 1000;
+  private static final String MESSAGE = "Hello world!";
+
+  @Param({"false", "true"})
+  public boolean acked;
+
+  private ControlledOutputConnection<String> output;
+  private final Handler<AsyncResult<Void>> ackHandler = result -> complete();
+
+  @Setup
+  public void setUp() {
+    startVertx();
+    NetworkContext network = ContextBuilder.buildContext(Topologies.chain(2));
+    OutputConnectionContext outputContext = network.component(Topologies.component(0)).output().port("out").connections().iterator().next();
+    InputConnectionContext inputContext = network.component(Topologies.component(1)).input().port("in").connections().iterator().next();
+    execute(() -> {
+      output = new ControlledOutputConnection<>(vertx, outputContext);
+      ControlledInputConnection<String> input = new ControlledInputConnection<>(vertx, inputContext, new VertigoMessageFactoryImpl());
+      input.handler(message -> {
+        if (acked) {
+          message.ack();
+        } else {
+          complete();
+        }
+      });
+      vertx.eventBus().consumer(outputContext.target().address(), input);
+      vertx.eventBus().consumer(String.format("%s.out", outputContext.target().address()), output);
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    stopVertx();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void send() {
+    execute(BATCH_SIZE, v -> {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        doSend();
+      }
+    });
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void roundTrip() {
+    execute(1, v -> doSend());
+  }
+
+  private void doSend() {
+    if (acked) {
+      output.send(MESSAGE, ackHandler);
+    } else {
+      output.send(MESSAGE);
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.network.NetworkConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building network contexts for large topologies.<p>
+ *
+ * Chains grow the number of components along with the number of connections, meshes
+ * connect two layers of {@code sqrt(connections)} components to each other.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBuilderBenchmark {
+
+  @Param({"10", "100", "1000", "10000", "50000"})
+  public int connections;
+
+  @Param({"chain", "mesh"})
+  public String shape;
+
+  private NetworkConfig network;
+
+  @Setup
+  public void setUp() {
+    network = shape.equals("chain")
+        ? Topologies.chain(connections + 1)
+        : Topologies.mesh((int) Math.ceil(Math.sqrt(connections)));
+  }
+
+  @Benchmark
+  public NetworkContext buildContext() {
+    return ContextBuilder.buildContext(network);
+  }
+
+}
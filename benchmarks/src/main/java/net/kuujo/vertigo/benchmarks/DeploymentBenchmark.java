@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.VertigoOptions;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.deployment.DeploymentManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local deployment and undeployment of a prebuilt network context.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeploymentBenchmark extends VertxBenchmark {
+
+  @Param({"10", "100"})
+  public int components;
+
+  private NetworkContext network;
+  private DeploymentManager manager;
+  private AsyncResult<Void> result;
+
+  @Setup
+  public void setUp() {
+    startVertx();
+    network = ContextBuilder.buildContext(Topologies.chain(components));
+    manager = DeploymentManager.manager(vertx, new VertigoOptions());
+  }
+
+  @TearDown
+  public void tearDown() {
+    stopVertx();
+  }
+
+  @Benchmark
+  public void deployAndUndeploy() {
+    execute(1, v -> manager.deployNetwork(network, this::deployed));
+    check();
+    execute(1, v -> manager.undeployNetwork(network, this::deployed));
+    check();
+  }
+
+  private void deployed(AsyncResult<Void> result) {
+    this.result = result;
+    complete();
+  }
+
+  private void check() {
+    if (result.failed()) {
+      throw new VertigoException(result.cause());
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.message.impl.VertigoMessageFactoryImpl;
+import net.kuujo.vertigo.message.impl.VertigoMessageImpl;
+import net.kuujo.vertigo.spi.VertigoMessageFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of Vertigo messages from received event bus messages.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark extends VertxBenchmark {
+  private final VertigoMessageFactory factory = new VertigoMessageFactoryImpl();
+  private Message<String> message;
+  private String id;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    startVertx();
+    id = UUID.randomUUID().toString();
+    Message<String>[] received = new Message[1];
+    execute(1, v -> {
+      vertx.eventBus().<String>consumer("benchmark", message -> {
+        received[0] = message;
+        complete();
+      });
+      vertx.eventBus().send("benchmark", "Hello world!", new DeliveryOptions()
+          .addHeader("name", id)
+          .addHeader("port", "in"));
+    });
+    message = received[0];
+  }
+
+  @TearDown
+  public void tearDown() {
+    stopVertx();
+  }
+
+  @Benchmark
+  public VertigoMessage<String> create() {
+    return new VertigoMessageImpl<>(id, message);
+  }
+
+  @Benchmark
+  public VertigoMessage<String> createFromFactory() {
+    return factory.createVertigoMessage(id, message);
+  }
+
+}
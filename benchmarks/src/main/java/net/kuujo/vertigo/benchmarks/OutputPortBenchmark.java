@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.instance.impl.OutputPortImpl;
+import net.kuujo.vertigo.instance.impl.SimpleComponentInstanceFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out through an output port with the default connection implementation.<p>
+ *
+ * Targets are plain event bus consumers so that only the sending side is measured.
+ * When {@code acked} is set, an operation completes once every target has acked the
+ * message, otherwise it completes once every target has received it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputPortBenchmark extends VertxBenchmark {
+  private static final int BATCH_SIZE = 1000;
+  private static final String MESSAGE = "Hello world!";
+
+  @Param({"1", "4", "16"})
+  public int fanOut;
+
+  @Param({"false", "true"})
+  public boolean acked;
+
+  private OutputPortImpl<String> port;
+  private final Handler<AsyncResult<Void>> ackHandler = result -> complete();
+
+  @Setup
+  public void setUp() {
+    startVertx();
+    NetworkContext network = ContextBuilder.buildContext(Topologies.fanOut(fanOut));
+    OutputPortContext portContext = network.component(Topologies.component(0)).output().port("out");
+    execute(() -> {
+      port = new OutputPortImpl<>(vertx, portContext, new SimpleComponentInstanceFactory());
+      for (OutputConnectionContext connection : portContext.connections()) {
+        vertx.eventBus().consumer(connection.target().address(), message -> {
+          if (acked) {
+            message.reply(null);
+          } else {
+            complete();
+          }
+        });
+      }
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    stopVertx();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void send() {
+    execute(acked ? BATCH_SIZE : BATCH_SIZE * fanOut, v -> {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        doSend();
+      }
+    });
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void roundTrip() {
+    execute(acked ? 1 : fanOut, v -> doSend());
+  }
+
+  private void doSend() {
+    if (acked) {
+      port.send(MESSAGE, ackHandler);
+    } else {
+      port.send(MESSAGE);
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import net.kuujo.vertigo.benchmarks.load.LoadComponent;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+
+/**
+ * Builds synthetic network topologies for benchmarks.<p>
+ *
+ * Components are named {@code c0}, {@code c1}, ... and each component has an
+ * {@code in} input port and an {@code out} output port.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Topologies {
+
+  /**
+   * The identifier given to all benchmark components.
+   */
+  public static final String IDENTIFIER = LoadComponent.class.getName();
+
+  private Topologies() {
+  }
+
+  /**
+   * Returns the name of the component at the given index.
+   *
+   * @param index The component index.
+   * @return The component name.
+   */
+  public static String component(int index) {
+    return "c" + index;
+  }
+
+  /**
+   * Builds a linear chain of components.
+   *
+   * @param components The number of components in the chain.
+   * @return The network configuration.
+   */
+  public static NetworkConfig chain(int components) {
+    NetworkBuilder builder = NetworkConfig.builder("chain-" + components);
+    for (int i = 0; i < components; i++) {
+      component(builder, i);
+    }
+    for (int i = 1; i < components; i++) {
+      builder.connect(component(i - 1)).port("out").to(component(i)).port("in");
+    }
+    return builder.build();
+  }
+
+  /**
+   * Builds a single component feeding a number of targets.
+   *
+   * @param targets The number of target components.
+   * @return The network configuration.
+   */
+  public static NetworkConfig fanOut(int targets) {
+    NetworkBuilder builder = NetworkConfig.builder("fan-out-" + targets);
+    for (int i = 0; i <= targets; i++) {
+      component(builder, i);
+    }
+    for (int i = 1; i <= targets; i++) {
+      builder.connect(component(0)).port("out").to(component(i)).port("in");
+    }
+    return builder.build();
+  }
+
+  /**
+   * Builds two layers of components with every component in the first layer
+   * connected to every component in the second layer.
+   *
+   * @param width The number of components in each layer.
+   * @return The network configuration.
+   */
+  public static NetworkConfig mesh(int width) {
+    NetworkBuilder builder = NetworkConfig.builder("mesh-" + width);
+    for (int i = 0; i < width * 2; i++) {
+      component(builder, i);
+    }
+    for (int i = 0; i < width; i++) {
+      for (int j = width; j < width * 2; j++) {
+        builder.connect(component(i)).port("out").to(component(j)).port("in");
+      }
+    }
+    return builder.build();
+  }
+
+  private static void component(NetworkBuilder builder, int index) {
+    builder.component(component(index))
+        .identifier(IDENTIFIER)
+        .input().port("in")
+        .output().port("out");
+  }
+
+}
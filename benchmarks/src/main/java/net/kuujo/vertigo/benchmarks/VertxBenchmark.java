@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.VertigoException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for benchmarks which run on a Vert.x event loop.<p>
+ *
+ * Vertigo ports and connections must be used from the context on which they were
+ * created, so benchmark threads hand each operation to the event loop and block
+ * until the event loop reports that the operation is complete.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public abstract class VertxBenchmark {
+  private static final long TIMEOUT = 30;
+  protected Vertx vertx;
+  protected Context context;
+  private int remaining;
+  private CountDownLatch latch;
+
+  /**
+   * Starts Vert.x and creates the event loop context on which the benchmark runs.
+   */
+  protected void startVertx() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+  }
+
+  /**
+   * Closes Vert.x.
+   */
+  protected void stopVertx() {
+    CountDownLatch latch = new CountDownLatch(1);
+    vertx.close(result -> latch.countDown());
+    await(latch);
+  }
+
+  /**
+   * Runs a task on the benchmark context and blocks until it has run.
+   *
+   * @param task The task to run.
+   */
+  protected void execute(Runnable task) {
+    CountDownLatch latch = new CountDownLatch(1);
+    context.runOnContext(v -> {
+      task.run();
+      latch.countDown();
+    });
+    await(latch);
+  }
+
+  /**
+   * Runs a task on the benchmark context and blocks until {@link #complete()} has
+   * been called the given number of times.
+   *
+   * @param count The number of completions to wait for.
+   * @param task The task to run.
+   */
+  protected void execute(int count, Handler<Void> task) {
+    CountDownLatch latch = new CountDownLatch(1);
+    context.runOnContext(v -> {
+      this.remaining = count;
+      this.latch = latch;
+      task.handle(null);
+    });
+    await(latch);
+  }
+
+  /**
+   * Records a single completion. Must be called on the benchmark context.
+   */
+  protected void complete() {
+    if (--remaining == 0) {
+      latch.countDown();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(TIMEOUT, TimeUnit.SECONDS)) {
+        throw new VertigoException("Benchmark operation timed out");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VertigoException(e);
+    }
+  }
+
+}
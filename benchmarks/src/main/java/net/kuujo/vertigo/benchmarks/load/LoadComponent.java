@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks.load;
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.util.CountingCompletionHandler;
+
+/**
+ * Load test component.<p>
+ *
+ * Forwards each message to all output ports and acks it once all downstream
+ * components have acked it, so that acks at the network input measure the latency
+ * of the whole topology. Components without output ports ack immediately.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LoadComponent extends MessageHandlerComponent<Object> {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void handle(VertigoMessage<Object> message) {
+    if (output().ports().isEmpty()) {
+      message.ack();
+    } else {
+      CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(output().ports().size())
+          .setHandler(message::handle);
+      for (OutputPort port : output().ports()) {
+        port.send(message.body(), counter);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks.load;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.Vertigo;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.reference.InputPortReference;
+import net.kuujo.vertigo.reference.NetworkReference;
+import net.kuujo.vertigo.util.Args;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives load through a network in a single JVM.<p>
+ *
+ * Each run deploys the topology in a fresh Vert.x instance and sends messages through
+ * its network input ports with ack handlers, so the measured latency is the time until
+ * every component in the topology has handled and acked a message.<p>
+ *
+ * With a target rate, messages are sent on a fixed schedule and latency is measured from
+ * the time at which each message was scheduled to be sent, so that a topology which falls
+ * behind its schedule reports the queueing delay as latency. Without a target rate, the
+ * generator keeps a fixed number of messages in flight and sends a new message as soon as
+ * one is acked. Messages sent during the warmup period are not measured, and once the
+ * measurement period ends the generator stops sending and waits for the messages still
+ * in flight to be acked.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LoadGenerator {
+  private static final long HEAP_SAMPLE_INTERVAL = 100;
+  private static final long DRAIN_TIMEOUT = 5000;
+  private long rate;
+  private long duration = 10000;
+  private long warmup = 2000;
+  private int maxInFlight = 1000;
+
+  /**
+   * Sets the target rate.
+   *
+   * @param rate The target rate in messages per second, or {@code 0} to send at maximum rate.
+   * @return The load generator.
+   */
+  public LoadGenerator setRate(long rate) {
+    Args.check(rate >= 0, "rate must be non-negative");
+    this.rate = rate;
+    return this;
+  }
+
+  /**
+   * Sets the measurement duration.
+   *
+   * @param duration The measurement duration in milliseconds.
+   * @return The load generator.
+   */
+  public LoadGenerator setDuration(long duration) {
+    Args.check(duration > 0, "duration must be positive");
+    this.duration = duration;
+    return this;
+  }
+
+  /**
+   * Sets the warmup duration.
+   *
+   * @param warmup The warmup duration in milliseconds.
+   * @return The load generator.
+   */
+  public LoadGenerator setWarmup(long warmup) {
+    Args.check(warmup >= 0, "warmup must be non-negative");
+    this.warmup = warmup;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of unacked messages.
+   *
+   * @param maxInFlight The maximum number of unacked messages.
+   * @return The load generator.
+   */
+  public LoadGenerator setMaxInFlight(int maxInFlight) {
+    Args.checkPositive(maxInFlight, "max in flight must be positive");
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * Runs a load test, blocking until it is complete.
+   *
+   * @param topology The topology to test.
+   * @return The load test results.
+   */
+  public LoadReport run(LoadTopology topology) {
+    Vertx vertx = Vertx.vertx();
+    try {
+      CompletableFuture<LoadReport> future = new CompletableFuture<>();
+      vertx.runOnContext(v -> Vertigo.vertigo(vertx).deployNetwork(topology.network(), result -> {
+        if (result.failed()) {
+          future.completeExceptionally(result.cause());
+        } else {
+          new Run(vertx, topology, result.result(), future).start();
+        }
+      }));
+      return future.join();
+    } finally {
+      CountDownLatch latch = new CountDownLatch(1);
+      vertx.close(result -> latch.countDown());
+      try {
+        latch.await(30, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * A single load test run. All methods are called on the Vert.x context.
+   */
+  private class Run {
+    private final Vertx vertx;
+    private final LoadTopology topology;
+    private final CompletableFuture<LoadReport> future;
+    private final List<InputPortReference<Object>> ports = new ArrayList<>();
+    private final Histogram latency = new Histogram();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private long startTime;
+    private long measureStart;
+    private long measureEnd;
+    private long sequence;
+    private int inFlight;
+    private boolean running;
+    private boolean reported;
+    private long completed;
+    private long failed;
+    private long heapPeak;
+    private long heapTotal;
+    private long heapSamples;
+    private long gcCount;
+    private long gcTime;
+    private long sendTimer = -1;
+    private long heapTimer = -1;
+    private long drainTimer = -1;
+
+    private Run(Vertx vertx, LoadTopology topology, NetworkReference network, CompletableFuture<LoadReport> future) {
+      this.vertx = vertx;
+      this.topology = topology;
+      this.future = future;
+      for (String input : topology.inputs()) {
+        ports.add(network.input().port(input));
+      }
+    }
+
+    private void start() {
+      running = true;
+      startTime = System.nanoTime();
+      measureStart = startTime + TimeUnit.MILLISECONDS.toNanos(warmup);
+      measureEnd = measureStart + TimeUnit.MILLISECONDS.toNanos(duration);
+      vertx.setTimer(Math.max(warmup, 1), t -> {
+        gcCount = -gcCount();
+        gcTime = -gcTime();
+        heapTimer = vertx.setPeriodic(HEAP_SAMPLE_INTERVAL, id -> sampleHeap());
+      });
+      vertx.setTimer(warmup + duration, t -> finish());
+      if (rate > 0) {
+        sendTimer = vertx.setPeriodic(1, t -> sendScheduled());
+      } else {
+        sendAvailable();
+      }
+    }
+
+    /**
+     * Sends all messages which are due according to the target rate.
+     */
+    private void sendScheduled() {
+      long due = (System.nanoTime() - startTime) * rate / TimeUnit.SECONDS.toNanos(1);
+      while (running && sequence < due && inFlight < maxInFlight) {
+        send(startTime + sequence * TimeUnit.SECONDS.toNanos(1) / rate);
+      }
+    }
+
+    /**
+     * Sends messages until the maximum number of messages are in flight.
+     */
+    private void sendAvailable() {
+      while (running && inFlight < maxInFlight) {
+        send(System.nanoTime());
+      }
+    }
+
+    private void send(long scheduled) {
+      long current = sequence++;
+      inFlight++;
+      ports.get((int) (current % ports.size())).send(topology.message(current), result -> acked(scheduled, result));
+    }
+
+    private void acked(long scheduled, AsyncResult<Void> result) {
+      if (reported) {
+        return;
+      }
+      inFlight--;
+      if (scheduled >= measureStart && scheduled < measureEnd) {
+        if (result.succeeded()) {
+          completed++;
+          latency.record((System.nanoTime() - scheduled) / 1000);
+        } else {
+          failed++;
+        }
+      }
+      if (running && rate == 0) {
+        sendAvailable();
+      } else if (!running && inFlight == 0) {
+        report();
+      }
+    }
+
+    private void sampleHeap() {
+      long used = memory.getHeapMemoryUsage().getUsed();
+      heapPeak = Math.max(heapPeak, used);
+      heapTotal += used;
+      heapSamples++;
+    }
+
+    /**
+     * Stops sending and waits for messages in flight to be acked.
+     */
+    private void finish() {
+      running = false;
+      if (sendTimer != -1) {
+        vertx.cancelTimer(sendTimer);
+      }
+      if (heapTimer != -1) {
+        vertx.cancelTimer(heapTimer);
+      }
+      sampleHeap();
+      if (inFlight == 0) {
+        report();
+      } else {
+        drainTimer = vertx.setTimer(DRAIN_TIMEOUT, t -> report());
+      }
+    }
+
+    private void report() {
+      if (reported) {
+        return;
+      }
+      reported = true;
+      if (drainTimer != -1) {
+        vertx.cancelTimer(drainTimer);
+      }
+      future.complete(new LoadReport(topology.name(), rate, duration, completed, failed, latency,
+          heapPeak, heapTotal / heapSamples, gcCount + gcCount(), gcTime + gcTime()));
+    }
+
+    private long gcCount() {
+      long count = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        count += Math.max(gc.getCollectionCount(), 0);
+      }
+      return count;
+    }
+
+    private long gcTime() {
+      long time = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        time += Math.max(gc.getCollectionTime(), 0);
+      }
+      return time;
+    }
+  }
+
+}
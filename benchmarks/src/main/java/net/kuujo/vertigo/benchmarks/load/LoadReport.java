@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks.load;
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.metrics.Histogram;
+
+/**
+ * Load test results.<p>
+ *
+ * Latencies are in microseconds and heap sizes in bytes.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LoadReport {
+  private final String topology;
+  private final long rate;
+  private final long duration;
+  private final long completed;
+  private final long failed;
+  private final Histogram latency;
+  private final long heapPeak;
+  private final long heapMean;
+  private final long gcCount;
+  private final long gcTime;
+
+  LoadReport(String topology, long rate, long duration, long completed, long failed, Histogram latency,
+             long heapPeak, long heapMean, long gcCount, long gcTime) {
+    this.topology = topology;
+    this.rate = rate;
+    this.duration = duration;
+    this.completed = completed;
+    this.failed = failed;
+    this.latency = latency;
+    this.heapPeak = heapPeak;
+    this.heapMean = heapMean;
+    this.gcCount = gcCount;
+    this.gcTime = gcTime;
+  }
+
+  /**
+   * Returns the name of the topology under test.
+   */
+  public String topology() {
+    return topology;
+  }
+
+  /**
+   * Returns the target rate in messages per second, or {@code 0} for maximum rate.
+   */
+  public long rate() {
+    return rate;
+  }
+
+  /**
+   * Returns the number of messages acked during the measurement.
+   */
+  public long completed() {
+    return completed;
+  }
+
+  /**
+   * Returns the number of messages failed during the measurement.
+   */
+  public long failed() {
+    return failed;
+  }
+
+  /**
+   * Returns the sustained throughput in messages per second.
+   */
+  public double throughput() {
+    return completed * 1000.0 / duration;
+  }
+
+  /**
+   * Returns the ack latency histogram.
+   */
+  public Histogram latency() {
+    return latency;
+  }
+
+  /**
+   * Returns the peak heap use.
+   */
+  public long heapPeak() {
+    return heapPeak;
+  }
+
+  /**
+   * Returns the mean heap use.
+   */
+  public long heapMean() {
+    return heapMean;
+  }
+
+  /**
+   * Returns the report as JSON.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("topology", topology)
+        .put("rate", rate)
+        .put("duration", duration)
+        .put("completed", completed)
+        .put("failed", failed)
+        .put("throughput", throughput())
+        .put("latency", latency.toJson())
+        .put("heap", new JsonObject()
+            .put("peak", heapPeak)
+            .put("mean", heapMean))
+        .put("gc", new JsonObject()
+            .put("count", gcCount)
+            .put("time", gcTime));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%-14s %10s %12.0f msg/s  p50=%dus p99=%dus p999=%dus max=%dus  failed=%d  heap peak=%dMB mean=%dMB  gc=%d (%dms)",
+        topology, rate > 0 ? rate + " msg/s" : "max", throughput(),
+        latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999), latency.max(), failed,
+        heapPeak / (1024 * 1024), heapMean / (1024 * 1024), gcCount, gcTime);
+  }
+
+}
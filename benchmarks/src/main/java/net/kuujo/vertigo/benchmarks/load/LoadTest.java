@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test entry point.<p>
+ *
+ * Runs one or all of the built-in topologies and prints a report for each. Options are
+ * given as {@code name=value} arguments:
+ * <ul>
+ *   <li>{@code shape} - the topology shape or {@code all}, defaults to {@code all}</li>
+ *   <li>{@code size} - the topology size, defaults to {@code 4}</li>
+ *   <li>{@code rate} - the target rate in messages per second, {@code 0} for maximum rate</li>
+ *   <li>{@code duration} - the measurement duration in milliseconds</li>
+ *   <li>{@code warmup} - the warmup duration in milliseconds</li>
+ *   <li>{@code in-flight} - the maximum number of unacked messages</li>
+ *   <li>{@code format} - {@code text} or {@code json}</li>
+ * </ul>
+ *
+ * For example:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.kuujo.vertigo.benchmarks.load.LoadTest shape=chain size=8 rate=20000
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int index = arg.indexOf('=');
+      if (index == -1) {
+        throw new IllegalArgumentException("Invalid option: " + arg);
+      }
+      options.put(arg.substring(0, index), arg.substring(index + 1));
+    }
+
+    LoadGenerator generator = new LoadGenerator()
+        .setRate(Long.parseLong(options.getOrDefault("rate", "0")))
+        .setDuration(Long.parseLong(options.getOrDefault("duration", "10000")))
+        .setWarmup(Long.parseLong(options.getOrDefault("warmup", "2000")))
+        .setMaxInFlight(Integer.parseInt(options.getOrDefault("in-flight", "1000")));
+    int size = Integer.parseInt(options.getOrDefault("size", "4"));
+    boolean json = options.getOrDefault("format", "text").equals("json");
+
+    String shape = options.getOrDefault("shape", "all");
+    List<String> shapes = new ArrayList<>();
+    if (shape.equals("all")) {
+      shapes.addAll(LoadTopology.SHAPES);
+    } else {
+      shapes.add(shape);
+    }
+
+    for (String name : shapes) {
+      LoadReport report = generator.run(LoadTopology.create(name, size));
+      System.out.println(json ? report.toJson().encode() : report.toString());
+    }
+    System.exit(0);
+  }
+
+}
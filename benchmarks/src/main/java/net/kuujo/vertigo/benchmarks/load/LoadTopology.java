@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.benchmarks.load;
+
+import net.kuujo.vertigo.examples.wordcount.WordCountNetwork;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Load test topology.<p>
+ *
+ * A topology is a network configuration along with the network input ports through
+ * which load is driven and the messages to send. Messages are sent to the input ports
+ * in round robin order.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LoadTopology {
+
+  /**
+   * The names of the built-in topology shapes.
+   */
+  public static final List<String> SHAPES = Collections.unmodifiableList(Arrays.asList(
+      "chain", "fan-out", "fan-in", "diamond", "wordcount"));
+
+  private static final String[] WORDS = "the quick brown fox jumps over the lazy dog".split(" ");
+
+  private final String name;
+  private final NetworkConfig network;
+  private final List<String> inputs;
+  private final LongFunction<Object> messages;
+
+  public LoadTopology(String name, NetworkConfig network, List<String> inputs, LongFunction<Object> messages) {
+    this.name = name;
+    this.network = network;
+    this.inputs = inputs;
+    this.messages = messages;
+  }
+
+  /**
+   * Creates a built-in topology.
+   *
+   * @param shape The topology shape, one of {@link #SHAPES}.
+   * @param size The size of the topology. For chains this is the number of components,
+   *             for other shapes the width of the topology. Ignored for word count.
+   * @return The topology.
+   */
+  public static LoadTopology create(String shape, int size) {
+    switch (shape) {
+      case "chain":
+        return chain(size);
+      case "fan-out":
+        return fanOut(size);
+      case "fan-in":
+        return fanIn(size);
+      case "diamond":
+        return diamond(size);
+      case "wordcount":
+        return wordCount();
+      default:
+        throw new IllegalArgumentException("Unknown topology shape: " + shape);
+    }
+  }
+
+  /**
+   * Creates a linear chain of components.
+   */
+  public static LoadTopology chain(int length) {
+    NetworkBuilder builder = NetworkConfig.builder();
+    builder.connect().network().port("in").to(component(0)).identifier(LoadComponent.class.getName()).port("in");
+    for (int i = 1; i < length; i++) {
+      connect(builder, i - 1, i);
+    }
+    return new LoadTopology("chain-" + length, builder.build(), Collections.singletonList("in"), LoadTopology::sequence);
+  }
+
+  /**
+   * Creates a single component feeding {@code width} sinks.
+   */
+  public static LoadTopology fanOut(int width) {
+    NetworkBuilder builder = NetworkConfig.builder();
+    builder.connect().network().port("in").to(component(0)).identifier(LoadComponent.class.getName()).port("in");
+    for (int i = 1; i <= width; i++) {
+      connect(builder, 0, i);
+    }
+    return new LoadTopology("fan-out-" + width, builder.build(), Collections.singletonList("in"), LoadTopology::sequence);
+  }
+
+  /**
+   * Creates {@code width} sources feeding a single sink, each with its own network input port.
+   */
+  public static LoadTopology fanIn(int width) {
+    NetworkBuilder builder = NetworkConfig.builder();
+    List<String> inputs = new ArrayList<>(width);
+    for (int i = 0; i < width; i++) {
+      String input = "in" + i;
+      inputs.add(input);
+      builder.connect().network().port(input).to(component(i)).identifier(LoadComponent.class.getName()).port("in");
+      connect(builder, i, width);
+    }
+    return new LoadTopology("fan-in-" + width, builder.build(), inputs, LoadTopology::sequence);
+  }
+
+  /**
+   * Creates a source feeding {@code width} components which all feed a single sink.
+   */
+  public static LoadTopology diamond(int width) {
+    NetworkBuilder builder = NetworkConfig.builder();
+    builder.connect().network().port("in").to(component(0)).identifier(LoadComponent.class.getName()).port("in");
+    for (int i = 1; i <= width; i++) {
+      connect(builder, 0, i);
+      connect(builder, i, width + 1);
+    }
+    return new LoadTopology("diamond-" + width, builder.build(), Collections.singletonList("in"), LoadTopology::sequence);
+  }
+
+  /**
+   * Creates the word count example network, fed with sentences of nine words.
+   */
+  public static LoadTopology wordCount() {
+    return new LoadTopology("wordcount", WordCountNetwork.build("vertigo.load.wordcount"), Collections.singletonList("input"), sequence -> {
+      StringBuilder sentence = new StringBuilder();
+      for (int i = 0; i < WORDS.length; i++) {
+        if (i > 0) {
+          sentence.append(' ');
+        }
+        sentence.append(WORDS[(int) ((sequence + i) % WORDS.length)]);
+      }
+      return sentence.toString();
+    });
+  }
+
+  private static String component(int index) {
+    return "c" + index;
+  }
+
+  private static void connect(NetworkBuilder builder, int source, int target) {
+    builder.connect(component(source)).port("out")
+        .to(component(target)).identifier(LoadComponent.class.getName()).port("in");
+  }
+
+  private static Object sequence(long sequence) {
+    return sequence;
+  }
+
+  /**
+   * Returns the topology name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Returns the network configuration.
+   */
+  public NetworkConfig network() {
+    return network;
+  }
+
+  /**
+   * Returns the network input ports through which messages are sent.
+   */
+  public List<String> inputs() {
+    return inputs;
+  }
+
+  /**
+   * Returns the message to send for the given sequence number.
+   */
+  public Object message(long sequence) {
+    return messages.apply(sequence);
+  }
+
+}
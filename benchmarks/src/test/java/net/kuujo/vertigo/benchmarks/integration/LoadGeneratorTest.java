@@ -0,0 +1,53 @@
+package net.kuujo.vertigo.benchmarks.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.benchmarks.load.LoadGenerator;
+import net.kuujo.vertigo.benchmarks.load.LoadReport;
+import net.kuujo.vertigo.benchmarks.load.LoadTopology;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LoadGeneratorTest {
+
+  @Test
+  public void max_Rate_All_Shapes_Test() {
+    LoadGenerator generator = new LoadGenerator()
+        .setWarmup(100)
+        .setDuration(300)
+        .setMaxInFlight(100);
+    for (String shape : LoadTopology.SHAPES) {
+      LoadReport report = generator.run(LoadTopology.create(shape, 3));
+      assertTrue(shape, report.completed() > 0);
+      assertEquals(shape, 0, report.failed());
+      assertEquals(report.completed(), report.latency().count());
+      assertTrue(report.heapPeak() > 0);
+    }
+  }
+
+  @Test
+  public void target_Rate_Test() {
+    LoadReport report = new LoadGenerator()
+        .setRate(1000)
+        .setWarmup(100)
+        .setDuration(500)
+        .run(LoadTopology.chain(3));
+    assertTrue(report.throughput() > 500 && report.throughput() <= 1100);
+  }
+
+}
@@ -27,6 +27,8 @@ import net.kuujo.vertigo.network.NetworkConfig;
 import net.kuujo.vertigo.reference.NetworkReference;
 import net.kuujo.vertigo.spi.ClusterFactory;
 
+import java.util.List;
+
 /**
  * Vertigo cluster.
  *
@@ -68,6 +70,64 @@ public interface Cluster {
   @Fluent
   Cluster deployNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler);
 
+  /**
+   * Updates a network running in the cluster.<p>
+   *
+   * Only components which were added, removed or changed are deployed or undeployed.
+   * Components whose connections changed are updated in place. If the network is not
+   * running it is deployed.
+   *
+   * @param network The updated network.
+   * @param doneHandler An asynchronous handler to be called once the network has been updated.
+   * @return The cluster instance.
+   */
+  @Fluent
+  Cluster updateNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler);
+
+  /**
+   * Returns a reference to a network running in the cluster.
+   *
+   * @param id The unique ID of the network.
+   * @param resultHandler An asynchronous handler to be called with a network reference.
+   * @return The cluster instance.
+   */
+  @Fluent
+  Cluster network(String id, Handler<AsyncResult<NetworkReference>> resultHandler);
+
+  /**
+   * Returns the placement of a network's component instances on cluster nodes.
+   *
+   * @param id The unique ID of the network.
+   * @param resultHandler An asynchronous handler to be called with the placement plan.
+   * @return The cluster instance.
+   */
+  @Fluent
+  Cluster placement(String id, Handler<AsyncResult<PlacementPlan>> resultHandler);
+
+  /**
+   * Replans the placement of a network's component instances.<p>
+   *
+   * Instances are moved off nodes which exceed their capacity, e.g. after nodes
+   * have joined the cluster, and towards the instances they exchange the most
+   * messages with. Moved instances are deployed on their new node before being
+   * undeployed from their old node.
+   *
+   * @param id The unique ID of the network.
+   * @param doneHandler An asynchronous handler to be called with the new placement plan.
+   * @return The cluster instance.
+   */
+  @Fluent
+  Cluster rebalanceNetwork(String id, Handler<AsyncResult<PlacementPlan>> doneHandler);
+
+  /**
+   * Returns the nodes in the cluster along with their most recently reported load.
+   *
+   * @param resultHandler An asynchronous handler to be called with the cluster nodes.
+   * @return The cluster instance.
+   */
+  @Fluent
+  Cluster nodes(Handler<AsyncResult<List<NodeInfo>>> resultHandler);
+
   /**
    * Undeploys a network from the cluster.
    *
@@ -30,10 +30,18 @@ import java.util.UUID;
  */
 @DataObject
 public class ClusterOptions {
+  public static final long DEFAULT_HEARTBEAT_INTERVAL = 1000;
+  public static final long DEFAULT_NODE_TIMEOUT = 5000;
+  public static final String COMMUNICATION_PLACEMENT = "communication";
+  public static final String LOAD_PLACEMENT = "load";
   private boolean clustered;
   private String clusterAddress = UUID.randomUUID().toString();
   private String nodeAddress = UUID.randomUUID().toString();
   private Set<String> nodes = new HashSet<>();
+  private long heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
+  private long nodeTimeout = DEFAULT_NODE_TIMEOUT;
+  private int nodeCapacity;
+  private String placement = COMMUNICATION_PLACEMENT;
 
   public ClusterOptions() {
   }
@@ -43,6 +51,10 @@ public class ClusterOptions {
     this.clusterAddress = options.getClusterAddress();
     this.nodeAddress = options.getNodeAddress();
     this.nodes = options.getNodes();
+    this.heartbeatInterval = options.getHeartbeatInterval();
+    this.nodeTimeout = options.getNodeTimeout();
+    this.nodeCapacity = options.getNodeCapacity();
+    this.placement = options.getPlacement();
   }
 
   @SuppressWarnings("unchecked")
@@ -51,6 +63,10 @@ public class ClusterOptions {
     this.clusterAddress = options.getString("cluster", clusterAddress);
     this.nodeAddress = options.getString("node", nodeAddress);
     this.nodes = new HashSet(options.getJsonArray("nodes", new JsonArray()).getList());
+    this.heartbeatInterval = options.getLong("heartbeat", heartbeatInterval);
+    this.nodeTimeout = options.getLong("timeout", nodeTimeout);
+    this.nodeCapacity = options.getInteger("capacity", nodeCapacity);
+    this.placement = options.getString("placement", placement);
   }
 
   /**
@@ -133,6 +149,91 @@ public class ClusterOptions {
     return nodes;
   }
 
+  /**
+   * Sets the interval at which the node publishes its load to the cluster.
+   *
+   * @param interval The heartbeat interval in milliseconds.
+   * @return The cluster options.
+   */
+  public ClusterOptions setHeartbeatInterval(long interval) {
+    this.heartbeatInterval = interval;
+    return this;
+  }
+
+  /**
+   * Returns the interval at which the node publishes its load to the cluster.
+   *
+   * @return The heartbeat interval in milliseconds.
+   */
+  public long getHeartbeatInterval() {
+    return heartbeatInterval;
+  }
+
+  /**
+   * Sets the time after which a node which has not published its load is considered
+   * to have left the cluster.
+   *
+   * @param timeout The node timeout in milliseconds.
+   * @return The cluster options.
+   */
+  public ClusterOptions setNodeTimeout(long timeout) {
+    this.nodeTimeout = timeout;
+    return this;
+  }
+
+  /**
+   * Returns the time after which a node which has not published its load is considered
+   * to have left the cluster.
+   *
+   * @return The node timeout in milliseconds.
+   */
+  public long getNodeTimeout() {
+    return nodeTimeout;
+  }
+
+  /**
+   * Sets the maximum number of component instances the node accepts.
+   *
+   * @param capacity The maximum number of component instances or {@code 0} for no limit.
+   * @return The cluster options.
+   */
+  public ClusterOptions setNodeCapacity(int capacity) {
+    this.nodeCapacity = capacity;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of component instances the node accepts.
+   *
+   * @return The maximum number of component instances or {@code 0} for no limit.
+   */
+  public int getNodeCapacity() {
+    return nodeCapacity;
+  }
+
+  /**
+   * Sets the strategy used by the node to place component instances.<p>
+   *
+   * The {@code communication} strategy co-locates components which exchange the most
+   * messages. The {@code load} strategy places each instance on the least loaded node.
+   *
+   * @param placement The placement strategy, either {@code communication} or {@code load}.
+   * @return The cluster options.
+   */
+  public ClusterOptions setPlacement(String placement) {
+    this.placement = placement;
+    return this;
+  }
+
+  /**
+   * Returns the strategy used by the node to place component instances.
+   *
+   * @return The placement strategy.
+   */
+  public String getPlacement() {
+    return placement;
+  }
+
   @Override
   public int hashCode() {
     int hashCode = 27;
@@ -140,6 +241,10 @@ public class ClusterOptions {
     hashCode = 37 * hashCode + clusterAddress.hashCode();
     hashCode = 37 * hashCode + nodeAddress.hashCode();
     hashCode = 37 * hashCode + nodes.hashCode();
+    hashCode = 37 * hashCode + (int) (heartbeatInterval ^ (heartbeatInterval >>> 32));
+    hashCode = 37 * hashCode + (int) (nodeTimeout ^ (nodeTimeout >>> 32));
+    hashCode = 37 * hashCode + nodeCapacity;
+    hashCode = 37 * hashCode + placement.hashCode();
     return hashCode;
   }
 
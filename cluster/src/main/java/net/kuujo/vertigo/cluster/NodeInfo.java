@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Load reported by a Vertigo cluster node.<p>
+ *
+ * Nodes periodically publish their load to the cluster. The load is used to place
+ * component instances on the least loaded nodes.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@DataObject
+public class NodeInfo {
+  private String address;
+  private double cpu;
+  private double heap;
+  private int processors = 1;
+  private int instances;
+  private int capacity;
+
+  public NodeInfo() {
+  }
+
+  public NodeInfo(NodeInfo info) {
+    this.address = info.getAddress();
+    this.cpu = info.getCpu();
+    this.heap = info.getHeap();
+    this.processors = info.getProcessors();
+    this.instances = info.getInstances();
+    this.capacity = info.getCapacity();
+  }
+
+  public NodeInfo(JsonObject info) {
+    this.address = info.getString("address");
+    this.cpu = info.getDouble("cpu", 0.0);
+    this.heap = info.getDouble("heap", 0.0);
+    this.processors = info.getInteger("processors", 1);
+    this.instances = info.getInteger("instances", 0);
+    this.capacity = info.getInteger("capacity", 0);
+  }
+
+  /**
+   * Sets the node event bus address.
+   *
+   * @param address The node event bus address.
+   * @return The node info.
+   */
+  public NodeInfo setAddress(String address) {
+    this.address = address;
+    return this;
+  }
+
+  /**
+   * Returns the node event bus address.
+   *
+   * @return The node event bus address.
+   */
+  public String getAddress() {
+    return address;
+  }
+
+  /**
+   * Sets the node CPU load.
+   *
+   * @param cpu The node CPU load between {@code 0} and {@code 1}.
+   * @return The node info.
+   */
+  public NodeInfo setCpu(double cpu) {
+    this.cpu = cpu;
+    return this;
+  }
+
+  /**
+   * Returns the node CPU load.
+   *
+   * @return The node CPU load between {@code 0} and {@code 1}.
+   */
+  public double getCpu() {
+    return cpu;
+  }
+
+  /**
+   * Sets the node heap usage.
+   *
+   * @param heap The fraction of the maximum heap in use.
+   * @return The node info.
+   */
+  public NodeInfo setHeap(double heap) {
+    this.heap = heap;
+    return this;
+  }
+
+  /**
+   * Returns the node heap usage.
+   *
+   * @return The fraction of the maximum heap in use.
+   */
+  public double getHeap() {
+    return heap;
+  }
+
+  /**
+   * Sets the number of processors available to the node.
+   *
+   * @param processors The number of processors available to the node.
+   * @return The node info.
+   */
+  public NodeInfo setProcessors(int processors) {
+    this.processors = processors;
+    return this;
+  }
+
+  /**
+   * Returns the number of processors available to the node.
+   *
+   * @return The number of processors available to the node.
+   */
+  public int getProcessors() {
+    return processors;
+  }
+
+  /**
+   * Sets the number of component instances deployed on the node.
+   *
+   * @param instances The number of component instances deployed on the node.
+   * @return The node info.
+   */
+  public NodeInfo setInstances(int instances) {
+    this.instances = instances;
+    return this;
+  }
+
+  /**
+   * Returns the number of component instances deployed on the node.
+   *
+   * @return The number of component instances deployed on the node.
+   */
+  public int getInstances() {
+    return instances;
+  }
+
+  /**
+   * Sets the maximum number of component instances the node accepts.
+   *
+   * @param capacity The maximum number of component instances or {@code 0} for no limit.
+   * @return The node info.
+   */
+  public NodeInfo setCapacity(int capacity) {
+    this.capacity = capacity;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of component instances the node accepts.
+   *
+   * @return The maximum number of component instances or {@code 0} for no limit.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns a JSON representation of the node info.
+   *
+   * @return A JSON representation of the node info.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("address", address)
+        .put("cpu", cpu)
+        .put("heap", heap)
+        .put("processors", processors)
+        .put("instances", instances)
+        .put("capacity", capacity);
+  }
+
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+
+}
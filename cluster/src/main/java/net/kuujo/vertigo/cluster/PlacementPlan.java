@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.*;
+
+/**
+ * Placement of a network's component instances on cluster nodes.<p>
+ *
+ * The plan records the node of each component instance along with the estimated
+ * traffic between instances and the share of that traffic which crosses nodes.
+ * Traffic is measured in messages per second when message rates have been observed
+ * and in connections otherwise.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@DataObject
+public class PlacementPlan {
+  private Map<String, List<String>> assignments = new HashMap<>();
+  private double traffic;
+  private double crossNodeTraffic;
+
+  public PlacementPlan() {
+  }
+
+  public PlacementPlan(PlacementPlan plan) {
+    for (Map.Entry<String, List<String>> entry : plan.getAssignments().entrySet()) {
+      assignments.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    this.traffic = plan.getTraffic();
+    this.crossNodeTraffic = plan.getCrossNodeTraffic();
+  }
+
+  public PlacementPlan(JsonObject plan) {
+    JsonObject assignments = plan.getJsonObject("assignments", new JsonObject());
+    for (String component : assignments.fieldNames()) {
+      List<String> nodes = new ArrayList<>();
+      for (Object node : assignments.getJsonArray(component)) {
+        nodes.add((String) node);
+      }
+      this.assignments.put(component, nodes);
+    }
+    this.traffic = plan.getDouble("traffic", 0.0);
+    this.crossNodeTraffic = plan.getDouble("crossNodeTraffic", 0.0);
+  }
+
+  /**
+   * Sets the nodes of all component instances.
+   *
+   * @param assignments A map of component names to the node of each component instance.
+   * @return The placement plan.
+   */
+  public PlacementPlan setAssignments(Map<String, List<String>> assignments) {
+    this.assignments = assignments;
+    return this;
+  }
+
+  /**
+   * Returns the nodes of all component instances.
+   *
+   * @return A map of component names to the node of each component instance.
+   */
+  public Map<String, List<String>> getAssignments() {
+    return assignments;
+  }
+
+  /**
+   * Returns the nodes of a component's instances.
+   *
+   * @param component The component name.
+   * @return The node address of each instance of the component.
+   */
+  public List<String> getNodes(String component) {
+    List<String> nodes = assignments.get(component);
+    return nodes != null ? nodes : Collections.emptyList();
+  }
+
+  /**
+   * Returns the components with instances on a node.
+   *
+   * @param node The node address.
+   * @return The name of the component of each instance on the node.
+   */
+  public List<String> getComponents(String node) {
+    List<String> components = new ArrayList<>();
+    for (Map.Entry<String, List<String>> entry : new TreeMap<>(assignments).entrySet()) {
+      for (String instanceNode : entry.getValue()) {
+        if (instanceNode.equals(node)) {
+          components.add(entry.getKey());
+        }
+      }
+    }
+    return components;
+  }
+
+  /**
+   * Sets the estimated traffic between all component instances.
+   *
+   * @param traffic The estimated traffic between all component instances.
+   * @return The placement plan.
+   */
+  public PlacementPlan setTraffic(double traffic) {
+    this.traffic = traffic;
+    return this;
+  }
+
+  /**
+   * Returns the estimated traffic between all component instances.
+   *
+   * @return The estimated traffic between all component instances.
+   */
+  public double getTraffic() {
+    return traffic;
+  }
+
+  /**
+   * Sets the estimated traffic between component instances on different nodes.
+   *
+   * @param traffic The estimated traffic between component instances on different nodes.
+   * @return The placement plan.
+   */
+  public PlacementPlan setCrossNodeTraffic(double traffic) {
+    this.crossNodeTraffic = traffic;
+    return this;
+  }
+
+  /**
+   * Returns the estimated traffic between component instances on different nodes.
+   *
+   * @return The estimated traffic between component instances on different nodes.
+   */
+  public double getCrossNodeTraffic() {
+    return crossNodeTraffic;
+  }
+
+  /**
+   * Returns the share of traffic which stays on a single node.
+   *
+   * @return The share of traffic between {@code 0} and {@code 1} which stays on a single node.
+   */
+  public double getLocality() {
+    return traffic > 0 ? 1 - crossNodeTraffic / traffic : 1;
+  }
+
+  /**
+   * Returns a JSON representation of the placement plan.
+   *
+   * @return A JSON representation of the placement plan.
+   */
+  public JsonObject toJson() {
+    JsonObject assignments = new JsonObject();
+    for (Map.Entry<String, List<String>> entry : new TreeMap<>(this.assignments).entrySet()) {
+      assignments.put(entry.getKey(), new JsonArray(new ArrayList<>(entry.getValue())));
+    }
+    return new JsonObject()
+        .put("assignments", assignments)
+        .put("traffic", traffic)
+        .put("crossNodeTraffic", crossNodeTraffic)
+        .put("locality", getLocality());
+  }
+
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+
+}
@@ -18,6 +18,7 @@ package net.kuujo.vertigo.cluster.impl;
 import io.vertx.core.Vertx;
 import net.kuujo.vertigo.deployment.DeploymentManager;
 import net.kuujo.vertigo.VertigoOptions;
+import net.kuujo.vertigo.deployment.impl.LocalDeploymentManagerFactory;
 import net.kuujo.vertigo.spi.DeploymentManagerFactory;
 
 /**
@@ -29,7 +30,15 @@ public class ClusterContextManagerFactory implements DeploymentManagerFactory {
 
   @Override
   public DeploymentManager createContextManager(Vertx vertx, VertigoOptions options) {
+    if (options.getClusterAddress() == null) {
+      return new LocalDeploymentManagerFactory().createContextManager(vertx, options);
+    }
     return new ClusterDeploymentManager(vertx, options.getClusterAddress());
   }
 
+  @Override
+  public boolean isClustered() {
+    return true;
+  }
+
 }
@@ -16,18 +16,32 @@
 package net.kuujo.vertigo.cluster.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.cluster.PlacementPlan;
 import net.kuujo.vertigo.deployment.DeploymentManager;
 import net.kuujo.vertigo.context.NetworkContext;
 import net.kuujo.vertigo.reference.NetworkReference;
+import net.kuujo.vertigo.reference.impl.NetworkReferenceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Cluster based Vertigo context manager.
+ * Cluster based Vertigo context manager.<p>
+ *
+ * Requests are sent to the cluster address, where any node in the cluster may
+ * coordinate them.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class ClusterDeploymentManager implements DeploymentManager {
+  private static final long REQUEST_TIMEOUT = 120000;
   private final Vertx vertx;
   private final String address;
 
@@ -36,23 +50,114 @@ public class ClusterDeploymentManager implements DeploymentManager {
     this.address = address;
   }
 
+  /**
+   * Sends a request to the cluster.
+   */
+  private <T> void send(String action, Object body, Handler<AsyncResult<T>> doneHandler) {
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(NetworkCoordinator.ACTION_HEADER, action)
+        .setSendTimeout(REQUEST_TIMEOUT);
+    vertx.eventBus().<T>send(address, body, options, result -> {
+      if (result.failed()) {
+        Future.<T>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.succeededFuture(result.result().body()).setHandler(doneHandler);
+      }
+    });
+  }
+
   @Override
   public DeploymentManager getNetwork(String id, Handler<AsyncResult<NetworkContext>> doneHandler) {
+    this.<JsonObject>send(ClusterImpl.GET_ACTION, id, result -> {
+      if (result.failed()) {
+        Future.<NetworkContext>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.succeededFuture(NetworkContext.builder().update(result.result()).build()).setHandler(doneHandler);
+      }
+    });
     return this;
   }
 
   @Override
   public DeploymentManager deployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler) {
+    send(NetworkCoordinator.DEPLOY_ACTION, network.toJson(), doneHandler);
+    return this;
+  }
+
+  @Override
+  public DeploymentManager updateNetwork(NetworkContext current, NetworkContext updated, Handler<AsyncResult<Void>> doneHandler) {
+    send(NetworkCoordinator.UPDATE_ACTION, updated.toJson(), doneHandler);
     return this;
   }
 
   @Override
   public DeploymentManager undeployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler) {
+    send(NetworkCoordinator.UNDEPLOY_ACTION, network.name(), doneHandler);
     return this;
   }
 
   @Override
   public DeploymentManager getNetworkReference(String id, Handler<AsyncResult<NetworkReference>> doneHandler) {
+    return getNetwork(id, result -> {
+      if (result.succeeded()) {
+        Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, result.result())).setHandler(doneHandler);
+      } else {
+        Future.<NetworkReference>failedFuture(result.cause()).setHandler(doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Loads the placement of a network's component instances.
+   *
+   * @param id The network name.
+   * @param doneHandler An asynchronous handler to be called with the placement plan.
+   * @return The context manager.
+   */
+  public DeploymentManager getPlacement(String id, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    return plan(ClusterImpl.PLACEMENT_ACTION, id, doneHandler);
+  }
+
+  /**
+   * Replans the placement of a network's component instances.
+   *
+   * @param id The network name.
+   * @param doneHandler An asynchronous handler to be called with the new placement plan.
+   * @return The context manager.
+   */
+  public DeploymentManager rebalanceNetwork(String id, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    return plan(ClusterImpl.REBALANCE_ACTION, id, doneHandler);
+  }
+
+  private DeploymentManager plan(String action, String id, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    this.<JsonObject>send(action, id, result -> {
+      if (result.failed()) {
+        Future.<PlacementPlan>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.succeededFuture(new PlacementPlan(result.result())).setHandler(doneHandler);
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Loads the nodes in the cluster.
+   *
+   * @param doneHandler An asynchronous handler to be called with the cluster nodes.
+   * @return The context manager.
+   */
+  public DeploymentManager getNodes(Handler<AsyncResult<List<NodeInfo>>> doneHandler) {
+    this.<JsonArray>send(ClusterImpl.NODES_ACTION, null, result -> {
+      if (result.failed()) {
+        Future.<List<NodeInfo>>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        List<NodeInfo> nodes = new ArrayList<>();
+        for (Object node : result.result()) {
+          nodes.add(new NodeInfo((JsonObject) node));
+        }
+        Future.succeededFuture(nodes).setHandler(doneHandler);
+      }
+    });
     return this;
   }
 
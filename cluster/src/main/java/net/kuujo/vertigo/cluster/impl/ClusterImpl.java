@@ -0,0 +1,406 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import net.kuujo.vertigo.cluster.ClusterOptions;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.deployment.impl.ConfigComponentContextManager;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+import net.kuujo.vertigo.util.CountingCompletionHandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vertigo cluster node.<p>
+ *
+ * Each node in the cluster runs a cluster instance. The node accepts requests to
+ * deploy and undeploy component instances on its node address and requests to deploy,
+ * update and undeploy networks on the shared cluster address. Since all nodes listen
+ * on the cluster address any node can coordinate a network deployment.<p>
+ *
+ * Nodes periodically publish their load to the cluster so that component instances
+ * can be placed on the least loaded nodes.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ClusterImpl extends ClusterProxyImpl {
+  private static final Logger log = LoggerFactory.getLogger(ClusterImpl.class);
+  static final String NODES_ACTION = "nodes";
+  static final String GET_ACTION = "get";
+  static final String PLACEMENT_ACTION = "placement";
+  static final String REBALANCE_ACTION = "rebalance";
+  private static final String LEAVE_ACTION = "leave";
+  private final Vertx vertx;
+  private final ClusterOptions options;
+  private final String nodesAddress;
+  private final NetworkCoordinator coordinator;
+  private final TrafficMonitor traffic;
+  private final Map<String, NodeInfo> nodes = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+  private final Set<String> deployments = new HashSet<>();
+  private MessageConsumer<Object> clusterConsumer;
+  private MessageConsumer<Object> nodeConsumer;
+  private MessageConsumer<JsonObject> heartbeatConsumer;
+  private long heartbeatTimer = -1;
+
+  public ClusterImpl(Vertx vertx, ClusterOptions options) {
+    super(vertx, options.getClusterAddress());
+    this.vertx = vertx;
+    this.options = options;
+    this.nodesAddress = String.format("%s.nodes", options.getClusterAddress());
+    this.traffic = new TrafficMonitor(vertx);
+    this.coordinator = new NetworkCoordinator(vertx, new NetworkRegistry(vertx, options.getClusterAddress()), placement(options), traffic, this::members);
+  }
+
+  /**
+   * Creates the configured placement strategy.
+   */
+  private static PlacementStrategy placement(ClusterOptions options) {
+    switch (options.getPlacement()) {
+      case ClusterOptions.COMMUNICATION_PLACEMENT:
+        return new CommunicationAwarePlacement();
+      case ClusterOptions.LOAD_PLACEMENT:
+        return new LoadAwarePlacement();
+      default:
+        throw new IllegalArgumentException(String.format("Invalid placement strategy %s", options.getPlacement()));
+    }
+  }
+
+  /**
+   * Returns the nodes on which components may be placed.
+   */
+  private Collection<NodeInfo> members() {
+    expire();
+    return new ArrayList<>(nodes.values());
+  }
+
+  @Override
+  public void start(Handler<AsyncResult<Void>> doneHandler) {
+    if (nodeConsumer != null) {
+      Future.<Void>succeededFuture().setHandler(doneHandler);
+      return;
+    }
+
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(3).setHandler(result -> {
+      if (result.succeeded()) {
+        heartbeat(-1);
+        heartbeatTimer = vertx.setPeriodic(options.getHeartbeatInterval(), this::heartbeat);
+      }
+      if (doneHandler != null) {
+        doneHandler.handle(result);
+      }
+    });
+
+    traffic.start();
+
+    // The local node is known immediately so that networks can be deployed before the
+    // first heartbeat from another node is received.
+    receive(status());
+
+    nodeConsumer = vertx.eventBus().consumer(options.getNodeAddress(), this::handleNode);
+    nodeConsumer.completionHandler(counter);
+    clusterConsumer = vertx.eventBus().consumer(options.getClusterAddress(), this::handleCluster);
+    clusterConsumer.completionHandler(counter);
+    heartbeatConsumer = vertx.eventBus().consumer(nodesAddress, this::handleHeartbeat);
+    heartbeatConsumer.completionHandler(counter);
+  }
+
+  @Override
+  public void stop(Handler<AsyncResult<Void>> doneHandler) {
+    if (heartbeatTimer != -1) {
+      vertx.cancelTimer(heartbeatTimer);
+      heartbeatTimer = -1;
+    }
+    traffic.stop();
+    if (nodeConsumer == null) {
+      Future.<Void>succeededFuture().setHandler(doneHandler);
+      return;
+    }
+
+    vertx.eventBus().publish(nodesAddress, new JsonObject().put("address", options.getNodeAddress()),
+        new DeliveryOptions().addHeader(NetworkCoordinator.ACTION_HEADER, LEAVE_ACTION));
+
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(3).setHandler(doneHandler);
+    nodeConsumer.unregister(counter);
+    clusterConsumer.unregister(counter);
+    heartbeatConsumer.unregister(counter);
+    nodeConsumer = null;
+    clusterConsumer = null;
+    heartbeatConsumer = null;
+  }
+
+  /**
+   * Publishes the node's load to the cluster.
+   */
+  private void heartbeat(long timerId) {
+    vertx.eventBus().publish(nodesAddress, status().toJson());
+  }
+
+  /**
+   * Returns the current load of the node.
+   */
+  @SuppressWarnings("restriction")
+  private NodeInfo status() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    int processors = Runtime.getRuntime().availableProcessors();
+    double cpu = -1;
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      cpu = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+    }
+    if (cpu < 0 || Double.isNaN(cpu)) {
+      double loadAverage = os.getSystemLoadAverage();
+      cpu = loadAverage >= 0 ? Math.min(loadAverage / processors, 1.0) : 0.0;
+    }
+    Runtime runtime = Runtime.getRuntime();
+    double heap = (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    synchronized (deployments) {
+      return new NodeInfo()
+          .setAddress(options.getNodeAddress())
+          .setCpu(cpu)
+          .setHeap(heap)
+          .setProcessors(processors)
+          .setInstances(deployments.size())
+          .setCapacity(options.getNodeCapacity());
+    }
+  }
+
+  /**
+   * Records the load of a cluster node.
+   */
+  private void receive(NodeInfo node) {
+    if (options.getNodes().isEmpty() || options.getNodes().contains(node.getAddress())) {
+      nodes.put(node.getAddress(), node);
+      lastSeen.put(node.getAddress(), System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Removes nodes which have not reported their load within the node timeout.
+   */
+  private void expire() {
+    long expired = System.currentTimeMillis() - options.getNodeTimeout();
+    for (Map.Entry<String, Long> entry : lastSeen.entrySet()) {
+      if (entry.getValue() < expired && !entry.getKey().equals(options.getNodeAddress())) {
+        log.info("Node {} left the cluster", entry.getKey());
+        lastSeen.remove(entry.getKey());
+        nodes.remove(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Handles a heartbeat from a cluster node.
+   */
+  private void handleHeartbeat(Message<JsonObject> message) {
+    if (LEAVE_ACTION.equals(message.headers().get(NetworkCoordinator.ACTION_HEADER))) {
+      String address = message.body().getString("address");
+      nodes.remove(address);
+      lastSeen.remove(address);
+    } else {
+      receive(new NodeInfo(message.body()));
+    }
+  }
+
+  /**
+   * Handles a request to the local node.
+   */
+  private void handleNode(Message<Object> message) {
+    String action = message.headers().get(NetworkCoordinator.ACTION_HEADER);
+    if (action == null) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), "No action specified");
+      return;
+    }
+    switch (action) {
+      case NetworkCoordinator.DEPLOY_ACTION:
+        doDeployInstance(message);
+        break;
+      case NetworkCoordinator.UNDEPLOY_ACTION:
+        doUndeployInstance(message);
+        break;
+      case NetworkCoordinator.UPDATE_ACTION:
+        doUpdateInstance(message);
+        break;
+      default:
+        message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), String.format("Invalid action %s", action));
+    }
+  }
+
+  /**
+   * Deploys a component instance on the local node.
+   */
+  private void doDeployInstance(Message<Object> message) {
+    ComponentContext component;
+    try {
+      component = ComponentContext
+          .builder()
+          .update(((JsonObject) message.body()).getJsonObject("component"))
+          .build();
+      CodecRegistry.registry(vertx).register(component);
+    } catch (Exception e) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), e.getMessage());
+      return;
+    }
+
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, component, true);
+    DeploymentOptions options = new DeploymentOptions()
+        .setConfig(config)
+        .setWorker(component.worker())
+        .setMultiThreaded(component.multiThreaded());
+
+    vertx.deployVerticle(component.main(), options, result -> {
+      ConfigComponentContextManager.release(vertx, config);
+      if (result.failed()) {
+        message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+      } else {
+        synchronized (deployments) {
+          deployments.add(result.result());
+        }
+        message.reply(result.result());
+      }
+    });
+  }
+
+  /**
+   * Undeploys a component instance from the local node.
+   */
+  private void doUndeployInstance(Message<Object> message) {
+    String deploymentId = (String) message.body();
+    vertx.undeploy(deploymentId, result -> {
+      synchronized (deployments) {
+        deployments.remove(deploymentId);
+      }
+      if (result.failed()) {
+        message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+      } else {
+        message.reply(null);
+      }
+    });
+  }
+
+  /**
+   * Forwards an updated context to a component instance on the local node.
+   */
+  private void doUpdateInstance(Message<Object> message) {
+    JsonObject body = (JsonObject) message.body();
+    String address = ConfigComponentContextManager.instanceAddress(body.getString("address"), body.getString("deployment"));
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(NetworkCoordinator.ACTION_HEADER, NetworkCoordinator.UPDATE_ACTION);
+    vertx.eventBus().send(address, body.getJsonObject("config"), options, result -> {
+      if (result.failed()) {
+        message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+      } else {
+        message.reply(null);
+      }
+    });
+  }
+
+  /**
+   * Handles a request to the cluster.
+   */
+  private void handleCluster(Message<Object> message) {
+    String action = message.headers().get(NetworkCoordinator.ACTION_HEADER);
+    if (action == null) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), "No action specified");
+      return;
+    }
+    try {
+      doHandleCluster(action, message);
+    } catch (Exception e) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), e.getMessage());
+    }
+  }
+
+  private void doHandleCluster(String action, Message<Object> message) {
+    switch (action) {
+      case GET_ACTION:
+        coordinator.getNetwork((String) message.body(), result -> {
+          if (result.failed()) {
+            message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+          } else {
+            message.reply(result.result().toJson());
+          }
+        });
+        break;
+      case NetworkCoordinator.DEPLOY_ACTION:
+        coordinator.deployNetwork(network(message), result -> reply(message, result));
+        break;
+      case NetworkCoordinator.UPDATE_ACTION:
+        coordinator.updateNetwork(network(message), result -> reply(message, result));
+        break;
+      case NetworkCoordinator.UNDEPLOY_ACTION:
+        coordinator.undeployNetwork((String) message.body(), result -> reply(message, result));
+        break;
+      case PLACEMENT_ACTION:
+        coordinator.getPlacement((String) message.body(), result -> {
+          if (result.failed()) {
+            message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+          } else {
+            message.reply(result.result().toJson());
+          }
+        });
+        break;
+      case REBALANCE_ACTION:
+        coordinator.rebalanceNetwork((String) message.body(), result -> {
+          if (result.failed()) {
+            message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+          } else {
+            message.reply(result.result().toJson());
+          }
+        });
+        break;
+      case NODES_ACTION:
+        JsonArray nodes = new JsonArray();
+        for (NodeInfo node : members()) {
+          nodes.add(node.toJson());
+        }
+        message.reply(nodes);
+        break;
+      default:
+        message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), String.format("Invalid action %s", action));
+    }
+  }
+
+  private static NetworkContext network(Message<Object> message) {
+    return NetworkContext.builder().update((JsonObject) message.body()).build();
+  }
+
+  private static void reply(Message<Object> message, AsyncResult<Void> result) {
+    if (result.failed()) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), result.cause().getMessage());
+    } else {
+      message.reply(null);
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.cluster.Cluster;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.cluster.PlacementPlan;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.NetworkDiff;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.reference.NetworkReference;
+import net.kuujo.vertigo.reference.impl.NetworkReferenceImpl;
+
+import java.util.List;
+
+/**
+ * Cluster client which sends requests to the cluster over the event bus.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ClusterProxyImpl implements Cluster {
+  private final Vertx vertx;
+  private final ClusterDeploymentManager manager;
+
+  public ClusterProxyImpl(Vertx vertx, String address) {
+    this.vertx = vertx;
+    this.manager = new ClusterDeploymentManager(vertx, address);
+  }
+
+  @Override
+  public Cluster deployNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler) {
+    NetworkContext context;
+    try {
+      context = ContextBuilder.buildContext(network);
+    } catch (Exception e) {
+      Future.<NetworkReference>failedFuture(e).setHandler(doneHandler);
+      return this;
+    }
+    manager.deployNetwork(context, result -> {
+      if (result.failed()) {
+        Future.<NetworkReference>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, context)).setHandler(doneHandler);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public Cluster updateNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler) {
+    manager.getNetwork(network.getName(), currentResult -> {
+      if (currentResult.failed()) {
+        deployNetwork(network, doneHandler);
+        return;
+      }
+
+      NetworkContext current = currentResult.result();
+      NetworkContext updated;
+      try {
+        updated = ContextBuilder.buildContext(network, current);
+      } catch (Exception e) {
+        Future.<NetworkReference>failedFuture(e).setHandler(doneHandler);
+        return;
+      }
+
+      if (NetworkDiff.diff(current, updated).isEmpty()) {
+        Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, current)).setHandler(doneHandler);
+        return;
+      }
+
+      manager.updateNetwork(current, updated, result -> {
+        if (result.failed()) {
+          Future.<NetworkReference>failedFuture(result.cause()).setHandler(doneHandler);
+        } else {
+          Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, updated)).setHandler(doneHandler);
+        }
+      });
+    });
+    return this;
+  }
+
+  @Override
+  public Cluster network(String id, Handler<AsyncResult<NetworkReference>> resultHandler) {
+    manager.getNetworkReference(id, resultHandler);
+    return this;
+  }
+
+  @Override
+  public Cluster placement(String id, Handler<AsyncResult<PlacementPlan>> resultHandler) {
+    manager.getPlacement(id, resultHandler);
+    return this;
+  }
+
+  @Override
+  public Cluster rebalanceNetwork(String id, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    manager.rebalanceNetwork(id, doneHandler);
+    return this;
+  }
+
+  @Override
+  public Cluster nodes(Handler<AsyncResult<List<NodeInfo>>> resultHandler) {
+    manager.getNodes(resultHandler);
+    return this;
+  }
+
+  @Override
+  public Cluster undeployNetwork(String id, Handler<AsyncResult<Void>> doneHandler) {
+    manager.getNetwork(id, result -> {
+      if (result.failed()) {
+        Future.<Void>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        manager.undeployNetwork(result.result(), doneHandler);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public Cluster undeployNetwork(NetworkConfig network, Handler<AsyncResult<Void>> doneHandler) {
+    return undeployNetwork(network.getName(), doneHandler);
+  }
+
+  @Override
+  public void start(Handler<AsyncResult<Void>> doneHandler) {
+    Future.<Void>succeededFuture().setHandler(doneHandler);
+  }
+
+  @Override
+  public void stop(Handler<AsyncResult<Void>> doneHandler) {
+    Future.<Void>succeededFuture().setHandler(doneHandler);
+  }
+
+}
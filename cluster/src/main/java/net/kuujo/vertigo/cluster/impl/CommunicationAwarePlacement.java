@@ -0,0 +1,364 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.context.ComponentContext;
+
+import java.util.*;
+
+/**
+ * Places component instances so as to minimize the traffic between nodes.<p>
+ *
+ * The network's traffic graph is partitioned across nodes in two phases. Components
+ * are first placed greedily, most connected first, each instance on the node which
+ * holds the most traffic with the instances placed so far. Instances are then moved
+ * between nodes for as long as a move reduces cross-node traffic.<p>
+ *
+ * Without a limit every component would be placed on the same node, so each node
+ * accepts at most its configured capacity and at most a fair share of all instances
+ * in the cluster plus an allowed imbalance. Replicas of a component are placed on
+ * distinct nodes where possible.<p>
+ *
+ * Placement is incremental: instances which are already deployed stay on their node
+ * and only new instances are placed, next to the instances they communicate with.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CommunicationAwarePlacement implements PlacementStrategy {
+  private static final double IMBALANCE = 0.25;
+  private static final int MAX_PASSES = 10;
+  private static final double EPSILON = 1e-9;
+
+  @Override
+  public Map<String, List<String>> place(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current, Collection<ComponentContext> components) {
+    Set<String> placing = new TreeSet<>();
+    for (ComponentContext component : components) {
+      placing.add(component.name());
+    }
+
+    Map<String, List<String>> assignments = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : current.entrySet()) {
+      if (!placing.contains(entry.getKey())) {
+        assignments.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+      }
+    }
+
+    int instances = 0;
+    for (String component : placing) {
+      instances += graph.instances(component);
+    }
+
+    Partition partition = new Partition(graph, nodes, current, assignments, instances);
+    for (String component : order(graph, placing, assignments.keySet())) {
+      List<String> componentNodes = new ArrayList<>();
+      assignments.put(component, componentNodes);
+      for (int i = 0; i < graph.instances(component); i++) {
+        String node = partition.best(component, componentNodes, -1);
+        if (node == null) {
+          throw new VertigoException(String.format("Insufficient cluster capacity to place component %s", component));
+        }
+        componentNodes.add(node);
+        partition.add(node, 1);
+      }
+    }
+
+    partition.refine(placing);
+    return assignments;
+  }
+
+  @Override
+  public Map<String, List<String>> rebalance(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current) {
+    Map<String, List<String>> assignments = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : current.entrySet()) {
+      assignments.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    Partition partition = new Partition(graph, nodes, current, assignments, 0);
+    partition.shed();
+    partition.refine(new TreeSet<>(assignments.keySet()));
+    return assignments;
+  }
+
+  /**
+   * Orders components so that each component is placed after the components it
+   * communicates with the most.
+   */
+  private static List<String> order(TrafficGraph graph, Set<String> placing, Set<String> placed) {
+    Map<String, Double> connectivity = new HashMap<>();
+    PriorityQueue<Candidate> queue = new PriorityQueue<>();
+    for (String component : placing) {
+      double weight = 0;
+      for (Map.Entry<String, Double> neighbor : graph.neighbors(component).entrySet()) {
+        if (placed.contains(neighbor.getKey())) {
+          weight += neighbor.getValue();
+        }
+      }
+      connectivity.put(component, weight);
+      queue.add(new Candidate(component, weight, graph.weight(component)));
+    }
+
+    List<String> order = new ArrayList<>();
+    Set<String> remaining = new HashSet<>(placing);
+    while (!remaining.isEmpty()) {
+      Candidate candidate = queue.poll();
+      if (!remaining.contains(candidate.component) || candidate.connectivity != connectivity.get(candidate.component)) {
+        continue;
+      }
+      remaining.remove(candidate.component);
+      order.add(candidate.component);
+      for (Map.Entry<String, Double> neighbor : graph.neighbors(candidate.component).entrySet()) {
+        if (remaining.contains(neighbor.getKey())) {
+          double weight = connectivity.get(neighbor.getKey()) + neighbor.getValue();
+          connectivity.put(neighbor.getKey(), weight);
+          queue.add(new Candidate(neighbor.getKey(), weight, graph.weight(neighbor.getKey())));
+        }
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Component awaiting placement.
+   */
+  private static class Candidate implements Comparable<Candidate> {
+    private final String component;
+    private final double connectivity;
+    private final double weight;
+
+    private Candidate(String component, double connectivity, double weight) {
+      this.component = component;
+      this.connectivity = connectivity;
+      this.weight = weight;
+    }
+
+    @Override
+    public int compareTo(Candidate other) {
+      int result = Double.compare(other.connectivity, connectivity);
+      if (result == 0) {
+        result = Double.compare(other.weight, weight);
+      }
+      return result != 0 ? result : component.compareTo(other.component);
+    }
+  }
+
+  /**
+   * Assignment of component instances to nodes along with node capacities.
+   */
+  private static class Partition {
+    private final TrafficGraph graph;
+    private final Map<String, NodeInfo> nodes = new TreeMap<>();
+    private final Map<String, List<String>> assignments;
+    private final Map<String, Integer> used = new HashMap<>();
+    private final Map<String, Integer> capacity = new HashMap<>();
+
+    private Partition(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current, Map<String, List<String>> assignments, int added) {
+      this.graph = graph;
+      this.assignments = assignments;
+      if (nodes.isEmpty()) {
+        throw new VertigoException("No cluster nodes available");
+      }
+
+      // Reported instance counts include the network's current instances, which are
+      // counted from the assignments instead since they may be moved or replaced.
+      Map<String, Integer> currentCounts = count(current);
+      Map<String, Integer> assignedCounts = count(assignments);
+      int total = added;
+      for (NodeInfo node : nodes) {
+        this.nodes.put(node.getAddress(), node);
+        int other = Math.max(node.getInstances() - currentCounts.getOrDefault(node.getAddress(), 0), 0);
+        used.put(node.getAddress(), other + assignedCounts.getOrDefault(node.getAddress(), 0));
+        total += used.get(node.getAddress());
+      }
+
+      int share = (int) Math.ceil(total * (1 + IMBALANCE) / nodes.size());
+      int room = 0;
+      for (NodeInfo node : nodes) {
+        int limit = node.getCapacity() > 0 ? Math.min(node.getCapacity(), share) : share;
+        capacity.put(node.getAddress(), limit);
+        room += Math.max(limit - used.get(node.getAddress()), 0);
+      }
+
+      // If fair shares leave too little room, only the configured capacities apply.
+      if (room < added) {
+        for (NodeInfo node : nodes) {
+          capacity.put(node.getAddress(), node.getCapacity() > 0 ? node.getCapacity() : Integer.MAX_VALUE);
+        }
+      }
+    }
+
+    private static Map<String, Integer> count(Map<String, List<String>> assignments) {
+      Map<String, Integer> counts = new HashMap<>();
+      for (List<String> nodes : assignments.values()) {
+        for (String node : nodes) {
+          counts.merge(node, 1, Integer::sum);
+        }
+      }
+      return counts;
+    }
+
+    private void add(String node, int count) {
+      used.merge(node, count, Integer::sum);
+    }
+
+    private boolean hasRoom(String node) {
+      return used.get(node) < capacity.get(node);
+    }
+
+    /**
+     * Returns the traffic between an instance of a component and the instances on a node.
+     */
+    private double affinity(String component, String node) {
+      double affinity = 0;
+      for (String neighbor : graph.neighbors(component).keySet()) {
+        List<String> neighborNodes = assignments.get(neighbor);
+        if (neighborNodes != null) {
+          double weight = graph.instanceWeight(component, neighbor);
+          for (String neighborNode : neighborNodes) {
+            if (neighborNode.equals(node)) {
+              affinity += weight;
+            }
+          }
+        }
+      }
+      return affinity;
+    }
+
+    /**
+     * Returns whether an instance of a component may be placed on a node without
+     * placing two replicas on the same node unnecessarily.
+     */
+    private boolean allowed(List<String> componentNodes, int index, String node) {
+      if (componentNodes.size() > nodes.size()) {
+        return true;
+      }
+      for (int i = 0; i < componentNodes.size(); i++) {
+        if (i != index && componentNodes.get(i).equals(node)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private double load(String node) {
+      NodeInfo info = nodes.get(node);
+      return info.getCpu() + info.getHeap() + (double) used.get(node) / Math.max(info.getProcessors(), 1);
+    }
+
+    /**
+     * Returns the node with room for an instance of a component which holds the most
+     * traffic with the component, or the least loaded node if there is a tie.
+     */
+    private String best(String component, List<String> componentNodes, int index) {
+      String best = null;
+      double bestAffinity = 0;
+      boolean bestAllowed = false;
+      for (String node : nodes.keySet()) {
+        if (!hasRoom(node)) {
+          continue;
+        }
+        boolean allowed = allowed(componentNodes, index, node);
+        double affinity = affinity(component, node);
+        if (best == null
+            || (allowed && !bestAllowed)
+            || (allowed == bestAllowed && (affinity > bestAffinity + EPSILON
+                || (Math.abs(affinity - bestAffinity) <= EPSILON && load(node) < load(best))))) {
+          best = node;
+          bestAffinity = affinity;
+          bestAllowed = allowed;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Moves single instances to other nodes for as long as cross-node traffic decreases.
+     */
+    private void refine(Set<String> components) {
+      for (int pass = 0; pass < MAX_PASSES; pass++) {
+        boolean moved = false;
+        for (String component : components) {
+          List<String> componentNodes = assignments.get(component);
+          for (int i = 0; i < componentNodes.size(); i++) {
+            String node = componentNodes.get(i);
+            double affinity = affinity(component, node);
+            String target = null;
+            double gain = EPSILON;
+            for (String candidate : nodes.keySet()) {
+              if (!candidate.equals(node) && hasRoom(candidate) && allowed(componentNodes, i, candidate)) {
+                double candidateGain = affinity(component, candidate) - affinity;
+                if (candidateGain > gain) {
+                  target = candidate;
+                  gain = candidateGain;
+                }
+              }
+            }
+            if (target != null) {
+              componentNodes.set(i, target);
+              add(node, -1);
+              add(target, 1);
+              moved = true;
+            }
+          }
+        }
+        if (!moved) {
+          break;
+        }
+      }
+    }
+
+    /**
+     * Moves instances off nodes which exceed their capacity, losing as little
+     * traffic as possible.
+     */
+    private void shed() {
+      for (String node : nodes.keySet()) {
+        while (used.get(node) > capacity.get(node)) {
+          String bestComponent = null;
+          int bestIndex = -1;
+          String bestTarget = null;
+          double bestGain = -Double.MAX_VALUE;
+          for (Map.Entry<String, List<String>> entry : new TreeMap<>(assignments).entrySet()) {
+            List<String> componentNodes = entry.getValue();
+            for (int i = 0; i < componentNodes.size(); i++) {
+              if (componentNodes.get(i).equals(node)) {
+                double affinity = affinity(entry.getKey(), node);
+                for (String candidate : nodes.keySet()) {
+                  if (!candidate.equals(node) && hasRoom(candidate) && allowed(componentNodes, i, candidate)) {
+                    double gain = affinity(entry.getKey(), candidate) - affinity;
+                    if (gain > bestGain) {
+                      bestComponent = entry.getKey();
+                      bestIndex = i;
+                      bestTarget = candidate;
+                      bestGain = gain;
+                    }
+                  }
+                }
+              }
+            }
+          }
+          if (bestComponent == null) {
+            break;
+          }
+          assignments.get(bestComponent).set(bestIndex, bestTarget);
+          add(node, -1);
+          add(bestTarget, 1);
+        }
+      }
+    }
+  }
+
+}
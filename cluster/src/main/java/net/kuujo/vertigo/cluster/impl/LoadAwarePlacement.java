@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.context.ComponentContext;
+
+import java.util.*;
+
+/**
+ * Places component instances on the least loaded cluster nodes.<p>
+ *
+ * A node's load is the sum of its reported CPU load, its heap usage and the number
+ * of instances it runs per processor. Each instance placed adds to the load of its
+ * node so that a single deployment is spread across the cluster even though node
+ * load is only reported periodically. Replicas of a component are placed on distinct
+ * nodes where possible, and nodes never receive more instances than their capacity.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class LoadAwarePlacement implements PlacementStrategy {
+
+  @Override
+  public Map<String, List<String>> place(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current, Collection<ComponentContext> components) {
+    if (nodes.isEmpty()) {
+      throw new VertigoException("No cluster nodes available");
+    }
+
+    Map<String, Double> load = new HashMap<>();
+    Map<String, Double> instanceLoad = new HashMap<>();
+    Map<String, Integer> room = new HashMap<>();
+    for (NodeInfo node : nodes) {
+      int processors = Math.max(node.getProcessors(), 1);
+      load.put(node.getAddress(), node.getCpu() + node.getHeap() + (double) node.getInstances() / processors);
+      instanceLoad.put(node.getAddress(), 1.0 / processors);
+      room.put(node.getAddress(), node.getCapacity() > 0 ? node.getCapacity() - node.getInstances() : Integer.MAX_VALUE);
+    }
+
+    // Components are placed in a stable order so that placement is deterministic.
+    List<ComponentContext> sorted = new ArrayList<>(components);
+    sorted.sort(Comparator.comparing(ComponentContext::name));
+
+    Map<String, List<String>> placement = new HashMap<>(current);
+    for (ComponentContext component : sorted) {
+      List<String> instances = new ArrayList<>();
+      for (int i = 0; i < Math.max(component.replicas(), 1); i++) {
+        String node = leastLoaded(load, room, instances.size() < load.size() ? instances : Collections.emptyList());
+        if (node == null) {
+          node = leastLoaded(load, room, Collections.emptyList());
+        }
+        if (node == null) {
+          throw new VertigoException(String.format("Insufficient cluster capacity to place component %s", component.name()));
+        }
+        load.put(node, load.get(node) + instanceLoad.get(node));
+        room.put(node, room.get(node) - 1);
+        instances.add(node);
+      }
+      placement.put(component.name(), instances);
+    }
+    return placement;
+  }
+
+  /**
+   * Returns the least loaded node with room for an instance, ignoring excluded nodes.
+   */
+  private static String leastLoaded(Map<String, Double> load, Map<String, Integer> room, Collection<String> excluded) {
+    String selected = null;
+    double lowest = Double.MAX_VALUE;
+    for (Map.Entry<String, Double> entry : new TreeMap<>(load).entrySet()) {
+      if (!excluded.contains(entry.getKey()) && room.get(entry.getKey()) > 0 && entry.getValue() < lowest) {
+        selected = entry.getKey();
+        lowest = entry.getValue();
+      }
+    }
+    return selected;
+  }
+
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.cluster.PlacementPlan;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.NetworkDiff;
+import net.kuujo.vertigo.deployment.impl.ConfigComponentContextManager;
+import net.kuujo.vertigo.util.CountingCompletionHandler;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates the deployment of networks across cluster nodes.<p>
+ *
+ * Every node in the cluster can coordinate a deployment. Component instances are
+ * placed on nodes by a {@link PlacementStrategy} and deployed by sending deployment
+ * requests to the nodes. Placement is incremental: when a network is updated, only
+ * new and changed components are placed and all other instances stay where they are.
+ * The network context and the deployment ID of each instance are stored in the
+ * {@link NetworkRegistry} so that any node can later update or undeploy the network.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class NetworkCoordinator {
+  private static final Logger log = LoggerFactory.getLogger(NetworkCoordinator.class);
+  static final String ACTION_HEADER = "action";
+  static final String DEPLOY_ACTION = "deploy";
+  static final String UNDEPLOY_ACTION = "undeploy";
+  static final String UPDATE_ACTION = "update";
+  private static final long DEPLOY_TIMEOUT = 60000;
+  private final Vertx vertx;
+  private final NetworkRegistry registry;
+  private final PlacementStrategy placement;
+  private final TrafficMonitor traffic;
+  private final Supplier<Collection<NodeInfo>> nodes;
+
+  NetworkCoordinator(Vertx vertx, NetworkRegistry registry, PlacementStrategy placement, TrafficMonitor traffic, Supplier<Collection<NodeInfo>> nodes) {
+    this.vertx = vertx;
+    this.registry = registry;
+    this.placement = placement;
+    this.traffic = traffic;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Loads a deployed network.
+   *
+   * @param name The network name.
+   * @param doneHandler A handler to be called with the network context.
+   */
+  void getNetwork(String name, Handler<AsyncResult<NetworkContext>> doneHandler) {
+    registry.get(name, result -> {
+      if (result.failed()) {
+        Future.<NetworkContext>failedFuture(result.cause()).setHandler(doneHandler);
+      } else if (result.result() == null) {
+        Future.<NetworkContext>failedFuture(new VertigoException(String.format("Invalid network %s: NetworkConfig not found", name))).setHandler(doneHandler);
+      } else {
+        Future.succeededFuture(context(result.result())).setHandler(doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Deploys a network to the cluster.
+   *
+   * @param network The network to deploy.
+   * @param doneHandler A handler to be called once the network has been deployed.
+   */
+  void deployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler) {
+    registry.putIfAbsent(network.name(), entry(network, new ArrayList<>()), registered -> {
+      if (registered.failed()) {
+        Future.<Void>failedFuture(registered.cause()).setHandler(doneHandler);
+      } else if (registered.result() != null) {
+        Future.<Void>failedFuture(new VertigoException(String.format("Network %s is already deployed", network.name()))).setHandler(doneHandler);
+      } else {
+        List<JsonObject> deployments = new ArrayList<>();
+        deployComponents(network, network.components(), deployments, deployed -> {
+          if (deployed.failed()) {
+            // Roll back the instances which were deployed before the failure.
+            undeployComponents(names(network.components()), deployments, undeployed -> {
+              registry.remove(network.name(), removed -> Future.<Void>failedFuture(deployed.cause()).setHandler(doneHandler));
+            });
+          } else {
+            registry.put(network.name(), entry(network, deployments), doneHandler);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Updates a network deployed in the cluster.<p>
+   *
+   * New components are deployed before existing components are connected to them, and
+   * removed components are undeployed once no other component is connected to them.
+   *
+   * @param updated The updated network.
+   * @param doneHandler A handler to be called once the network has been updated.
+   */
+  void updateNetwork(NetworkContext updated, Handler<AsyncResult<Void>> doneHandler) {
+    registry.get(updated.name(), loaded -> {
+      if (loaded.failed()) {
+        Future.<Void>failedFuture(loaded.cause()).setHandler(doneHandler);
+        return;
+      }
+      if (loaded.result() == null) {
+        deployNetwork(updated, doneHandler);
+        return;
+      }
+
+      NetworkContext current = context(loaded.result());
+      List<JsonObject> deployments = deployments(loaded.result());
+      NetworkDiff diff = NetworkDiff.diff(current, updated);
+
+      deployComponents(updated, diff.added(), deployments, deployed -> {
+        if (deployed.failed()) {
+          rollbackUpdate(current, diff, Collections.emptyList(), deployments, deployed.cause(), doneHandler);
+          return;
+        }
+
+        CountingCompletionHandler<Void> reconnected = new CountingCompletionHandler<Void>(diff.reconnected().size()).setHandler(updateResult -> {
+          if (updateResult.failed()) {
+            rollbackUpdate(current, diff, diff.reconnected(), deployments, updateResult.cause(), doneHandler);
+            return;
+          }
+
+          // Existing components are now connected as in the updated network, so from here on
+          // the updated network is stored along with whichever instances are deployed.
+          Set<String> undeploy = names(diff.removed());
+          undeploy.addAll(names(diff.redeployed()));
+          undeployComponents(undeploy, deployments, undeployed -> {
+            if (undeployed.failed()) {
+              registry.put(updated.name(), entry(updated, deployments), registered -> doneHandler.handle(undeployed));
+              return;
+            }
+            deployComponents(updated, diff.redeployed(), deployments, redeployed -> {
+              registry.put(updated.name(), entry(updated, deployments), registered -> {
+                if (redeployed.failed()) {
+                  doneHandler.handle(redeployed);
+                } else {
+                  doneHandler.handle(registered);
+                }
+              });
+            });
+          });
+        });
+
+        for (ComponentContext component : diff.reconnected()) {
+          updateComponent(component, deployments, reconnected);
+        }
+      });
+    });
+  }
+
+  /**
+   * Rolls back an update which failed before existing components were all connected
+   * to the updated network. Added components are undeployed, reconnected components
+   * are sent their current context, and the current network is stored along with the
+   * instances which remain deployed.
+   */
+  private void rollbackUpdate(NetworkContext current, NetworkDiff diff, Collection<ComponentContext> reconnected, List<JsonObject> deployments, Throwable cause, Handler<AsyncResult<Void>> doneHandler) {
+    undeployComponents(names(diff.added()), deployments, undeployed -> {
+      CountingCompletionHandler<Void> restored = new CountingCompletionHandler<Void>(reconnected.size()).setHandler(result -> {
+        registry.put(current.name(), entry(current, deployments), registered -> Future.<Void>failedFuture(cause).setHandler(doneHandler));
+      });
+      for (ComponentContext component : reconnected) {
+        updateComponent(current.component(component.name()), deployments, restored);
+      }
+    });
+  }
+
+  /**
+   * Undeploys a network from the cluster.
+   *
+   * @param name The network name.
+   * @param doneHandler A handler to be called once the network has been undeployed.
+   */
+  void undeployNetwork(String name, Handler<AsyncResult<Void>> doneHandler) {
+    registry.get(name, loaded -> {
+      if (loaded.failed()) {
+        Future.<Void>failedFuture(loaded.cause()).setHandler(doneHandler);
+      } else if (loaded.result() == null) {
+        Future.<Void>failedFuture(new VertigoException(String.format("Invalid network %s: NetworkConfig not found", name))).setHandler(doneHandler);
+      } else {
+        NetworkContext network = context(loaded.result());
+        List<JsonObject> deployments = deployments(loaded.result());
+        // Undeploy every recorded instance, including instances of components removed
+        // by an update which failed part way.
+        undeployInstances(new ArrayList<>(deployments), deployments, undeployed -> {
+          if (undeployed.failed()) {
+            registry.put(name, entry(network, deployments), registered -> doneHandler.handle(undeployed));
+          } else {
+            registry.remove(name, doneHandler);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Returns the placement of a network's component instances.
+   *
+   * @param name The network name.
+   * @param doneHandler A handler to be called with the placement plan.
+   */
+  void getPlacement(String name, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    registry.get(name, loaded -> {
+      if (loaded.failed()) {
+        Future.<PlacementPlan>failedFuture(loaded.cause()).setHandler(doneHandler);
+      } else if (loaded.result() == null) {
+        Future.<PlacementPlan>failedFuture(new VertigoException(String.format("Invalid network %s: NetworkConfig not found", name))).setHandler(doneHandler);
+      } else {
+        TrafficGraph graph = new TrafficGraph(context(loaded.result()), traffic);
+        Future.succeededFuture(graph.plan(assignments(deployments(loaded.result())))).setHandler(doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Replans the placement of a network's component instances and moves instances
+   * whose node changed. Moved instances are deployed on their new node before they
+   * are undeployed from their old node.
+   *
+   * @param name The network name.
+   * @param doneHandler A handler to be called with the new placement plan.
+   */
+  void rebalanceNetwork(String name, Handler<AsyncResult<PlacementPlan>> doneHandler) {
+    registry.get(name, loaded -> {
+      if (loaded.failed()) {
+        Future.<PlacementPlan>failedFuture(loaded.cause()).setHandler(doneHandler);
+        return;
+      }
+      if (loaded.result() == null) {
+        Future.<PlacementPlan>failedFuture(new VertigoException(String.format("Invalid network %s: NetworkConfig not found", name))).setHandler(doneHandler);
+        return;
+      }
+
+      NetworkContext network = context(loaded.result());
+      List<JsonObject> deployments = deployments(loaded.result());
+      TrafficGraph graph = new TrafficGraph(network, traffic);
+      Map<String, List<String>> plan;
+      try {
+        plan = placement.rebalance(graph, nodes.get(), assignments(deployments));
+      } catch (VertigoException e) {
+        Future.<PlacementPlan>failedFuture(e).setHandler(doneHandler);
+        return;
+      }
+
+      // Match the planned instances against the deployed instances per component.
+      List<JsonObject> moved = new ArrayList<>();
+      Map<ComponentContext, List<String>> added = new HashMap<>();
+      for (ComponentContext component : network.components()) {
+        List<String> planned = new ArrayList<>(plan.getOrDefault(component.name(), Collections.emptyList()));
+        for (JsonObject deployment : deployments) {
+          if (deployment.getString("component").equals(component.name()) && !planned.remove(deployment.getString("node"))) {
+            moved.add(deployment);
+          }
+        }
+        if (!planned.isEmpty()) {
+          added.put(component, planned);
+        }
+      }
+
+      deployInstances(added, deployments, deployed -> {
+        if (deployed.failed()) {
+          registry.put(name, entry(network, deployments), registered -> Future.<PlacementPlan>failedFuture(deployed.cause()).setHandler(doneHandler));
+          return;
+        }
+        undeployInstances(moved, deployments, undeployed -> {
+          registry.put(name, entry(network, deployments), registered -> {
+            if (undeployed.failed()) {
+              Future.<PlacementPlan>failedFuture(undeployed.cause()).setHandler(doneHandler);
+            } else if (registered.failed()) {
+              Future.<PlacementPlan>failedFuture(registered.cause()).setHandler(doneHandler);
+            } else {
+              Future.succeededFuture(graph.plan(assignments(deployments))).setHandler(doneHandler);
+            }
+          });
+        });
+      });
+    });
+  }
+
+  /**
+   * Places and deploys all instances of a set of components. Instances of other
+   * components of the network stay where they are.
+   */
+  private void deployComponents(NetworkContext network, Collection<ComponentContext> components, List<JsonObject> deployments, Handler<AsyncResult<Void>> doneHandler) {
+    if (components.isEmpty()) {
+      Future.<Void>succeededFuture().setHandler(doneHandler);
+      return;
+    }
+
+    Map<String, List<String>> plan;
+    try {
+      plan = placement.place(new TrafficGraph(network, traffic), nodes.get(), assignments(deployments), components);
+    } catch (VertigoException e) {
+      Future.<Void>failedFuture(e).setHandler(doneHandler);
+      return;
+    }
+
+    Map<ComponentContext, List<String>> instances = new HashMap<>();
+    for (ComponentContext component : components) {
+      instances.put(component, plan.get(component.name()));
+    }
+    deployInstances(instances, deployments, doneHandler);
+  }
+
+  /**
+   * Deploys component instances on the given nodes.
+   */
+  private void deployInstances(Map<ComponentContext, List<String>> instances, List<JsonObject> deployments, Handler<AsyncResult<Void>> doneHandler) {
+    int count = 0;
+    for (List<String> nodes : instances.values()) {
+      count += nodes.size();
+    }
+
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(count).setHandler(doneHandler);
+    for (Map.Entry<ComponentContext, List<String>> entry : instances.entrySet()) {
+      ComponentContext component = entry.getKey();
+      for (String node : entry.getValue()) {
+        deployInstance(node, component, result -> {
+          if (result.failed()) {
+            counter.fail(result.cause());
+          } else {
+            deployments.add(new JsonObject()
+                .put("component", component.name())
+                .put("node", node)
+                .put("deployment", result.result()));
+            counter.succeed();
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Deploys a single component instance on a node.
+   */
+  private void deployInstance(String node, ComponentContext component, Handler<AsyncResult<String>> doneHandler) {
+    log.debug("Deploying instance of {} on node {}", component.name(), node);
+    JsonObject message = new JsonObject().put("component", component.toJson());
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(ACTION_HEADER, DEPLOY_ACTION)
+        .setSendTimeout(DEPLOY_TIMEOUT);
+    vertx.eventBus().<String>send(node, message, options, result -> {
+      if (result.failed()) {
+        Future.<String>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.succeededFuture(result.result().body()).setHandler(doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Undeploys all instances of a set of components.
+   */
+  private void undeployComponents(Set<String> components, List<JsonObject> deployments, Handler<AsyncResult<Void>> doneHandler) {
+    List<JsonObject> undeploy = new ArrayList<>();
+    for (JsonObject deployment : deployments) {
+      if (components.contains(deployment.getString("component"))) {
+        undeploy.add(deployment);
+      }
+    }
+    undeployInstances(undeploy, deployments, doneHandler);
+  }
+
+  /**
+   * Undeploys component instances.
+   */
+  private void undeployInstances(List<JsonObject> undeploy, List<JsonObject> deployments, Handler<AsyncResult<Void>> doneHandler) {
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(undeploy.size()).setHandler(doneHandler);
+    for (JsonObject deployment : undeploy) {
+      DeliveryOptions options = new DeliveryOptions()
+          .addHeader(ACTION_HEADER, UNDEPLOY_ACTION)
+          .setSendTimeout(DEPLOY_TIMEOUT);
+      vertx.eventBus().send(deployment.getString("node"), deployment.getString("deployment"), options, result -> {
+        // If the node has left the cluster its instances are gone along with it.
+        if (result.failed() && !isNoHandlers(result.cause())) {
+          counter.fail(result.cause());
+        } else {
+          deployments.remove(deployment);
+          counter.succeed();
+        }
+      });
+    }
+  }
+
+  /**
+   * Sends an updated context to all instances of a component.<p>
+   *
+   * Replicas share the component address, so updates for replicated components are sent
+   * to each instance through the node on which it's deployed, and the update succeeds
+   * once every instance has replied.
+   */
+  private void updateComponent(ComponentContext component, List<JsonObject> deployments, Handler<AsyncResult<Void>> doneHandler) {
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, component, false);
+    if (component.replicas() > 1) {
+      List<JsonObject> instances = new ArrayList<>();
+      for (JsonObject deployment : deployments) {
+        if (component.name().equals(deployment.getString("component"))) {
+          instances.add(deployment);
+        }
+      }
+      CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(instances.size()).setHandler(doneHandler);
+      for (JsonObject deployment : instances) {
+        updateInstance(deployment.getString("node"), deployment.getString("deployment"), component, config, counter);
+      }
+    } else {
+      DeliveryOptions options = new DeliveryOptions().addHeader(ACTION_HEADER, UPDATE_ACTION);
+      vertx.eventBus().send(component.address(), config, options, result -> {
+        if (result.failed()) {
+          Future.<Void>failedFuture(result.cause()).setHandler(doneHandler);
+        } else {
+          Future.<Void>succeededFuture().setHandler(doneHandler);
+        }
+      });
+    }
+  }
+
+  /**
+   * Sends an updated context to a single component instance through its node.
+   */
+  private void updateInstance(String node, String deployment, ComponentContext component, JsonObject config, Handler<AsyncResult<Void>> doneHandler) {
+    JsonObject message = new JsonObject()
+        .put("deployment", deployment)
+        .put("address", component.address())
+        .put("config", config);
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(ACTION_HEADER, UPDATE_ACTION)
+        .setSendTimeout(DEPLOY_TIMEOUT);
+    vertx.eventBus().send(node, message, options, result -> {
+      // If the node has left the cluster its instances are gone along with it.
+      if (result.failed() && !isNoHandlers(result.cause())) {
+        Future.<Void>failedFuture(result.cause()).setHandler(doneHandler);
+      } else {
+        Future.<Void>succeededFuture().setHandler(doneHandler);
+      }
+    });
+  }
+
+  private static boolean isNoHandlers(Throwable cause) {
+    return cause instanceof ReplyException && ((ReplyException) cause).failureType() == ReplyFailure.NO_HANDLERS;
+  }
+
+  private static Set<String> names(Collection<ComponentContext> components) {
+    Set<String> names = new HashSet<>();
+    for (ComponentContext component : components) {
+      names.add(component.name());
+    }
+    return names;
+  }
+
+  private static JsonObject entry(NetworkContext network, List<JsonObject> deployments) {
+    return new JsonObject()
+        .put("network", network.toJson())
+        .put("deployments", new JsonArray(new ArrayList<>(deployments)));
+  }
+
+  private static NetworkContext context(JsonObject entry) {
+    return NetworkContext.builder().update(entry.getJsonObject("network")).build();
+  }
+
+  private static Map<String, List<String>> assignments(List<JsonObject> deployments) {
+    Map<String, List<String>> assignments = new HashMap<>();
+    for (JsonObject deployment : deployments) {
+      assignments.computeIfAbsent(deployment.getString("component"), c -> new ArrayList<>()).add(deployment.getString("node"));
+    }
+    return assignments;
+  }
+
+  private static List<JsonObject> deployments(JsonObject entry) {
+    List<JsonObject> deployments = new ArrayList<>();
+    for (Object deployment : entry.getJsonArray("deployments", new JsonArray())) {
+      deployments.add((JsonObject) deployment);
+    }
+    return deployments;
+  }
+
+}
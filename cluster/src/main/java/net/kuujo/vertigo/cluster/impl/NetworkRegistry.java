@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.core.shareddata.LocalMap;
+
+/**
+ * Cluster-wide registry of deployed networks.<p>
+ *
+ * Networks are stored in a cluster-wide map when Vert.x is clustered so that any
+ * node can load, update or undeploy a network. Otherwise networks are stored in a
+ * local map.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class NetworkRegistry {
+  private final Vertx vertx;
+  private final String name;
+  private AsyncMap<String, JsonObject> clusterMap;
+
+  NetworkRegistry(Vertx vertx, String name) {
+    this.vertx = vertx;
+    this.name = name;
+  }
+
+  /**
+   * Loads the underlying cluster-wide map.
+   */
+  private void map(Handler<AsyncResult<AsyncMap<String, JsonObject>>> handler) {
+    if (clusterMap != null) {
+      Future.succeededFuture(clusterMap).setHandler(handler);
+    } else {
+      vertx.sharedData().<String, JsonObject>getClusterWideMap(name, result -> {
+        if (result.succeeded()) {
+          clusterMap = result.result();
+        }
+        handler.handle(result);
+      });
+    }
+  }
+
+  private LocalMap<String, JsonObject> localMap() {
+    return vertx.sharedData().getLocalMap(name);
+  }
+
+  /**
+   * Gets a network entry.
+   *
+   * @param network The network name.
+   * @param handler A handler to be called with the entry or {@code null} if the network is not registered.
+   */
+  void get(String network, Handler<AsyncResult<JsonObject>> handler) {
+    if (!vertx.isClustered()) {
+      Future.succeededFuture(localMap().get(network)).setHandler(handler);
+    } else {
+      map(result -> {
+        if (result.failed()) {
+          Future.<JsonObject>failedFuture(result.cause()).setHandler(handler);
+        } else {
+          result.result().get(network, handler);
+        }
+      });
+    }
+  }
+
+  /**
+   * Registers a network entry if the network is not already registered.
+   *
+   * @param network The network name.
+   * @param entry The network entry.
+   * @param handler A handler to be called with the existing entry or {@code null} if the entry was registered.
+   */
+  void putIfAbsent(String network, JsonObject entry, Handler<AsyncResult<JsonObject>> handler) {
+    if (!vertx.isClustered()) {
+      Future.succeededFuture(localMap().putIfAbsent(network, entry)).setHandler(handler);
+    } else {
+      map(result -> {
+        if (result.failed()) {
+          Future.<JsonObject>failedFuture(result.cause()).setHandler(handler);
+        } else {
+          result.result().putIfAbsent(network, entry, handler);
+        }
+      });
+    }
+  }
+
+  /**
+   * Registers a network entry.
+   *
+   * @param network The network name.
+   * @param entry The network entry.
+   * @param handler A handler to be called once the entry has been registered.
+   */
+  void put(String network, JsonObject entry, Handler<AsyncResult<Void>> handler) {
+    if (!vertx.isClustered()) {
+      localMap().put(network, entry);
+      Future.<Void>succeededFuture().setHandler(handler);
+    } else {
+      map(result -> {
+        if (result.failed()) {
+          Future.<Void>failedFuture(result.cause()).setHandler(handler);
+        } else {
+          result.result().put(network, entry, handler);
+        }
+      });
+    }
+  }
+
+  /**
+   * Removes a network entry.
+   *
+   * @param network The network name.
+   * @param handler A handler to be called once the entry has been removed.
+   */
+  void remove(String network, Handler<AsyncResult<Void>> handler) {
+    if (!vertx.isClustered()) {
+      localMap().remove(network);
+      Future.<Void>succeededFuture().setHandler(handler);
+    } else {
+      map(result -> {
+        if (result.failed()) {
+          Future.<Void>failedFuture(result.cause()).setHandler(handler);
+        } else {
+          result.result().remove(network, removed -> {
+            if (removed.failed()) {
+              Future.<Void>failedFuture(removed.cause()).setHandler(handler);
+            } else {
+              Future.<Void>succeededFuture().setHandler(handler);
+            }
+          });
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.context.ComponentContext;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strategy for placing component instances on cluster nodes.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface PlacementStrategy {
+
+  /**
+   * Places the instances of a set of components on cluster nodes.<p>
+   *
+   * Instances of other components of the network keep their current nodes.
+   *
+   * @param graph The traffic graph of the network.
+   * @param nodes The available cluster nodes.
+   * @param current The current nodes of the network's deployed component instances.
+   * @param components The components to place.
+   * @return A map of component names to the node of each component instance for the whole network.
+   */
+  Map<String, List<String>> place(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current, Collection<ComponentContext> components);
+
+  /**
+   * Replans the placement of all of a network's component instances.
+   *
+   * @param graph The traffic graph of the network.
+   * @param nodes The available cluster nodes.
+   * @param current The current nodes of the network's component instances.
+   * @return A map of component names to the node of each component instance.
+   */
+  default Map<String, List<String>> rebalance(TrafficGraph graph, Collection<NodeInfo> nodes, Map<String, List<String>> current) {
+    return current;
+  }
+
+}
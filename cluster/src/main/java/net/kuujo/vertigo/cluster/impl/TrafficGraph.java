@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import net.kuujo.vertigo.cluster.PlacementPlan;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.context.OutputPortContext;
+
+import java.util.*;
+
+/**
+ * Weighted graph of the traffic between a network's components.<p>
+ *
+ * Each connection between two components has a weight of one plus the observed
+ * message rate of the connection, so that placement follows the connection graph
+ * until rates have been observed and follows the rates afterwards. Messages sent to
+ * a component are spread over its replicas, so the traffic between two instances is
+ * the traffic between their components divided among all pairs of instances.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TrafficGraph {
+  private final Map<String, ComponentContext> components = new HashMap<>();
+  private final Map<String, Map<String, Double>> weights = new HashMap<>();
+
+  /**
+   * Creates a traffic graph which weighs each connection by the connection graph alone.
+   *
+   * @param network The network context.
+   */
+  public TrafficGraph(NetworkContext network) {
+    this(network, null);
+  }
+
+  TrafficGraph(NetworkContext network, TrafficMonitor monitor) {
+    for (ComponentContext component : network.components()) {
+      components.put(component.name(), component);
+    }
+    for (ComponentContext component : network.components()) {
+      for (OutputPortContext port : component.output().ports()) {
+        for (OutputConnectionContext connection : port.connections()) {
+          String target = connection.target().component();
+          if (target != null && components.containsKey(target) && !target.equals(component.name())) {
+            double rate = monitor != null ? monitor.rate(component.address(), connection.target().address()) : 0;
+            add(component.name(), target, 1 + rate);
+          }
+        }
+      }
+    }
+  }
+
+  private void add(String source, String target, double weight) {
+    weights.computeIfAbsent(source, c -> new HashMap<>()).merge(target, weight, Double::sum);
+    weights.computeIfAbsent(target, c -> new HashMap<>()).merge(source, weight, Double::sum);
+  }
+
+  /**
+   * Returns the components in the graph.
+   */
+  Collection<ComponentContext> components() {
+    return components.values();
+  }
+
+  /**
+   * Returns the number of instances of a component.
+   */
+  int instances(String component) {
+    ComponentContext context = components.get(component);
+    return context != null ? Math.max(context.replicas(), 1) : 1;
+  }
+
+  /**
+   * Returns the components connected to a component along with the traffic between them.
+   */
+  Map<String, Double> neighbors(String component) {
+    Map<String, Double> neighbors = weights.get(component);
+    return neighbors != null ? neighbors : Collections.emptyMap();
+  }
+
+  /**
+   * Returns the total traffic between a component and its neighbors.
+   */
+  double weight(String component) {
+    double weight = 0;
+    for (double neighbor : neighbors(component).values()) {
+      weight += neighbor;
+    }
+    return weight;
+  }
+
+  /**
+   * Returns the traffic between a single instance of each of two components.
+   */
+  double instanceWeight(String component, String neighbor) {
+    Double weight = neighbors(component).get(neighbor);
+    return weight != null ? weight / (instances(component) * instances(neighbor)) : 0;
+  }
+
+  /**
+   * Creates a placement plan from component instance assignments.
+   *
+   * @param assignments A map of component names to the node of each component instance.
+   * @return The placement plan including the estimated traffic between instances.
+   */
+  public PlacementPlan plan(Map<String, List<String>> assignments) {
+    double traffic = 0;
+    double crossNodeTraffic = 0;
+    for (Map.Entry<String, Map<String, Double>> component : weights.entrySet()) {
+      List<String> sourceNodes = assignments.getOrDefault(component.getKey(), Collections.emptyList());
+      for (String neighbor : component.getValue().keySet()) {
+        // Each edge is stored in both directions, so only count it once.
+        if (component.getKey().compareTo(neighbor) < 0) {
+          double weight = instanceWeight(component.getKey(), neighbor);
+          for (String sourceNode : sourceNodes) {
+            for (String targetNode : assignments.getOrDefault(neighbor, Collections.emptyList())) {
+              traffic += weight;
+              if (!sourceNode.equals(targetNode)) {
+                crossNodeTraffic += weight;
+              }
+            }
+          }
+        }
+      }
+    }
+    return new PlacementPlan()
+        .setAssignments(assignments)
+        .setTraffic(traffic)
+        .setCrossNodeTraffic(crossNodeTraffic);
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.cluster.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.metrics.Metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observes message rates between components from published component metrics.<p>
+ *
+ * Components publish their metrics when a metrics interval is configured. The number
+ * of messages sent on each output connection is sampled from the metrics and turned
+ * into a smoothed rate per source and target address.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class TrafficMonitor {
+  private static final double SMOOTHING = 0.5;
+  private final Vertx vertx;
+  private final Map<String, Map<String, Sample>> samples = new ConcurrentHashMap<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  TrafficMonitor(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * Starts observing component metrics.
+   */
+  void start() {
+    if (consumer == null) {
+      consumer = vertx.eventBus().consumer(Metrics.METRICS_ADDRESS, this::handleMetrics);
+    }
+  }
+
+  /**
+   * Stops observing component metrics.
+   */
+  void stop() {
+    if (consumer != null) {
+      consumer.unregister();
+      consumer = null;
+    }
+  }
+
+  /**
+   * Returns the observed message rate between two components.
+   *
+   * @param source The source component address.
+   * @param target The target component address.
+   * @return The observed rate in messages per second or {@code 0} if no rate has been observed.
+   */
+  double rate(String source, String target) {
+    Map<String, Sample> targets = samples.get(source);
+    if (targets != null) {
+      Sample sample = targets.get(target);
+      if (sample != null) {
+        return sample.rate;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Records the message counts from published component metrics.
+   */
+  private void handleMetrics(Message<JsonObject> message) {
+    String source = message.body().getString("address");
+    Long timestamp = message.body().getLong("timestamp");
+    JsonObject metrics = message.body().getJsonObject("metrics");
+    if (source == null || timestamp == null || metrics == null) {
+      return;
+    }
+    JsonObject output = metrics.getJsonObject("output", new JsonObject());
+    Map<String, Sample> targets = samples.computeIfAbsent(source, s -> new ConcurrentHashMap<>());
+
+    // Counts for the same target on different ports are summed.
+    Map<String, Long> counts = new HashMap<>();
+    for (String port : output.fieldNames()) {
+      Object portMetrics = output.getValue(port);
+      if (portMetrics instanceof JsonObject) {
+        for (String target : ((JsonObject) portMetrics).fieldNames()) {
+          Object connection = ((JsonObject) portMetrics).getValue(target);
+          if (connection instanceof JsonObject && ((JsonObject) connection).getValue("sent") instanceof Number) {
+            counts.merge(target, ((JsonObject) connection).getLong("sent"), Long::sum);
+          }
+        }
+      }
+    }
+
+    for (Map.Entry<String, Long> count : counts.entrySet()) {
+      Sample sample = targets.computeIfAbsent(count.getKey(), t -> new Sample());
+      sample.update(count.getValue(), timestamp);
+    }
+  }
+
+  /**
+   * Message count sample for a single connection.
+   */
+  private static class Sample {
+    private long count = -1;
+    private long timestamp;
+    private volatile double rate;
+
+    private synchronized void update(long count, long timestamp) {
+      if (this.count >= 0 && timestamp > this.timestamp) {
+        // A lower count means the component was restarted.
+        double current = count >= this.count ? (count - this.count) * 1000.0 / (timestamp - this.timestamp) : 0;
+        rate = rate * (1 - SMOOTHING) + current * SMOOTHING;
+      }
+      this.count = count;
+      this.timestamp = timestamp;
+    }
+  }
+
+}
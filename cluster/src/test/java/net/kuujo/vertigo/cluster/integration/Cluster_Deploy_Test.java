@@ -0,0 +1,245 @@
+package net.kuujo.vertigo.cluster.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.test.core.VertxTestBase;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import net.kuujo.vertigo.cluster.Cluster;
+import net.kuujo.vertigo.cluster.ClusterOptions;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.cluster.PlacementPlan;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class Cluster_Deploy_Test extends VertxTestBase {
+  static final int NODES = 3;
+  static final String CLUSTER = "vertigo.test";
+
+  @Override
+  protected ClusterManager getClusterManager() {
+    return new FakeClusterManager();
+  }
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    startNodes(NODES);
+    for (int i = 0; i < NODES; i++) {
+      CompletableFuture<Void> started = new CompletableFuture<>();
+      Cluster cluster = Cluster.create(vertices[i], new ClusterOptions()
+          .setClusterAddress(CLUSTER)
+          .setNodeAddress("node-" + i)
+          .setHeartbeatInterval(50));
+      cluster.start(result -> started.complete(null));
+      started.join();
+    }
+    waitUntil(() -> nodes().size() == NODES);
+  }
+
+  private List<NodeInfo> nodes() {
+    CompletableFuture<List<NodeInfo>> nodes = new CompletableFuture<>();
+    Cluster.createProxy(vertices[0], CLUSTER).nodes(result -> nodes.complete(result.result()));
+    return nodes.join();
+  }
+
+  private static NetworkConfig network() {
+    NetworkBuilder builder = NetworkConfig.builder("cluster-test");
+    builder.component("A")
+        .identifier(ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.component("B")
+        .identifier(ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.component("C")
+        .identifier(ReceivingComponent.class.getName())
+        .replicas(NODES)
+        .input().port("in");
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    builder.connect("B").port("out").to("C").port("in");
+    return builder.build();
+  }
+
+  @Test
+  public void deploy_test() {
+    CompletableFuture<Object> received = new CompletableFuture<>();
+    vertices[2].eventBus().consumer("test.received", message -> received.complete(message.body()));
+
+    CompletableFuture<NetworkReference> deployed = new CompletableFuture<>();
+    Cluster.createProxy(vertices[0], CLUSTER).deployNetwork(network(), result -> {
+      if (result.failed()) {
+        deployed.completeExceptionally(result.cause());
+      } else {
+        deployed.complete(result.result());
+      }
+    });
+    NetworkReference network = deployed.join();
+
+    // Replicas are spread across nodes, so every node runs at least one instance.
+    int instances = 0;
+    for (int i = 0; i < NODES; i++) {
+      assertFalse(vertices[i].deploymentIDs().isEmpty());
+      instances += vertices[i].deploymentIDs().size();
+    }
+    assertEquals(NODES + 2, instances);
+
+    // Connected singletons are co-located while replicas remain spread.
+    CompletableFuture<PlacementPlan> placement = new CompletableFuture<>();
+    Cluster.createProxy(vertices[1], CLUSTER).placement("cluster-test", result -> {
+      if (result.failed()) {
+        placement.completeExceptionally(result.cause());
+      } else {
+        placement.complete(result.result());
+      }
+    });
+    PlacementPlan plan = placement.join();
+    assertEquals(plan.getNodes("A"), plan.getNodes("B"));
+    assertEquals(NODES, new HashSet<>(plan.getNodes("C")).size());
+    assertTrue(plan.getLocality() > 0);
+
+    network.input().port("in").send("Hello");
+    assertEquals("Hello > A > B", received.join());
+
+    CompletableFuture<Void> undeployed = new CompletableFuture<>();
+    Cluster.createProxy(vertices[1], CLUSTER).undeployNetwork("cluster-test", result -> {
+      if (result.failed()) {
+        undeployed.completeExceptionally(result.cause());
+      } else {
+        undeployed.complete(null);
+      }
+    });
+    undeployed.join();
+
+    for (int i = 0; i < NODES; i++) {
+      assertTrue(vertices[i].deploymentIDs().isEmpty());
+    }
+    testComplete();
+  }
+
+  private static NetworkConfig replicatedNetwork(boolean connected) {
+    NetworkBuilder builder = NetworkConfig.builder("update-test");
+    builder.component("A")
+        .identifier(ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.component("B")
+        .identifier(ForwardingComponent.class.getName())
+        .replicas(NODES)
+        .input().port("in")
+        .output().port("out");
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    if (connected) {
+      builder.component("C")
+          .identifier(ReceivingComponent.class.getName())
+          .input().port("in");
+      builder.connect("B").port("out").to("C").port("in");
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void update_Replicas_Test() {
+    int messages = NODES * 3;
+    waitFor(messages);
+    vertices[2].eventBus().consumer("test.received", message -> {
+      assertEquals("Hello > A > B", message.body());
+      complete();
+    });
+
+    Cluster.createProxy(vertices[0], CLUSTER).deployNetwork(replicatedNetwork(false), deployed -> {
+      assertTrue(deployed.succeeded());
+      // The update only succeeds once every replica of B has confirmed its new connection.
+      Cluster.createProxy(vertices[1], CLUSTER).updateNetwork(replicatedNetwork(true), updated -> {
+        assertTrue(updated.succeeded());
+        for (int i = 0; i < messages; i++) {
+          updated.result().input().port("in").send("Hello");
+        }
+      });
+    });
+    await();
+  }
+
+  private static NetworkConfig failingNetwork(boolean updated) {
+    NetworkBuilder builder = NetworkConfig.builder("failed-update-test");
+    builder.component("A")
+        .identifier(ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.component("B")
+        .identifier(updated ? "net.kuujo.vertigo.cluster.MissingComponent" : ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    if (updated) {
+      builder.component("C")
+          .identifier(ReceivingComponent.class.getName())
+          .input().port("in");
+      builder.connect("B").port("out").to("C").port("in");
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void failed_Update_Test() {
+    Cluster.createProxy(vertices[0], CLUSTER).deployNetwork(failingNetwork(false), deployed -> {
+      assertTrue(deployed.succeeded());
+      // B cannot be redeployed, so the update fails after C was deployed and B was undeployed.
+      Cluster.createProxy(vertices[1], CLUSTER).updateNetwork(failingNetwork(true), updated -> {
+        assertTrue(updated.failed());
+        // The instances which remain deployed are still recorded and can be undeployed.
+        Cluster.createProxy(vertices[2], CLUSTER).undeployNetwork("failed-update-test", undeployed -> {
+          assertTrue(undeployed.succeeded());
+          for (int i = 0; i < NODES; i++) {
+            assertTrue(vertices[i].deploymentIDs().isEmpty());
+          }
+          testComplete();
+        });
+      });
+    });
+    await();
+  }
+
+  public static class ForwardingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      output().<String>port("out").send(message.body() + " > " + context().name());
+      message.ack();
+    }
+  }
+
+  public static class ReceivingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      vertx.eventBus().send("test.received", message.body());
+      message.ack();
+    }
+  }
+
+}
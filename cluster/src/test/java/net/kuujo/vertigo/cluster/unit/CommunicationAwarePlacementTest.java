@@ -0,0 +1,151 @@
+package net.kuujo.vertigo.cluster.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.cluster.NodeInfo;
+import net.kuujo.vertigo.cluster.PlacementPlan;
+import net.kuujo.vertigo.cluster.impl.CommunicationAwarePlacement;
+import net.kuujo.vertigo.cluster.impl.PlacementStrategy;
+import net.kuujo.vertigo.cluster.impl.TrafficGraph;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CommunicationAwarePlacementTest {
+  private final PlacementStrategy placement = new CommunicationAwarePlacement();
+
+  /**
+   * Builds a network of singleton components connected in a chain, plus unconnected components.
+   */
+  private static NetworkContext network(List<String> chain, String... unconnected) {
+    NetworkBuilder builder = NetworkConfig.builder("placement");
+    for (String component : chain) {
+      builder.component(component)
+          .identifier(component)
+          .input().port("in")
+          .output().port("out");
+    }
+    for (String component : unconnected) {
+      builder.component(component)
+          .identifier(component)
+          .input().port("in");
+    }
+    for (int i = 1; i < chain.size(); i++) {
+      builder.connect(chain.get(i - 1)).port("out").to(chain.get(i)).port("in");
+    }
+    return ContextBuilder.buildContext(builder.build());
+  }
+
+  private static NodeInfo node(String address, int capacity, int instances) {
+    return new NodeInfo()
+        .setAddress(address)
+        .setCapacity(capacity)
+        .setInstances(instances)
+        .setProcessors(1);
+  }
+
+  private static int count(Map<String, List<String>> assignments, String node) {
+    int count = 0;
+    for (List<String> nodes : assignments.values()) {
+      count += Collections.frequency(nodes, node);
+    }
+    return count;
+  }
+
+  @Test
+  public void capacity_Limits_Test() {
+    NetworkContext network = network(Arrays.asList("A", "B", "C", "D"));
+    TrafficGraph graph = new TrafficGraph(network);
+    List<NodeInfo> nodes = Arrays.asList(node("node-0", 2, 0), node("node-1", 2, 0));
+
+    Map<String, List<String>> assignments = placement.place(graph, nodes, Collections.emptyMap(), network.components());
+    assertEquals(4, assignments.size());
+    assertEquals(2, count(assignments, "node-0"));
+    assertEquals(2, count(assignments, "node-1"));
+  }
+
+  @Test(expected = VertigoException.class)
+  public void insufficient_Capacity_Test() {
+    NetworkContext network = network(Arrays.asList("A", "B", "C"));
+    List<NodeInfo> nodes = Arrays.asList(node("node-0", 1, 0), node("node-1", 1, 0));
+    placement.place(new TrafficGraph(network), nodes, Collections.emptyMap(), network.components());
+  }
+
+  @Test
+  public void incremental_Place_Test() {
+    NetworkContext network = network(Arrays.asList("A", "B"));
+    List<NodeInfo> nodes = Arrays.asList(node("node-0", 0, 0), node("node-1", 0, 1));
+    Map<String, List<String>> current = new HashMap<>();
+    current.put("A", Collections.singletonList("node-1"));
+
+    // Only B is placed, next to the deployed instance of A.
+    Map<String, List<String>> assignments = placement.place(new TrafficGraph(network), nodes, current,
+        Collections.singletonList(network.component("B")));
+    assertEquals(Collections.singletonList("node-1"), assignments.get("A"));
+    assertEquals(Collections.singletonList("node-1"), assignments.get("B"));
+  }
+
+  @Test
+  public void shed_Test() {
+    NetworkContext network = network(Arrays.asList("A", "B", "C", "D"));
+    TrafficGraph graph = new TrafficGraph(network);
+    List<NodeInfo> nodes = Arrays.asList(node("node-0", 2, 4), node("node-1", 0, 0));
+    Map<String, List<String>> current = new HashMap<>();
+    for (String component : Arrays.asList("A", "B", "C", "D")) {
+      current.put(component, Collections.singletonList("node-0"));
+    }
+
+    // The node over capacity sheds instances while keeping connected instances together.
+    Map<String, List<String>> assignments = placement.rebalance(graph, nodes, current);
+    assertEquals(2, count(assignments, "node-0"));
+    assertEquals(2, count(assignments, "node-1"));
+    PlacementPlan plan = graph.plan(assignments);
+    assertEquals(3, plan.getTraffic(), 0.001);
+    assertEquals(1, plan.getCrossNodeTraffic(), 0.001);
+  }
+
+  @Test
+  public void rebalance_Test() {
+    NetworkContext network = network(Arrays.asList("A", "B"), "C");
+    TrafficGraph graph = new TrafficGraph(network);
+    List<NodeInfo> nodes = Arrays.asList(node("node-0", 0, 1), node("node-1", 0, 2));
+    Map<String, List<String>> current = new HashMap<>();
+    current.put("A", Collections.singletonList("node-0"));
+    current.put("B", Collections.singletonList("node-1"));
+    current.put("C", Collections.singletonList("node-1"));
+    assertEquals(1, graph.plan(current).getCrossNodeTraffic(), 0.001);
+
+    // Connected instances are moved together while unconnected instances stay in place.
+    Map<String, List<String>> assignments = placement.rebalance(graph, nodes, current);
+    assertEquals(assignments.get("A"), assignments.get("B"));
+    assertEquals(Collections.singletonList("node-1"), assignments.get("C"));
+    assertEquals(0, graph.plan(assignments).getCrossNodeTraffic(), 0.001);
+    assertEquals(Collections.singletonList("node-1"), current.get("B"));
+  }
+
+}
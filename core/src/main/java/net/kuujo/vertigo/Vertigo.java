@@ -129,6 +129,38 @@ public interface Vertigo {
   @Fluent
   Vertigo deployNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler);
 
+  /**
+   * Updates a running network without redeploying it.<p>
+   *
+   * The given configuration replaces the running network's configuration. Components
+   * which were added are deployed and components which were removed are undeployed.
+   * Components whose connections changed are reconnected in place, and components whose
+   * definition changed are redeployed. All other components keep running undisturbed.
+   * If the network is not running it is deployed.
+   *
+   * @param network The updated configuration of the network.
+   * @return The Vertigo instance.
+   */
+  @Fluent
+  Vertigo updateNetwork(NetworkConfig network);
+
+  /**
+   * Updates a running network without redeploying it.<p>
+   *
+   * The given configuration replaces the running network's configuration. Components
+   * which were added are deployed and components which were removed are undeployed.
+   * Components whose connections changed are reconnected in place, and components whose
+   * definition changed are redeployed. All other components keep running undisturbed.
+   * If the network is not running it is deployed.
+   *
+   * @param network The updated configuration of the network.
+   * @param doneHandler An asynchronous handler to be called once the network has
+   *        been updated.
+   * @return The Vertigo instance.
+   */
+  @Fluent
+  Vertigo updateNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler);
+
   /**
    * Undeploys a completed network.<p>
    *
@@ -16,11 +16,16 @@
 package net.kuujo.vertigo.component;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.ServiceHelper;
+import net.kuujo.vertigo.component.impl.VirtualThreadExecutor;
 import net.kuujo.vertigo.instance.ComponentInstance;
 import net.kuujo.vertigo.spi.ComponentInstanceProvider;
 
+import java.util.concurrent.Callable;
+
 /**
  * Abstract Java component.
  *
@@ -30,7 +35,10 @@ public abstract class AbstractComponent extends AbstractVerticle implements Comp
 
   static ComponentInstanceProvider instanceProvider = ServiceHelper.loadFactory(ComponentInstanceProvider.class);
 
+  private static final int DEFAULT_MAX_CONCURRENCY = 256;
+
   private ComponentInstance component;
+  private VirtualThreadExecutor executor;
 
   /**
    * Start the verticle.<p>
@@ -109,6 +117,11 @@ public abstract class AbstractComponent extends AbstractVerticle implements Comp
   @Override
   public void stop(Future<Void> stopFuture) throws Exception {
 
+    if (executor != null) {
+      executor.close();
+      executor = null;
+    }
+
     if (component != null) {
       component.stop(result -> {
         if (result.succeeded()) {
@@ -126,6 +139,37 @@ public abstract class AbstractComponent extends AbstractVerticle implements Comp
 
   }
 
+  /**
+   * Returns the component's virtual thread executor, creating it if necessary.<p>
+   *
+   * The executor's concurrency is bounded by the component's {@code max-concurrency} option.
+   *
+   * @return The component's virtual thread executor.
+   */
+  protected VirtualThreadExecutor virtualThreadExecutor() {
+    if (executor == null) {
+      int maxConcurrency = component != null && component.context().maxConcurrency() > 0
+          ? component.context().maxConcurrency()
+          : DEFAULT_MAX_CONCURRENCY;
+      executor = new VirtualThreadExecutor(vertx, maxConcurrency);
+    }
+    return executor;
+  }
+
+  /**
+   * Executes a blocking task on a virtual thread.<p>
+   *
+   * The result handler is always called on the component's context. If the JVM doesn't
+   * support virtual threads then the task will be executed on the Vert.x worker pool.
+   *
+   * @param task The blocking task to execute.
+   * @param resultHandler A handler to be called once the task is complete.
+   * @param <R> The task result type.
+   */
+  protected <R> void executeVirtual(Callable<R> task, Handler<AsyncResult<R>> resultHandler) {
+    virtualThreadExecutor().execute(task, resultHandler);
+  }
+
   @Override
   public ComponentInstance component() {
     return component;
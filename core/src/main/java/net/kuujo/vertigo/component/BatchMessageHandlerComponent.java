@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.component;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.instance.InputCollector;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputCollector;
+import net.kuujo.vertigo.message.MessageBatch;
+
+/**
+ * Abstract Java component which automatically registers all defined input ports to itself
+ * and receives messages in batches.<p>
+ *
+ * Batches are emitted once {@code batch-size} messages have been received or once
+ * {@code batch-wait} milliseconds have passed since the first message of the batch was
+ * received. Both options are read from the component configuration. If the batch handler
+ * throws an exception then all messages in the batch are failed.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public abstract class BatchMessageHandlerComponent<T> extends AbstractComponent implements Handler<MessageBatch<T>> {
+
+  /**
+   * {@code batch-size} is the maximum number of messages in a batch.
+   */
+  public static final String BATCH_SIZE = "batch-size";
+
+  /**
+   * {@code batch-wait} is the maximum time in milliseconds to wait for a batch to fill.
+   */
+  public static final String BATCH_WAIT = "batch-wait";
+
+  /**
+   * Returns the component's {@link InputCollector}.
+   *
+   * @return The components {@link InputCollector}.
+   */
+  public InputCollector input() {
+    return component().input();
+  }
+
+  /**
+   * Returns the component's {@link OutputCollector}.
+   *
+   * @return The component's {@link OutputCollector}.
+   */
+  public OutputCollector output() {
+    return component().output();
+  }
+
+  /**
+   * Returns the maximum number of messages in a batch.
+   *
+   * @return The maximum batch size.
+   */
+  protected int maxBatchSize() {
+    JsonObject config = component().context().config();
+    return config != null ? config.getInteger(BATCH_SIZE, InputPort.DEFAULT_BATCH_SIZE) : InputPort.DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds to wait for a batch to fill.
+   *
+   * @return The maximum batch wait time.
+   */
+  protected long maxBatchWait() {
+    JsonObject config = component().context().config();
+    return config != null ? config.getLong(BATCH_WAIT, InputPort.DEFAULT_BATCH_WAIT) : InputPort.DEFAULT_BATCH_WAIT;
+  }
+
+  @Override
+  protected void initComponent(Future<Void> initFuture) throws Exception {
+
+    int maxSize = maxBatchSize();
+    long maxWait = maxBatchWait();
+
+    // Register all input ports automatically
+    input()
+        .ports()
+        .forEach(port -> {
+          input()
+              .<T>port(port.name())
+              .batchHandler(maxSize, maxWait, this::safeHandle);
+        });
+
+    super.initComponent(initFuture);
+
+  }
+
+  protected void safeHandle(MessageBatch<T> batch) {
+    try {
+      handle(batch);
+    }
+    catch (Throwable cause) {
+      batch.fail(cause);
+    }
+  }
+
+}
@@ -44,4 +44,34 @@ public @interface ComponentInfo {
    */
   boolean stateful() default false;
 
+  /**
+   * Indicates whether the component handles messages on virtual threads.
+   */
+  boolean virtualThreads() default false;
+
+  /**
+   * The maximum number of messages handled concurrently on virtual threads.
+   */
+  int maxConcurrency() default 256;
+
+  /**
+   * The interval in milliseconds at which the component publishes its metrics.
+   */
+  long metricsInterval() default 0;
+
+  /**
+   * Indicates whether the component may be fused with directly connected components.
+   */
+  boolean fusible() default true;
+
+  /**
+   * The relative load of the component, used to place it on an event loop.
+   */
+  int weight() default 0;
+
+  /**
+   * The index of the event loop on which the component should be placed.
+   */
+  int eventLoop() default -1;
+
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.component;
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.join.JoinType;
+import net.kuujo.vertigo.join.StreamJoin;
+
+/**
+ * Component which joins JSON messages received on its {@code left} and {@code right}
+ * input ports by key.<p>
+ *
+ * Messages are joined if the value of the {@code left-key} field of a left message
+ * equals the value of the {@code right-key} field of a right message and they are
+ * received within {@code interval} milliseconds of one another. Each joined pair is sent
+ * to the {@code out} port as a JSON object with {@code left} and {@code right} fields,
+ * either of which is {@code null} for unmatched messages emitted by {@code left} and
+ * {@code outer} joins. All options are read from the component configuration.<p>
+ *
+ * Both sides of a key must reach the same instance, so join components cannot be
+ * replicated.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class JoinComponent extends AbstractComponent {
+
+  /**
+   * {@code left-key} is the name of the key field of left messages.
+   */
+  public static final String LEFT_KEY = "left-key";
+
+  /**
+   * {@code right-key} is the name of the key field of right messages. Defaults to the
+   * {@code left-key}.
+   */
+  public static final String RIGHT_KEY = "right-key";
+
+  /**
+   * {@code interval} is the join interval in milliseconds.
+   */
+  public static final String INTERVAL = "interval";
+
+  /**
+   * {@code join} is the join type, one of {@code inner}, {@code left} or {@code outer}.
+   * Defaults to {@code inner}.
+   */
+  public static final String JOIN_TYPE = "join";
+
+  /**
+   * {@code max-buffer-size} is the maximum number of buffered messages.
+   */
+  public static final String MAX_BUFFER_SIZE = "max-buffer-size";
+
+  @Override
+  protected void initComponent() throws Exception {
+    if (component().context().replicas() > 1) {
+      throw new VertigoException(String.format("%s %s cannot be replicated", getClass().getName(), component().context().name()));
+    }
+
+    JsonObject config = component().context().config();
+    if (config == null || config.getString(LEFT_KEY) == null) {
+      throw new VertigoException(String.format("%s %s is missing a configuration value for '%s'",
+          getClass().getName(), component().context().name(), LEFT_KEY));
+    }
+    String leftKey = config.getString(LEFT_KEY);
+    String rightKey = config.getString(RIGHT_KEY, leftKey);
+
+    StreamJoin<JsonObject, JsonObject, Object> join = StreamJoin.<JsonObject, JsonObject, Object>create(vertx, component().input(), "left", "right")
+        .setLeftKey(message -> message.getValue(leftKey))
+        .setRightKey(message -> message.getValue(rightKey))
+        .setInterval(config.getLong(INTERVAL, StreamJoin.DEFAULT_INTERVAL))
+        .setType(JoinType.valueOf(config.getString(JOIN_TYPE, "inner").toUpperCase()))
+        .setMaxBufferSize(config.getInteger(MAX_BUFFER_SIZE, StreamJoin.DEFAULT_MAX_BUFFER_SIZE))
+        .to(component().output().<JsonObject>port("out"), (left, right) -> new JsonObject()
+            .put("left", left)
+            .put("right", right));
+    component().metrics().register("join", join.metrics());
+  }
+
+}
@@ -15,24 +15,26 @@
  */
 package net.kuujo.vertigo.component;
 
-import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.ServiceHelper;
-import io.vertx.core.json.JsonObject;
-import net.kuujo.vertigo.VertigoException;
-import net.kuujo.vertigo.VertigoOptions;
-import net.kuujo.vertigo.context.ComponentContext;
-import net.kuujo.vertigo.context.NetworkContext;
-import net.kuujo.vertigo.deployment.DeploymentManager;
-import net.kuujo.vertigo.instance.ComponentInstance;
+import io.vertx.core.streams.Pump;
+import net.kuujo.vertigo.component.impl.ContextBoundMessage;
+import net.kuujo.vertigo.instance.ControllableInput;
 import net.kuujo.vertigo.instance.InputCollector;
+import net.kuujo.vertigo.instance.InputPort;
 import net.kuujo.vertigo.instance.OutputCollector;
+import net.kuujo.vertigo.instance.PortStreams;
 import net.kuujo.vertigo.message.VertigoMessage;
-import net.kuujo.vertigo.spi.ComponentInstanceFactory;
+
+import java.util.function.Function;
 
 /**
- * Abstract Java component which automatically registers all defined input ports to itself.
+ * Abstract Java component which automatically registers all defined input ports to itself.<p>
+ *
+ * If the component is configured with {@code virtual-threads} then each message is handled
+ * on a virtual thread, allowing {@link #handle(Object)} to block. Acks, failures and sends
+ * made from the handler are marshalled back to the component's context, and input ports
+ * are paused while the component's {@code max-concurrency} limit is reached.
  *
  * @author <a href="http://github.com/ef-labs">Magnus Koch</a>
  */
@@ -61,19 +63,47 @@ public abstract class MessageHandlerComponent<T> extends AbstractComponent imple
   @Override
   protected void initComponent(Future<Void> initFuture) throws Exception {
 
+    Handler<VertigoMessage<T>> handler;
+    if (component().context().virtualThreads()) {
+      virtualThreadExecutor()
+          .fullHandler(v -> pauseInputs())
+          .drainHandler(v -> resumeInputs());
+      handler = this::virtualHandle;
+    } else {
+      handler = this::safeHandle;
+    }
+
     // Register all input ports automatically
     input()
         .ports()
         .forEach(port -> {
           input()
               .<T>port(port.name())
-              .handler(this::safeHandle);
+              .handler(handler);
         });
 
     super.initComponent(initFuture);
 
   }
 
+  /**
+   * Pipes messages from an input port to an output port through a transform.<p>
+   *
+   * Messages received on the piped input port are no longer passed to
+   * {@link #handle(Object)}. Each message is acked once its transformed message has been
+   * acked, and the input port is paused while the output port's send queue is full.
+   * Pipes should be set up in {@link #initComponent()}.
+   *
+   * @param input The name of the input port.
+   * @param transform A function which transforms message bodies.
+   * @param output The name of the output port.
+   * @param <U> The output message type.
+   * @return The started pump.
+   */
+  protected <U> Pump pipe(String input, Function<T, U> transform, String output) {
+    return PortStreams.pipe(input().<T>port(input), transform, output().<U>port(output));
+  }
+
   protected void safeHandle(VertigoMessage<T> message) {
     try {
       handle(message);
@@ -83,4 +113,43 @@ public abstract class MessageHandlerComponent<T> extends AbstractComponent imple
     }
   }
 
+  /**
+   * Handles a message on a virtual thread.
+   */
+  protected void virtualHandle(VertigoMessage<T> message) {
+    VertigoMessage<T> bound = new ContextBoundMessage<>(message, context);
+    executeVirtual(() -> {
+      handle(bound);
+      return null;
+    }, result -> {
+      if (result.failed()) {
+        message.fail(result.cause());
+      }
+    });
+  }
+
+  /**
+   * Pauses all input ports while the virtual thread executor is full.
+   */
+  @SuppressWarnings("unchecked")
+  private void pauseInputs() {
+    for (InputPort port : input().ports()) {
+      if (port instanceof ControllableInput) {
+        ((ControllableInput) port).pause();
+      }
+    }
+  }
+
+  /**
+   * Resumes all input ports once the virtual thread executor has drained.
+   */
+  @SuppressWarnings("unchecked")
+  private void resumeInputs() {
+    for (InputPort port : input().ports()) {
+      if (port instanceof ControllableInput) {
+        ((ControllableInput) port).resume();
+      }
+    }
+  }
+
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.component.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.message.VertigoMessage;
+
+/**
+ * Message wrapper which marshals acks and failures back to the owning component's context.<p>
+ *
+ * This is used to hand messages to handlers that are run on virtual threads. Acks and
+ * failures made from any thread other than the owning context's, including the event
+ * loops of other verticles, are run on the owning context.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ContextBoundMessage<T> implements VertigoMessage<T> {
+  private final VertigoMessage<T> message;
+  private final Context context;
+
+  public ContextBoundMessage(VertigoMessage<T> message, Context context) {
+    this.message = message;
+    this.context = context;
+  }
+
+  @Override
+  public String id() {
+    return message.id();
+  }
+
+  @Override
+  public T body() {
+    return message.body();
+  }
+
+  @Override
+  public MultiMap headers() {
+    return message.headers();
+  }
+
+  @Override
+  public void ack() {
+    if (Vertx.currentContext() == context) {
+      message.ack();
+    } else {
+      context.runOnContext(v -> message.ack());
+    }
+  }
+
+  @Override
+  public void fail(Throwable cause) {
+    if (Vertx.currentContext() == context) {
+      message.fail(cause);
+    } else {
+      context.runOnContext(v -> message.fail(cause));
+    }
+  }
+
+  @Override
+  public void handle(AsyncResult<Void> result) {
+    if (result.succeeded()) {
+      ack();
+    } else {
+      fail(result.cause());
+    }
+  }
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.component.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import net.kuujo.vertigo.message.Lineage;
+import net.kuujo.vertigo.util.Args;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes blocking tasks on virtual threads on behalf of a component.<p>
+ *
+ * Tasks are submitted from the component's context and their results are always
+ * delivered back on that context, so result handlers may safely ack messages and send
+ * on output ports. The number of concurrently running tasks is bounded; tasks submitted
+ * while the limit is reached are queued and the {@link #fullHandler(Handler)} is called
+ * so that callers can pause their inputs until the {@link #drainHandler(Handler)} is called.<p>
+ *
+ * The lineage of the message being handled when a task is submitted is made current
+ * while the task and its result handler run, so that messages sent from either are
+ * anchored to it just as if they had been sent from the message handler itself.<p>
+ *
+ * Virtual threads are looked up reflectively so that Vertigo can still run on JVMs
+ * which don't support them, in which case tasks are run on the Vert.x worker pool.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class VirtualThreadExecutor {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+  private static final Method VIRTUAL_EXECUTOR_FACTORY = lookupVirtualExecutorFactory();
+
+  private final Vertx vertx;
+  private final Context context;
+  private final int maxConcurrency;
+  private final ExecutorService executor;
+  private final Queue<QueuedTask<?>> queue = new ArrayDeque<>();
+  private int active;
+  private boolean full;
+  private boolean closed;
+  private Handler<Void> fullHandler;
+  private Handler<Void> drainHandler;
+
+  public VirtualThreadExecutor(Vertx vertx, int maxConcurrency) {
+    this.vertx = Args.checkNotNull(vertx);
+    this.context = vertx.getOrCreateContext();
+    Args.check(maxConcurrency > 0, "max concurrency must be a positive number");
+    this.maxConcurrency = maxConcurrency;
+    this.executor = createVirtualExecutor();
+    if (executor == null) {
+      log.warn("Virtual threads are not supported by this JVM, falling back to the worker pool");
+    }
+  }
+
+  /**
+   * Returns a boolean indicating whether the current JVM supports virtual threads.
+   *
+   * @return Indicates whether virtual threads are supported.
+   */
+  public static boolean isSupported() {
+    return VIRTUAL_EXECUTOR_FACTORY != null;
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}.
+   */
+  private static Method lookupVirtualExecutorFactory() {
+    try {
+      return Class.forName("java.util.concurrent.Executors").getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Creates a new virtual thread per task executor if supported.
+   */
+  private static ExecutorService createVirtualExecutor() {
+    if (VIRTUAL_EXECUTOR_FACTORY != null) {
+      try {
+        return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+      } catch (Exception e) {
+        // Virtual threads may be a preview feature that isn't enabled.
+        log.debug("Failed to create virtual thread executor", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Sets a handler to be called when the concurrency limit is reached and tasks begin queueing.
+   *
+   * @param handler The handler to call when the executor is full.
+   * @return The executor.
+   */
+  public VirtualThreadExecutor fullHandler(Handler<Void> handler) {
+    this.fullHandler = handler;
+    return this;
+  }
+
+  /**
+   * Sets a handler to be called once all queued tasks have been started.
+   *
+   * @param handler The handler to call when the executor is drained.
+   * @return The executor.
+   */
+  public VirtualThreadExecutor drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    return this;
+  }
+
+  /**
+   * Returns the number of currently running tasks.
+   *
+   * @return The number of currently running tasks.
+   */
+  public int active() {
+    return active;
+  }
+
+  /**
+   * Returns the number of tasks waiting for a free slot.
+   *
+   * @return The number of queued tasks.
+   */
+  public int queued() {
+    return queue.size();
+  }
+
+  /**
+   * Executes a blocking task.<p>
+   *
+   * This method must be called on the owning component's context.
+   *
+   * @param task The task to execute.
+   * @param resultHandler A handler to be called on the component's context with the task result.
+   * @param <R> The task result type.
+   */
+  public <R> void execute(Callable<R> task, Handler<AsyncResult<R>> resultHandler) {
+    if (closed) {
+      Future.<R>failedFuture(new IllegalStateException("Executor is closed")).setHandler(resultHandler);
+      return;
+    }
+    Lineage.Anchor anchor = Lineage.current();
+    if (active < maxConcurrency) {
+      run(task, resultHandler, anchor);
+    } else {
+      queue.add(new QueuedTask<>(task, resultHandler, anchor));
+      if (!full) {
+        full = true;
+        if (fullHandler != null) {
+          fullHandler.handle(null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs a task on a virtual thread or the worker pool.
+   */
+  private <R> void run(Callable<R> task, Handler<AsyncResult<R>> resultHandler, Lineage.Anchor anchor) {
+    active++;
+    if (executor != null) {
+      try {
+        executor.execute(() -> {
+          Future<R> result = call(task, anchor);
+          context.runOnContext(v -> complete(result, resultHandler, anchor));
+        });
+      } catch (RejectedExecutionException e) {
+        complete(Future.failedFuture(e), resultHandler, anchor);
+      }
+    } else {
+      vertx.<R>executeBlocking(future -> {
+        Future<R> result = call(task, anchor);
+        if (result.succeeded()) {
+          future.complete(result.result());
+        } else {
+          future.fail(result.cause());
+        }
+      }, false, result -> complete(result, resultHandler, anchor));
+    }
+  }
+
+  /**
+   * Calls a task with the lineage of the message for which it was submitted.
+   */
+  private static <R> Future<R> call(Callable<R> task, Lineage.Anchor anchor) {
+    Lineage.Anchor previous = Lineage.enter(anchor);
+    try {
+      return Future.succeededFuture(task.call());
+    } catch (Throwable t) {
+      return Future.failedFuture(t);
+    } finally {
+      Lineage.exit(previous);
+    }
+  }
+
+  /**
+   * Completes a task on the component's context and starts the next queued task.
+   */
+  private <R> void complete(AsyncResult<R> result, Handler<AsyncResult<R>> resultHandler, Lineage.Anchor anchor) {
+    active--;
+    Lineage.Anchor previous = Lineage.enter(anchor);
+    try {
+      resultHandler.handle(result);
+    } finally {
+      Lineage.exit(previous);
+      QueuedTask<?> next = queue.poll();
+      if (next != null) {
+        next.run();
+      } else if (full) {
+        full = false;
+        if (drainHandler != null) {
+          drainHandler.handle(null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes the executor. Queued tasks are failed and running tasks are allowed to complete.
+   */
+  public void close() {
+    closed = true;
+    QueuedTask<?> task;
+    while ((task = queue.poll()) != null) {
+      task.fail(new IllegalStateException("Executor is closed"));
+    }
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Task waiting for a free slot.
+   */
+  private class QueuedTask<R> {
+    private final Callable<R> task;
+    private final Handler<AsyncResult<R>> resultHandler;
+    private final Lineage.Anchor anchor;
+
+    private QueuedTask(Callable<R> task, Handler<AsyncResult<R>> resultHandler, Lineage.Anchor anchor) {
+      this.task = task;
+      this.resultHandler = resultHandler;
+      this.anchor = anchor;
+    }
+
+    private void run() {
+      VirtualThreadExecutor.this.run(task, resultHandler, anchor);
+    }
+
+    private void fail(Throwable cause) {
+      Lineage.Anchor previous = Lineage.enter(anchor);
+      try {
+        resultHandler.handle(Future.failedFuture(cause));
+      } finally {
+        Lineage.exit(previous);
+      }
+    }
+  }
+
+}
@@ -100,12 +100,12 @@ public interface ComponentContext extends TypeContext<ComponentContext> {
    */
   boolean multiThreaded();
 
-//  /**
-//   * Returns a boolean indicating whether the component is stateful.
-//   *
-//   * @return Indicates whether the component is stateful.
-//   */
-//  boolean stateful();
+  /**
+   * Returns a boolean indicating whether the component is stateful.
+   *
+   * @return Indicates whether the component is stateful.
+   */
+  boolean stateful();
 
   /**
    * Returns the number of component replicas.
@@ -114,6 +114,56 @@ public interface ComponentContext extends TypeContext<ComponentContext> {
    */
   int replicas();
 
+  /**
+   * Returns a boolean indicating whether messages are handled on virtual threads.
+   *
+   * @return Indicates whether messages are handled on virtual threads.
+   */
+  boolean virtualThreads();
+
+  /**
+   * Returns the maximum number of messages handled concurrently on virtual threads.
+   *
+   * @return The maximum number of concurrently handled messages.
+   */
+  int maxConcurrency();
+
+  /**
+   * Returns the interval at which component instances publish their metrics.
+   *
+   * @return The metrics publishing interval in milliseconds, or {@code 0} if publishing is disabled.
+   */
+  long metricsInterval();
+
+  /**
+   * Returns a boolean indicating whether the component may be fused with directly
+   * connected components.
+   *
+   * @return Indicates whether the component may be fused.
+   */
+  boolean fusible();
+
+  /**
+   * Returns the relative load of the component.
+   *
+   * @return The component weight, or {@code 0} if placement is left to Vert.x.
+   */
+  int weight();
+
+  /**
+   * Returns the index of the event loop on which the component should be placed.
+   *
+   * @return The event loop index, or {@code -1} if the component is placed by weight.
+   */
+  int eventLoop();
+
+  /**
+   * Returns the version of the network context from which the component context was built.
+   *
+   * @return The network context version.
+   */
+  String version();
+
 //  /**
 //   * Returns the component resources.
 //   *
@@ -195,13 +245,13 @@ public interface ComponentContext extends TypeContext<ComponentContext> {
      */
     Builder setMultiThreaded(boolean isMultiThreaded);
 
-//    /**
-//     * Sets whether the component is stateful.
-//     *
-//     * @param isStateful Whether the component is stateful.
-//     * @return The component context builder.
-//     */
-//    Builder setStateful(boolean isStateful);
+    /**
+     * Sets whether the component is stateful.
+     *
+     * @param isStateful Whether the component is stateful.
+     * @return The component context builder.
+     */
+    Builder setStateful(boolean isStateful);
 
     /**
      * Sets the number of component replicas.
@@ -211,6 +261,62 @@ public interface ComponentContext extends TypeContext<ComponentContext> {
      */
     Builder setReplicas(int replicas);
 
+    /**
+     * Sets whether messages should be handled on virtual threads.
+     *
+     * @param virtualThreads Indicates whether to handle messages on virtual threads.
+     * @return The component context builder.
+     */
+    Builder setVirtualThreads(boolean virtualThreads);
+
+    /**
+     * Sets the maximum number of messages handled concurrently on virtual threads.
+     *
+     * @param maxConcurrency The maximum number of concurrently handled messages.
+     * @return The component context builder.
+     */
+    Builder setMaxConcurrency(int maxConcurrency);
+
+    /**
+     * Sets the interval at which component instances publish their metrics.
+     *
+     * @param interval The metrics publishing interval in milliseconds.
+     * @return The component context builder.
+     */
+    Builder setMetricsInterval(long interval);
+
+    /**
+     * Sets whether the component may be fused with directly connected components.
+     *
+     * @param fusible Indicates whether the component may be fused.
+     * @return The component context builder.
+     */
+    Builder setFusible(boolean fusible);
+
+    /**
+     * Sets the relative load of the component.
+     *
+     * @param weight The component weight.
+     * @return The component context builder.
+     */
+    Builder setWeight(int weight);
+
+    /**
+     * Sets the index of the event loop on which the component should be placed.
+     *
+     * @param eventLoop The event loop index.
+     * @return The component context builder.
+     */
+    Builder setEventLoop(int eventLoop);
+
+    /**
+     * Sets the version of the network context from which the component context was built.
+     *
+     * @param version The network context version.
+     * @return The component context builder.
+     */
+    Builder setVersion(String version);
+
     /**
      * Sets the component input context.
      *
@@ -68,4 +68,18 @@ public interface ConnectionContext<T extends ConnectionContext<T, U>, U extends
    */
   long sendTimeout();
 
+  /**
+   * Returns whether target instances pull messages from the source.
+   *
+   * @return Whether the connection is a pull connection.
+   */
+  boolean pull();
+
+  /**
+   * Returns the number of messages a target instance requests from the source at a time.
+   *
+   * @return The pull batch size.
+   */
+  int pullBatchSize();
+
 }
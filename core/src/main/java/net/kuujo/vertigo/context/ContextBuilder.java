@@ -15,6 +15,7 @@
  */
 package net.kuujo.vertigo.context;
 
+import net.kuujo.vertigo.message.impl.CodecRegistry;
 import net.kuujo.vertigo.network.*;
 import net.kuujo.vertigo.network.NetworkConfig;
 import net.kuujo.vertigo.spi.ComponentValidator;
@@ -25,7 +26,6 @@ import net.kuujo.vertigo.util.Validators;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Context builder.
@@ -42,6 +42,20 @@ public final class ContextBuilder {
    * @return A new network context.
    */
   public static NetworkContext buildContext(NetworkConfig network) {
+    return buildContext(network, null);
+  }
+
+  /**
+   * Builds a network context from a network definition to replace a running network.<p>
+   *
+   * Context versions are sequence numbers, so the new context's version follows the
+   * version of the context it replaces.
+   *
+   * @param network The network definition.
+   * @param previous The context of the running network, or {@code null} if the network is not running.
+   * @return A new network context.
+   */
+  public static NetworkContext buildContext(NetworkConfig network, NetworkContext previous) {
     // Validate the network configuration.
     Validators.validate(network, NetworkValidator.class);
 
@@ -50,7 +64,8 @@ public final class ContextBuilder {
     // Set basic network configuration options.
     context.setName(network.getName());
     context.setAddress(network.getName());
-    context.setVersion(UUID.randomUUID().toString());
+    String version = String.valueOf(nextVersion(previous));
+    context.setVersion(version);
     context.setConfig(network);
 
     // Set up network components without inputs. Inputs are stored in a map so
@@ -69,8 +84,17 @@ public final class ContextBuilder {
       component.setConfig(componentConfig.getConfig());
       component.setWorker(componentConfig.isWorker());
       component.setMultiThreaded(componentConfig.isMultiThreaded());
-//      component.setStateful(componentConfig.isStateful());
+      component.setStateful(componentConfig.isStateful());
       component.setReplicas(componentConfig.getReplicas());
+      component.setVirtualThreads(componentConfig.isVirtualThreads());
+      if (componentConfig.isVirtualThreads()) {
+        component.setMaxConcurrency(componentConfig.getMaxConcurrency());
+      }
+      component.setMetricsInterval(componentConfig.getMetricsInterval());
+      component.setFusible(componentConfig.isFusible());
+      component.setWeight(componentConfig.getWeight());
+      component.setEventLoop(componentConfig.getEventLoop());
+      component.setVersion(version);
 //      component.setResources(componentConfig.getResources());
 
       ComponentContext cc = component.build();
@@ -85,7 +109,7 @@ public final class ContextBuilder {
         input.addPort(InputPortContext.builder()
             .setName(port.getName())
             .setType(port.getType())
-            .setCodec(port.getCodec())
+            .setCodec(port.getCodec() != null ? port.getCodec() : CodecRegistry.defaultCodec(port.getType()))
 //            .setPersistent(port.isPersistent())
             .setInput(input.build())
             .build());
@@ -102,7 +126,7 @@ public final class ContextBuilder {
         output.addPort(OutputPortContext.builder()
             .setName(port.getName())
             .setType(port.getType())
-            .setCodec(port.getCodec())
+            .setCodec(port.getCodec() != null ? port.getCodec() : CodecRegistry.defaultCodec(port.getType()))
 //            .setPersistent(port.isPersistent())
             .setOutput(output.build())
             .build());
@@ -135,52 +159,47 @@ public final class ContextBuilder {
           ? network.getName()
           : target.address();
 
+      // Both ends of the connection share the same source and target contexts.
+      SourceContext sourceContext = SourceContext.builder()
+          .setComponent(connection.getSource().getComponent())
+          .setPort(connection.getSource().getPort())
+          .setAddress(sourceAddress)
+          .build();
+      TargetContext targetContext = TargetContext.builder()
+          .setComponent(connection.getTarget().getComponent())
+          .setPort(connection.getTarget().getPort())
+          .setAddress(targetAddress)
+          .build();
+
       // Only add connections if both components are currently in the network configuration.
       // If a component is added to the configuration later then the context will need to
-      // be rebuilt.
+      // be rebuilt. Port contexts were built along with their components above, so
+      // connections are added to them in place.
       if (source != null) {
-        ComponentConfig sourceInfo = network.getComponent(source.name());
-
-        // Add the connection to the source's output port context.
-        OutputPortContext.Builder output = OutputPortContext.builder(source.output().port(connection.getSource().getPort()))
-            .setName(connection.getSource().getPort())
-            .setType(sourceInfo.getOutput().getPort(connection.getSource().getPort()).getType());
-
-        output.addConnection(OutputConnectionContext.builder()
-            .setSource(SourceContext.builder()
-                .setComponent(connection.getSource().getComponent())
-                .setPort(connection.getSource().getPort())
-                .setAddress(sourceAddress)
-                .build())
-            .setTarget(TargetContext.builder()
-                .setComponent(connection.getTarget().getComponent())
-                .setPort(connection.getTarget().getPort())
-                .setAddress(targetAddress)
-                .build())
+        OutputPortContext output = source.output().port(connection.getSource().getPort());
+        OutputPortContext.builder(output).addConnection(OutputConnectionContext.builder()
+            .setSource(sourceContext)
+            .setTarget(targetContext)
             .setSendTimeout(connection.getSendTimeout())
-            .setPort(output.build()).build());
+            .setCompression(connection.getCompression())
+            .setCompressionThreshold(connection.getCompressionThreshold())
+            .setPull(connection.isPull())
+            .setPullBatchSize(connection.getPullBatchSize())
+            .setPort(output)
+            .build());
       }
 
       if (target != null) {
-        ComponentConfig targetInfo = network.getComponent(target.name());
-
-      // Add the connection to the target's input port context.
-        InputPortContext.Builder input = InputPortContext.builder(target.input().port(connection.getTarget().getPort()))
-            .setName(connection.getTarget().getPort())
-            .setType(targetInfo.getInput().getPort(connection.getTarget().getPort()).getType());
-
-        input.addConnection(InputConnectionContext.builder()
-            .setSource(SourceContext.builder()
-                .setComponent(connection.getSource().getComponent())
-                .setPort(connection.getSource().getPort())
-                .setAddress(sourceAddress)
-                .build())
-            .setTarget(TargetContext.builder()
-                .setComponent(connection.getTarget().getComponent())
-                .setPort(connection.getTarget().getPort())
-                .setAddress(targetAddress)
-                .build())
-            .setPort(input.build())
+        InputPortContext input = target.input().port(connection.getTarget().getPort());
+        InputPortContext.builder(input).addConnection(InputConnectionContext.builder()
+            .setSource(sourceContext)
+            .setTarget(targetContext)
+            .setCompression(connection.getCompression())
+            .setCompressionThreshold(connection.getCompressionThreshold())
+            .setSourceCodec(source != null ? source.output().port(connection.getSource().getPort()).codec() : null)
+            .setPull(connection.isPull())
+            .setPullBatchSize(connection.getPullBatchSize())
+            .setPort(input)
             .build());
       }
     }
@@ -190,4 +209,18 @@ public final class ContextBuilder {
     return context.build();
   }
 
+  /**
+   * Returns the version following the version of the given context.
+   */
+  private static long nextVersion(NetworkContext previous) {
+    if (previous == null) {
+      return 1;
+    }
+    try {
+      return Long.parseLong(previous.version()) + 1;
+    } catch (NumberFormatException e) {
+      return 1;
+    }
+  }
+
 }
@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.context;
 
 import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.eventbus.MessageCodec;
 import net.kuujo.vertigo.context.impl.InputConnectionContextImpl;
 
 /**
@@ -27,6 +28,27 @@ import net.kuujo.vertigo.context.impl.InputConnectionContextImpl;
 @VertxGen
 public interface InputConnectionContext extends ConnectionContext<InputConnectionContext, InputPortContext> {
 
+  /**
+   * Returns the algorithm with which the source compresses messages sent to remote targets.
+   *
+   * @return The compression algorithm name or {@code null} if compression is disabled.
+   */
+  String compression();
+
+  /**
+   * Returns the minimum encoded message size in bytes before the source compresses messages.
+   *
+   * @return The compression threshold in bytes.
+   */
+  int compressionThreshold();
+
+  /**
+   * Returns the codec with which the source port encodes messages.
+   *
+   * @return The source port codec or {@code null} if the event bus selects the codec.
+   */
+  Class<? extends MessageCodec> sourceCodec();
+
   /**
    * Returns a new input connection context builder.
    *
@@ -90,6 +112,46 @@ public interface InputConnectionContext extends ConnectionContext<InputConnectio
      * @return The input connection context builder.
      */
     Builder setPort(InputPortContext port);
+
+    /**
+     * Sets whether target instances pull messages from the source.
+     *
+     * @param pull Whether the connection is a pull connection.
+     * @return The input connection context builder.
+     */
+    Builder setPull(boolean pull);
+
+    /**
+     * Sets the number of messages a target instance requests from the source at a time.
+     *
+     * @param batchSize The pull batch size.
+     * @return The input connection context builder.
+     */
+    Builder setPullBatchSize(int batchSize);
+
+    /**
+     * Sets the algorithm with which the source compresses messages sent to remote targets.
+     *
+     * @param compression The compression algorithm name or {@code null} if compression is disabled.
+     * @return The input connection context builder.
+     */
+    Builder setCompression(String compression);
+
+    /**
+     * Sets the minimum encoded message size in bytes before the source compresses messages.
+     *
+     * @param threshold The compression threshold in bytes.
+     * @return The input connection context builder.
+     */
+    Builder setCompressionThreshold(int threshold);
+
+    /**
+     * Sets the codec with which the source port encodes messages.
+     *
+     * @param codec The source port codec or {@code null} if the event bus selects the codec.
+     * @return The input connection context builder.
+     */
+    Builder setSourceCodec(Class<? extends MessageCodec> codec);
   }
 
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.context;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Difference between two versions of a network context.<p>
+ *
+ * Components are compared by name. Components whose definition changed, e.g. their
+ * identifier, configuration or ports, must be redeployed. Components whose definition
+ * is unchanged but whose connections changed can be updated in place.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class NetworkDiff {
+  private final NetworkContext current;
+  private final NetworkContext updated;
+  private final Collection<ComponentContext> added = new ArrayList<>();
+  private final Collection<ComponentContext> removed = new ArrayList<>();
+  private final Collection<ComponentContext> redeployed = new ArrayList<>();
+  private final Collection<ComponentContext> reconnected = new ArrayList<>();
+
+  private NetworkDiff(NetworkContext current, NetworkContext updated) {
+    this.current = current;
+    this.updated = updated;
+  }
+
+  /**
+   * Computes the difference between two versions of a network context.
+   *
+   * @param current The current network context.
+   * @param updated The updated network context.
+   * @return The difference between the contexts.
+   */
+  public static NetworkDiff diff(NetworkContext current, NetworkContext updated) {
+    NetworkDiff diff = new NetworkDiff(current, updated);
+    for (ComponentContext component : updated.components()) {
+      ComponentContext previous = current.component(component.name());
+      if (previous == null) {
+        diff.added.add(component);
+      } else {
+        JsonObject previousJson = previous.toJson();
+        JsonObject componentJson = component.toJson();
+        JsonObject previousConnections = connections(previousJson);
+        JsonObject componentConnections = connections(componentJson);
+        if (!previousJson.equals(componentJson)) {
+          diff.redeployed.add(component);
+        } else if (!previousConnections.equals(componentConnections)) {
+          diff.reconnected.add(component);
+        }
+      }
+    }
+    for (ComponentContext component : current.components()) {
+      if (!updated.hasComponent(component.name())) {
+        diff.removed.add(component);
+      }
+    }
+    return diff;
+  }
+
+  /**
+   * Removes the version and port connections from a component's JSON, returning the
+   * removed connections keyed by port.
+   */
+  private static JsonObject connections(JsonObject component) {
+    component.remove("version");
+    JsonObject connections = new JsonObject();
+    for (String direction : new String[]{"input", "output"}) {
+      JsonObject ports = component.getJsonObject(direction);
+      if (ports != null) {
+        for (String port : ports.fieldNames()) {
+          JsonArray portConnections = (JsonArray) ports.getJsonObject(port).remove("connections");
+          connections.put(direction + ":" + port, portConnections != null ? portConnections : new JsonArray());
+        }
+      }
+    }
+    return connections;
+  }
+
+  /**
+   * Returns the current network context.
+   */
+  public NetworkContext current() {
+    return current;
+  }
+
+  /**
+   * Returns the updated network context.
+   */
+  public NetworkContext updated() {
+    return updated;
+  }
+
+  /**
+   * Returns the contexts of components added to the network.
+   */
+  public Collection<ComponentContext> added() {
+    return Collections.unmodifiableCollection(added);
+  }
+
+  /**
+   * Returns the contexts of components removed from the network.
+   */
+  public Collection<ComponentContext> removed() {
+    return Collections.unmodifiableCollection(removed);
+  }
+
+  /**
+   * Returns the updated contexts of components which must be redeployed.
+   */
+  public Collection<ComponentContext> redeployed() {
+    return Collections.unmodifiableCollection(redeployed);
+  }
+
+  /**
+   * Returns the updated contexts of components whose connections changed.
+   */
+  public Collection<ComponentContext> reconnected() {
+    return Collections.unmodifiableCollection(reconnected);
+  }
+
+  /**
+   * Returns whether the contexts differ.
+   */
+  public boolean isEmpty() {
+    return added.isEmpty() && removed.isEmpty() && redeployed.isEmpty() && reconnected.isEmpty();
+  }
+
+}
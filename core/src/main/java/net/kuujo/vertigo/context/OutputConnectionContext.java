@@ -27,6 +27,20 @@ import net.kuujo.vertigo.context.impl.OutputConnectionContextImpl;
 @VertxGen
 public interface OutputConnectionContext extends ConnectionContext<OutputConnectionContext, OutputPortContext> {
 
+  /**
+   * Returns the algorithm with which messages sent to remote targets are compressed.
+   *
+   * @return The compression algorithm name or {@code null} if compression is disabled.
+   */
+  String compression();
+
+  /**
+   * Returns the minimum encoded message size in bytes before messages are compressed.
+   *
+   * @return The compression threshold in bytes.
+   */
+  int compressionThreshold();
+
   /**
    * Returns a new output connection context builder.
    *
@@ -98,6 +112,38 @@ public interface OutputConnectionContext extends ConnectionContext<OutputConnect
      * @return The output connection context builder.
      */
     Builder setSendTimeout(long timeout);
+
+    /**
+     * Sets the algorithm with which to compress messages sent to remote targets.
+     *
+     * @param compression The compression algorithm name or {@code null} to disable compression.
+     * @return The output connection context builder.
+     */
+    Builder setCompression(String compression);
+
+    /**
+     * Sets the minimum encoded message size in bytes before messages are compressed.
+     *
+     * @param threshold The compression threshold in bytes.
+     * @return The output connection context builder.
+     */
+    Builder setCompressionThreshold(int threshold);
+
+    /**
+     * Sets whether target instances pull messages from the source.
+     *
+     * @param pull Whether the connection is a pull connection.
+     * @return The output connection context builder.
+     */
+    Builder setPull(boolean pull);
+
+    /**
+     * Sets the number of messages a target instance requests from the source at a time.
+     *
+     * @param batchSize The pull batch size.
+     * @return The output connection context builder.
+     */
+    Builder setPullBatchSize(int batchSize);
   }
 
 }
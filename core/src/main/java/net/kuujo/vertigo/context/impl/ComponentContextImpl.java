@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import io.vertx.core.json.JsonObject;
 import net.kuujo.vertigo.context.*;
 import net.kuujo.vertigo.instance.InputCollector;
+import net.kuujo.vertigo.network.ComponentConfig;
 import net.kuujo.vertigo.util.Args;
 
 import java.util.Arrays;
@@ -39,8 +40,15 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
   private JsonObject config;
   private boolean worker;
   private boolean multiThreaded;
-//  private boolean stateful;
+  private boolean stateful;
   private int replicas;
+  private boolean virtualThreads;
+  private int maxConcurrency = ComponentConfig.DEFAULT_MAX_CONCURRENCY;
+  private long metricsInterval;
+  private boolean fusible = true;
+  private int weight;
+  private int eventLoop = -1;
+  private String version;
   private InputContext input;
   private OutputContext output;
 //  private Set<String> resources = new HashSet<>();
@@ -76,16 +84,51 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
     return multiThreaded;
   }
 
-//  @Override
-//  public boolean stateful() {
-//    return stateful;
-//  }
+  @Override
+  public boolean stateful() {
+    return stateful;
+  }
 
   @Override
   public int replicas() {
     return replicas;
   }
 
+  @Override
+  public boolean virtualThreads() {
+    return virtualThreads;
+  }
+
+  @Override
+  public int maxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Override
+  public long metricsInterval() {
+    return metricsInterval;
+  }
+
+  @Override
+  public boolean fusible() {
+    return fusible;
+  }
+
+  @Override
+  public int weight() {
+    return weight;
+  }
+
+  @Override
+  public int eventLoop() {
+    return eventLoop;
+  }
+
+  @Override
+  public String version() {
+    return version;
+  }
+
   @Override
   public InputContext input() {
     return input;
@@ -115,7 +158,15 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
         .put("config", config)
         .put("worker", worker)
         .put("multiThreader", multiThreaded)
+        .put("stateful", stateful)
         .put("replicas", replicas)
+        .put("virtualThreads", virtualThreads)
+        .put("maxConcurrency", maxConcurrency)
+        .put("metricsInterval", metricsInterval)
+        .put("fusible", fusible)
+        .put("weight", weight)
+        .put("eventLoop", eventLoop)
+        .put("version", version)
         .put("input", input.toJson())
         .put("output", output.toJson());
   }
@@ -172,11 +223,11 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
       return this;
     }
 
-//    @Override
-//    public ComponentContext.Builder setStateful(boolean isStateful) {
-//      component.stateful = isStateful;
-//      return this;
-//    }
+    @Override
+    public ComponentContext.Builder setStateful(boolean isStateful) {
+      component.stateful = isStateful;
+      return this;
+    }
 
     @Override
     public ComponentContext.Builder setReplicas(int replicas) {
@@ -184,6 +235,50 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
       return this;
     }
 
+    @Override
+    public ComponentContext.Builder setVirtualThreads(boolean virtualThreads) {
+      component.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setMaxConcurrency(int maxConcurrency) {
+      component.maxConcurrency = Args.checkPositive(maxConcurrency, "max concurrency must be a positive integer");
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setMetricsInterval(long interval) {
+      Args.check(interval >= 0, "metrics interval cannot be negative");
+      component.metricsInterval = interval;
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setFusible(boolean fusible) {
+      component.fusible = fusible;
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setWeight(int weight) {
+      Args.check(weight >= 0, "weight cannot be negative");
+      component.weight = weight;
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setEventLoop(int eventLoop) {
+      component.eventLoop = eventLoop;
+      return this;
+    }
+
+    @Override
+    public ComponentContext.Builder setVersion(String version) {
+      component.version = version;
+      return this;
+    }
+
     @Override
     public ComponentContext.Builder setInput(InputContext input) {
       component.input = Args.checkNotNull(input, "input cannot be null");
@@ -249,7 +344,15 @@ public class ComponentContextImpl extends BaseContextImpl<ComponentContext> impl
       component.config = json.getJsonObject("config");
       component.worker = json.getBoolean("worker");
       component.multiThreaded = json.getBoolean("multiThreader");
+      component.stateful = json.getBoolean("stateful", false);
       component.replicas = json.getInteger("replicas");
+      component.virtualThreads = json.getBoolean("virtualThreads", false);
+      component.maxConcurrency = json.getInteger("maxConcurrency", ComponentConfig.DEFAULT_MAX_CONCURRENCY);
+      component.metricsInterval = json.getLong("metricsInterval", 0L);
+      component.fusible = json.getBoolean("fusible", true);
+      component.weight = json.getInteger("weight", 0);
+      component.eventLoop = json.getInteger("eventLoop", -1);
+      component.version = json.getString("version");
       component.input = InputContext
           .builder()
           .setComponent(component)
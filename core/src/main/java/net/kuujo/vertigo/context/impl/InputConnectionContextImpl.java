@@ -16,12 +16,15 @@
 
 package net.kuujo.vertigo.context.impl;
 
+import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.VertigoException;
 import net.kuujo.vertigo.context.InputConnectionContext;
 import net.kuujo.vertigo.context.SourceContext;
 import net.kuujo.vertigo.context.TargetContext;
 import net.kuujo.vertigo.context.InputPortContext;
 import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.network.ConnectionConfig;
 import net.kuujo.vertigo.util.Args;
 
 /**
@@ -36,6 +39,11 @@ public class InputConnectionContextImpl implements InputConnectionContext {
   //  protected boolean ordered;
 //  protected boolean atLeastOnce;
   protected long sendTimeout;
+  protected boolean pull;
+  protected int pullBatchSize = ConnectionConfig.DEFAULT_PULL_BATCH_SIZE;
+  protected String compression;
+  protected int compressionThreshold = ConnectionConfig.DEFAULT_COMPRESSION_THRESHOLD;
+  protected Class<? extends MessageCodec> sourceCodec;
   protected InputPortContext port;
 
   @Override
@@ -63,6 +71,31 @@ public class InputConnectionContextImpl implements InputConnectionContext {
     return sendTimeout;
   }
 
+  @Override
+  public boolean pull() {
+    return pull;
+  }
+
+  @Override
+  public int pullBatchSize() {
+    return pullBatchSize;
+  }
+
+  @Override
+  public String compression() {
+    return compression;
+  }
+
+  @Override
+  public int compressionThreshold() {
+    return compressionThreshold;
+  }
+
+  @Override
+  public Class<? extends MessageCodec> sourceCodec() {
+    return sourceCodec;
+  }
+
   @Override
   public InputPortContext port() {
     return port;
@@ -75,11 +108,20 @@ public class InputConnectionContextImpl implements InputConnectionContext {
 
   @Override
   public JsonObject toJson() {
-    return new JsonObject()
+    JsonObject json = new JsonObject()
         .put("source", source.toJson())
         .put("target", target.toJson())
-        .put("sendTimeout", sendTimeout);
+        .put("sendTimeout", sendTimeout)
+        .put("pull", pull)
+        .put("pullBatchSize", pullBatchSize)
+        .put("compression", compression)
+        .put("compressionThreshold", compressionThreshold);
+    if (sourceCodec != null) {
+      json.put("sourceCodec", sourceCodec.getName());
+    }
+    return json;
   }
+
   /**
    * Input connection context builder.
    */
@@ -128,6 +170,37 @@ public class InputConnectionContextImpl implements InputConnectionContext {
     }
 
     @Override
+    public InputConnectionContext.Builder setPull(boolean pull) {
+      connection.pull = pull;
+      return this;
+    }
+
+    @Override
+    public InputConnectionContext.Builder setPullBatchSize(int batchSize) {
+      connection.pullBatchSize = Args.checkPositive(batchSize, "pull batch size must be a positive integer");
+      return this;
+    }
+
+    @Override
+    public InputConnectionContext.Builder setCompression(String compression) {
+      connection.compression = compression;
+      return this;
+    }
+
+    @Override
+    public InputConnectionContext.Builder setCompressionThreshold(int threshold) {
+      connection.compressionThreshold = threshold;
+      return this;
+    }
+
+    @Override
+    public InputConnectionContext.Builder setSourceCodec(Class<? extends MessageCodec> codec) {
+      connection.sourceCodec = codec;
+      return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public InputConnectionContext.Builder update(JsonObject json) {
       connection.source = SourceContext
           .builder()
@@ -138,6 +211,18 @@ public class InputConnectionContextImpl implements InputConnectionContext {
           .update(json.getJsonObject("target"))
           .build();
       connection.sendTimeout = json.getLong("sendTimeout");
+      connection.pull = json.getBoolean("pull", false);
+      connection.pullBatchSize = json.getInteger("pullBatchSize", ConnectionConfig.DEFAULT_PULL_BATCH_SIZE);
+      connection.compression = json.getString("compression");
+      connection.compressionThreshold = json.getInteger("compressionThreshold", ConnectionConfig.DEFAULT_COMPRESSION_THRESHOLD);
+      try {
+        String codecName = json.getString("sourceCodec");
+        connection.sourceCodec = codecName != null
+            ? (Class<? extends MessageCodec>) Class.forName(codecName)
+            : null;
+      } catch (ClassNotFoundException e) {
+        throw new VertigoException(e.getMessage(), e);
+      }
       return this;
     }
 
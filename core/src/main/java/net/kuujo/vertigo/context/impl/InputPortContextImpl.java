@@ -80,11 +80,11 @@ public class InputPortContextImpl extends BaseContextImpl<InputPortContext> impl
         .put("connections", connectionJson);
 
     if (type != null && type != Object.class) {
-      json.put("type", type.toString());
+      json.put("type", type.getName());
     }
 
     if (codec != null) {
-      json.put("codec", codec.toString());
+      json.put("codec", codec.getName());
     }
 
 //    if (persistent) {
@@ -16,6 +16,7 @@
 
 package net.kuujo.vertigo.context.impl;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import net.kuujo.vertigo.context.ComponentContext;
 import net.kuujo.vertigo.network.NetworkConfig;
@@ -75,7 +76,16 @@ public class NetworkContextImpl extends BaseContextImpl<NetworkContext> implemen
 
   @Override
   public JsonObject toJson() {
-    throw new UnsupportedOperationException();
+    JsonArray components = new JsonArray();
+    for (ComponentContext component : this.components.values()) {
+      components.add(component.toJson());
+    }
+    return new JsonObject()
+        .put("name", name)
+        .put("address", address)
+        .put("version", version)
+        .put("config", config.toJson())
+        .put("components", components);
   }
 
   /**
@@ -163,8 +173,20 @@ public class NetworkContextImpl extends BaseContextImpl<NetworkContext> implemen
     }
 
     @Override
-    public Builder update(JsonObject config) {
-      throw new UnsupportedOperationException();
+    public Builder update(JsonObject json) {
+      network.name = json.getString("name");
+      network.address = json.getString("address");
+      network.version = json.getString("version");
+      network.config = NetworkConfig.network(json.getJsonObject("config"));
+      network.components.clear();
+      for (Object component : json.getJsonArray("components", new JsonArray())) {
+        ComponentContext context = ComponentContext
+            .builder()
+            .update((JsonObject) component)
+            .build();
+        network.components.put(context.name(), context);
+      }
+      return this;
     }
 
     @Override
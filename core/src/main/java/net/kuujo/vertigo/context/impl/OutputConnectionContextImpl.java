@@ -22,6 +22,7 @@ import net.kuujo.vertigo.context.SourceContext;
 import net.kuujo.vertigo.context.TargetContext;
 import net.kuujo.vertigo.context.OutputPortContext;
 import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.network.ConnectionConfig;
 import net.kuujo.vertigo.util.Args;
 
 /**
@@ -36,6 +37,10 @@ public class OutputConnectionContextImpl implements OutputConnectionContext {
   //  protected boolean ordered;
 //  protected boolean atLeastOnce;
   protected long sendTimeout;
+  protected boolean pull;
+  protected int pullBatchSize = ConnectionConfig.DEFAULT_PULL_BATCH_SIZE;
+  protected String compression;
+  protected int compressionThreshold = ConnectionConfig.DEFAULT_COMPRESSION_THRESHOLD;
   protected OutputPortContext port;
 
   @Override
@@ -63,6 +68,26 @@ public class OutputConnectionContextImpl implements OutputConnectionContext {
     return sendTimeout;
   }
 
+  @Override
+  public String compression() {
+    return compression;
+  }
+
+  @Override
+  public int compressionThreshold() {
+    return compressionThreshold;
+  }
+
+  @Override
+  public boolean pull() {
+    return pull;
+  }
+
+  @Override
+  public int pullBatchSize() {
+    return pullBatchSize;
+  }
+
   @Override
   public OutputPortContext port() {
     return port;
@@ -78,7 +103,11 @@ public class OutputConnectionContextImpl implements OutputConnectionContext {
     return new JsonObject()
         .put("source", source.toJson())
         .put("target", target.toJson())
-        .put("sendTimeout", sendTimeout);
+        .put("sendTimeout", sendTimeout)
+        .put("compression", compression)
+        .put("compressionThreshold", compressionThreshold)
+        .put("pull", pull)
+        .put("pullBatchSize", pullBatchSize);
   }
   /**
    * Output connection context builder.
@@ -133,6 +162,30 @@ public class OutputConnectionContextImpl implements OutputConnectionContext {
       return this;
     }
 
+    @Override
+    public OutputConnectionContext.Builder setCompression(String compression) {
+      connection.compression = compression;
+      return this;
+    }
+
+    @Override
+    public OutputConnectionContext.Builder setCompressionThreshold(int threshold) {
+      connection.compressionThreshold = threshold;
+      return this;
+    }
+
+    @Override
+    public OutputConnectionContext.Builder setPull(boolean pull) {
+      connection.pull = pull;
+      return this;
+    }
+
+    @Override
+    public OutputConnectionContext.Builder setPullBatchSize(int batchSize) {
+      connection.pullBatchSize = Args.checkPositive(batchSize, "pull batch size must be a positive integer");
+      return this;
+    }
+
     @Override
     public OutputConnectionContext.Builder update(JsonObject json) {
       connection.source = SourceContext.builder()
@@ -142,6 +195,10 @@ public class OutputConnectionContextImpl implements OutputConnectionContext {
           .update(json.getJsonObject("target"))
           .build();
       connection.sendTimeout = json.getLong("sendTimeout");
+      connection.pull = json.getBoolean("pull", false);
+      connection.pullBatchSize = json.getInteger("pullBatchSize", ConnectionConfig.DEFAULT_PULL_BATCH_SIZE);
+      connection.compression = json.getString("compression");
+      connection.compressionThreshold = json.getInteger("compressionThreshold", ConnectionConfig.DEFAULT_COMPRESSION_THRESHOLD);
       return this;
     }
 
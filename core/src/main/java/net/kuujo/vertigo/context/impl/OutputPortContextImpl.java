@@ -80,11 +80,11 @@ public class OutputPortContextImpl extends BaseContextImpl<OutputPortContext> im
         .put("connections", connectionJson);
 
     if (type != null && type != Object.class) {
-      json.put("type", type.toString());
+      json.put("type", type.getName());
     }
 
     if (codec != null) {
-      json.put("codec", codec.toString());
+      json.put("codec", codec.getName());
     }
 
 //    if (persistent) {
@@ -32,13 +32,23 @@ import net.kuujo.vertigo.spi.DeploymentManagerFactory;
 public interface DeploymentManager {
 
   /**
-   * Loads a context manager.
+   * Loads a context manager.<p>
+   *
+   * If a cluster address is configured, a clustered context manager is loaded if one
+   * is available on the classpath.
    *
    * @param vertx The current Vert.x instance.
    * @param options The Vertigo options.
    * @return A new context manager.
    */
   static DeploymentManager manager(Vertx vertx, VertigoOptions options) {
+    if (options.getClusterAddress() != null && !factory.isClustered()) {
+      for (DeploymentManagerFactory clusterFactory : ServiceHelper.loadFactories(DeploymentManagerFactory.class)) {
+        if (clusterFactory.isClustered()) {
+          return clusterFactory.createContextManager(vertx, options);
+        }
+      }
+    }
     return factory.createContextManager(vertx, options);
   }
 
@@ -60,6 +70,19 @@ public interface DeploymentManager {
    */
   DeploymentManager deployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler);
 
+  /**
+   * Updates a deployed network.<p>
+   *
+   * Only components which were added, removed or changed are deployed or undeployed.
+   * Components whose connections changed are updated in place.
+   *
+   * @param current The currently deployed network.
+   * @param updated The updated network.
+   * @param doneHandler An asynchronous handler to be called once the network has been updated.
+   * @return The context manager.
+   */
+  DeploymentManager updateNetwork(NetworkContext current, NetworkContext updated, Handler<AsyncResult<Void>> doneHandler);
+
   /**
    * Undeploys a network.
    *
@@ -2,24 +2,121 @@ package net.kuujo.vertigo.deployment.impl;
 
 import io.vertx.core.*;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import net.kuujo.vertigo.VertigoException;
 import net.kuujo.vertigo.context.ComponentContext;
 import net.kuujo.vertigo.instance.ComponentInstance;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
 import net.kuujo.vertigo.spi.ComponentInstanceProvider;
 
+import java.util.UUID;
+
 public class ConfigComponentContextManager implements ComponentInstanceProvider {
 
+  /**
+   * Deployment config key for a serialized component context.
+   */
+  public static final String CONTEXT_KEY = "vertigo_component_context";
+
+  /**
+   * Deployment config key for the token of a locally registered component context.
+   */
+  public static final String CONTEXT_TOKEN_KEY = "vertigo_component_context_token";
+
+  private static final String CONTEXTS_KEY = "vertigo.contexts";
+
   ComponentInstanceFactory factory = ServiceHelper.loadFactory(ComponentInstanceFactory.class);
 
+  /**
+   * Creates the deployment config for a component.<p>
+   *
+   * Local deployments register the context with the Vert.x instance and pass only a
+   * token, avoiding serializing and parsing the context for every component. Remote
+   * deployments pass the context as JSON. Local tokens must be released with
+   * {@link #release(Vertx, JsonObject)} once the deployment has completed.
+   *
+   * @param vertx The Vert.x instance on which the component will be deployed.
+   * @param context The component context.
+   * @param local Whether the component will be deployed on the given Vert.x instance.
+   * @return The deployment config.
+   */
+  public static JsonObject deploymentConfig(Vertx vertx, ComponentContext context, boolean local) {
+    JsonObject config = new JsonObject();
+    if (local) {
+      String token = UUID.randomUUID().toString();
+      contexts(vertx).put(token, context);
+      config.put(CONTEXT_TOKEN_KEY, token);
+    } else {
+      config.put(CONTEXT_KEY, context.toJson());
+    }
+    if (context.config() != null) {
+      config.mergeIn(context.config());
+    }
+    return config;
+  }
+
+  /**
+   * Releases a locally registered component context.
+   *
+   * @param vertx The Vert.x instance on which the component was deployed.
+   * @param config The deployment config.
+   */
+  public static void release(Vertx vertx, JsonObject config) {
+    String token = config.getString(CONTEXT_TOKEN_KEY);
+    if (token != null) {
+      contexts(vertx).remove(token);
+    }
+  }
+
+  /**
+   * Resolves the component context from a deployment config.
+   *
+   * @param vertx The Vert.x instance on which the component is deployed.
+   * @param config The deployment config.
+   * @return The component context.
+   * @throws VertigoException If the config contains no component context.
+   */
+  public static ComponentContext context(Vertx vertx, JsonObject config) {
+    String token = config.getString(CONTEXT_TOKEN_KEY);
+    if (token != null) {
+      ComponentContext context = contexts(vertx).get(token);
+      if (context != null) {
+        return context;
+      }
+    }
+    JsonObject contextJson = config.getJsonObject(CONTEXT_KEY);
+    if (contextJson == null) {
+      throw new VertigoException("No component context found in deployment config");
+    }
+    return ComponentContext
+        .builder()
+        .update(contextJson)
+        .build();
+  }
+
+  /**
+   * Returns the node-local address at which a single component instance accepts updates.<p>
+   *
+   * Replicas of a component share the component address, so a node forwards updates for
+   * one of its deployments to this address in order to collect a reply per instance.
+   *
+   * @param address The component address.
+   * @param deploymentId The ID of the deployment which runs the instance.
+   * @return The instance address.
+   */
+  public static String instanceAddress(String address, String deploymentId) {
+    return String.format("%s.%s", address, deploymentId);
+  }
+
+  private static LocalMap<String, ComponentContext> contexts(Vertx vertx) {
+    return vertx.sharedData().getLocalMap(CONTEXTS_KEY);
+  }
+
   @Override
   public void registerAndGet(Vertx vertx, JsonObject config, Handler<AsyncResult<ComponentInstance>> handler) {
     try {
       // Only supports configuration during component startup
-      JsonObject contextJson = config.getJsonObject("vertigo_component_context");
-      ComponentContext context = ComponentContext
-          .builder()
-          .update(contextJson)
-          .build();
+      ComponentContext context = context(vertx, config);
       ComponentInstance component = factory.createComponentInstance(vertx, context);
       component.start(result -> handler.handle(Future.succeededFuture(component)));
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.deployment.impl;
+
+import io.vertx.core.Future;
+import net.kuujo.vertigo.component.Component;
+import net.kuujo.vertigo.instance.ComponentInstance;
+import net.kuujo.vertigo.metrics.Histogram;
+
+import java.util.Collections;
+
+/**
+ * Verticle which hosts the components placed on a single event loop.<p>
+ *
+ * The host stays deployed while components are placed on and removed from it. It
+ * periodically measures how late its timer fires, which indicates how busy its event
+ * loop is.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class EventLoopHost extends FusedVerticle {
+  private static final long LAG_INTERVAL = 100;
+  private final int index;
+  private final Histogram lagHistogram;
+  private volatile long lag;
+  private volatile Thread thread;
+  private long expected;
+  private long timerId = -1;
+
+  EventLoopHost(int index, Histogram lagHistogram) {
+    super(Collections.emptyList());
+    this.index = index;
+    this.lagHistogram = lagHistogram;
+  }
+
+  /**
+   * Returns the index of the host's event loop.
+   */
+  int index() {
+    return index;
+  }
+
+  /**
+   * Returns the event loop thread on which the host was started.
+   */
+  Thread thread() {
+    return thread;
+  }
+
+  /**
+   * Returns the most recently measured event loop lag in microseconds.
+   */
+  long lag() {
+    return lag;
+  }
+
+  @Override
+  protected boolean persistent() {
+    return true;
+  }
+
+  @Override
+  public void start(Future<Void> startFuture) throws Exception {
+    thread = Thread.currentThread();
+    expected = System.nanoTime() + LAG_INTERVAL * 1000000;
+    timerId = vertx.setPeriodic(LAG_INTERVAL, this::measureLag);
+    super.start(startFuture);
+  }
+
+  /**
+   * Measures how late the lag timer fired.
+   */
+  private void measureLag(long timerId) {
+    long now = System.nanoTime();
+    lag = Math.max(0, now - expected) / 1000;
+    lagHistogram.record(lag);
+    expected = now + LAG_INTERVAL * 1000000;
+  }
+
+  @Override
+  protected void register(Member member) {
+    super.register(member);
+    if (member.verticle instanceof Component) {
+      ComponentInstance instance = ((Component) member.verticle).component();
+      if (instance != null) {
+        instance.metrics().gauge("event-loop", () -> index);
+      }
+    }
+  }
+
+  @Override
+  public void stop(Future<Void> stopFuture) throws Exception {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    super.stop(stopFuture);
+  }
+
+}
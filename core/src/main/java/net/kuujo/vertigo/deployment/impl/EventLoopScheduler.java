@@ -0,0 +1,281 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.deployment.impl;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Places components on event loops.<p>
+ *
+ * Vert.x assigns each deployment to the next event loop in round robin order, so two
+ * busy components may end up sharing an event loop while other loops are idle. The
+ * scheduler instead deploys one {@link EventLoopHost} per event loop of the Vert.x
+ * instance, redeploying any host which lands on a loop that already has one, and places each
+ * component which has a weight or an explicit event loop on a host. Components without
+ * an explicit event loop are placed on the loop with the least total weight, and ties
+ * are broken by the measured lag of each loop.<p>
+ *
+ * The resulting placement is exposed through {@link #metrics()}, which holds the total
+ * weight, the number of components and the lag of each event loop.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class EventLoopScheduler implements Shareable {
+  private static final String SCHEDULER_KEY = "vertigo.scheduler";
+  private static final String REGISTRY_KEY = "scheduler";
+  private static final int MAX_ATTEMPTS = 4;
+  private final Vertx vertx;
+  private final long[] weights;
+  private final int[] components;
+  private final Map<String, Placement> placements = new HashMap<>();
+  private final Metrics metrics = new Metrics();
+  private EventLoopHost[] hosts;
+  private List<Handler<AsyncResult<Void>>> waiting = new ArrayList<>();
+  private boolean starting;
+  private boolean started;
+
+  private EventLoopScheduler(Vertx vertx) {
+    this.vertx = vertx;
+    int eventLoops = 0;
+    for (EventExecutor ignored : vertx.nettyEventLoopGroup()) {
+      eventLoops++;
+    }
+    this.weights = new long[eventLoops];
+    this.components = new int[eventLoops];
+    for (int i = 0; i < eventLoops; i++) {
+      int index = i;
+      metrics.metrics(String.valueOf(i))
+          .gauge("weight", () -> weight(index))
+          .gauge("components", () -> components(index));
+    }
+  }
+
+  /**
+   * Returns the event loop scheduler for the given Vert.x instance.
+   *
+   * @param vertx The Vert.x instance.
+   * @return The Vert.x instance's event loop scheduler.
+   */
+  public static EventLoopScheduler scheduler(Vertx vertx) {
+    LocalMap<String, EventLoopScheduler> map = vertx.sharedData().getLocalMap(SCHEDULER_KEY);
+    EventLoopScheduler scheduler = map.get(REGISTRY_KEY);
+    if (scheduler == null) {
+      synchronized (EventLoopScheduler.class) {
+        scheduler = map.get(REGISTRY_KEY);
+        if (scheduler == null) {
+          scheduler = new EventLoopScheduler(vertx);
+          map.put(REGISTRY_KEY, scheduler);
+        }
+      }
+    }
+    return scheduler;
+  }
+
+  /**
+   * Returns the number of event loops on which components are placed.
+   *
+   * @return The number of event loops.
+   */
+  public int size() {
+    return weights.length;
+  }
+
+  /**
+   * Returns the placement metrics of each event loop, keyed by event loop index.
+   *
+   * @return The placement metrics.
+   */
+  public Metrics metrics() {
+    return metrics;
+  }
+
+  private synchronized long weight(int index) {
+    return weights[index];
+  }
+
+  private synchronized int components(int index) {
+    return components[index];
+  }
+
+  /**
+   * Returns whether any component of a chain requests placement.
+   */
+  static boolean isScheduled(List<ComponentContext> chain) {
+    for (ComponentContext component : chain) {
+      if (component.weight() > 0 || component.eventLoop() >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Places a chain of components on an event loop.
+   *
+   * @param chain The components to place together.
+   * @return The index of the event loop on which the components were placed.
+   */
+  synchronized int place(List<ComponentContext> chain) {
+    int index = -1;
+    for (ComponentContext component : chain) {
+      if (component.eventLoop() >= 0) {
+        index = component.eventLoop() % weights.length;
+        break;
+      }
+    }
+
+    if (index == -1) {
+      index = 0;
+      for (int i = 1; i < weights.length; i++) {
+        if (weights[i] < weights[index] || (weights[i] == weights[index] && lag(i) < lag(index))) {
+          index = i;
+        }
+      }
+    }
+
+    for (ComponentContext component : chain) {
+      int weight = Math.max(1, component.weight());
+      placements.put(component.address(), new Placement(index, weight));
+      weights[index] += weight;
+      components[index]++;
+    }
+    return index;
+  }
+
+  /**
+   * Removes a component's placement.
+   *
+   * @param address The component address.
+   */
+  synchronized void release(String address) {
+    Placement placement = placements.remove(address);
+    if (placement != null) {
+      weights[placement.index] -= placement.weight;
+      components[placement.index]--;
+    }
+  }
+
+  private long lag(int index) {
+    return hosts != null && hosts[index] != null ? hosts[index].lag() : 0;
+  }
+
+  /**
+   * Returns the host of an event loop, deploying the hosts of all event loops if necessary.<p>
+   *
+   * Hosts are deployed one at a time. Vert.x assigns deployments to event loops in round
+   * robin order, but other deployments may interleave with the hosts, so a host which
+   * starts on an event loop that already has a host is undeployed and deployed again
+   * until every event loop has exactly one host.
+   *
+   * @param index The event loop index.
+   * @param doneHandler A handler to be called with the event loop's host.
+   */
+  void host(int index, Handler<AsyncResult<EventLoopHost>> doneHandler) {
+    Handler<AsyncResult<Void>> handler = result -> {
+      if (result.succeeded()) {
+        doneHandler.handle(Future.succeededFuture(hosts[index]));
+      } else {
+        doneHandler.handle(Future.failedFuture(result.cause()));
+      }
+    };
+
+    synchronized (this) {
+      if (started) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      waiting.add(handler);
+      if (starting) {
+        return;
+      }
+      starting = true;
+      hosts = new EventLoopHost[weights.length];
+    }
+
+    deployHost(0, new HashSet<>(), weights.length * MAX_ATTEMPTS, result -> {
+      List<Handler<AsyncResult<Void>>> handlers;
+      synchronized (this) {
+        starting = false;
+        started = result.succeeded();
+        if (!started) {
+          hosts = null;
+        }
+        handlers = waiting;
+        waiting = new ArrayList<>();
+      }
+      handlers.forEach(h -> h.handle(result));
+    });
+  }
+
+  /**
+   * Deploys the host of an event loop and the hosts of all following event loops.
+   */
+  private void deployHost(int index, Set<Thread> threads, int attempts, Handler<AsyncResult<Void>> doneHandler) {
+    if (index == weights.length) {
+      doneHandler.handle(Future.succeededFuture());
+      return;
+    }
+    if (attempts == 0) {
+      doneHandler.handle(Future.failedFuture(new VertigoException("Failed to deploy a host on each event loop")));
+      return;
+    }
+
+    EventLoopHost host = new EventLoopHost(index, metrics.metrics(String.valueOf(index)).histogram("lag"));
+    vertx.deployVerticle(host, result -> {
+      if (result.failed()) {
+        doneHandler.handle(Future.failedFuture(result.cause()));
+      } else if (!threads.add(host.thread())) {
+        // The event loop already has a host, so the next deployment goes to the next loop.
+        vertx.undeploy(result.result(), undeployResult -> deployHost(index, threads, attempts - 1, doneHandler));
+      } else {
+        synchronized (this) {
+          hosts[index] = host;
+        }
+        deployHost(index + 1, threads, attempts - 1, doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Placement of a single component.
+   */
+  private static class Placement {
+    private final int index;
+    private final int weight;
+
+    private Placement(int index, int weight) {
+      this.index = index;
+      this.weight = weight;
+    }
+  }
+
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.deployment.impl;
+
+import io.vertx.core.*;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.component.Component;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.instance.ComponentInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verticle which runs a chain of fused components.<p>
+ *
+ * Each component in the chain is instantiated and initialized with its own deployment
+ * configuration, but all components share the fused verticle's context. Components are
+ * started downstream first so that no component sends to a component which hasn't yet
+ * started, and stopped upstream first. Once started, the message handler of each
+ * component fused with its upstream component is registered with the
+ * {@link FusionRegistry} so that the upstream component can call it directly.<p>
+ *
+ * Components may also be added to a running fused verticle, which is how components are
+ * placed on the event loop hosts of the {@link EventLoopScheduler}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class FusedVerticle extends AbstractVerticle {
+  private final List<Member> members = new ArrayList<>();
+  private final List<Member> initial;
+  private FusionRegistry registry;
+  private int running;
+
+  FusedVerticle(List<Member> members) {
+    this.initial = members;
+  }
+
+  /**
+   * Returns whether the verticle stays deployed once all of its components are stopped.
+   */
+  protected boolean persistent() {
+    return false;
+  }
+
+  @Override
+  public void start(Future<Void> startFuture) throws Exception {
+    registry = FusionRegistry.registry(vertx);
+    startMembers(initial, initial.size() - 1, result -> {
+      if (result.succeeded()) {
+        registry.registerDeployment(context.deploymentID(), this);
+        startFuture.complete();
+      } else {
+        startFuture.fail(result.cause());
+      }
+    });
+  }
+
+  /**
+   * Starts a chain of components on the verticle's context.<p>
+   *
+   * This is used to place components in a verticle which is already running.
+   *
+   * @param chain The components to start, ordered from upstream to downstream.
+   * @param doneHandler A handler to be called once the components have been started.
+   */
+  void deployMembers(List<Member> chain, Handler<AsyncResult<Void>> doneHandler) {
+    Context caller = vertx.getOrCreateContext();
+    context.runOnContext(v -> startMembers(chain, chain.size() - 1, result -> caller.runOnContext(c -> doneHandler.handle(result))));
+  }
+
+  /**
+   * Starts the component at the given index of a chain and all components upstream of it.
+   * If a component fails to start, the components of the chain which were already started
+   * are stopped.
+   */
+  private void startMembers(List<Member> chain, int index, Handler<AsyncResult<Void>> doneHandler) {
+    if (index < 0) {
+      doneHandler.handle(Future.succeededFuture());
+      return;
+    }
+
+    Member member = chain.get(index);
+    Future<Void> future = Future.<Void>future().setHandler(result -> {
+      if (result.succeeded()) {
+        register(member);
+        startMembers(chain, index - 1, doneHandler);
+      } else {
+        stopMembers(new ArrayList<>(chain), 0, stopResult -> doneHandler.handle(Future.failedFuture(result.cause())));
+      }
+    });
+
+    try {
+      member.verticle.init(vertx, new MemberContext(context, member.config));
+      member.verticle.start(future);
+    } catch (Exception e) {
+      if (!future.isComplete()) {
+        future.fail(e);
+      }
+    }
+  }
+
+  /**
+   * Registers a started component's message handler if the component is fused with the
+   * component upstream of it. Other components share the verticle's context, e.g. on an
+   * event loop host, but are only ever called over the event bus.
+   */
+  @SuppressWarnings("unchecked")
+  protected void register(Member member) {
+    member.started = true;
+    members.add(member);
+    running++;
+    if (member.fused && member.verticle instanceof Component) {
+      ComponentInstance instance = ((Component) member.verticle).component();
+      if (instance instanceof Handler) {
+        registry.register(member.component.address(), context, (Handler<Message<Object>>) instance);
+      }
+    }
+  }
+
+  @Override
+  public void stop(Future<Void> stopFuture) throws Exception {
+    registry.unregisterDeployment(context.deploymentID());
+    stopMembers(new ArrayList<>(members), 0, result -> {
+      if (result.succeeded()) {
+        stopFuture.complete();
+      } else {
+        stopFuture.fail(result.cause());
+      }
+    });
+  }
+
+  /**
+   * Stops all running components of a chain from the given index downstream.
+   */
+  private void stopMembers(List<Member> chain, int index, Handler<AsyncResult<Void>> doneHandler) {
+    if (index >= chain.size()) {
+      doneHandler.handle(Future.succeededFuture());
+      return;
+    }
+    Member member = chain.get(index);
+    if (!member.started) {
+      stopMembers(chain, index + 1, doneHandler);
+      return;
+    }
+    stopMember(member, result -> {
+      if (result.failed()) {
+        doneHandler.handle(result);
+      } else {
+        stopMembers(chain, index + 1, doneHandler);
+      }
+    });
+  }
+
+  /**
+   * Stops a single component.
+   */
+  private void stopMember(Member member, Handler<AsyncResult<Void>> doneHandler) {
+    registry.unregister(member.component.address());
+    member.started = false;
+    members.remove(member);
+    running--;
+    Future<Void> future = Future.<Void>future().setHandler(doneHandler);
+    try {
+      member.verticle.stop(future);
+    } catch (Exception e) {
+      if (!future.isComplete()) {
+        future.fail(e);
+      }
+    }
+  }
+
+  /**
+   * Stops a single component while the rest of the verticle's components keep running.<p>
+   *
+   * Upstream components which are still connected to the stopped component fall back
+   * to sending over the event bus. Once the last component is stopped the verticle itself
+   * is undeployed unless it is persistent.
+   *
+   * @param address The address of the component to stop.
+   * @param doneHandler A handler to be called once the component has been stopped.
+   */
+  void undeployMember(String address, Handler<AsyncResult<Void>> doneHandler) {
+    Context caller = vertx.getOrCreateContext();
+    context.runOnContext(v -> {
+      for (Member member : members) {
+        if (member.component.address().equals(address)) {
+          stopMember(member, result -> {
+            if (result.succeeded() && running == 0 && !persistent()) {
+              vertx.undeploy(context.deploymentID(), undeployResult -> caller.runOnContext(c -> doneHandler.handle(undeployResult)));
+            } else {
+              caller.runOnContext(c -> doneHandler.handle(result));
+            }
+          });
+          return;
+        }
+      }
+      caller.runOnContext(c -> doneHandler.handle(Future.succeededFuture()));
+    });
+  }
+
+  /**
+   * A component in a fused chain.
+   */
+  static class Member {
+    final ComponentContext component;
+    private final JsonObject config;
+    final Verticle verticle;
+    private final boolean fused;
+    private boolean started;
+
+    Member(ComponentContext component, JsonObject config, Verticle verticle, boolean fused) {
+      this.component = component;
+      this.config = config;
+      this.verticle = verticle;
+      this.fused = fused;
+    }
+  }
+
+  /**
+   * Context passed to fused components.<p>
+   *
+   * Delegates to the fused verticle's context but provides each component with its own
+   * deployment configuration.
+   */
+  private static class MemberContext implements Context {
+    private final Context context;
+    private final JsonObject config;
+
+    private MemberContext(Context context, JsonObject config) {
+      this.context = context;
+      this.config = config;
+    }
+
+    @Override
+    public void runOnContext(Handler<Void> action) {
+      context.runOnContext(action);
+    }
+
+    @Override
+    public <T> void executeBlocking(Handler<Future<T>> blockingCodeHandler, boolean ordered, Handler<AsyncResult<T>> resultHandler) {
+      context.executeBlocking(blockingCodeHandler, ordered, resultHandler);
+    }
+
+    @Override
+    public <T> void executeBlocking(Handler<Future<T>> blockingCodeHandler, Handler<AsyncResult<T>> resultHandler) {
+      context.executeBlocking(blockingCodeHandler, resultHandler);
+    }
+
+    @Override
+    public String deploymentID() {
+      return context.deploymentID();
+    }
+
+    @Override
+    public JsonObject config() {
+      return config;
+    }
+
+    @Override
+    public List<String> processArgs() {
+      return context.processArgs();
+    }
+
+    @Override
+    public boolean isEventLoopContext() {
+      return context.isEventLoopContext();
+    }
+
+    @Override
+    public boolean isWorkerContext() {
+      return context.isWorkerContext();
+    }
+
+    @Override
+    public boolean isMultiThreadedWorkerContext() {
+      return context.isMultiThreadedWorkerContext();
+    }
+
+    @Override
+    public <T> T get(String key) {
+      return context.get(key);
+    }
+
+    @Override
+    public void put(String key, Object value) {
+      context.put(key, value);
+    }
+
+    @Override
+    public boolean remove(String key) {
+      return context.remove(key);
+    }
+
+    @Override
+    public Vertx owner() {
+      return context.owner();
+    }
+
+    @Override
+    public int getInstanceCount() {
+      return context.getInstanceCount();
+    }
+
+    @Override
+    public Context exceptionHandler(Handler<Throwable> handler) {
+      context.exceptionHandler(handler);
+      return this;
+    }
+
+    @Override
+    public Handler<Throwable> exceptionHandler() {
+      return context.exceptionHandler();
+    }
+
+    @Override
+    public void addCloseHook(Closeable hook) {
+      context.addCloseHook(hook);
+    }
+
+    @Override
+    public void removeCloseHook(Closeable hook) {
+      context.removeCloseHook(hook);
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.deployment.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of fused components.<p>
+ *
+ * Components which are fused into a single verticle register their message handlers
+ * here once started. Output connections look up the handler for their target address
+ * and deliver messages to it directly when the sender is running on the same context,
+ * bypassing the event bus.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class FusionRegistry implements Shareable {
+  private static final String FUSION_KEY = "vertigo.fusion";
+  private static final String REGISTRY_KEY = "registry";
+  private final Map<String, Member> members = new ConcurrentHashMap<>();
+  private final Map<String, FusedVerticle> deployments = new ConcurrentHashMap<>();
+
+  private FusionRegistry() {
+  }
+
+  /**
+   * Returns the fusion registry for the given Vert.x instance.
+   *
+   * @param vertx The Vert.x instance.
+   * @return The Vert.x instance's fusion registry.
+   */
+  public static FusionRegistry registry(Vertx vertx) {
+    LocalMap<String, FusionRegistry> map = vertx.sharedData().getLocalMap(FUSION_KEY);
+    FusionRegistry registry = map.get(REGISTRY_KEY);
+    if (registry == null) {
+      synchronized (FusionRegistry.class) {
+        registry = map.get(REGISTRY_KEY);
+        if (registry == null) {
+          registry = new FusionRegistry();
+          map.put(REGISTRY_KEY, registry);
+        }
+      }
+    }
+    return registry;
+  }
+
+  /**
+   * Returns the handler of a fused component if it can be called from the current context.
+   *
+   * @param address The component address.
+   * @return The component's message handler or {@code null} if the component is not fused
+   *         with the calling component.
+   */
+  public Handler<Message<Object>> handler(String address) {
+    Member member = members.get(address);
+    if (member != null && member.context == Vertx.currentContext()) {
+      return member.handler;
+    }
+    return null;
+  }
+
+  /**
+   * Registers the message handler of a fused component.
+   */
+  void register(String address, Context context, Handler<Message<Object>> handler) {
+    members.put(address, new Member(context, handler));
+  }
+
+  /**
+   * Unregisters the message handler of a fused component.
+   */
+  void unregister(String address) {
+    members.remove(address);
+  }
+
+  /**
+   * Returns the fused verticle with the given deployment ID.
+   */
+  FusedVerticle deployment(String deploymentId) {
+    return deploymentId != null ? deployments.get(deploymentId) : null;
+  }
+
+  /**
+   * Registers a deployed fused verticle.
+   */
+  void registerDeployment(String deploymentId, FusedVerticle verticle) {
+    deployments.put(deploymentId, verticle);
+  }
+
+  /**
+   * Unregisters a fused verticle.
+   */
+  void unregisterDeployment(String deploymentId) {
+    deployments.remove(deploymentId);
+  }
+
+  /**
+   * Fused component handler.
+   */
+  private static class Member {
+    private final Context context;
+    private final Handler<Message<Object>> handler;
+
+    private Member(Context context, Handler<Message<Object>> handler) {
+      this.context = context;
+      this.handler = handler;
+    }
+  }
+
+}
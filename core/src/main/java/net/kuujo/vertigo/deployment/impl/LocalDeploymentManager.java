@@ -16,23 +16,41 @@
 package net.kuujo.vertigo.deployment.impl;
 
 import io.vertx.core.*;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.LocalMap;
 import net.kuujo.vertigo.deployment.DeploymentManager;
 import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.component.Component;
 import net.kuujo.vertigo.context.ComponentContext;
 import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.NetworkDiff;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.context.InputConnectionContext;
+import net.kuujo.vertigo.context.InputPortContext;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
 import net.kuujo.vertigo.reference.NetworkReference;
 import net.kuujo.vertigo.reference.impl.NetworkReferenceImpl;
 import net.kuujo.vertigo.util.CountingCompletionHandler;
 
+import java.util.*;
+
 /**
- * Local context manager implementation.
+ * Local context manager implementation.<p>
+ *
+ * Components which are connected one-to-one are fused into a single verticle when
+ * deploying a network so that messages between them are delivered by calling the
+ * downstream component directly rather than over the event bus. Components with a
+ * weight or an explicit event loop are placed on event loops by the
+ * {@link EventLoopScheduler}.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class LocalDeploymentManager implements DeploymentManager {
   private static final String NETWORKS_KEY = "vertigo";
+  private static final String ACTION_HEADER = "action";
+  private static final String UPDATE_ACTION = "update";
   private final Vertx vertx;
 
   LocalDeploymentManager(Vertx vertx) {
@@ -53,38 +71,349 @@ public class LocalDeploymentManager implements DeploymentManager {
   @Override
   public DeploymentManager deployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler) {
 
+    // Register port codecs once so that they're shared by all component instances.
+    try {
+      CodecRegistry.registry(vertx).register(network);
+    } catch (VertigoException e) {
+      Future.<Void>failedFuture(e).setHandler(doneHandler);
+      return this;
+    }
+
     // Add to local map to make it accessible from the component.start() methods
     vertx.sharedData().<String, NetworkContext>getLocalMap(NETWORKS_KEY).put(network.name(), network);
 
-    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(network.components().size()).setHandler(result -> {
+    List<List<ComponentContext>> chains = fusedChains(network);
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(chains.size()).setHandler(result -> {
       if (result.failed()) {
         vertx.sharedData().<String, NetworkContext>getLocalMap(NETWORKS_KEY).remove(network.name());
       }
       doneHandler.handle(result);
     });
 
+    for (List<ComponentContext> chain : chains) {
+      deployChain(network, chain, counter);
+    }
+    return this;
+  }
+
+  /**
+   * Groups the components of a network into chains of fused components.<p>
+   *
+   * A component is fused with a downstream component if all of its output connections
+   * target that component, all of the downstream component's input connections come from
+   * it, and both components are fusible Java components deployed with the same options.
+   * Components which can't be fused are returned as chains of a single component.
+   */
+  private List<List<ComponentContext>> fusedChains(NetworkContext network) {
+    Map<String, ComponentContext> components = new HashMap<>();
     for (ComponentContext component : network.components()) {
+      components.put(component.address(), component);
+    }
 
-      JsonObject config = new JsonObject()
-          .put("vertigo_component_context", component.toJson());
+    Map<String, ComponentContext> next = new HashMap<>();
+    Set<String> fused = new HashSet<>();
+    for (ComponentContext component : network.components()) {
+      ComponentContext target = fusionTarget(components, component);
+      if (target != null) {
+        next.put(component.address(), target);
+        fused.add(target.address());
+      }
+    }
 
-      if (component.config() != null) {
-        config.mergeIn(component.config());
+    List<List<ComponentContext>> chains = new ArrayList<>();
+    Set<String> visited = new HashSet<>();
+    for (ComponentContext component : network.components()) {
+      if (!fused.contains(component.address())) {
+        List<ComponentContext> chain = new ArrayList<>();
+        ComponentContext current = component;
+        while (current != null && visited.add(current.address())) {
+          chain.add(current);
+          current = next.get(current.address());
+        }
+        chains.add(chain);
       }
+    }
+
+    // Components which are fusible in a cycle have no head and are deployed individually.
+    for (ComponentContext component : network.components()) {
+      if (!visited.contains(component.address())) {
+        chains.add(Collections.singletonList(component));
+      }
+    }
+    return chains;
+  }
+
+  /**
+   * Returns the component with which the given component can be fused, if any.
+   */
+  private ComponentContext fusionTarget(Map<String, ComponentContext> components, ComponentContext component) {
+    if (!isFusible(component)) {
+      return null;
+    }
+
+    String address = null;
+    for (OutputPortContext port : component.output().ports()) {
+      for (OutputConnectionContext connection : port.connections()) {
+        // Pull connections distribute messages across replicas on request.
+        if (connection.pull()) {
+          return null;
+        }
+        if (address == null) {
+          address = connection.target().address();
+        } else if (!address.equals(connection.target().address())) {
+          return null;
+        }
+      }
+    }
+
+    ComponentContext target = address != null ? components.get(address) : null;
+    if (target == null || target == component || !isFusible(target)
+        || target.worker() != component.worker()
+        || target.multiThreaded() != component.multiThreaded()
+        || target.replicas() != component.replicas()) {
+      return null;
+    }
 
-      DeploymentOptions options = new DeploymentOptions()
-          .setConfig(config)
-          .setWorker(component.worker())
-          .setMultiThreaded(component.multiThreaded());
+    for (InputPortContext port : target.input().ports()) {
+      for (InputConnectionContext connection : port.connections()) {
+        if (!component.address().equals(connection.source().address())) {
+          return null;
+        }
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Returns whether a component can be fused with other components.
+   */
+  private boolean isFusible(ComponentContext component) {
+    return component.fusible() && isJavaComponent(component);
+  }
+
+  /**
+   * Returns whether a component's main is a Java component class which can be
+   * instantiated by the deployment manager.
+   */
+  private boolean isJavaComponent(ComponentContext component) {
+    if (component.main() == null) {
+      return false;
+    }
+    try {
+      Class<?> clazz = loadClass(component.main());
+      return Component.class.isAssignableFrom(clazz) && Verticle.class.isAssignableFrom(clazz);
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Loads a component class.
+   */
+  private Class<?> loadClass(String main) throws ClassNotFoundException {
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    return Class.forName(main, false, loader != null ? loader : getClass().getClassLoader());
+  }
+
+  /**
+   * Deploys a chain of fused components.<p>
+   *
+   * Chains which request placement are placed on an event loop host, other chains are
+   * deployed as a single verticle.
+   */
+  private void deployChain(NetworkContext network, List<ComponentContext> chain, Handler<AsyncResult<Void>> doneHandler) {
+    ComponentContext head = chain.get(0);
+    boolean scheduled = !head.worker() && EventLoopScheduler.isScheduled(chain) && isJavaComponent(head);
+    if (chain.size() == 1 && !scheduled) {
+      deployComponent(network, head, doneHandler);
+      return;
+    }
+
+    List<JsonObject> configs = new ArrayList<>(chain.size());
+    List<FusedVerticle.Member> members = new ArrayList<>(chain.size());
+    try {
+      // Only components which were paired with the component upstream of them are fused.
+      for (int i = 0; i < chain.size(); i++) {
+        ComponentContext component = chain.get(i);
+        JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, component, true);
+        configs.add(config);
+        Verticle verticle = (Verticle) loadClass(component.main()).getDeclaredConstructor().newInstance();
+        members.add(new FusedVerticle.Member(component, config, verticle, i > 0));
+      }
+    } catch (Exception e) {
+      configs.forEach(config -> ConfigComponentContextManager.release(vertx, config));
+      doneHandler.handle(Future.failedFuture(new VertigoException(e)));
+      return;
+    }
+
+    if (scheduled) {
+      deployScheduled(network, chain, members, configs, doneHandler);
+      return;
+    }
+
+    DeploymentOptions options = new DeploymentOptions()
+        .setWorker(head.worker())
+        .setMultiThreaded(head.multiThreaded());
+
+    vertx.deployVerticle(new FusedVerticle(members), options, result -> {
+      configs.forEach(config -> ConfigComponentContextManager.release(vertx, config));
+      if (result.failed()) {
+        doneHandler.handle(Future.failedFuture(result.cause()));
+      } else {
+        // Every component in the chain maps to the fused deployment so that components
+        // can still be updated and undeployed by address.
+        LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
+        for (ComponentContext component : chain) {
+          deploymentIds.put(component.address(), result.result());
+        }
+        doneHandler.handle(Future.succeededFuture());
+      }
+    });
+  }
 
-      vertx.deployVerticle(component.main(), options, result -> {
+  /**
+   * Places a chain of components on an event loop host.
+   */
+  private void deployScheduled(NetworkContext network, List<ComponentContext> chain, List<FusedVerticle.Member> members,
+                               List<JsonObject> configs, Handler<AsyncResult<Void>> doneHandler) {
+    EventLoopScheduler scheduler = EventLoopScheduler.scheduler(vertx);
+    int index = scheduler.place(chain);
+    scheduler.host(index, hostResult -> {
+      if (hostResult.failed()) {
+        configs.forEach(config -> ConfigComponentContextManager.release(vertx, config));
+        chain.forEach(component -> scheduler.release(component.address()));
+        doneHandler.handle(Future.failedFuture(hostResult.cause()));
+        return;
+      }
+
+      EventLoopHost host = hostResult.result();
+      host.deployMembers(members, result -> {
+        configs.forEach(config -> ConfigComponentContextManager.release(vertx, config));
         if (result.failed()) {
-          counter.fail(result.cause());
+          chain.forEach(component -> scheduler.release(component.address()));
+          doneHandler.handle(Future.failedFuture(result.cause()));
         } else {
-          vertx.sharedData().<String, String>getLocalMap(network.name()).put(component.address(), result.result());
-          counter.succeed();
+          LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
+          for (ComponentContext component : chain) {
+            deploymentIds.put(component.address(), host.deploymentID());
+          }
+          doneHandler.handle(Future.succeededFuture());
+        }
+      });
+    });
+  }
+
+  /**
+   * Deploys a single component of a network.
+   */
+  private void deployComponent(NetworkContext network, ComponentContext component, Handler<AsyncResult<Void>> doneHandler) {
+
+    // Pass the context in memory rather than serializing it into the deployment config.
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, component, true);
+
+    DeploymentOptions options = new DeploymentOptions()
+        .setConfig(config)
+        .setWorker(component.worker())
+        .setMultiThreaded(component.multiThreaded());
+
+    vertx.deployVerticle(component.main(), options, result -> {
+      ConfigComponentContextManager.release(vertx, config);
+      if (result.failed()) {
+        doneHandler.handle(Future.failedFuture(result.cause()));
+      } else {
+        vertx.sharedData().<String, String>getLocalMap(network.name()).put(component.address(), result.result());
+        doneHandler.handle(Future.succeededFuture());
+      }
+    });
+  }
+
+  /**
+   * Undeploys a single component of a network.
+   */
+  private void undeployComponent(NetworkContext network, ComponentContext component, Handler<AsyncResult<Void>> doneHandler) {
+    String deploymentId = vertx.sharedData().<String, String>getLocalMap(network.name()).remove(component.address());
+    EventLoopScheduler.scheduler(vertx).release(component.address());
+    FusedVerticle fused = FusionRegistry.registry(vertx).deployment(deploymentId);
+    if (fused != null) {
+      fused.undeployMember(component.address(), doneHandler);
+    } else if (deploymentId != null) {
+      vertx.undeploy(deploymentId, doneHandler);
+    } else {
+      Future.<Void>succeededFuture().setHandler(doneHandler);
+    }
+  }
+
+  /**
+   * Sends an updated context to a deployed component.
+   */
+  private void updateComponent(ComponentContext component, Handler<AsyncResult<Void>> doneHandler) {
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, component, true);
+    DeliveryOptions options = new DeliveryOptions().addHeader(ACTION_HEADER, UPDATE_ACTION);
+    vertx.eventBus().send(component.address(), config, options, result -> {
+      ConfigComponentContextManager.release(vertx, config);
+      if (result.failed()) {
+        doneHandler.handle(Future.failedFuture(result.cause()));
+      } else {
+        doneHandler.handle(Future.succeededFuture());
+      }
+    });
+  }
+
+  @Override
+  public DeploymentManager updateNetwork(NetworkContext current, NetworkContext updated, Handler<AsyncResult<Void>> doneHandler) {
+    try {
+      CodecRegistry.registry(vertx).register(updated);
+    } catch (VertigoException e) {
+      Future.<Void>failedFuture(e).setHandler(doneHandler);
+      return this;
+    }
+
+    NetworkDiff diff = NetworkDiff.diff(current, updated);
+
+    // New components are deployed before existing components are connected to them so
+    // that upstream components never send to an address with no consumer. Components
+    // which are no longer connected to are undeployed last.
+    CountingCompletionHandler<Void> deployed = new CountingCompletionHandler<Void>(diff.added().size()).setHandler(deployResult -> {
+      if (deployResult.failed()) {
+        doneHandler.handle(deployResult);
+        return;
+      }
+
+      CountingCompletionHandler<Void> reconnected = new CountingCompletionHandler<Void>(diff.reconnected().size()).setHandler(updateResult -> {
+        if (updateResult.failed()) {
+          doneHandler.handle(updateResult);
+          return;
+        }
+
+        CountingCompletionHandler<Void> undeployed = new CountingCompletionHandler<Void>(diff.removed().size() + diff.redeployed().size()).setHandler(result -> {
+          if (result.succeeded()) {
+            vertx.sharedData().<String, NetworkContext>getLocalMap(NETWORKS_KEY).put(updated.name(), updated);
+          }
+          doneHandler.handle(result);
+        });
+
+        for (ComponentContext component : diff.removed()) {
+          undeployComponent(current, component, undeployed);
+        }
+
+        for (ComponentContext component : diff.redeployed()) {
+          undeployComponent(current, current.component(component.name()), result -> {
+            if (result.failed()) {
+              undeployed.fail(result.cause());
+            } else {
+              deployChain(updated, Collections.singletonList(component), undeployed);
+            }
+          });
         }
       });
+
+      for (ComponentContext component : diff.reconnected()) {
+        updateComponent(component, reconnected);
+      }
+    });
+
+    for (ComponentContext component : diff.added()) {
+      deployChain(updated, Collections.singletonList(component), deployed);
     }
     return this;
   }
@@ -93,7 +422,27 @@ public class LocalDeploymentManager implements DeploymentManager {
   public DeploymentManager undeployNetwork(NetworkContext network, Handler<AsyncResult<Void>> doneHandler) {
     LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
 
-    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(deploymentIds.size()).setHandler(result -> {
+    // Fused components share a deployment, so each deployment is only undeployed once.
+    // Components placed on an event loop host are stopped individually since the host
+    // is shared with other networks.
+    FusionRegistry registry = FusionRegistry.registry(vertx);
+    EventLoopScheduler scheduler = EventLoopScheduler.scheduler(vertx);
+    Set<String> deployments = new LinkedHashSet<>();
+    Map<String, FusedVerticle> hosted = new LinkedHashMap<>();
+    for (ComponentContext component : network.components()) {
+      String deploymentId = deploymentIds.get(component.address());
+      if (deploymentId != null) {
+        scheduler.release(component.address());
+        FusedVerticle fused = registry.deployment(deploymentId);
+        if (fused != null && fused.persistent()) {
+          hosted.put(component.address(), fused);
+        } else {
+          deployments.add(deploymentId);
+        }
+      }
+    }
+
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<Void>(deployments.size() + hosted.size()).setHandler(result -> {
       if (result.succeeded()) {
         vertx.sharedData().<String, NetworkContext>getLocalMap(NETWORKS_KEY).remove(network.name());
         vertx.sharedData().<String, String>getLocalMap(network.name()).clear();
@@ -101,11 +450,11 @@ public class LocalDeploymentManager implements DeploymentManager {
       doneHandler.handle(result);
     });
 
-    for (ComponentContext component : network.components()) {
-      String deploymentId = deploymentIds.get(component.address());
-      if (deploymentId != null) {
-        vertx.undeploy(deploymentId, counter);
-      }
+    for (String deploymentId : deployments) {
+      vertx.undeploy(deploymentId, counter);
+    }
+    for (Map.Entry<String, FusedVerticle> entry : hosted.entrySet()) {
+      entry.getValue().undeployMember(entry.getKey(), counter);
     }
     return this;
   }
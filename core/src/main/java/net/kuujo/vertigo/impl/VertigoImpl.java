@@ -25,6 +25,7 @@ import net.kuujo.vertigo.VertigoOptions;
 import net.kuujo.vertigo.network.NetworkConfig;
 import net.kuujo.vertigo.context.ContextBuilder;
 import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.NetworkDiff;
 import net.kuujo.vertigo.reference.NetworkReference;
 import net.kuujo.vertigo.reference.impl.NetworkReferenceImpl;
 
@@ -74,6 +75,44 @@ public class VertigoImpl implements Vertigo {
     return this;
   }
 
+  @Override
+  public Vertigo updateNetwork(NetworkConfig network) {
+    return updateNetwork(network, null);
+  }
+
+  @Override
+  public Vertigo updateNetwork(NetworkConfig network, Handler<AsyncResult<NetworkReference>> doneHandler) {
+    manager.getNetwork(network.getName(), currentResult -> {
+      if (currentResult.failed()) {
+        deployNetwork(network, doneHandler);
+        return;
+      }
+
+      NetworkContext current = currentResult.result();
+      NetworkContext updated;
+      try {
+        updated = ContextBuilder.buildContext(network, current);
+      } catch (Exception e) {
+        Future.<NetworkReference>failedFuture(e).setHandler(doneHandler);
+        return;
+      }
+
+      if (NetworkDiff.diff(current, updated).isEmpty()) {
+        Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, current)).setHandler(doneHandler);
+        return;
+      }
+
+      manager.updateNetwork(current, updated, result -> {
+        if (result.failed()) {
+          Future.<NetworkReference>failedFuture(result.cause()).setHandler(doneHandler);
+        } else {
+          Future.<NetworkReference>succeededFuture(new NetworkReferenceImpl(vertx, updated)).setHandler(doneHandler);
+        }
+      });
+    });
+    return this;
+  }
+
   @Override
   public Vertigo undeployNetwork(String id) {
     return undeployNetwork(id, null);
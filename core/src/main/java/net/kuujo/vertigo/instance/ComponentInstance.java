@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.instance;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -23,6 +24,9 @@ import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.state.StateSerializer;
+import net.kuujo.vertigo.state.StateStore;
 
 /**
  * The component is the primary unit of processing in Vertigo. Vertigo
@@ -114,6 +118,39 @@ public interface ComponentInstance {
 //  @Fluent
 //  ComponentInstance recover(Handler<JsonObject> handler);
 
+  /**
+   * Returns a keyed state store, creating it if necessary.<p>
+   *
+   * State stores hold their entries off the Java heap and may only be opened by
+   * components which are configured as {@code stateful}. Stores are identified by name,
+   * so each call with the same name returns the same store.
+   *
+   * @param name The name of the state store.
+   * @param keySerializer The key serializer.
+   * @param valueSerializer The value serializer.
+   * @param <K> The key type.
+   * @param <V> The value type.
+   * @return The state store.
+   * @throws IllegalStateException If the component is not stateful.
+   */
+  @GenIgnore
+  <K, V> StateStore<K, V> state(String name, StateSerializer<K> keySerializer, StateSerializer<V> valueSerializer);
+
+  /**
+   * Returns a keyed state store, creating it if necessary.
+   *
+   * @param name The name of the state store.
+   * @param keySerializer The key serializer.
+   * @param valueSerializer The value serializer.
+   * @param cacheSize The maximum number of decoded entries to cache on the heap.
+   * @param <K> The key type.
+   * @param <V> The value type.
+   * @return The state store.
+   * @throws IllegalStateException If the component is not stateful.
+   */
+  @GenIgnore
+  <K, V> StateStore<K, V> state(String name, StateSerializer<K> keySerializer, StateSerializer<V> valueSerializer, int cacheSize);
+
   /**
    * Starts the component.
    *
@@ -143,4 +180,15 @@ public interface ComponentInstance {
    */
   void stop(Handler<AsyncResult<Void>> doneHandler);
 
+  /**
+   * Returns the component instance metrics.<p>
+   *
+   * The metrics include counters, gauges and latency histograms for each input and
+   * output port and connection of the instance. If the component's metrics interval is
+   * set, the metrics are also published periodically to {@link Metrics#METRICS_ADDRESS}.
+   *
+   * @return The component instance metrics.
+   */
+  Metrics metrics();
+
 }
@@ -15,6 +15,8 @@
  */
 package net.kuujo.vertigo.instance;
 
+import net.kuujo.vertigo.metrics.Metrics;
+
 /**
  * Connection between two partitions of two components.<p>
  *
@@ -26,4 +28,12 @@ package net.kuujo.vertigo.instance;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public interface Connection {
+
+  /**
+   * Returns the connection metrics.
+   *
+   * @return The connection metrics.
+   */
+  Metrics metrics();
+
 }
@@ -68,4 +68,11 @@ public interface ControllableOutput<T extends Output<T, U>, U> extends Output<T,
    */
   T drainedHandler(Handler<Void> handler);
 
+  /**
+   * Returns the output's drain handler.
+   *
+   * @return The handler to be called when the output drains or {@code null} if no handler is set.
+   */
+  Handler<Void> drainedHandler();
+
 }
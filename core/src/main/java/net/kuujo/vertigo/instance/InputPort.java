@@ -18,6 +18,7 @@ package net.kuujo.vertigo.instance;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
+import net.kuujo.vertigo.message.MessageBatch;
 
 /**
  * Input port on which messages are received.<p>
@@ -31,4 +32,39 @@ import io.vertx.core.eventbus.Message;
  */
 @VertxGen
 public interface InputPort<T> extends Port<InputPort<T>>, Input<InputPort<T>, T>, Handler<Message<T>> {
+
+  /**
+   * The default maximum number of messages in a batch.
+   */
+  static final int DEFAULT_BATCH_SIZE = 100;
+
+  /**
+   * The default maximum time in milliseconds to wait for a batch to fill.
+   */
+  static final long DEFAULT_BATCH_WAIT = 10;
+
+  /**
+   * Registers a batch handler on the port using the default batch size and wait time.<p>
+   *
+   * Registering a batch handler replaces any message handler registered on the port.
+   *
+   * @param handler A handler to be called with each batch of messages.
+   * @return The input port.
+   */
+  InputPort<T> batchHandler(Handler<MessageBatch<T>> handler);
+
+  /**
+   * Registers a batch handler on the port.<p>
+   *
+   * Messages are collected until either {@code maxSize} messages have been received or
+   * {@code maxWait} milliseconds have passed since the first message of the batch was
+   * received. Registering a batch handler replaces any message handler registered on the port.
+   *
+   * @param maxSize The maximum number of messages in a batch.
+   * @param maxWait The maximum time in milliseconds to wait for a batch to fill.
+   * @param handler A handler to be called with each batch of messages.
+   * @return The input port.
+   */
+  InputPort<T> batchHandler(int maxSize, long maxWait, Handler<MessageBatch<T>> handler);
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance;
+
+import io.vertx.core.Handler;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Input port specialized for {@code int} values.<p>
+ *
+ * Values are received in {@code int[]} frames as sent by a {@link IntOutputPort}.
+ * Boxed {@link Integer} messages sent by standard output ports are also accepted. Each frame
+ * is acked once the handler has been called for all of its values, or failed if the handler
+ * throws an exception.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface IntInputPort {
+
+  /**
+   * Returns the port name.
+   *
+   * @return The port name.
+   */
+  String name();
+
+  /**
+   * Registers a handler to be called for each value received on the port.
+   *
+   * @param handler The value handler.
+   * @return The input port.
+   */
+  IntInputPort handler(IntConsumer handler);
+
+  /**
+   * Registers a handler to be called for each frame received on the port.
+   *
+   * @param handler The frame handler.
+   * @return The input port.
+   */
+  IntInputPort frameHandler(Handler<int[]> handler);
+
+}
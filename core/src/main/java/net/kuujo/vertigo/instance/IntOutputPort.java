@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance;
+
+/**
+ * Output port specialized for {@code int} values.<p>
+ *
+ * Values are written into {@code int[]} frames which are sent on the underlying
+ * output port once a frame is full or at the end of the current event loop tick,
+ * so values are never boxed on their way through the event bus. Primitive ports must
+ * only be used from the component's context.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface IntOutputPort {
+
+  /**
+   * The default number of values per frame.
+   */
+  static final int DEFAULT_FRAME_SIZE = 256;
+
+  /**
+   * Returns the port name.
+   *
+   * @return The port name.
+   */
+  String name();
+
+  /**
+   * Sends a value on the port.
+   *
+   * @param value The value to send.
+   * @return The output port.
+   */
+  IntOutputPort send(int value);
+
+  /**
+   * Sends a number of values on the port.
+   *
+   * @param values The values to send.
+   * @return The output port.
+   */
+  IntOutputPort send(int[] values);
+
+  /**
+   * Immediately sends any buffered values.
+   *
+   * @return The output port.
+   */
+  IntOutputPort flush();
+
+}
@@ -18,6 +18,7 @@ package net.kuujo.vertigo.instance;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
+import net.kuujo.vertigo.metrics.Metrics;
 
 import java.util.Collection;
 
@@ -51,4 +52,31 @@ public interface OutputCollector extends Handler<Message<Object>> {
    */
   <T> OutputPort<T> port(String name);
 
+  /**
+   * Returns a {@code long} specialized view of an output port.<p>
+   *
+   * Values sendd on the returned port are framed into {@code long[]} messages.
+   *
+   * @param name The name of the port to load.
+   * @return A {@code long} output port.
+   */
+  LongOutputPort longPort(String name);
+
+  /**
+   * Returns an {@code int} specialized view of an output port.<p>
+   *
+   * Values sendd on the returned port are framed into {@code int[]} messages.
+   *
+   * @param name The name of the port to load.
+   * @return An {@code int} output port.
+   */
+  IntOutputPort intPort(String name);
+
+  /**
+   * Returns the output metrics, including the metrics of all output ports.
+   *
+   * @return The output metrics.
+   */
+  Metrics metrics();
+
 }
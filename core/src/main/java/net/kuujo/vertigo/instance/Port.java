@@ -15,6 +15,8 @@
  */
 package net.kuujo.vertigo.instance;
 
+import net.kuujo.vertigo.metrics.Metrics;
+
 /**
  * Base port type.
  *
@@ -43,4 +45,11 @@ public interface Port<T extends Port<T>> {
    */
   T replay();
 
+  /**
+   * Returns the port metrics, including the metrics of the port's connections.
+   *
+   * @return The port metrics.
+   */
+  Metrics metrics();
+
 }
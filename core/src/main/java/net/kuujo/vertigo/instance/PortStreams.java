@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import net.kuujo.vertigo.instance.impl.InputPortBodyStream;
+import net.kuujo.vertigo.instance.impl.InputPortReadStream;
+import net.kuujo.vertigo.instance.impl.OutputPortWriteStream;
+import net.kuujo.vertigo.message.VertigoMessage;
+
+import java.util.function.Function;
+
+/**
+ * Vert.x stream adapters for ports.<p>
+ *
+ * Input ports can be read as {@link ReadStream}s and output ports written as
+ * {@link WriteStream}s, so ports can be pumped to and from files, sockets and HTTP
+ * bodies. Pausing an input stream pauses the port, and an output stream's write queue
+ * is full while the port's send queue is full, so backpressure from a slow component
+ * propagates back through the components sending to it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class PortStreams {
+
+  private PortStreams() {
+  }
+
+  /**
+   * Returns a stream of the messages received on an input port.
+   *
+   * @param port The input port.
+   * @param <T> The message type.
+   * @return A read stream of messages which must be acked by the handler.
+   */
+  public static <T> ReadStream<VertigoMessage<T>> messages(InputPort<T> port) {
+    return new InputPortReadStream<>(port);
+  }
+
+  /**
+   * Returns a stream of the bodies of messages received on an input port.
+   *
+   * @param port The input port.
+   * @param <T> The message type.
+   * @return A read stream of message bodies. Messages are acked once handled.
+   */
+  public static <T> ReadStream<T> readStream(InputPort<T> port) {
+    return new InputPortBodyStream<>(port);
+  }
+
+  /**
+   * Returns a stream which sends to an output port.
+   *
+   * @param port The output port.
+   * @param <T> The message type.
+   * @return A write stream which sends each write to the port.
+   */
+  public static <T> WriteStream<T> writeStream(OutputPort<T> port) {
+    return new OutputPortWriteStream<T, T>(port, Function.identity());
+  }
+
+  /**
+   * Pipes messages from an input port to an output port.<p>
+   *
+   * Each message is transformed and sent to the output port, and is acked once the
+   * transformed message has been acked. The input port is paused while the output
+   * port's send queue is full.
+   *
+   * @param input The input port.
+   * @param transform A function which transforms message bodies.
+   * @param output The output port.
+   * @param <T> The input message type.
+   * @param <U> The output message type.
+   * @return The started pump.
+   */
+  public static <T, U> Pump pipe(InputPort<T> input, Function<T, U> transform, OutputPort<U> output) {
+    WriteStream<VertigoMessage<T>> writeStream = new OutputPortWriteStream<VertigoMessage<T>, U>(output, message -> transform.apply(message.body())) {
+      @Override
+      protected void send(VertigoMessage<T> message, Handler<AsyncResult<Void>> ackHandler) {
+        super.send(message, result -> {
+          message.handle(result);
+          ackHandler.handle(result);
+        });
+      }
+    };
+    return Pump.pump(messages(input), writeStream).start();
+  }
+
+}
@@ -8,7 +8,10 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.InputConnectionContext;
 import net.kuujo.vertigo.instance.InputConnection;
+import net.kuujo.vertigo.message.Lineage;
 import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
 import net.kuujo.vertigo.spi.VertigoMessageFactory;
 
 import java.util.UUID;
@@ -31,6 +34,8 @@ public abstract class AbstractInputConnection<T> implements InputConnection<T>,
 
   protected final VertigoMessageFactory messageFactory;
   protected Handler<VertigoMessage<T>> messageHandler;
+  protected final Metrics metrics = new Metrics();
+  protected final Counter received = metrics.counter("received");
 
   protected AbstractInputConnection(Vertx vertx, InputConnectionContext context, VertigoMessageFactory messageFactory) {
     this.vertx = vertx;
@@ -39,6 +44,11 @@ public abstract class AbstractInputConnection<T> implements InputConnection<T>,
     this.messageFactory = messageFactory;
   }
 
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public void handle(Message<T> message) {
     doMessage(message);
@@ -56,14 +66,28 @@ public abstract class AbstractInputConnection<T> implements InputConnection<T>,
    */
   @SuppressWarnings("unchecked")
   protected void doMessage(final Message<T> message) {
+    received.increment();
     if (messageHandler != null) {
       String id = message.headers().get(ID_HEADER);
       if (id == null) {
         id = UUID.randomUUID().toString();
       }
-      VertigoMessage<T> vertigoMessage = messageFactory.<T>createVertigoMessage(id, message);
-      logger.debug("{} - Received: Message[name={}, value={}]", this, id, message);
-      doVertigoMessage(vertigoMessage);
+      Lineage.Anchor anchor = Lineage.receive(message.headers());
+      if (anchor != null) {
+        // Messages sent while the handler runs are anchored to the received message.
+        VertigoMessage<T> vertigoMessage = messageFactory.<T>createVertigoMessage(id, new LineageMessage<>(eventBus, message, anchor));
+        logger.debug("{} - Received: Message[name={}, value={}]", this, id, message);
+        Lineage.Anchor previous = Lineage.enter(anchor);
+        try {
+          doVertigoMessage(vertigoMessage);
+        } finally {
+          Lineage.exit(previous);
+        }
+      } else {
+        VertigoMessage<T> vertigoMessage = messageFactory.<T>createVertigoMessage(id, message);
+        logger.debug("{} - Received: Message[name={}, value={}]", this, id, message);
+        doVertigoMessage(vertigoMessage);
+      }
     }
   }
 
@@ -4,11 +4,20 @@ import io.vertx.core.*;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.deployment.impl.FusionRegistry;
 import net.kuujo.vertigo.instance.OutputConnection;
+import net.kuujo.vertigo.message.Lineage;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+import net.kuujo.vertigo.message.impl.CompressingMessageCodec;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
 
 import java.util.UUID;
 
@@ -18,6 +27,7 @@ import java.util.UUID;
 public abstract class AbstractOutputConnection<T> implements OutputConnection<T>, Handler<Message<T>> {
   protected static final String ACTION_HEADER = "action";
   protected static final String PORT_HEADER = "port";
+  protected static final String SOURCE_HEADER = "source";
   protected static final String TARGET_HEADER = "target";
   protected static final String ID_HEADER = "name";
   protected static final String INDEX_HEADER = "index";
@@ -28,6 +38,18 @@ public abstract class AbstractOutputConnection<T> implements OutputConnection<T>
   protected final Vertx vertx;
   protected final EventBus eventBus;
   protected final OutputConnectionContext context;
+  protected final String codecName;
+  private final MessageCodec<Object, Object> codec;
+  private final FusionRegistry fusion;
+  private boolean delivering;
+  protected final Metrics metrics = new Metrics();
+  protected final Counter sent = metrics.counter("sent");
+  protected final Counter acked = metrics.counter("acked");
+  protected final Counter failed = metrics.counter("failed");
+  protected final Counter pauses = metrics.counter("pauses");
+  protected final Counter pauseTime = metrics.counter("pause-time");
+  protected final Histogram ackLatency = metrics.histogram("ack-latency");
+  private long pausedAt;
 
   private static final Logger logger = LoggerFactory.getLogger(AbstractOutputConnection.class);
 
@@ -35,6 +57,18 @@ public abstract class AbstractOutputConnection<T> implements OutputConnection<T>
     this.vertx = vertx;
     this.eventBus = vertx.eventBus();
     this.context = context;
+    this.codecName = CodecRegistry.registry(vertx).codecName(context);
+    this.codec = codecName != null ? CodecRegistry.registry(vertx).codec(codecName) : null;
+    this.fusion = FusionRegistry.registry(vertx);
+    metrics.gauge("queue-depth", this::size);
+    if (codec instanceof CompressingMessageCodec) {
+      metrics.register("compression", ((CompressingMessageCodec) codec).metrics());
+    }
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
   }
 
   @Override
@@ -43,9 +77,17 @@ public abstract class AbstractOutputConnection<T> implements OutputConnection<T>
     Long id = Long.valueOf(message.headers().get(INDEX_HEADER));
     switch (action) {
       case PAUSE_ACTION:
+        if (pausedAt == 0) {
+          pausedAt = System.nanoTime();
+          pauses.increment();
+        }
         doPause(id);
         break;
       case RESUME_ACTION:
+        if (pausedAt != 0) {
+          pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
+          pausedAt = 0;
+        }
         doResume(id);
         break;
     }
@@ -87,30 +129,106 @@ public abstract class AbstractOutputConnection<T> implements OutputConnection<T>
   protected abstract void doQueue(Payload payload);
 
   protected OutputConnection<T> doSend(Payload payload) {
+    return doSend(context.target().address(), payload);
+  }
+
+  /**
+   * Sends a message to the given address.
+   *
+   * @param address the address to which to send the message
+   * @param payload the message to send
+   * @return a reference to this object
+   */
+  protected OutputConnection<T> doSend(String address, Payload payload) {
     if (logger.isDebugEnabled()) {
       logger.debug("{} - Send: Message[name={}, message={}]", this, payload.getId(), payload.getMessage());
     }
 
+    sent.increment();
     if (payload.getAckHandler() != null) {
-      eventBus.send(context.target().address(), payload.getMessage(), payload.getOptions(), r -> {
+      long start = System.nanoTime();
+      Handler<AsyncResult<Void>> ackHandler = r -> {
+        ackLatency.record((System.nanoTime() - start) / 1000);
         if (r.succeeded()) {
+          acked.increment();
           payload.getAckHandler().handle(Future.succeededFuture());
         } else {
+          failed.increment();
           payload.getAckHandler().handle(Future.failedFuture(r.cause()));
         }
-      });
-    } else {
-      eventBus.send(context.target().address(), payload.getMessage(), payload.getOptions());
+      };
+      if (!sendDirect(address, payload, ackHandler)) {
+        eventBus.send(address, payload.getMessage(), payload.getOptions(), r -> {
+          ackHandler.handle(r.succeeded() ? Future.succeededFuture() : Future.failedFuture(r.cause()));
+        });
+      }
+    } else if (!sendDirect(address, payload, null)) {
+      eventBus.send(address, payload.getMessage(), payload.getOptions());
     }
 
     return this;
   }
 
+  /**
+   * Delivers a message by calling the target component's handler directly if the target
+   * is fused with this component.<p>
+   *
+   * The message body is copied or transformed by the connection's codec just as it would
+   * be by the local event bus, and the send timeout still applies to acked messages.
+   * Messages which cycle back to a connection that is still delivering are sent over the
+   * event bus so that cycles between co-located components don't recurse.
+   *
+   * @return Indicates whether the message was delivered directly.
+   */
+  @SuppressWarnings("unchecked")
+  private boolean sendDirect(String address, Payload payload, Handler<AsyncResult<Void>> ackHandler) {
+    Handler<Message<Object>> handler = fusion.handler(address);
+    if (handler == null || delivering) {
+      return false;
+    }
+
+    Object body;
+    if (codecName != null) {
+      if (codec == null) {
+        return false;
+      }
+      body = codec.transform(payload.getMessage());
+    } else if (DirectMessage.isCopyable(payload.getMessage())) {
+      body = DirectMessage.copy(payload.getMessage());
+    } else {
+      return false;
+    }
+
+    DirectMessage<Object> message = new DirectMessage<>(address, new CaseInsensitiveHeaders().addAll(payload.getHeaders()), body, vertx.getOrCreateContext(), ackHandler);
+    if (ackHandler != null) {
+      long timeout = payload.getOptions().getSendTimeout();
+      message.setTimer(vertx.setTimer(timeout, id -> message.timeout(timeout)));
+    }
+
+    delivering = true;
+    try {
+      handler.handle(message);
+    } catch (Throwable t) {
+      logger.error("Failed to handle message", t);
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), t.getMessage());
+    } finally {
+      delivering = false;
+    }
+    return true;
+  }
+
   protected Payload createPayload(Object message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
     String id = UUID.randomUUID().toString();
 
     // Set up the message headers.
     DeliveryOptions options = new DeliveryOptions();
+    // Messages sent while handling a tracked message become new edges of its lineage.
+    // Messages leaving the network are not tracked.
+    boolean tracked = context.target().component() != null;
+    if (tracked) {
+      Lineage.checkBatch();
+    }
+    headers = Lineage.branch(headers, tracked ? Lineage.current() : null);
     if (headers == null) {
       headers = new CaseInsensitiveHeaders();
     }
@@ -118,8 +236,15 @@ public abstract class AbstractOutputConnection<T> implements OutputConnection<T>
         .add(ID_HEADER, id)
         .add(PORT_HEADER, context.target().port())
         .add(TARGET_HEADER, context.target().address());
+    // The target port dispatches messages to the input connection for their source.
+    if (context.source().address() != null) {
+      headers.add(SOURCE_HEADER, context.source().address());
+    }
 
     options.setHeaders(headers);
+    if (codecName != null) {
+      options.setCodecName(codecName);
+    }
     if (context.sendTimeout() > 0) {
       options.setSendTimeout(context.sendTimeout());
     }
@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.instance.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -26,10 +27,22 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.InputContext;
+import net.kuujo.vertigo.context.OutputContext;
+import net.kuujo.vertigo.deployment.impl.ConfigComponentContextManager;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.ComponentInstance;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
 import net.kuujo.vertigo.instance.InputCollector;
 import net.kuujo.vertigo.instance.OutputCollector;
+import net.kuujo.vertigo.instance.Reconfigurable;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.state.StateSerializer;
+import net.kuujo.vertigo.state.StateStore;
+import net.kuujo.vertigo.state.impl.OffHeapStateStore;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Component partition implementation.
@@ -43,8 +56,10 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
   protected static final String FAIL_ACTION = "fail";
   protected static final String PAUSE_ACTION = "pause";
   protected static final String RESUME_ACTION = "resume";
+  protected static final String UPDATE_ACTION = "update";
+  private static final Logger log = LoggerFactory.getLogger(ComponentInstanceImpl.class);
   private final Vertx vertx;
-  private final ComponentContext context;
+  private ComponentContext context;
   private final InputCollector input;
   private final OutputCollector output;
 //  private final Logger logger;
@@ -52,12 +67,18 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
 //  private Handler<JsonObject> checkpointHandler;
 //  private Handler<JsonObject> recoverHandler;
   private MessageConsumer<Object> consumer;
+  private MessageConsumer<Object> instanceConsumer;
+  private final Metrics metrics = new Metrics();
+  private final Map<String, StateStore<?, ?>> stores = new HashMap<>();
+  private long metricsTimer = -1;
 
   public ComponentInstanceImpl(Vertx vertx, ComponentContext context, ComponentInstanceFactory factory) {
     this.vertx = vertx;
     this.context = context;
     this.input = factory.createInputCollector(vertx, context.input());
     this.output = factory.createOutputCollector(vertx, context.output());
+    metrics.register("input", input.metrics());
+    metrics.register("output", output.metrics());
 //    this.logger = LoggerFactory.getLogger(String.format("%s-%s", ComponentInstance.class.getName(), context.address()));
   }
 
@@ -81,6 +102,22 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
     return output;
   }
 
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * Publishes the instance metrics on the event bus.
+   */
+  private void publishMetrics(long timerID) {
+    vertx.eventBus().publish(Metrics.METRICS_ADDRESS, new JsonObject()
+        .put("component", context.name())
+        .put("address", context.address())
+        .put("timestamp", System.currentTimeMillis())
+        .put("metrics", metrics.toJson()));
+  }
+
 //  @Override
 //  public Logger logger() {
 //    return logger;
@@ -102,12 +139,58 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
         case RESUME_ACTION:
           output.handle(message);
           break;
+        case UPDATE_ACTION:
+          doUpdate(message);
+          break;
         default:
           message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), String.format("Invalid action %s", action));
       }
     }
   }
 
+  /**
+   * Updates the component's connections from an updated component context.<p>
+   *
+   * Updates for older or identical versions of the context are ignored so that a
+   * repeated update is harmless.
+   */
+  @SuppressWarnings("unchecked")
+  private void doUpdate(Message<Object> message) {
+    try {
+      ComponentContext update = ConfigComponentContextManager.context(vertx, (JsonObject) message.body());
+      if (isNewer(update.version(), context.version())) {
+        if (input instanceof Reconfigurable) {
+          ((Reconfigurable<InputContext>) input).update(update.input());
+        }
+        if (output instanceof Reconfigurable) {
+          ((Reconfigurable<OutputContext>) output).update(update.output());
+        }
+        context = update;
+        log.debug("Updated component {} to version {}", context.name(), context.version());
+      }
+      message.reply(null);
+    } catch (Exception e) {
+      message.fail(ReplyFailure.RECIPIENT_FAILURE.toInt(), e.getMessage());
+    }
+  }
+
+  /**
+   * Returns whether a context version is newer than the current version.
+   */
+  private static boolean isNewer(String version, String current) {
+    if (version == null) {
+      return false;
+    }
+    if (current == null) {
+      return true;
+    }
+    try {
+      return Long.parseLong(version) > Long.parseLong(current);
+    } catch (NumberFormatException e) {
+      return !version.equals(current);
+    }
+  }
+
 //  @Override
 //  public JsonObject state() {
 //    return state;
@@ -125,6 +208,26 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
 //    return this;
 //  }
 
+  @Override
+  public <K, V> StateStore<K, V> state(String name, StateSerializer<K> keySerializer, StateSerializer<V> valueSerializer) {
+    return state(name, keySerializer, valueSerializer, StateStore.DEFAULT_CACHE_SIZE);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <K, V> StateStore<K, V> state(String name, StateSerializer<K> keySerializer, StateSerializer<V> valueSerializer, int cacheSize) {
+    if (!context.stateful()) {
+      throw new IllegalStateException(String.format("component %s is not stateful", context.name()));
+    }
+    StateStore<K, V> store = (StateStore<K, V>) stores.get(name);
+    if (store == null) {
+      store = new OffHeapStateStore<>(name, keySerializer, valueSerializer, cacheSize);
+      stores.put(name, store);
+      metrics.metrics("state").register(name, store.metrics());
+    }
+    return store;
+  }
+
   @Override
   public ComponentInstance start() {
     return start(null);
@@ -133,6 +236,13 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
   @Override
   public ComponentInstance start(Handler<AsyncResult<Void>> doneHandler) {
     if (consumer == null) {
+      if (context.metricsInterval() > 0) {
+        metricsTimer = vertx.setPeriodic(context.metricsInterval(), this::publishMetrics);
+      }
+      Context current = Vertx.currentContext();
+      if (current != null && current.deploymentID() != null) {
+        instanceConsumer = vertx.eventBus().localConsumer(ConfigComponentContextManager.instanceAddress(context.address(), current.deploymentID()), this);
+      }
       consumer = vertx.eventBus().consumer(context.address());
       consumer.handler(this);
       consumer.completionHandler(doneHandler);
@@ -144,6 +254,8 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
 
   @Override
   public void stop() {
+    cancelMetrics();
+    close();
     if (consumer != null) {
       consumer.unregister();
     }
@@ -151,6 +263,8 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
 
   @Override
   public void stop(Handler<AsyncResult<Void>> doneHandler) {
+    cancelMetrics();
+    close();
     if (consumer != null) {
       consumer.unregister(doneHandler);
     } else {
@@ -158,4 +272,36 @@ public class ComponentInstanceImpl implements ComponentInstance, Handler<Message
     }
   }
 
+  /**
+   * Cancels periodic metrics publishing.
+   */
+  private void cancelMetrics() {
+    if (metricsTimer != -1) {
+      vertx.cancelTimer(metricsTimer);
+      metricsTimer = -1;
+    }
+  }
+
+  /**
+   * Closes the input and output so that no timers fire into the stopped component, and
+   * releases the memory held by state stores.
+   */
+  private void close() {
+    if (instanceConsumer != null) {
+      instanceConsumer.unregister();
+      instanceConsumer = null;
+    }
+    if (input instanceof Closeable) {
+      ((Closeable) input).close();
+    }
+    if (output instanceof Closeable) {
+      ((Closeable) output).close();
+    }
+    for (StateStore<?, ?> store : stores.values()) {
+      store.close();
+      metrics.metrics("state").unregister(store.name());
+    }
+    stores.clear();
+  }
+
 }
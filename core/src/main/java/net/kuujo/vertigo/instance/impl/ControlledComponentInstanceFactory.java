@@ -53,6 +53,10 @@ public class ControlledComponentInstanceFactory implements ComponentInstanceFact
 
   @Override
   public <T> OutputConnection<T> createOutputConnection(Vertx vertx, OutputConnectionContext connection) {
+    // Connections without a target component send to the network's output.
+    if (connection.target().component() == null) {
+      return new ExternalOutputConnection<>(vertx, connection);
+    }
     return new ControlledOutputConnection<T>(vertx, connection);
   }
 
@@ -28,6 +28,8 @@ import net.kuujo.vertigo.message.VertigoMessage;
 import net.kuujo.vertigo.spi.VertigoMessageFactory;
 import net.kuujo.vertigo.instance.InputConnection;
 import net.kuujo.vertigo.context.InputConnectionContext;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
 
 /**
  * Input connection implementation.
@@ -58,6 +60,12 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
   private long lastFeedbackTime;
   private long feedbackTimerID;
   private boolean paused;
+  private long pausedAt;
+  private final Metrics metrics = new Metrics();
+  private final Counter received = metrics.counter("received");
+  private final Counter outOfOrder = metrics.counter("out-of-order");
+  private final Counter pauses = metrics.counter("pauses");
+  private final Counter pauseTime = metrics.counter("pause-time");
 
   private final Handler<Long> internalTimer = new Handler<Long>() {
     @Override
@@ -99,6 +107,11 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
     feedbackTimerID = vertx.setPeriodic(MAX_BATCH_TIME, internalTimer);
   }
 
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public void handle(Message<T> message) {
     Long index = Long.valueOf(message.headers().get("index"));
@@ -123,6 +136,7 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
       }
       return true;
     } else {
+      outOfOrder.increment();
       fail();
     }
     return false;
@@ -164,6 +178,8 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
   public InputConnection<T> pause() {
     if (!paused) {
       paused = true;
+      pausedAt = System.nanoTime();
+      pauses.increment();
       log.debug("{} - Pausing connection: {}", this, context.source());
       eventBus.send(outAddress, null, new DeliveryOptions()
         .addHeader(ACTION_HEADER, PAUSE_ACTION)
@@ -176,6 +192,7 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
   public InputConnection<T> resume() {
     if (paused) {
       paused = false;
+      pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
       log.debug("{} - Resuming connection: {}", this, context.source());
       eventBus.send(outAddress, null, new DeliveryOptions()
         .addHeader(ACTION_HEADER, RESUME_ACTION)
@@ -195,6 +212,7 @@ public class ControlledInputConnection<T> implements InputConnection<T>, Handler
    */
   @SuppressWarnings("unchecked")
   protected void doMessage(final Message<T> message) {
+    received.increment();
     if (messageHandler != null) {
       String id = message.headers().get(ID_HEADER);
       VertigoMessage<T> vertigoMessage = messageFactory.<T>createVertigoMessage(id, message);
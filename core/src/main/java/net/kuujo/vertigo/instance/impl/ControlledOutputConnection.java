@@ -24,6 +24,10 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.instance.OutputConnection;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
 import net.kuujo.vertigo.context.OutputConnectionContext;
 
 import java.util.TreeMap;
@@ -50,19 +54,37 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
   protected final Vertx vertx;
   protected final EventBus eventBus;
   protected final OutputConnectionContext context;
+  private final String codecName;
   private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
   private Handler<Void> drainHandler;
   private long currentMessage = 1;
   private final TreeMap<Long, JsonObject> messages = new TreeMap<>();
+  private int inFlight;
   //protected final TreeMap<Long, Handler<AsyncResult<Void>>> ackHandlers = new TreeMap<>();
   private boolean full;
   private boolean paused;
+  private long pausedAt;
+  private final Metrics metrics = new Metrics();
+  private final Counter sent = metrics.counter("sent");
+  private final Counter acked = metrics.counter("acked");
+  private final Counter failed = metrics.counter("failed");
+  private final Counter retransmits = metrics.counter("retransmits");
+  private final Counter pauses = metrics.counter("pauses");
+  private final Counter pauseTime = metrics.counter("pause-time");
+  private final Histogram ackLatency = metrics.histogram("ack-latency");
 
   public ControlledOutputConnection(Vertx vertx, OutputConnectionContext context) {
     this.vertx = vertx;
     this.eventBus = vertx.eventBus();
     this.context = context;
+    this.codecName = CodecRegistry.registry(vertx).codecName(context);
     this.log = LoggerFactory.getLogger(String.format("%s-%s", ControlledOutputConnection.class.getName(), context.port().output().component().address()));
+    metrics.gauge("queue-depth", this::size);
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
   }
 
   @Override
@@ -98,12 +120,12 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
 
   @Override
   public int size() {
-    return messages.size();
+    return messages.size() + inFlight;
   }
 
   @Override
   public boolean sendQueueFull() {
-    return paused || messages.size() >= maxQueueSize;
+    return paused || size() >= maxQueueSize;
   }
 
   @Override
@@ -112,11 +134,16 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
     return this;
   }
 
+  @Override
+  public Handler<Void> drainedHandler() {
+    return drainHandler;
+  }
+
   /**
    * Checks whether the connection is full.
    */
   protected void checkFull() {
-    if (!full && messages.size() >= maxQueueSize) {
+    if (!full && size() >= maxQueueSize) {
       full = true;
       log.debug("{} - Connection to {} is full", this, context.target());
     }
@@ -126,7 +153,7 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
    * Checks whether the connection has been drained.
    */
   protected void checkDrain() {
-    if (full && !paused && messages.size() < maxQueueSize / 2) {
+    if (full && !paused && size() < maxQueueSize / 2) {
       full = false;
       log.debug("{} - Connection to {} is drained", this, context.target());
       if (drainHandler != null) {
@@ -167,6 +194,7 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
     // just iterate over the messages map and resend all the messages.
     for (JsonObject message : messages.values()) {
       eventBus.send(context.target().address(), message);
+      retransmits.increment();
     }
   }
 
@@ -175,6 +203,10 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
    */
   protected void doPause(long id) {
     log.debug("{} - Paused connection to {}", this, context.target());
+    if (!paused) {
+      pausedAt = System.nanoTime();
+      pauses.increment();
+    }
     paused = true;
   }
 
@@ -185,6 +217,7 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
     if (paused) {
       log.debug("{} - Resumed connection to {}", this, context.target());
       paused = false;
+      pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
       checkDrain();
     }
   }
@@ -220,6 +253,9 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
           .add(INDEX_HEADER, String.valueOf(index));
 
       options.setHeaders(headers);
+      if (codecName != null) {
+        options.setCodecName(codecName);
+      }
       if (context.sendTimeout() > 0) {
         options.setSendTimeout(context.sendTimeout());
       }
@@ -228,11 +264,19 @@ public class ControlledOutputConnection<T> implements OutputConnection<T>, Handl
         log.debug("{} - Send: Message[name={}, message={}]", this, id, message);
       }
 
+      sent.increment();
       if (ackHandler != null) {
+        long start = System.nanoTime();
+        inFlight++;
         eventBus.send(context.target().address(), message, options, r -> {
+          ackLatency.record((System.nanoTime() - start) / 1000);
+          inFlight--;
+          checkDrain();
           if (r.succeeded()) {
+            acked.increment();
             ackHandler.handle(Future.<Void>succeededFuture());
           } else {
+            failed.increment();
             ackHandler.handle(Future.<Void>failedFuture(r.cause()));
           }
         });
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Message delivered directly to a fused component.<p>
+ *
+ * Replies and failures complete the sender's ack handler on the sender's context just
+ * like event bus replies would.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class DirectMessage<T> implements Message<T> {
+  private final String address;
+  private final MultiMap headers;
+  private final T body;
+  private final Context context;
+  private final Handler<AsyncResult<Void>> ackHandler;
+  private long timerId = -1;
+  private boolean complete;
+
+  DirectMessage(String address, MultiMap headers, T body, Context context, Handler<AsyncResult<Void>> ackHandler) {
+    this.address = address;
+    this.headers = headers;
+    this.body = body;
+    this.context = context;
+    this.ackHandler = ackHandler;
+  }
+
+  /**
+   * Returns whether a message body can be copied without a codec.
+   */
+  static boolean isCopyable(Object body) {
+    return body == null
+        || body instanceof String
+        || body instanceof JsonObject
+        || body instanceof JsonArray
+        || body instanceof Buffer
+        || body instanceof byte[]
+        || body instanceof Number
+        || body instanceof Boolean
+        || body instanceof Character;
+  }
+
+  /**
+   * Copies a mutable message body the same way the local event bus does.
+   */
+  static Object copy(Object body) {
+    if (body instanceof JsonObject) {
+      return ((JsonObject) body).copy();
+    } else if (body instanceof JsonArray) {
+      return ((JsonArray) body).copy();
+    } else if (body instanceof Buffer) {
+      return ((Buffer) body).copy();
+    } else if (body instanceof byte[]) {
+      return ((byte[]) body).clone();
+    }
+    return body;
+  }
+
+  /**
+   * Sets the timer which fails the message if it isn't acked in time.
+   */
+  void setTimer(long timerId) {
+    this.timerId = timerId;
+  }
+
+  /**
+   * Fails the message once the send timeout has expired.
+   */
+  void timeout(long timeout) {
+    timerId = -1;
+    complete(Future.failedFuture(new ReplyException(ReplyFailure.TIMEOUT,
+        String.format("Timed out after waiting %d(ms) for a reply. address: %s", timeout, address))));
+  }
+
+  /**
+   * Completes the message, calling the ack handler on the sender's context.
+   */
+  private void complete(AsyncResult<Void> result) {
+    if (complete) {
+      return;
+    }
+    complete = true;
+    if (timerId != -1) {
+      context.owner().cancelTimer(timerId);
+    }
+    if (ackHandler != null) {
+      context.runOnContext(v -> ackHandler.handle(result));
+    }
+  }
+
+  @Override
+  public String address() {
+    return address;
+  }
+
+  @Override
+  public MultiMap headers() {
+    return headers;
+  }
+
+  @Override
+  public T body() {
+    return body;
+  }
+
+  @Override
+  public String replyAddress() {
+    return null;
+  }
+
+  @Override
+  public void reply(Object message) {
+    complete(Future.succeededFuture());
+  }
+
+  @Override
+  public <R> void reply(Object message, Handler<AsyncResult<Message<R>>> replyHandler) {
+    complete(Future.succeededFuture());
+  }
+
+  @Override
+  public void reply(Object message, DeliveryOptions options) {
+    complete(Future.succeededFuture());
+  }
+
+  @Override
+  public <R> void reply(Object message, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
+    complete(Future.succeededFuture());
+  }
+
+  @Override
+  public void fail(int failureCode, String message) {
+    complete(Future.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, failureCode, message)));
+  }
+
+}
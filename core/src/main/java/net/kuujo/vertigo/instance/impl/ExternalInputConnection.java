@@ -1,24 +1,175 @@
 package net.kuujo.vertigo.instance.impl;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
 import net.kuujo.vertigo.context.InputPortContext;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.InputConnection;
+import net.kuujo.vertigo.metrics.Counter;
 import net.kuujo.vertigo.spi.VertigoMessageFactory;
 
-public class ExternalInputConnection<T>  extends AbstractInputConnection<T> {
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Input connection for messages sent from outside the network.<p>
+ *
+ * Producers which include a feedback address are sent batched acks for received
+ * messages, and are notified when the connection is paused or resumed. Messages
+ * which arrive while the connection is paused are queued and delivered on resume.
+ * Producers which have not sent a message for a minute are forgotten.
+ */
+public class ExternalInputConnection<T>  extends AbstractInputConnection<T> implements Closeable {
+  protected static final String FEEDBACK_HEADER = "feedback";
+  protected static final String COUNT_HEADER = "count";
+  protected static final String ACK_ACTION = "ack";
+  private static final int ACK_BATCH_SIZE = 100;
+  private static final long ACK_INTERVAL = 100;
+  private static final long PRODUCER_TIMEOUT = 60000;
+
+  // Ordered by access so that the least recently seen producers are expired first.
+  private final Map<String, Producer> producers = new LinkedHashMap<>(16, 0.75f, true);
+  private final Queue<Message<T>> queue = new ArrayDeque<>();
+  private final Counter pauses = metrics.counter("pauses");
+  private final Counter pauseTime = metrics.counter("pause-time");
+  private boolean paused;
+  private long pausedAt;
+  private long ackTimer = -1;
 
   public ExternalInputConnection(Vertx vertx, InputPortContext input, VertigoMessageFactory messageFactory) {
     super(vertx, null, messageFactory);
+    metrics.gauge("queue-depth", queue::size);
+    metrics.gauge("producers", producers::size);
+  }
+
+  @Override
+  public void handle(Message<T> message) {
+    if (paused) {
+      queue.add(message);
+    } else {
+      deliver(message);
+    }
+  }
+
+  /**
+   * Delivers a message to the handler and counts it towards the producer's next ack.
+   */
+  private void deliver(Message<T> message) {
+    doMessage(message);
+    String feedback = message.headers().get(FEEDBACK_HEADER);
+    if (feedback != null) {
+      long now = System.currentTimeMillis();
+      expire(now);
+      Producer producer = producers.computeIfAbsent(feedback, f -> new Producer());
+      producer.lastSeen = now;
+      if (++producer.unacked >= ACK_BATCH_SIZE) {
+        ack(feedback, producer.unacked);
+        producer.unacked = 0;
+      } else if (ackTimer == -1) {
+        ackTimer = vertx.setTimer(ACK_INTERVAL, id -> {
+          ackTimer = -1;
+          ackAll();
+        });
+      }
+    }
+  }
+
+  /**
+   * Forgets producers which have been idle for longer than the producer timeout.<p>
+   *
+   * Producers are kept while the connection is paused since they're waiting to be
+   * notified when it resumes.
+   */
+  private void expire(long now) {
+    if (paused) {
+      return;
+    }
+    Iterator<Producer> iterator = producers.values().iterator();
+    while (iterator.hasNext()) {
+      Producer producer = iterator.next();
+      if (producer.unacked > 0 || now - producer.lastSeen < PRODUCER_TIMEOUT) {
+        break;
+      }
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Sends acks to all producers with unacked messages.
+   */
+  private void ackAll() {
+    for (Map.Entry<String, Producer> entry : producers.entrySet()) {
+      Producer producer = entry.getValue();
+      if (producer.unacked > 0) {
+        ack(entry.getKey(), producer.unacked);
+        producer.unacked = 0;
+      }
+    }
+  }
+
+  private void ack(String feedback, int count) {
+    eventBus.send(feedback, null, new DeliveryOptions()
+        .addHeader(ACTION_HEADER, ACK_ACTION)
+        .addHeader(COUNT_HEADER, String.valueOf(count)));
+  }
+
+  /**
+   * Sends an action to all known producers.
+   */
+  private void notifyProducers(String action) {
+    for (String feedback : producers.keySet()) {
+      eventBus.send(feedback, null, new DeliveryOptions().addHeader(ACTION_HEADER, action));
+    }
   }
 
   @Override
   public InputConnection<T> pause() {
-    throw new UnsupportedOperationException();
+    if (!paused) {
+      paused = true;
+      pausedAt = System.nanoTime();
+      pauses.increment();
+      ackAll();
+      notifyProducers(PAUSE_ACTION);
+    }
+    return this;
   }
 
   @Override
   public InputConnection<T> resume() {
-    throw new UnsupportedOperationException();
+    if (paused) {
+      paused = false;
+      pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
+      // The handler may pause the connection again while queued messages are delivered.
+      while (!paused && !queue.isEmpty()) {
+        deliver(queue.poll());
+      }
+      if (!paused) {
+        notifyProducers(RESUME_ACTION);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public void close() {
+    if (ackTimer != -1) {
+      vertx.cancelTimer(ackTimer);
+      ackTimer = -1;
+    }
+    ackAll();
+    producers.clear();
+  }
+
+  /**
+   * Producer which sends messages with a feedback address.
+   */
+  private static class Producer {
+    private int unacked;
+    private long lastSeen;
   }
 
 }
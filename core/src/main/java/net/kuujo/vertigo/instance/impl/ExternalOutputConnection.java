@@ -3,10 +3,52 @@ package net.kuujo.vertigo.instance.impl;
 import io.vertx.core.Vertx;
 import net.kuujo.vertigo.context.OutputConnectionContext;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Output connection for messages sent to the network.<p>
+ *
+ * Network output references pause and resume the connection when consumers outside
+ * the network fall behind. Messages sent while the connection is paused are queued
+ * and sent once the connection is resumed.
+ */
 public class ExternalOutputConnection<T> extends SimpleOutputConnection<T> {
+  private final Queue<Payload> queue = new ArrayDeque<>();
+  private boolean paused;
 
   public ExternalOutputConnection(Vertx vertx, OutputConnectionContext context) {
     super(vertx, context);
   }
 
+  @Override
+  protected void doPause(long id) {
+    paused = true;
+  }
+
+  @Override
+  protected void doResume(long id) {
+    paused = false;
+    while (!paused && !queue.isEmpty()) {
+      doSend(queue.poll());
+    }
+    checkDrain();
+  }
+
+  @Override
+  protected boolean isPaused() {
+    return paused;
+  }
+
+  @Override
+  protected void doQueue(Payload payload) {
+    queue.add(payload);
+    checkFull();
+  }
+
+  @Override
+  public int size() {
+    return super.size() + queue.size();
+  }
+
 }
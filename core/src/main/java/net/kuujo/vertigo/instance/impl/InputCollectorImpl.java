@@ -24,10 +24,15 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.InputContext;
 import net.kuujo.vertigo.context.InputPortContext;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.InputCollector;
+import net.kuujo.vertigo.instance.IntInputPort;
+import net.kuujo.vertigo.instance.LongInputPort;
 import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.Reconfigurable;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
 import net.kuujo.vertigo.util.TaskRunner;
+import net.kuujo.vertigo.metrics.Metrics;
 
 import java.util.*;
 
@@ -36,14 +41,17 @@ import java.util.*;
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class InputCollectorImpl implements InputCollector, Handler<Message<Object>> {
+public class InputCollectorImpl implements InputCollector, Reconfigurable<InputContext>, Closeable, Handler<Message<Object>> {
   private final Logger logger;
   protected final Vertx vertx;
   protected InputContext context;
   protected final Map<String, InputPort> ports = new HashMap<>();
+  private final Map<String, LongInputPort> longPorts = new HashMap<>();
+  private final Map<String, IntInputPort> intPorts = new HashMap<>();
   private final TaskRunner tasks = new TaskRunner();
   private MessageConsumer<Object> consumer;
   private ComponentInstanceFactory factory;
+  private final Metrics metrics = new Metrics();
 
   public InputCollectorImpl(Vertx vertx, InputContext context, ComponentInstanceFactory factory) {
     this.vertx = vertx;
@@ -61,7 +69,9 @@ public class InputCollectorImpl implements InputCollector, Handler<Message<Objec
     this.factory = factory;
     for (InputPortContext input : context.ports()) {
       if (!ports.containsKey(input.name())) {
-        ports.put(input.name(), factory.createInputPort(vertx, input));
+        InputPort port = factory.createInputPort(vertx, input);
+        ports.put(input.name(), port);
+        metrics.register(input.name(), port.metrics());
       }
     }
   }
@@ -83,6 +93,50 @@ public class InputCollectorImpl implements InputCollector, Handler<Message<Objec
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public void update(InputContext update) {
+    for (InputPortContext portContext : update.ports()) {
+      InputPort port = ports.get(portContext.name());
+      if (port == null) {
+        port = factory.createInputPort(vertx, portContext);
+        ports.put(portContext.name(), port);
+        metrics.register(portContext.name(), port.metrics());
+      } else if (port instanceof Reconfigurable) {
+        ((Reconfigurable<InputPortContext>) port).update(portContext);
+      } else {
+        logger.warn("Cannot update connections of input port {} on component {}", portContext.name(), update.component().name());
+      }
+    }
+
+    // Ports which were removed from the network are kept since they may still be
+    // referenced by the component, but their connections are removed.
+    for (Map.Entry<String, InputPort> entry : ports.entrySet()) {
+      if (update.port(entry.getKey()) == null && entry.getValue() instanceof Reconfigurable) {
+        ((Reconfigurable<InputPortContext>) entry.getValue()).update(InputPortContext
+            .builder()
+            .setInput(update)
+            .setName(entry.getKey())
+            .build());
+      }
+    }
+    this.context = update;
+  }
+
+  @Override
+  public void close() {
+    for (InputPort port : ports.values()) {
+      if (port instanceof Closeable) {
+        ((Closeable) port).close();
+      }
+    }
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public Collection<InputPort> ports() {
     List<InputPort> ports = new ArrayList<>(this.ports.size());
@@ -103,7 +157,9 @@ public class InputCollectorImpl implements InputCollector, Handler<Message<Objec
           .setName(name)
           .build();
 
-      ports.put(name, factory.createInputPort(vertx, portContext));
+      InputPort port = factory.createInputPort(vertx, portContext);
+      ports.put(name, port);
+      metrics.register(name, port.metrics());
 
       logger.info(
           "Dynamically created input port {} on component {} at address {}. The port has no connections.",
@@ -114,6 +170,26 @@ public class InputCollectorImpl implements InputCollector, Handler<Message<Objec
     return ports.get(name);
   }
 
+  @Override
+  public LongInputPort longPort(String name) {
+    LongInputPort port = longPorts.get(name);
+    if (port == null) {
+      port = new LongInputPortImpl(vertx, port(name));
+      longPorts.put(name, port);
+    }
+    return port;
+  }
+
+  @Override
+  public IntInputPort intPort(String name) {
+    IntInputPort port = intPorts.get(name);
+    if (port == null) {
+      port = new IntInputPortImpl(vertx, port(name));
+      intPorts.put(name, port);
+    }
+    return port;
+  }
+
   @Override
   public String toString() {
     return context.toString();
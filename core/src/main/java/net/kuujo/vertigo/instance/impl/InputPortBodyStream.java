@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import net.kuujo.vertigo.instance.InputPort;
+
+/**
+ * Read stream of the bodies of messages received on an input port.<p>
+ *
+ * Messages are acked once the handler has returned, or failed if it throws.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class InputPortBodyStream<T> implements ReadStream<T> {
+  private final InputPortReadStream<T> messages;
+
+  public InputPortBodyStream(InputPort<T> port) {
+    this.messages = new InputPortReadStream<>(port);
+  }
+
+  @Override
+  public InputPortBodyStream<T> exceptionHandler(Handler<Throwable> handler) {
+    messages.exceptionHandler(handler);
+    return this;
+  }
+
+  @Override
+  public InputPortBodyStream<T> handler(Handler<T> handler) {
+    if (handler == null) {
+      messages.handler(null);
+    } else {
+      messages.handler(message -> {
+        handler.handle(message.body());
+        message.ack();
+      });
+    }
+    return this;
+  }
+
+  @Override
+  public InputPortBodyStream<T> pause() {
+    messages.pause();
+    return this;
+  }
+
+  @Override
+  public InputPortBodyStream<T> resume() {
+    messages.resume();
+    return this;
+  }
+
+  @Override
+  public InputPortBodyStream<T> endHandler(Handler<Void> endHandler) {
+    messages.endHandler(endHandler);
+    return this;
+  }
+
+}
@@ -22,12 +22,19 @@ import io.vertx.core.eventbus.Message;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.ControllableInput;
+import net.kuujo.vertigo.message.MessageBatch;
 import net.kuujo.vertigo.message.VertigoMessage;
 import net.kuujo.vertigo.instance.InputConnection;
 import net.kuujo.vertigo.context.InputConnectionContext;
 import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.Reconfigurable;
 import net.kuujo.vertigo.context.InputPortContext;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.metrics.Tracing;
 import net.kuujo.vertigo.util.TaskRunner;
 
 import java.util.HashMap;
@@ -38,24 +45,36 @@ import java.util.Map;
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPort<T>, T>, Handler<Message<T>> {
+public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPort<T>, T>, Reconfigurable<InputPortContext>, Closeable, Handler<Message<T>> {
 
   protected static final String ID_HEADER = "name";
+  protected static final String SOURCE_HEADER = "source";
 
   private static final Logger log = LoggerFactory.getLogger(InputPortImpl.class);
   protected final Vertx vertx;
   protected InputPortContext context;
   protected final Map<String, InputConnection<T>> connections = new HashMap<>();
   private final TaskRunner tasks = new TaskRunner();
+  private final ComponentInstanceFactory factory;
   @SuppressWarnings("rawtypes")
   private Handler<VertigoMessage<T>> messageHandler;
+  private MessageBatcher<T> batcher;
   private boolean open;
   private boolean paused;
   private InputConnection<T> stubConnection;
+  private long pausedAt;
+  private final Metrics metrics = new Metrics();
+  private final Counter received = metrics.counter("received");
+  private final Counter pauses = metrics.counter("pauses");
+  private final Counter pauseTime = metrics.counter("pause-time");
+  private Histogram endToEndLatency;
+  private Histogram hops;
+  private Metrics edgeLatency;
 
   public InputPortImpl(Vertx vertx, InputPortContext context, ComponentInstanceFactory factory) {
     this.vertx = vertx;
     this.context = context;
+    this.factory = factory;
     init(factory);
   }
 
@@ -65,9 +84,50 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
    */
   private void init(ComponentInstanceFactory factory) {
     for (InputConnectionContext connection : context.connections()) {
-      connections.put(connection.target().address(), factory.<T>createInputConnection(vertx, connection));
+      InputConnection<T> input = factory.<T>createInputConnection(vertx, connection);
+      connections.put(connection.source().address(), input);
+      metrics.register(connection.source().address(), input.metrics());
     }
     stubConnection = factory.<T>createExternalInputConnection(vertx, context);
+    metrics.register("external", stubConnection.metrics());
+  }
+
+  @Override
+  public void update(InputPortContext update) {
+    Map<String, InputConnectionContext> current = new HashMap<>();
+    for (InputConnectionContext connection : context.connections()) {
+      current.put(connection.source().address(), connection);
+    }
+    Map<String, InputConnectionContext> updated = new HashMap<>();
+    for (InputConnectionContext connection : update.connections()) {
+      updated.put(connection.source().address(), connection);
+    }
+
+    // Close connections from sources which are no longer connected or whose connection
+    // has changed, e.g. from push to pull.
+    for (Map.Entry<String, InputConnectionContext> entry : current.entrySet()) {
+      InputConnectionContext connection = updated.get(entry.getKey());
+      if (connection == null || !connection.toJson().equals(entry.getValue().toJson())) {
+        metrics.unregister(entry.getKey());
+        close(connections.remove(entry.getKey()));
+      }
+    }
+
+    // Add connections from new sources and changed connections. New connections pick up
+    // the current handler and paused state so that messages from the new source are
+    // handled like any other.
+    for (Map.Entry<String, InputConnectionContext> entry : updated.entrySet()) {
+      if (!connections.containsKey(entry.getKey())) {
+        InputConnection<T> input = factory.<T>createInputConnection(vertx, entry.getValue());
+        input.handler(messageHandler);
+        if (paused) {
+          input.pause();
+        }
+        connections.put(entry.getKey(), input);
+        metrics.register(entry.getKey(), input.metrics());
+      }
+    }
+    this.context = update;
   }
 
   @Override
@@ -75,6 +135,11 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
     return context.name();
   }
 
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public InputPort<T> checkpoint() {
     return this;
@@ -87,7 +152,35 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
 
   @Override
   public void handle(Message<T> message) {
-    String source = message.headers().get("source");
+    received.increment();
+    Tracing.Trace trace = Tracing.receive(message.headers());
+    if (trace != null) {
+      if (endToEndLatency == null) {
+        // Trace metrics are only created once a traced message is seen.
+        Metrics traceMetrics = metrics.metrics("trace");
+        endToEndLatency = traceMetrics.histogram("end-to-end");
+        hops = traceMetrics.histogram("hops");
+        edgeLatency = traceMetrics.metrics("edges");
+      }
+      endToEndLatency.record(trace.endToEndLatency());
+      hops.record(trace.hops());
+      edgeLatency.histogram(trace.source()).record(trace.edgeLatency());
+      Tracing.Trace previous = Tracing.enter(trace);
+      try {
+        dispatch(message);
+      } finally {
+        Tracing.exit(previous);
+      }
+    } else {
+      dispatch(message);
+    }
+  }
+
+  /**
+   * Dispatches a message to the connection from which it was received.
+   */
+  private void dispatch(Message<T> message) {
+    String source = message.headers().get(SOURCE_HEADER);
     if (source != null) {
       InputConnection<T> connection = connections.get(source);
       if (connection != null) {
@@ -103,19 +196,28 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
 
   @Override
   public InputPort<T> pause() {
+    if (!paused) {
+      pausedAt = System.nanoTime();
+      pauses.increment();
+    }
     paused = true;
     for (InputConnection connection : connections.values()) {
       connection.pause();
     }
+    stubConnection.pause();
     return this;
   }
 
   @Override
   public InputPort<T> resume() {
+    if (paused) {
+      pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
+    }
     paused = false;
     for (InputConnection connection : connections.values()) {
       connection.resume();
     }
+    stubConnection.resume();
     return this;
   }
 
@@ -124,6 +226,10 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
     if (open && handler == null) {
       throw new IllegalStateException("cannot unset handler on locked port");
     }
+    if (batcher != null && batcher != handler) {
+      batcher.flush();
+      batcher = null;
+    }
     this.messageHandler = handler;
     for (InputConnection<T> connection : connections.values()) {
       connection.handler(messageHandler);
@@ -132,6 +238,42 @@ public class InputPortImpl<T> implements InputPort<T>, ControllableInput<InputPo
     return this;
   }
 
+  @Override
+  public InputPort<T> batchHandler(Handler<MessageBatch<T>> handler) {
+    return batchHandler(DEFAULT_BATCH_SIZE, DEFAULT_BATCH_WAIT, handler);
+  }
+
+  @Override
+  public InputPort<T> batchHandler(int maxSize, long maxWait, Handler<MessageBatch<T>> handler) {
+    if (handler == null) {
+      return handler(null);
+    }
+    MessageBatcher<T> batcher = new MessageBatcher<>(vertx, maxSize, maxWait, handler);
+    handler(batcher);
+    this.batcher = batcher;
+    return this;
+  }
+
+  @Override
+  public void close() {
+    if (batcher != null) {
+      batcher.close();
+    }
+    for (InputConnection<T> connection : connections.values()) {
+      close(connection);
+    }
+    close(stubConnection);
+  }
+
+  /**
+   * Closes a connection if it holds resources.
+   */
+  private static void close(InputConnection<?> connection) {
+    if (connection instanceof Closeable) {
+      ((Closeable) connection).close();
+    }
+  }
+
   @Override
   public String toString() {
     return context.toString();
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import net.kuujo.vertigo.instance.ControllableInput;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.util.Args;
+
+/**
+ * Read stream of the messages received on an input port.<p>
+ *
+ * Pausing the stream pauses the port, which queues messages without acking them.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class InputPortReadStream<T> implements ReadStream<VertigoMessage<T>> {
+  private final InputPort<T> port;
+  private final ControllableInput<?, T> controller;
+  private Handler<Throwable> exceptionHandler;
+
+  public InputPortReadStream(InputPort<T> port) {
+    Args.checkNotNull(port, "port cannot be null");
+    Args.check(port instanceof ControllableInput, "port %s cannot be paused", port.name());
+    this.port = port;
+    this.controller = (ControllableInput<?, T>) port;
+  }
+
+  @Override
+  public InputPortReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public InputPortReadStream<T> handler(Handler<VertigoMessage<T>> handler) {
+    if (handler == null) {
+      port.handler(null);
+    } else {
+      port.handler(message -> {
+        try {
+          handler.handle(message);
+        } catch (Throwable t) {
+          message.fail(t);
+          if (exceptionHandler != null) {
+            exceptionHandler.handle(t);
+          }
+        }
+      });
+    }
+    return this;
+  }
+
+  @Override
+  public InputPortReadStream<T> pause() {
+    controller.pause();
+    return this;
+  }
+
+  @Override
+  public InputPortReadStream<T> resume() {
+    controller.resume();
+    return this;
+  }
+
+  @Override
+  public InputPortReadStream<T> endHandler(Handler<Void> endHandler) {
+    // Ports are never closed, so the stream never ends.
+    return this;
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.IntInputPort;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+
+import java.util.function.IntConsumer;
+
+/**
+ * {@code int} input port implementation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class IntInputPortImpl implements IntInputPort {
+  private final InputPort<Object> port;
+
+  public IntInputPortImpl(Vertx vertx, InputPort<Object> port) {
+    this.port = port;
+    CodecRegistry.registry(vertx);
+  }
+
+  @Override
+  public String name() {
+    return port.name();
+  }
+
+  @Override
+  public IntInputPort handler(IntConsumer handler) {
+    if (handler == null) {
+      port.handler(null);
+      return this;
+    }
+    port.handler(message -> {
+      Object body = message.body();
+      try {
+        if (body instanceof int[]) {
+          for (int value : (int[]) body) {
+            handler.accept(value);
+          }
+        } else if (body instanceof Number) {
+          handler.accept(((Number) body).intValue());
+        } else {
+          throw typeError(body);
+        }
+      } catch (Throwable t) {
+        message.fail(t);
+        return;
+      }
+      message.ack();
+    });
+    return this;
+  }
+
+  @Override
+  public IntInputPort frameHandler(Handler<int[]> handler) {
+    if (handler == null) {
+      port.handler(null);
+      return this;
+    }
+    port.handler(message -> {
+      Object body = message.body();
+      try {
+        if (body instanceof int[]) {
+          handler.handle((int[]) body);
+        } else if (body instanceof Number) {
+          handler.handle(new int[]{((Number) body).intValue()});
+        } else {
+          throw typeError(body);
+        }
+      } catch (Throwable t) {
+        message.fail(t);
+        return;
+      }
+      message.ack();
+    });
+    return this;
+  }
+
+  /**
+   * Returns the error with which a message is failed when its body is not a {@code int} value.
+   */
+  private static IllegalArgumentException typeError(Object body) {
+    return new IllegalArgumentException(String.format("expected int body but received %s", body != null ? body.getClass().getName() : "null"));
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.IntOutputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+
+import java.util.Arrays;
+
+/**
+ * {@code int} output port implementation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class IntOutputPortImpl implements IntOutputPort {
+  private final Vertx vertx;
+  private final OutputPort<Object> port;
+  private final int frameSize;
+  private final Handler<Void> flusher = v -> {
+    this.scheduled = false;
+    flush();
+  };
+  private int[] frame;
+  private int size;
+  private boolean scheduled;
+
+  public IntOutputPortImpl(Vertx vertx, OutputPort<Object> port) {
+    this(vertx, port, DEFAULT_FRAME_SIZE);
+  }
+
+  public IntOutputPortImpl(Vertx vertx, OutputPort<Object> port, int frameSize) {
+    this.vertx = vertx;
+    this.port = port;
+    this.frameSize = frameSize;
+    this.frame = new int[frameSize];
+    CodecRegistry.registry(vertx);
+  }
+
+  @Override
+  public String name() {
+    return port.name();
+  }
+
+  @Override
+  public IntOutputPort send(int value) {
+    frame[size++] = value;
+    if (size == frameSize) {
+      flush();
+    } else if (!scheduled) {
+      scheduled = true;
+      vertx.runOnContext(flusher);
+    }
+    return this;
+  }
+
+  @Override
+  public IntOutputPort send(int[] values) {
+    for (int value : values) {
+      send(value);
+    }
+    return this;
+  }
+
+  @Override
+  public IntOutputPort flush() {
+    if (size > 0) {
+      int[] values = size == frameSize ? frame : Arrays.copyOf(frame, size);
+      if (values == frame) {
+        frame = new int[frameSize];
+      }
+      size = 0;
+      port.send(values);
+    }
+    return this;
+  }
+
+}
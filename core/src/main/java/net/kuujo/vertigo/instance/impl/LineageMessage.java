@@ -0,0 +1,80 @@
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import net.kuujo.vertigo.message.Lineage;
+
+/**
+ * Received message which is part of a tracked lineage tree.<p>
+ *
+ * Replies and failures are passed on to the sender as usual and reported to the tree's
+ * tracker along with the checksum of the messages anchored to this one.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class LineageMessage<T> implements Message<T> {
+  private final EventBus eventBus;
+  private final Message<T> message;
+  private final Lineage.Anchor anchor;
+
+  LineageMessage(EventBus eventBus, Message<T> message, Lineage.Anchor anchor) {
+    this.eventBus = eventBus;
+    this.message = message;
+    this.anchor = anchor;
+  }
+
+  @Override
+  public String address() {
+    return message.address();
+  }
+
+  @Override
+  public MultiMap headers() {
+    return message.headers();
+  }
+
+  @Override
+  public T body() {
+    return message.body();
+  }
+
+  @Override
+  public String replyAddress() {
+    return message.replyAddress();
+  }
+
+  @Override
+  public void reply(Object reply) {
+    Lineage.ack(eventBus, anchor);
+    message.reply(reply);
+  }
+
+  @Override
+  public <R> void reply(Object reply, Handler<AsyncResult<Message<R>>> replyHandler) {
+    Lineage.ack(eventBus, anchor);
+    message.reply(reply, replyHandler);
+  }
+
+  @Override
+  public void reply(Object reply, DeliveryOptions options) {
+    Lineage.ack(eventBus, anchor);
+    message.reply(reply, options);
+  }
+
+  @Override
+  public <R> void reply(Object reply, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
+    Lineage.ack(eventBus, anchor);
+    message.reply(reply, options, replyHandler);
+  }
+
+  @Override
+  public void fail(int failureCode, String failureMessage) {
+    Lineage.fail(eventBus, anchor, failureCode, failureMessage);
+    message.fail(failureCode, failureMessage);
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.LongInputPort;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+
+import java.util.function.LongConsumer;
+
+/**
+ * {@code long} input port implementation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LongInputPortImpl implements LongInputPort {
+  private final InputPort<Object> port;
+
+  public LongInputPortImpl(Vertx vertx, InputPort<Object> port) {
+    this.port = port;
+    CodecRegistry.registry(vertx);
+  }
+
+  @Override
+  public String name() {
+    return port.name();
+  }
+
+  @Override
+  public LongInputPort handler(LongConsumer handler) {
+    if (handler == null) {
+      port.handler(null);
+      return this;
+    }
+    port.handler(message -> {
+      Object body = message.body();
+      try {
+        if (body instanceof long[]) {
+          for (long value : (long[]) body) {
+            handler.accept(value);
+          }
+        } else if (body instanceof Number) {
+          handler.accept(((Number) body).longValue());
+        } else {
+          throw typeError(body);
+        }
+      } catch (Throwable t) {
+        message.fail(t);
+        return;
+      }
+      message.ack();
+    });
+    return this;
+  }
+
+  @Override
+  public LongInputPort frameHandler(Handler<long[]> handler) {
+    if (handler == null) {
+      port.handler(null);
+      return this;
+    }
+    port.handler(message -> {
+      Object body = message.body();
+      try {
+        if (body instanceof long[]) {
+          handler.handle((long[]) body);
+        } else if (body instanceof Number) {
+          handler.handle(new long[]{((Number) body).longValue()});
+        } else {
+          throw typeError(body);
+        }
+      } catch (Throwable t) {
+        message.fail(t);
+        return;
+      }
+      message.ack();
+    });
+    return this;
+  }
+
+  /**
+   * Returns the error with which a message is failed when its body is not a {@code long} value.
+   */
+  private static IllegalArgumentException typeError(Object body) {
+    return new IllegalArgumentException(String.format("expected long body but received %s", body != null ? body.getClass().getName() : "null"));
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.Closeable;
+import net.kuujo.vertigo.message.Lineage;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.message.impl.MessageBatchImpl;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects individual messages into batches.<p>
+ *
+ * A batch is emitted once it reaches the maximum batch size or once the maximum
+ * wait time has elapsed since the first message in the batch was received, whichever
+ * comes first.<p>
+ *
+ * Acking a batch acks the lineage of each tracked message in it. Messages sent from a
+ * batch handler can't be anchored to every message in the batch though, so sending into
+ * the network from a batch handler fails with an {@link IllegalStateException} until
+ * every tracked message in the batch has been acked or failed.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class MessageBatcher<T> implements Handler<VertigoMessage<T>>, Closeable {
+  private final Vertx vertx;
+  private final int maxSize;
+  private final long maxWait;
+  private final Handler<MessageBatch<T>> handler;
+  private List<VertigoMessage<T>> messages;
+  private List<Lineage.Anchor> anchors = new ArrayList<>();
+  private long timerId = -1;
+  private boolean closed;
+
+  public MessageBatcher(Vertx vertx, int maxSize, long maxWait, Handler<MessageBatch<T>> handler) {
+    Args.check(maxSize > 0, "max batch size must be a positive number");
+    Args.check(maxWait >= 0, "max batch wait cannot be negative");
+    this.vertx = vertx;
+    this.maxSize = maxSize;
+    this.maxWait = maxWait;
+    this.handler = Args.checkNotNull(handler, "handler cannot be null");
+    this.messages = new ArrayList<>(this.maxSize);
+  }
+
+  @Override
+  public void handle(VertigoMessage<T> message) {
+    if (closed) {
+      return;
+    }
+    Lineage.Anchor anchor = Lineage.current();
+    if (anchor != null) {
+      anchors.add(anchor);
+    }
+    messages.add(message);
+    if (messages.size() >= maxSize || maxWait == 0) {
+      flush();
+    } else if (timerId == -1) {
+      timerId = vertx.setTimer(maxWait, id -> {
+        timerId = -1;
+        flush();
+      });
+    }
+  }
+
+  /**
+   * Emits the current batch if it's not empty.
+   */
+  public void flush() {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    if (!messages.isEmpty()) {
+      List<VertigoMessage<T>> batch = messages;
+      List<Lineage.Anchor> batchAnchors = anchors;
+      messages = new ArrayList<>(maxSize);
+      anchors = new ArrayList<>();
+      // A batch flushed by a message is handled without that message's lineage.
+      Lineage.Anchor previous = Lineage.enter(null);
+      List<Lineage.Anchor> previousBatch = Lineage.enterBatch(batchAnchors);
+      try {
+        handler.handle(new MessageBatchImpl<>(batch));
+      } finally {
+        Lineage.exitBatch(previousBatch);
+        Lineage.exit(previous);
+      }
+    }
+  }
+
+  /**
+   * Cancels the flush timer and discards the current batch.<p>
+   *
+   * Discarded messages are never acked, so senders see them time out and may
+   * resend them once the component is running again.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    messages.clear();
+    anchors.clear();
+  }
+
+}
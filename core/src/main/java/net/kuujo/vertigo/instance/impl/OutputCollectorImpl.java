@@ -22,9 +22,14 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.OutputContext;
 import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.OutputCollector;
+import net.kuujo.vertigo.instance.IntOutputPort;
+import net.kuujo.vertigo.instance.LongOutputPort;
 import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.instance.Reconfigurable;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
+import net.kuujo.vertigo.metrics.Metrics;
 
 import java.util.*;
 
@@ -33,13 +38,16 @@ import java.util.*;
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class OutputCollectorImpl implements OutputCollector, Handler<Message<Object>> {
+public class OutputCollectorImpl implements OutputCollector, Reconfigurable<OutputContext>, Closeable, Handler<Message<Object>> {
 
   private Logger logger;
   protected final Vertx vertx;
   protected OutputContext context;
   protected final Map<String, OutputPort> ports = new HashMap<>();
+  private final Map<String, LongOutputPort> longPorts = new HashMap<>();
+  private final Map<String, IntOutputPort> intPorts = new HashMap<>();
   private ComponentInstanceFactory factory;
+  private final Metrics metrics = new Metrics();
 
   public OutputCollectorImpl(Vertx vertx, OutputContext context, ComponentInstanceFactory factory) {
     this.vertx = vertx;
@@ -57,7 +65,9 @@ public class OutputCollectorImpl implements OutputCollector, Handler<Message<Obj
     this.factory = factory;
     for (OutputPortContext output : context.ports()) {
       if (!ports.containsKey(output.name())) {
-        ports.put(output.name(), factory.createOutputPort(vertx, output));
+        OutputPort port = factory.createOutputPort(vertx, output);
+        ports.put(output.name(), port);
+        metrics.register(output.name(), port.metrics());
       }
     }
   }
@@ -74,6 +84,50 @@ public class OutputCollectorImpl implements OutputCollector, Handler<Message<Obj
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public void update(OutputContext update) {
+    for (OutputPortContext portContext : update.ports()) {
+      OutputPort port = ports.get(portContext.name());
+      if (port == null) {
+        port = factory.createOutputPort(vertx, portContext);
+        ports.put(portContext.name(), port);
+        metrics.register(portContext.name(), port.metrics());
+      } else if (port instanceof Reconfigurable) {
+        ((Reconfigurable<OutputPortContext>) port).update(portContext);
+      } else {
+        logger.warn("Cannot update connections of output port {} on component {}", portContext.name(), update.component().name());
+      }
+    }
+
+    // Ports which were removed from the network are kept since they may still be
+    // referenced by the component, but their connections are removed.
+    for (Map.Entry<String, OutputPort> entry : ports.entrySet()) {
+      if (update.port(entry.getKey()) == null && entry.getValue() instanceof Reconfigurable) {
+        ((Reconfigurable<OutputPortContext>) entry.getValue()).update(OutputPortContext
+            .builder()
+            .setOutput(update)
+            .setName(entry.getKey())
+            .build());
+      }
+    }
+    this.context = update;
+  }
+
+  @Override
+  public void close() {
+    for (OutputPort port : ports.values()) {
+      if (port instanceof Closeable) {
+        ((Closeable) port).close();
+      }
+    }
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public Collection<OutputPort> ports() {
     List<OutputPort> ports = new ArrayList<>(this.ports.size());
@@ -93,7 +147,9 @@ public class OutputCollectorImpl implements OutputCollector, Handler<Message<Obj
           .setOutput(context)
           .setName(name)
           .build();
-      ports.put(name, factory.createOutputPort(vertx, portContext));
+      OutputPort port = factory.createOutputPort(vertx, portContext);
+      ports.put(name, port);
+      metrics.register(name, port.metrics());
       logger.info(
           "Dynamically created output port {} on component {} at address {}. The port has no connections.",
           name,
@@ -103,6 +159,26 @@ public class OutputCollectorImpl implements OutputCollector, Handler<Message<Obj
     return ports.get(name);
   }
 
+  @Override
+  public LongOutputPort longPort(String name) {
+    LongOutputPort port = longPorts.get(name);
+    if (port == null) {
+      port = new LongOutputPortImpl(vertx, port(name));
+      longPorts.put(name, port);
+    }
+    return port;
+  }
+
+  @Override
+  public IntOutputPort intPort(String name) {
+    IntOutputPort port = intPorts.get(name);
+    if (port == null) {
+      port = new IntOutputPortImpl(vertx, port(name));
+      intPorts.put(name, port);
+    }
+    return port;
+  }
+
   @Override
   public String toString() {
     return context.toString();
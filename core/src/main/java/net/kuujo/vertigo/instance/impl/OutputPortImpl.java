@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.instance.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
@@ -23,11 +24,18 @@ import io.vertx.core.eventbus.Message;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.spi.ComponentInstanceFactory;
+import net.kuujo.vertigo.instance.Closeable;
 import net.kuujo.vertigo.instance.ControllableOutput;
 import net.kuujo.vertigo.instance.OutputConnection;
 import net.kuujo.vertigo.context.OutputConnectionContext;
 import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.instance.Reconfigurable;
 import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.message.Lineage;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.metrics.Tracing;
 import net.kuujo.vertigo.util.Args;
 import net.kuujo.vertigo.util.CountingCompletionHandler;
 
@@ -39,19 +47,29 @@ import java.util.Map;
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<OutputPort<T>, T>, Handler<Message<T>> {
+public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<OutputPort<T>, T>, Reconfigurable<OutputPortContext>, Closeable, Handler<Message<T>> {
   private static final Logger log = LoggerFactory.getLogger(OutputPortImpl.class);
   private static final int DEFAULT_SEND_QUEUE_MAX_SIZE = 10000;
   protected final Vertx vertx;
+  private final Context owner;
   protected OutputPortContext context;
   protected final Map<String, OutputConnection<T>> connections = new HashMap<>();
+  private final ComponentInstanceFactory factory;
   private int maxQueueSize = DEFAULT_SEND_QUEUE_MAX_SIZE;
   private Handler<Void> drainHandler;
+  private final Metrics metrics = new Metrics();
+  private final Counter sent = metrics.counter("sent");
+  private Histogram processingTime;
+  private final String component;
 
   public OutputPortImpl(Vertx vertx, OutputPortContext context, ComponentInstanceFactory factory) {
     this.vertx = vertx;
+    this.owner = vertx.getOrCreateContext();
     this.context = context;
+    this.component = context.output() != null ? context.output().component().name() : null;
+    this.factory = factory;
     init(factory);
+    metrics.gauge("queue-depth", this::size);
   }
 
   /**
@@ -60,7 +78,63 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
    */
   private void init(ComponentInstanceFactory factory) {
     for (OutputConnectionContext connection : context.connections()) {
-      connections.put(connection.target().address(), factory.<T>createOutputConnection(vertx, connection));
+      OutputConnection<T> output = factory.<T>createOutputConnection(vertx, connection);
+      connections.put(connection.target().address(), output);
+      metrics.register(connection.target().address(), output.metrics());
+    }
+  }
+
+  @Override
+  public void update(OutputPortContext update) {
+    Map<String, OutputConnectionContext> current = new HashMap<>();
+    for (OutputConnectionContext connection : context.connections()) {
+      current.put(connection.target().address(), connection);
+    }
+    Map<String, OutputConnectionContext> updated = new HashMap<>();
+    for (OutputConnectionContext connection : update.connections()) {
+      updated.put(connection.target().address(), connection);
+    }
+
+    // Close connections which no longer exist or have changed. Acks for messages
+    // already sent on removed connections are still delivered to their handlers.
+    for (Map.Entry<String, OutputConnectionContext> entry : current.entrySet()) {
+      OutputConnectionContext connection = updated.get(entry.getKey());
+      if (connection == null || !connection.toJson().equals(entry.getValue().toJson())) {
+        close(connections.remove(entry.getKey()));
+        metrics.unregister(entry.getKey());
+      }
+    }
+
+    // Add new and changed connections.
+    for (Map.Entry<String, OutputConnectionContext> entry : updated.entrySet()) {
+      if (!connections.containsKey(entry.getKey())) {
+        OutputConnection<T> output = factory.<T>createOutputConnection(vertx, entry.getValue());
+        if (maxQueueSize != DEFAULT_SEND_QUEUE_MAX_SIZE) {
+          output.setSendQueueMaxSize(maxQueueSize);
+        }
+        if (drainHandler != null) {
+          output.drainedHandler(drainHandler);
+        }
+        connections.put(entry.getKey(), output);
+        metrics.register(entry.getKey(), output.metrics());
+      }
+    }
+    this.context = update;
+  }
+
+  @Override
+  public void close() {
+    for (OutputConnection<T> connection : connections.values()) {
+      close(connection);
+    }
+  }
+
+  /**
+   * Closes a connection if it holds resources.
+   */
+  private static void close(OutputConnection<?> connection) {
+    if (connection instanceof Closeable) {
+      ((Closeable) connection).close();
     }
   }
 
@@ -80,6 +154,11 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
     return context.name();
   }
 
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
   @Override
   public OutputPort<T> checkpoint() {
     return this;
@@ -133,8 +212,46 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
     return this;
   }
 
+  @Override
+  public Handler<Void> drainedHandler() {
+    return drainHandler;
+  }
+
+  /**
+   * Indicates whether a send was made from outside the owning event loop context, e.g.
+   * from a handler running on a virtual thread or from another verticle's event loop.
+   */
+  private boolean isForeignThread() {
+    return owner.isEventLoopContext() && Vertx.currentContext() != owner;
+  }
+
+  /**
+   * Runs a send on the owning context with the lineage of the message being handled by
+   * the sending thread, so that the sent message is anchored to it.
+   */
+  private void runOnOwner(Runnable send) {
+    Lineage.Anchor anchor = Lineage.current();
+    owner.runOnContext(v -> {
+      Lineage.Anchor previous = Lineage.enter(anchor);
+      try {
+        send.run();
+      } finally {
+        Lineage.exit(previous);
+      }
+    });
+  }
+
   @Override
   public OutputPort<T> send(T message) {
+    if (isForeignThread()) {
+      runOnOwner(() -> send(message));
+      return this;
+    }
+    sent.increment();
+    Tracing.Trace trace = Tracing.current();
+    if (trace != null) {
+      return sendTraced(message, null, null, trace);
+    }
     for (OutputConnection<T> connection : connections.values()) {
       connection.send(message);
     }
@@ -143,6 +260,15 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
 
   @Override
   public OutputPort<T> send(T message, MultiMap headers) {
+    if (isForeignThread()) {
+      runOnOwner(() -> send(message, headers));
+      return this;
+    }
+    sent.increment();
+    Tracing.Trace trace = Tracing.current();
+    if (trace != null) {
+      return sendTraced(message, headers, null, trace);
+    }
     for (OutputConnection<T> connection : connections.values()) {
       connection.send(message, headers);
     }
@@ -151,8 +277,17 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
 
   @Override
   public OutputPort<T> send(T message, Handler<AsyncResult<Void>> ackHandler) {
+    if (isForeignThread()) {
+      runOnOwner(() -> send(message, ackHandler));
+      return this;
+    }
+    sent.increment();
     CountingCompletionHandler<Void> counter = new CountingCompletionHandler<>(connections.size());
     counter.setHandler(ackHandler);
+    Tracing.Trace trace = Tracing.current();
+    if (trace != null) {
+      return sendTraced(message, null, counter, trace);
+    }
     for (OutputConnection<T> connection : connections.values()) {
       connection.send(message, counter);
     }
@@ -161,14 +296,43 @@ public class OutputPortImpl<T> implements OutputPort<T>, ControllableOutput<Outp
 
   @Override
   public OutputPort<T> send(T message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
+    if (isForeignThread()) {
+      runOnOwner(() -> send(message, headers, ackHandler));
+      return this;
+    }
+    sent.increment();
     CountingCompletionHandler<Void> counter = new CountingCompletionHandler<>(connections.size());
     counter.setHandler(ackHandler);
+    Tracing.Trace trace = Tracing.current();
+    if (trace != null) {
+      return sendTraced(message, headers, counter, trace);
+    }
     for (OutputConnection<T> connection : connections.values()) {
       connection.send(message, headers, counter);
     }
     return this;
   }
 
+  /**
+   * Sends a message which is part of a trace, recording the time since the traced message
+   * was received and forwarding the trace to each connection.
+   */
+  private OutputPort<T> sendTraced(T message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler, Tracing.Trace trace) {
+    if (processingTime == null) {
+      processingTime = metrics.metrics("trace").histogram("processing");
+    }
+    processingTime.record(Tracing.now() - trace.received());
+    for (OutputConnection<T> connection : connections.values()) {
+      // Each connection gets its own headers since connections add their own headers.
+      MultiMap traced = Tracing.forward(headers, trace, component);
+      if (ackHandler != null) {
+        connection.send(message, traced, ackHandler);
+      } else {
+        connection.send(message, traced);
+      }
+    }
+    return this;
+  }
 
   @Override
   public String toString() {
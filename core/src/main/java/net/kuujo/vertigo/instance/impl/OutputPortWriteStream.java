@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.WriteStream;
+import net.kuujo.vertigo.instance.ControllableOutput;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.function.Function;
+
+/**
+ * Write stream which sends to an output port.<p>
+ *
+ * Each write is sent with an ack handler so that the port can count the messages in
+ * flight, and the write queue is full while the port's send queue is full. Writes
+ * are transformed before being sent, which allows streams of one type to be written
+ * to ports of another.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class OutputPortWriteStream<T, U> implements WriteStream<T> {
+  private final OutputPort<U> port;
+  private final ControllableOutput<?, U> controller;
+  private final Function<T, U> transform;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> drainHandler;
+  private boolean chained;
+
+  public OutputPortWriteStream(OutputPort<U> port, Function<T, U> transform) {
+    Args.checkNotNull(port, "port cannot be null");
+    Args.check(port instanceof ControllableOutput, "port %s has no send queue", port.name());
+    this.port = port;
+    this.controller = (ControllableOutput<?, U>) port;
+    this.transform = Args.checkNotNull(transform, "transform cannot be null");
+  }
+
+  @Override
+  public OutputPortWriteStream<T, U> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public OutputPortWriteStream<T, U> write(T data) {
+    send(data, result -> {
+      if (result.failed() && exceptionHandler != null) {
+        exceptionHandler.handle(result.cause());
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Transforms and sends a message with the given ack handler.
+   */
+  protected void send(T data, Handler<AsyncResult<Void>> ackHandler) {
+    port.send(transform.apply(data), ackHandler);
+  }
+
+  @Override
+  public void end() {
+    // Ports are never closed.
+  }
+
+  @Override
+  public OutputPortWriteStream<T, U> setWriteQueueMaxSize(int maxSize) {
+    controller.setSendQueueMaxSize(maxSize);
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return controller.sendQueueFull();
+  }
+
+  @Override
+  public OutputPortWriteStream<T, U> drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    // Other streams and components may wait for the same port to drain, so the stream
+    // is chained to the port's drain handler rather than replacing it. The chain is only
+    // built once since pumps set the drain handler again each time the stream fills up.
+    if (!chained) {
+      Handler<Void> previous = controller.drainedHandler();
+      controller.drainedHandler(v -> {
+        if (previous != null) {
+          previous.handle(v);
+        }
+        if (drainHandler != null) {
+          drainHandler.handle(v);
+        }
+      });
+      chained = true;
+    }
+    return this;
+  }
+
+}
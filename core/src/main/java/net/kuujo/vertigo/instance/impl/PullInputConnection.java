@@ -0,0 +1,203 @@
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import net.kuujo.vertigo.context.InputConnectionContext;
+import net.kuujo.vertigo.instance.Closeable;
+import net.kuujo.vertigo.instance.InputConnection;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.spi.VertigoMessageFactory;
+
+import java.util.UUID;
+
+/**
+ * Input connection which pulls messages from the source as it has capacity.<p>
+ *
+ * Each instance requests up to a batch of messages at a time from the source at a
+ * replica-specific address. Messages count against the batch until they are acked or
+ * failed, or until the handler returns for messages sent without an ack handler, and
+ * more work is requested once half of the batch has been processed.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class PullInputConnection<T> extends SimpleInputConnection<T> implements Closeable {
+  private static final long RETRY_INTERVAL = 100;
+  private final String address = UUID.randomUUID().toString();
+  private final String pullAddress;
+  private final int batchSize;
+  private final Counter requests = metrics.counter("requests");
+  private final MessageConsumer<T> consumer;
+  private int credits;
+  private int inFlight;
+  private boolean requesting;
+  private boolean paused;
+  private boolean closed;
+  private long retryTimer = -1;
+
+  protected PullInputConnection(Vertx vertx, InputConnectionContext context, VertigoMessageFactory messageFactory) {
+    super(vertx, context, messageFactory);
+    this.pullAddress = PullOutputConnection.address(context);
+    this.batchSize = context.pullBatchSize();
+    metrics.gauge("credits", () -> credits);
+    metrics.gauge("in-flight", () -> inFlight);
+    consumer = eventBus.consumer(address, this::handle);
+  }
+
+  @Override
+  public void handle(Message<T> message) {
+    if (credits > 0) {
+      credits--;
+    }
+    inFlight++;
+    super.handle(message);
+  }
+
+  @Override
+  protected void doMessage(Message<T> message) {
+    PullMessage pulled = new PullMessage(message);
+    super.doMessage(pulled);
+    if (message.replyAddress() == null) {
+      pulled.complete();
+    }
+  }
+
+  @Override
+  public InputConnection<T> handler(Handler<VertigoMessage<T>> handler) {
+    super.handler(handler);
+    request();
+    return this;
+  }
+
+  @Override
+  public InputConnection<T> pause() {
+    paused = true;
+    return super.pause();
+  }
+
+  @Override
+  public InputConnection<T> resume() {
+    paused = false;
+    super.resume();
+    request();
+    return this;
+  }
+
+  /**
+   * Requests more messages from the source if at least half of the batch is available.
+   */
+  private void request() {
+    int available = batchSize - inFlight - credits;
+    if (closed || requesting || paused || messageHandler == null || available <= 0 || inFlight + credits > batchSize / 2) {
+      return;
+    }
+
+    requesting = true;
+    credits += available;
+    requests.increment();
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(PullOutputConnection.REPLICA_HEADER, address)
+        .addHeader(PullOutputConnection.CREDITS_HEADER, String.valueOf(available))
+        .setSendTimeout(PullOutputConnection.LEASE_TIMEOUT * 5);
+    eventBus.<Integer>send(pullAddress, null, options, result -> {
+      requesting = false;
+      if (result.succeeded()) {
+        // The source returns any credits which were not used before the lease expired.
+        credits = Math.max(0, credits - result.result().body());
+        request();
+      } else {
+        credits = Math.max(0, credits - available);
+        retryTimer = vertx.setTimer(RETRY_INTERVAL, id -> {
+          retryTimer = -1;
+          request();
+        });
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    consumer.unregister();
+    if (retryTimer != -1) {
+      vertx.cancelTimer(retryTimer);
+      retryTimer = -1;
+    }
+  }
+
+  /**
+   * Pulled message which releases its slot in the batch once it has been processed.
+   */
+  private class PullMessage implements Message<T> {
+    private final Message<T> message;
+    private boolean complete;
+
+    private PullMessage(Message<T> message) {
+      this.message = message;
+    }
+
+    private void complete() {
+      if (!complete) {
+        complete = true;
+        inFlight--;
+        request();
+      }
+    }
+
+    @Override
+    public String address() {
+      return message.address();
+    }
+
+    @Override
+    public MultiMap headers() {
+      return message.headers();
+    }
+
+    @Override
+    public T body() {
+      return message.body();
+    }
+
+    @Override
+    public String replyAddress() {
+      return message.replyAddress();
+    }
+
+    @Override
+    public void reply(Object reply) {
+      message.reply(reply);
+      complete();
+    }
+
+    @Override
+    public <R> void reply(Object reply, Handler<AsyncResult<Message<R>>> replyHandler) {
+      message.reply(reply, replyHandler);
+      complete();
+    }
+
+    @Override
+    public void reply(Object reply, DeliveryOptions options) {
+      message.reply(reply, options);
+      complete();
+    }
+
+    @Override
+    public <R> void reply(Object reply, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
+      message.reply(reply, options, replyHandler);
+      complete();
+    }
+
+    @Override
+    public void fail(int failureCode, String failureMessage) {
+      message.fail(failureCode, failureMessage);
+      complete();
+    }
+  }
+
+}
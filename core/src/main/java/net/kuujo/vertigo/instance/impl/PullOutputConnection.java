@@ -0,0 +1,298 @@
+package net.kuujo.vertigo.instance.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.context.ConnectionContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.instance.Closeable;
+import net.kuujo.vertigo.instance.OutputConnection;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Output connection from which target instances pull messages.<p>
+ *
+ * Messages are queued until a target instance requests work. Each request grants the
+ * connection a lease of credits for the requesting replica, and queued messages are
+ * handed out round robin to replicas with credits remaining. A lease is returned to
+ * the replica once its credits have been used or it expires, at which point the replica
+ * requests more work if it has capacity. Messages which can no longer be delivered to
+ * a replica that has gone away are handed to the next replica that asks.<p>
+ *
+ * Only messages sent with an ack handler are redelivered, since the connection learns
+ * that a replica has gone away from the failed reply. Messages sent without an ack
+ * handler to a replica which has gone away are lost. Closing the connection fails
+ * the ack handlers of all messages still queued.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class PullOutputConnection<T> extends AbstractOutputConnection<T> implements Closeable {
+  static final String REPLICA_HEADER = "replica";
+  static final String CREDITS_HEADER = "credits";
+  static final long LEASE_TIMEOUT = 1000;
+  private static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
+  private final Deque<Payload> queue = new ArrayDeque<>();
+  private final Deque<Lease> leases = new ArrayDeque<>();
+  private final Map<String, Replica> replicas = new HashMap<>();
+  private final Metrics replicaMetrics = metrics.metrics("replicas");
+  private final Counter requests = metrics.counter("requests");
+  private final Counter redelivered = metrics.counter("redelivered");
+  private final MessageConsumer<Object> consumer;
+  private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private Handler<Void> drainHandler;
+  private int inFlight;
+  private boolean full;
+
+  public PullOutputConnection(Vertx vertx, OutputConnectionContext context) {
+    super(vertx, context);
+    metrics.gauge("in-flight", () -> inFlight);
+    consumer = eventBus.consumer(address(context), this::doRequest);
+  }
+
+  /**
+   * Returns the address at which target instances request work for a pull connection.
+   */
+  static String address(ConnectionContext<?, ?> context) {
+    return String.format("%s.%s.%s.%s.pull", context.source().address(), context.source().port(), context.target().address(), context.target().port());
+  }
+
+  /**
+   * Handles a request for work from a target instance.
+   */
+  private void doRequest(Message<Object> request) {
+    String address = request.headers().get(REPLICA_HEADER);
+    String header = request.headers().get(CREDITS_HEADER);
+    int credits = header != null ? Integer.parseInt(header) : 0;
+    if (address == null || credits <= 0) {
+      request.reply(0);
+      return;
+    }
+
+    requests.increment();
+    Replica replica = replicas.computeIfAbsent(address, Replica::new);
+    Lease lease = new Lease(replica, request, credits);
+    lease.timer = vertx.setTimer(LEASE_TIMEOUT, id -> {
+      if (leases.remove(lease)) {
+        release(lease);
+      }
+    });
+    replica.credits += lease.credits;
+    leases.add(lease);
+    dispatch();
+  }
+
+  /**
+   * Hands queued messages to replicas with credits remaining.
+   */
+  private void dispatch() {
+    while (!queue.isEmpty() && !leases.isEmpty()) {
+      Lease lease = leases.poll();
+      lease.credits--;
+      lease.replica.credits--;
+      deliver(lease.replica, queue.poll());
+      if (lease.credits > 0) {
+        leases.add(lease);
+      } else {
+        release(lease);
+      }
+    }
+    checkDrain();
+  }
+
+  /**
+   * Returns a lease to its replica along with any unused credits.
+   */
+  private void release(Lease lease) {
+    vertx.cancelTimer(lease.timer);
+    lease.replica.credits -= lease.credits;
+    lease.request.reply(lease.credits);
+  }
+
+  /**
+   * Delivers a message to a replica.
+   */
+  private void deliver(Replica replica, Payload payload) {
+    replica.sent.increment();
+    Handler<AsyncResult<Void>> ackHandler = payload.getAckHandler();
+    if (ackHandler != null) {
+      inFlight++;
+      replica.inFlight++;
+      payload.setAckHandler(result -> {
+        inFlight--;
+        replica.inFlight--;
+        if (result.failed() && result.cause() instanceof ReplyException
+            && ((ReplyException) result.cause()).failureType() == ReplyFailure.NO_HANDLERS) {
+          // The replica went away before the message was delivered.
+          remove(replica);
+          redelivered.increment();
+          queue.addFirst(payload.setAckHandler(ackHandler));
+          dispatch();
+        } else {
+          ackHandler.handle(result);
+          checkDrain();
+        }
+      });
+    }
+    doSend(replica.address, payload);
+    checkFull();
+  }
+
+  /**
+   * Removes a replica which is no longer reachable.
+   */
+  private void remove(Replica replica) {
+    if (replicas.remove(replica.address) != null) {
+      Iterator<Lease> iterator = leases.iterator();
+      while (iterator.hasNext()) {
+        Lease lease = iterator.next();
+        if (lease.replica == replica) {
+          iterator.remove();
+          release(lease);
+        }
+      }
+      replicaMetrics.unregister(replica.address);
+    }
+  }
+
+  @Override
+  protected OutputConnection<T> trySend(Object message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
+    doQueue(createPayload(message, headers, ackHandler));
+    return this;
+  }
+
+  @Override
+  protected void doPause(long id) {
+  }
+
+  @Override
+  protected void doResume(long id) {
+  }
+
+  @Override
+  protected boolean isPaused() {
+    return leases.isEmpty();
+  }
+
+  @Override
+  protected void doQueue(Payload payload) {
+    queue.add(payload);
+    dispatch();
+    checkFull();
+  }
+
+  /**
+   * Checks whether the send queue is full.
+   */
+  protected void checkFull() {
+    if (sendQueueFull()) {
+      full = true;
+    }
+  }
+
+  /**
+   * Calls the drain handler if the send queue was full and has been drained.
+   */
+  protected void checkDrain() {
+    if (full && size() < maxQueueSize / 2) {
+      full = false;
+      if (drainHandler != null) {
+        drainHandler.handle(null);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public OutputConnection<T> setSendQueueMaxSize(int maxSize) {
+    this.maxQueueSize = maxSize;
+    return this;
+  }
+
+  @Override
+  public int getSendQueueMaxSize() {
+    return maxQueueSize;
+  }
+
+  @Override
+  public boolean sendQueueFull() {
+    return size() >= maxQueueSize;
+  }
+
+  @Override
+  public OutputConnection<T> drainedHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    return this;
+  }
+
+  @Override
+  public Handler<Void> drainedHandler() {
+    return drainHandler;
+  }
+
+  @Override
+  public void close() {
+    consumer.unregister();
+    while (!leases.isEmpty()) {
+      release(leases.poll());
+    }
+    while (!queue.isEmpty()) {
+      Handler<AsyncResult<Void>> ackHandler = queue.poll().getAckHandler();
+      if (ackHandler != null) {
+        ackHandler.handle(Future.failedFuture(new VertigoException("Connection closed")));
+      }
+    }
+  }
+
+  /**
+   * Target instance which pulls messages from the connection.
+   */
+  private class Replica {
+    private final String address;
+    private final Counter sent;
+    private int credits;
+    private int inFlight;
+
+    private Replica(String address) {
+      this.address = address;
+      Metrics metrics = replicaMetrics.metrics(address);
+      this.sent = metrics.counter("sent");
+      metrics.gauge("credits", () -> credits);
+      metrics.gauge("in-flight", () -> inFlight);
+    }
+  }
+
+  /**
+   * Credits granted by a single request for work.
+   */
+  private class Lease {
+    private final Replica replica;
+    private final Message<Object> request;
+    private int credits;
+    private long timer;
+
+    private Lease(Replica replica, Message<Object> request, int credits) {
+      this.replica = replica;
+      this.request = request;
+      this.credits = credits;
+    }
+  }
+
+}
@@ -41,11 +41,21 @@ public class SimpleComponentInstanceFactory implements ComponentInstanceFactory
 
   @Override
   public <T> InputConnection<T> createInputConnection(Vertx vertx, InputConnectionContext connection) {
+    if (connection.pull() && connection.source().component() != null) {
+      return new PullInputConnection<>(vertx, connection, messageFactory);
+    }
     return new SimpleInputConnection<>(vertx, connection, messageFactory);
   }
 
   @Override
   public <T> OutputConnection<T> createOutputConnection(Vertx vertx, OutputConnectionContext connection) {
+    // Connections without a target component send to the network's output.
+    if (connection.target().component() == null) {
+      return new ExternalOutputConnection<>(vertx, connection);
+    }
+    if (connection.pull()) {
+      return new PullOutputConnection<>(vertx, connection);
+    }
     return new SimpleOutputConnection<>(vertx, connection);
   }
 
@@ -1,26 +1,68 @@
 package net.kuujo.vertigo.instance.impl;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
 import net.kuujo.vertigo.context.InputConnectionContext;
 import net.kuujo.vertigo.instance.InputConnection;
+import net.kuujo.vertigo.metrics.Counter;
 import net.kuujo.vertigo.spi.VertigoMessageFactory;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
 /**
+ * Input connection which receives messages directly from the source.<p>
+ *
+ * Messages received while the connection is paused are queued without being acked
+ * and delivered once the connection is resumed, so sources which limit the number
+ * of unacked messages are held back until the connection catches up. Only sends made
+ * with an ack handler count against the source's send queue though, so pausing does
+ * not hold back sources which send without ack handlers and the queue is unbounded
+ * for such sources. The queue's size is reported by the {@code queue-depth} gauge.<p>
+ *
  * Created by Magnus.Koch on 8/30/2016.
  */
 public class SimpleInputConnection<T> extends AbstractInputConnection<T> {
+  private final Queue<Message<T>> queue = new ArrayDeque<>();
+  private final Counter pauses = metrics.counter("pauses");
+  private final Counter pauseTime = metrics.counter("pause-time");
+  private boolean paused;
+  private long pausedAt;
 
   protected SimpleInputConnection(Vertx vertx, InputConnectionContext context, VertigoMessageFactory messageFactory) {
     super(vertx, context, messageFactory);
+    metrics.gauge("queue-depth", queue::size);
+  }
+
+  @Override
+  public void handle(Message<T> message) {
+    if (paused) {
+      queue.add(message);
+    } else {
+      doMessage(message);
+    }
   }
 
   @Override
   public InputConnection<T> pause() {
+    if (!paused) {
+      paused = true;
+      pausedAt = System.nanoTime();
+      pauses.increment();
+    }
     return this;
   }
 
   @Override
   public InputConnection<T> resume() {
+    if (paused) {
+      paused = false;
+      pauseTime.add((System.nanoTime() - pausedAt) / 1000000);
+      // The handler may pause the connection again while queued messages are delivered.
+      while (!paused && !queue.isEmpty()) {
+        doMessage(queue.poll());
+      }
+    }
     return this;
   }
 
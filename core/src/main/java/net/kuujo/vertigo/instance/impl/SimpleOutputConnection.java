@@ -1,14 +1,27 @@
 package net.kuujo.vertigo.instance.impl;
 
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import net.kuujo.vertigo.context.OutputConnectionContext;
 import net.kuujo.vertigo.instance.OutputConnection;
 
 /**
+ * Output connection which sends messages directly to the target.<p>
+ *
+ * Messages sent with an ack handler are in flight until the target acks or fails them.
+ * The send queue is full once too many messages are in flight, and the drain handler
+ * is called once half of them have been acked. Since targets ack messages as they are
+ * processed, this lets senders keep pace with the components they send to.
+ *
  * Created by Magnus.Koch on 8/30/2016.
  */
 public class SimpleOutputConnection<T> extends AbstractOutputConnection<T> {
+  private static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
+  private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private Handler<Void> drainHandler;
+  private int inFlight;
+  private boolean full;
 
   public SimpleOutputConnection(Vertx vertx, OutputConnectionContext context) {
     super(vertx, context);
@@ -31,28 +44,72 @@ public class SimpleOutputConnection<T> extends AbstractOutputConnection<T> {
   protected void doQueue(Payload payload) {
   }
 
+  @Override
+  protected OutputConnection<T> doSend(Payload payload) {
+    Handler<AsyncResult<Void>> ackHandler = payload.getAckHandler();
+    if (ackHandler != null) {
+      inFlight++;
+      payload.setAckHandler(result -> {
+        inFlight--;
+        checkDrain();
+        ackHandler.handle(result);
+      });
+    }
+    super.doSend(payload);
+    checkFull();
+    return this;
+  }
+
+  /**
+   * Checks whether the send queue is full.
+   */
+  protected void checkFull() {
+    if (sendQueueFull()) {
+      full = true;
+    }
+  }
+
+  /**
+   * Calls the drain handler if the send queue was full and has been drained.
+   */
+  protected void checkDrain() {
+    if (full && !isPaused() && size() < maxQueueSize / 2) {
+      full = false;
+      if (drainHandler != null) {
+        drainHandler.handle(null);
+      }
+    }
+  }
+
   @Override
   public int size() {
-    return 0;
+    return inFlight;
   }
 
   @Override
   public OutputConnection<T> setSendQueueMaxSize(int maxSize) {
+    this.maxQueueSize = maxSize;
     return this;
   }
 
   @Override
   public int getSendQueueMaxSize() {
-    return Integer.MAX_VALUE;
+    return maxQueueSize;
   }
 
   @Override
   public boolean sendQueueFull() {
-    return false;
+    return size() >= maxQueueSize;
   }
 
   @Override
   public OutputConnection<T> drainedHandler(Handler<Void> handler) {
-    return null;
+    this.drainHandler = handler;
+    return this;
+  }
+
+  @Override
+  public Handler<Void> drainedHandler() {
+    return drainHandler;
   }
 }
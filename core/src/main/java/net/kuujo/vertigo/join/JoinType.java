@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.join;
+
+/**
+ * Stream join type.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public enum JoinType {
+
+  /**
+   * Emits only messages which were matched.
+   */
+  INNER,
+
+  /**
+   * Also emits unmatched left messages with a {@code null} right side.
+   */
+  LEFT,
+
+  /**
+   * Also emits unmatched messages from either side with a {@code null} other side.
+   */
+  OUTER
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.join;
+
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.InputCollector;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.join.impl.StreamJoinImpl;
+import net.kuujo.vertigo.metrics.Metrics;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyed, time-bounded join of the messages received on two input ports.<p>
+ *
+ * Each message is buffered by key for the join interval after it is received, and is
+ * joined with every buffered message with the same key from the other port. Once a
+ * message leaves the buffer, unmatched messages are emitted with a {@code null} other
+ * side according to the {@link JoinType}. The buffer holds at most
+ * {@link #setMaxBufferSize(int) max buffer size} messages across both ports, and the
+ * oldest messages are evicted early once it is full, so skewed keys can't exhaust the
+ * heap. Messages are acked once they are buffered.<p>
+ *
+ * Both sides of a key must be received by the same component instance. Replicas of a
+ * component share its address and are load balanced by the event bus, so joins should
+ * be performed by components which are not replicated.
+ *
+ * <pre>
+ * {@code
+ * StreamJoin.<JsonObject, JsonObject, String>create(vertx, input(), "orders", "payments")
+ *     .setLeftKey(order -> order.getString("id"))
+ *     .setRightKey(payment -> payment.getString("order"))
+ *     .setInterval(60000)
+ *     .to(output().port("out"), (order, payment) -> new JsonObject().put("order", order).put("payment", payment));
+ * }
+ * </pre>
+ *
+ * @param <L> The left message type.
+ * @param <R> The right message type.
+ * @param <K> The key type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface StreamJoin<L, R, K> {
+
+  /**
+   * The default join interval in milliseconds.
+   */
+  long DEFAULT_INTERVAL = 60000;
+
+  /**
+   * The default maximum number of buffered messages.
+   */
+  int DEFAULT_MAX_BUFFER_SIZE = 100000;
+
+  /**
+   * Creates a stream join.
+   *
+   * @param vertx The Vert.x instance.
+   * @param left The left input port.
+   * @param right The right input port.
+   * @param <L> The left message type.
+   * @param <R> The right message type.
+   * @param <K> The key type.
+   * @return The stream join.
+   */
+  static <L, R, K> StreamJoin<L, R, K> create(Vertx vertx, InputPort<L> left, InputPort<R> right) {
+    return new StreamJoinImpl<>(vertx, left, right);
+  }
+
+  /**
+   * Creates a stream join of two ports of an input collector.
+   *
+   * @param vertx The Vert.x instance.
+   * @param input The input collector.
+   * @param left The name of the left input port.
+   * @param right The name of the right input port.
+   * @param <L> The left message type.
+   * @param <R> The right message type.
+   * @param <K> The key type.
+   * @return The stream join.
+   */
+  static <L, R, K> StreamJoin<L, R, K> create(Vertx vertx, InputCollector input, String left, String right) {
+    return new StreamJoinImpl<>(vertx, input.<L>port(left), input.<R>port(right));
+  }
+
+  /**
+   * Sets the function which returns the key of left messages.
+   *
+   * @param key The left key function.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> setLeftKey(Function<L, K> key);
+
+  /**
+   * Sets the function which returns the key of right messages.
+   *
+   * @param key The right key function.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> setRightKey(Function<R, K> key);
+
+  /**
+   * Sets the join interval. Messages are joined if they are received within the
+   * interval of one another.
+   *
+   * @param interval The join interval in milliseconds.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> setInterval(long interval);
+
+  /**
+   * Sets the join type.
+   *
+   * @param type The join type.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> setType(JoinType type);
+
+  /**
+   * Sets the maximum number of messages buffered across both ports.
+   *
+   * @param maxSize The maximum number of buffered messages.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> setMaxBufferSize(int maxSize);
+
+  /**
+   * Starts the join, calling a handler with each joined pair.<p>
+   *
+   * This registers handlers on both input ports and may only be called once.
+   *
+   * @param handler A handler to be called with each pair of joined messages. Either
+   *                side may be {@code null} for left and outer joins.
+   * @return The stream join.
+   */
+  StreamJoin<L, R, K> handler(BiConsumer<L, R> handler);
+
+  /**
+   * Starts the join, sending joined pairs to an output port.
+   *
+   * @param port The output port to which to send joined messages.
+   * @param joiner A function which combines joined messages. Either side may be
+   *               {@code null} for left and outer joins.
+   * @param <U> The output message type.
+   * @return The stream join.
+   */
+  <U> StreamJoin<L, R, K> to(OutputPort<U> port, BiFunction<L, R, U> joiner);
+
+  /**
+   * Returns the join metrics.
+   *
+   * @return The number of {@code joined}, {@code expired} and {@code evicted} messages and
+   *         the number of {@code buffered} messages.
+   */
+  Metrics metrics();
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.join.impl;
+
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.join.JoinType;
+import net.kuujo.vertigo.join.StreamJoin;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Stream join implementation.<p>
+ *
+ * Each side keeps its buffered messages both by key and in order of receipt. Since
+ * messages are buffered in the order in which they are received, the oldest message
+ * on a side is always the first message buffered for its key, so expired and evicted
+ * messages are removed from the head of both queues without searching.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class StreamJoinImpl<L, R, K> implements StreamJoin<L, R, K> {
+  private final Vertx vertx;
+  private final InputPort<L> left;
+  private final InputPort<R> right;
+  private final Side<L> lefts = new Side<>();
+  private final Side<R> rights = new Side<>();
+  private final Metrics metrics = new Metrics();
+  private final Counter joined = metrics.counter("joined");
+  private final Counter expired = metrics.counter("expired");
+  private final Counter evicted = metrics.counter("evicted");
+  private Function<L, K> leftKey;
+  private Function<R, K> rightKey;
+  private long interval = DEFAULT_INTERVAL;
+  private JoinType type = JoinType.INNER;
+  private int maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+  private BiConsumer<L, R> handler;
+  private long timer = -1;
+
+  public StreamJoinImpl(Vertx vertx, InputPort<L> left, InputPort<R> right) {
+    this.vertx = Args.checkNotNull(vertx, "vertx cannot be null");
+    this.left = Args.checkNotNull(left, "left port cannot be null");
+    this.right = Args.checkNotNull(right, "right port cannot be null");
+    metrics.gauge("buffered", () -> lefts.order.size() + rights.order.size());
+  }
+
+  @Override
+  public StreamJoin<L, R, K> setLeftKey(Function<L, K> key) {
+    this.leftKey = Args.checkNotNull(key, "key cannot be null");
+    return this;
+  }
+
+  @Override
+  public StreamJoin<L, R, K> setRightKey(Function<R, K> key) {
+    this.rightKey = Args.checkNotNull(key, "key cannot be null");
+    return this;
+  }
+
+  @Override
+  public StreamJoin<L, R, K> setInterval(long interval) {
+    Args.check(interval > 0, "interval must be positive");
+    this.interval = interval;
+    return this;
+  }
+
+  @Override
+  public StreamJoin<L, R, K> setType(JoinType type) {
+    this.type = Args.checkNotNull(type, "type cannot be null");
+    return this;
+  }
+
+  @Override
+  public StreamJoin<L, R, K> setMaxBufferSize(int maxSize) {
+    this.maxBufferSize = Args.checkPositive(maxSize, "max buffer size must be a positive number");
+    return this;
+  }
+
+  @Override
+  public StreamJoin<L, R, K> handler(BiConsumer<L, R> handler) {
+    Args.checkNotNull(handler, "handler cannot be null");
+    Args.check(this.handler == null, "join of %s and %s is already started", left.name(), right.name());
+    Args.checkNotNull(leftKey, "left key cannot be null");
+    Args.checkNotNull(rightKey, "right key cannot be null");
+    this.handler = handler;
+    left.handler(this::handleLeft);
+    right.handler(this::handleRight);
+    return this;
+  }
+
+  @Override
+  public <U> StreamJoin<L, R, K> to(OutputPort<U> port, BiFunction<L, R, U> joiner) {
+    Args.checkNotNull(port, "port cannot be null");
+    Args.checkNotNull(joiner, "joiner cannot be null");
+    return handler((left, right) -> port.send(joiner.apply(left, right)));
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
+  private void handleLeft(VertigoMessage<L> message) {
+    try {
+      long now = System.currentTimeMillis();
+      expire(now);
+      L value = message.body();
+      Entry<K, L> entry = new Entry<>(leftKey.apply(value), value, now);
+      ArrayDeque<Entry<K, R>> matches = rights.keys.get(entry.key);
+      if (matches != null) {
+        for (Entry<K, R> match : matches) {
+          match.matched = true;
+          emit(value, match.value);
+        }
+        entry.matched = true;
+      }
+      lefts.add(entry);
+      evict();
+      message.ack();
+      schedule();
+    } catch (Throwable cause) {
+      message.fail(cause);
+    }
+  }
+
+  private void handleRight(VertigoMessage<R> message) {
+    try {
+      long now = System.currentTimeMillis();
+      expire(now);
+      R value = message.body();
+      Entry<K, R> entry = new Entry<>(rightKey.apply(value), value, now);
+      ArrayDeque<Entry<K, L>> matches = lefts.keys.get(entry.key);
+      if (matches != null) {
+        for (Entry<K, L> match : matches) {
+          match.matched = true;
+          emit(match.value, value);
+        }
+        entry.matched = true;
+      }
+      rights.add(entry);
+      evict();
+      message.ack();
+      schedule();
+    } catch (Throwable cause) {
+      message.fail(cause);
+    }
+  }
+
+  private void emit(L left, R right) {
+    joined.increment();
+    handler.accept(left, right);
+  }
+
+  /**
+   * Removes messages received more than the join interval ago.
+   */
+  private void expire(long now) {
+    long cutoff = now - interval;
+    while (!lefts.order.isEmpty() && lefts.order.peek().time < cutoff) {
+      expired.increment();
+      removeLeft();
+    }
+    while (!rights.order.isEmpty() && rights.order.peek().time < cutoff) {
+      expired.increment();
+      removeRight();
+    }
+  }
+
+  /**
+   * Removes the oldest messages once the buffer is full.
+   */
+  private void evict() {
+    while (lefts.order.size() + rights.order.size() > maxBufferSize) {
+      evicted.increment();
+      if (rights.order.isEmpty() || (!lefts.order.isEmpty() && lefts.order.peek().time <= rights.order.peek().time)) {
+        removeLeft();
+      } else {
+        removeRight();
+      }
+    }
+  }
+
+  private void removeLeft() {
+    Entry<K, L> entry = lefts.poll();
+    if (!entry.matched && type != JoinType.INNER) {
+      handler.accept(entry.value, null);
+    }
+  }
+
+  private void removeRight() {
+    Entry<K, R> entry = rights.poll();
+    if (!entry.matched && type == JoinType.OUTER) {
+      handler.accept(null, entry.value);
+    }
+  }
+
+  /**
+   * Sets a timer to expire the oldest buffered message.
+   */
+  private void schedule() {
+    if (timer != -1) {
+      return;
+    }
+    long oldest = Long.MAX_VALUE;
+    if (!lefts.order.isEmpty()) {
+      oldest = lefts.order.peek().time;
+    }
+    if (!rights.order.isEmpty()) {
+      oldest = Math.min(oldest, rights.order.peek().time);
+    }
+    if (oldest != Long.MAX_VALUE) {
+      long delay = oldest + interval - System.currentTimeMillis() + 1;
+      timer = vertx.setTimer(Math.max(1, delay), id -> {
+        timer = -1;
+        expire(System.currentTimeMillis());
+        schedule();
+      });
+    }
+  }
+
+  /**
+   * A buffered message.
+   */
+  private static class Entry<K, T> {
+    private final K key;
+    private final T value;
+    private final long time;
+    private boolean matched;
+
+    private Entry(K key, T value, long time) {
+      this.key = key;
+      this.value = value;
+      this.time = time;
+    }
+  }
+
+  /**
+   * The messages buffered for one side of the join.
+   */
+  private class Side<T> {
+    private final Map<K, ArrayDeque<Entry<K, T>>> keys = new HashMap<>();
+    private final ArrayDeque<Entry<K, T>> order = new ArrayDeque<>();
+
+    private void add(Entry<K, T> entry) {
+      keys.computeIfAbsent(entry.key, k -> new ArrayDeque<>()).add(entry);
+      order.add(entry);
+    }
+
+    private Entry<K, T> poll() {
+      Entry<K, T> entry = order.poll();
+      ArrayDeque<Entry<K, T>> entries = keys.get(entry.key);
+      entries.poll();
+      if (entries.isEmpty()) {
+        keys.remove(entry.key);
+      }
+      return entry;
+    }
+  }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for joining the messages received on two input ports.
+ */
+package net.kuujo.vertigo.join;
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Network-level message lineage.<p>
+ *
+ * Messages which are part of a tracked tree carry a single compact {@link #LINEAGE_HEADER}
+ * holding the address of the tracker that owns the tree, the id of the root message and a
+ * random 64-bit id for the edge along which the message was sent. Input connections make the
+ * lineage of a received message current while its handler runs, so that messages sent
+ * synchronously from the handler are anchored to it as new edges of the tree. When the
+ * message is acked, the XOR of its own edge id and the ids of all of its children is
+ * reported to the tracker. Since every edge id is XORed into the root's checksum exactly
+ * twice, once when it is created and once when it is acked, the checksum returns to zero
+ * once the entire tree has been processed, however large it is. Failing any message in
+ * the tree fails the root.<p>
+ *
+ * Handlers run on virtual threads carry the lineage of their message, so messages they
+ * send are anchored as well. Batch handlers can't anchor a message to every message in
+ * the batch, so they may only send into the network once every tracked message in the
+ * batch has been acked or failed; acking the batch acks each message's lineage. Messages
+ * sent after the message being handled has been acked, or sent from another context, are
+ * not anchored and are not tracked.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Lineage {
+
+  /**
+   * The message header holding the lineage.
+   */
+  public static final String LINEAGE_HEADER = "vertigo-lineage";
+
+  /**
+   * The header indicating the action of a lineage update sent to a tracker.
+   */
+  public static final String ACTION_HEADER = "action";
+
+  /**
+   * The header holding the root id of a lineage update sent to a tracker.
+   */
+  public static final String ROOT_HEADER = "root";
+
+  /**
+   * The header holding the checksum of an ack sent to a tracker.
+   */
+  public static final String CHECKSUM_HEADER = "checksum";
+
+  /**
+   * The header holding the failure code of a failure sent to a tracker.
+   */
+  public static final String CODE_HEADER = "code";
+
+  /**
+   * The ack action.
+   */
+  public static final String ACK_ACTION = "ack";
+
+  /**
+   * The fail action.
+   */
+  public static final String FAIL_ACTION = "fail";
+
+  private static final ThreadLocal<Anchor> CURRENT = new ThreadLocal<>();
+  private static final ThreadLocal<List<Anchor>> BATCH = new ThreadLocal<>();
+
+  private Lineage() {
+  }
+
+  /**
+   * Creates an anchor for a new root message.
+   *
+   * @param tracker The address of the tracker which owns the tree.
+   * @param root The root message id.
+   * @return The root anchor.
+   */
+  public static Anchor root(String tracker, String root) {
+    return new Anchor(tracker, root, 0);
+  }
+
+  /**
+   * Anchors a message to the given anchor as a new edge of the tree.<p>
+   *
+   * If there is no anchor or the anchor has already been acked or failed, the message
+   * is not tracked and any lineage header copied from a received message is removed.
+   *
+   * @param headers The message headers, or {@code null}.
+   * @param anchor The anchor of the message being handled, or {@code null}.
+   * @return The message headers, copied if the lineage header was added or removed.
+   */
+  public static MultiMap branch(MultiMap headers, Anchor anchor) {
+    if (anchor == null || anchor.complete) {
+      if (headers == null || !headers.contains(LINEAGE_HEADER)) {
+        return headers;
+      }
+      MultiMap copy = new CaseInsensitiveHeaders().addAll(headers);
+      copy.remove(LINEAGE_HEADER);
+      return copy;
+    }
+    long edge;
+    do {
+      edge = ThreadLocalRandom.current().nextLong();
+    } while (edge == 0);
+    anchor.children ^= edge;
+
+    MultiMap copy = new CaseInsensitiveHeaders();
+    if (headers != null) {
+      copy.addAll(headers);
+    }
+    copy.set(LINEAGE_HEADER, anchor.tracker + ";" + anchor.root + ";" + edge);
+    return copy;
+  }
+
+  /**
+   * Reads the lineage of a received message.
+   *
+   * @param headers The message headers.
+   * @return The message anchor or {@code null} if the message isn't tracked.
+   */
+  public static Anchor receive(MultiMap headers) {
+    String header = headers.get(LINEAGE_HEADER);
+    if (header == null) {
+      return null;
+    }
+    int last = header.lastIndexOf(';');
+    int middle = last > 0 ? header.lastIndexOf(';', last - 1) : -1;
+    if (middle <= 0) {
+      return null;
+    }
+    try {
+      return new Anchor(header.substring(0, middle), header.substring(middle + 1, last), Long.parseLong(header.substring(last + 1)));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the anchor of the message currently being handled on this thread.
+   *
+   * @return The current anchor or {@code null} if the current message isn't tracked.
+   */
+  public static Anchor current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes an anchor current on this thread.
+   *
+   * @param anchor The anchor of the message being handled.
+   * @return The previously current anchor, to be restored with {@link #exit(Anchor)}.
+   */
+  public static Anchor enter(Anchor anchor) {
+    Anchor previous = CURRENT.get();
+    CURRENT.set(anchor);
+    return previous;
+  }
+
+  /**
+   * Restores the previously current anchor.
+   *
+   * @param previous The anchor returned by {@link #enter(Anchor)}.
+   */
+  public static void exit(Anchor previous) {
+    CURRENT.set(previous);
+  }
+
+  /**
+   * Makes the anchors of a batch of messages current on this thread while the batch
+   * is handled.
+   *
+   * @param anchors The anchors of the tracked messages in the batch.
+   * @return The previously current batch, to be restored with {@link #exitBatch(List)}.
+   */
+  public static List<Anchor> enterBatch(List<Anchor> anchors) {
+    List<Anchor> previous = BATCH.get();
+    BATCH.set(anchors);
+    return previous;
+  }
+
+  /**
+   * Restores the previously current batch.
+   *
+   * @param previous The batch returned by {@link #enterBatch(List)}.
+   */
+  public static void exitBatch(List<Anchor> previous) {
+    BATCH.set(previous);
+  }
+
+  /**
+   * Checks that a message sent on this thread doesn't escape the lineage of a batch.
+   *
+   * @throws IllegalStateException If a batch is being handled and any of its tracked
+   *         messages has not yet been acked or failed.
+   */
+  public static void checkBatch() {
+    List<Anchor> anchors = BATCH.get();
+    if (anchors != null) {
+      for (Anchor anchor : anchors) {
+        if (!anchor.complete) {
+          throw new IllegalStateException("Messages can't be sent from a batch handler before tracked messages in the batch are acked");
+        }
+      }
+    }
+  }
+
+  /**
+   * Reports to the tracker that an anchored message has been processed.
+   *
+   * @param eventBus The event bus on which to report.
+   * @param anchor The anchor of the processed message.
+   */
+  public static void ack(EventBus eventBus, Anchor anchor) {
+    if (!anchor.complete) {
+      anchor.complete = true;
+      eventBus.send(anchor.tracker, null, new DeliveryOptions()
+          .addHeader(ACTION_HEADER, ACK_ACTION)
+          .addHeader(ROOT_HEADER, anchor.root)
+          .addHeader(CHECKSUM_HEADER, String.valueOf(anchor.checksum())));
+    }
+  }
+
+  /**
+   * Reports to the tracker that an anchored message failed, failing the whole tree.
+   *
+   * @param eventBus The event bus on which to report.
+   * @param anchor The anchor of the failed message.
+   * @param failureCode The failure code.
+   * @param message The failure message.
+   */
+  public static void fail(EventBus eventBus, Anchor anchor, int failureCode, String message) {
+    if (!anchor.complete) {
+      anchor.complete = true;
+      eventBus.send(anchor.tracker, message, new DeliveryOptions()
+          .addHeader(ACTION_HEADER, FAIL_ACTION)
+          .addHeader(ROOT_HEADER, anchor.root)
+          .addHeader(CODE_HEADER, String.valueOf(failureCode)));
+    }
+  }
+
+  /**
+   * Lineage of a single message within a tracked tree.
+   */
+  public static final class Anchor {
+    private final String tracker;
+    private final String root;
+    private final long edge;
+    private long children;
+    private boolean complete;
+
+    private Anchor(String tracker, String root, long edge) {
+      this.tracker = tracker;
+      this.root = root;
+      this.edge = edge;
+    }
+
+    /**
+     * Returns the address of the tracker which owns the tree.
+     *
+     * @return The tracker address.
+     */
+    public String tracker() {
+      return tracker;
+    }
+
+    /**
+     * Returns the id of the root message of the tree.
+     *
+     * @return The root message id.
+     */
+    public String root() {
+      return root;
+    }
+
+    /**
+     * Returns the checksum to report when the message is acked, the XOR of the message's
+     * edge id and the ids of all messages anchored to it.
+     *
+     * @return The message checksum.
+     */
+    public long checksum() {
+      return edge ^ children;
+    }
+
+    /**
+     * Marks the message as acked or failed so that no further messages are anchored to it.
+     *
+     * @return The message checksum.
+     */
+    public long complete() {
+      complete = true;
+      return checksum();
+    }
+  }
+
+}
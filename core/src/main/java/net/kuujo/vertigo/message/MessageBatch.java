@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message;
+
+import io.vertx.core.AsyncResult;
+
+import java.util.List;
+
+/**
+ * Batch of Vertigo messages.<p>
+ *
+ * Batches are delivered to input port batch handlers. Acking or failing the batch acks
+ * or fails each message in the batch; messages may still be acked or failed individually,
+ * in which case batch-level acks and failures are ignored for those messages.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface MessageBatch<T> extends List<VertigoMessage<T>> {
+
+  /**
+   * Returns the bodies of all messages in the batch.
+   *
+   * @return The message bodies in the order in which they were received.
+   */
+  List<T> bodies();
+
+  /**
+   * Acks all messages in the batch.
+   */
+  void ack();
+
+  /**
+   * Fails all messages in the batch.
+   *
+   * @param cause The failure cause.
+   */
+  void fail(Throwable cause);
+
+  /**
+   * Acks or fails all messages in the batch based on the given result.
+   *
+   * @param result The batch result.
+   */
+  void handle(AsyncResult<Void> result);
+
+}
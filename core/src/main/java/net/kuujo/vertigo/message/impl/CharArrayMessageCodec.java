@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Message codec for {@code char[]} frames.<p>
+ *
+ * Frames are encoded as a length followed by the raw values. Local delivery hands the
+ * frame to the receiver without copying, so senders must not modify a frame after sending it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CharArrayMessageCodec implements MessageCodec<char[], char[]> {
+  public static final String NAME = "vertigo-char-array";
+
+  @Override
+  public void encodeToWire(Buffer buffer, char[] values) {
+    buffer.appendInt(values.length);
+    for (char value : values) {
+      buffer.appendShort((short) value);
+    }
+  }
+
+  @Override
+  public char[] decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    pos += 4;
+    char[] values = new char[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = (char) buffer.getShort(pos);
+      pos += 2;
+    }
+    return values;
+  }
+
+  @Override
+  public char[] transform(char[] values) {
+    return values;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.InputConnectionContext;
+import net.kuujo.vertigo.context.InputPortContext;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.context.PortContext;
+import net.kuujo.vertigo.spi.Compressor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-Vert.x registry of port message codecs.<p>
+ *
+ * Each codec class is instantiated and registered on the event bus once per Vert.x
+ * instance, and the registered instance is shared by all connections and component
+ * instances that use it. The registry also provides specialized default codecs for
+ * port types which the event bus can't send natively, such as primitive arrays, and
+ * compressing codecs for connections which enable compression.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CodecRegistry implements Shareable {
+  private static final String CODECS_KEY = "vertigo.codecs";
+  private static final String REGISTRY_KEY = "registry";
+  private static final Map<Class<?>, DefaultCodec<?>> DEFAULT_CODECS = new HashMap<>();
+  private static final Map<String, Compressor> COMPRESSORS = new ConcurrentHashMap<>();
+
+  static {
+    defaultCodec(long[].class, LongArrayMessageCodec.class, LongArrayMessageCodec::new);
+    defaultCodec(int[].class, IntArrayMessageCodec.class, IntArrayMessageCodec::new);
+    defaultCodec(short[].class, ShortArrayMessageCodec.class, ShortArrayMessageCodec::new);
+    defaultCodec(char[].class, CharArrayMessageCodec.class, CharArrayMessageCodec::new);
+    defaultCodec(boolean[].class, BooleanArrayMessageCodec.class, BooleanArrayMessageCodec::new);
+    defaultCodec(float[].class, FloatArrayMessageCodec.class, FloatArrayMessageCodec::new);
+    defaultCodec(double[].class, DoubleArrayMessageCodec.class, DoubleArrayMessageCodec::new);
+    for (Compressor compressor : ServiceLoader.load(Compressor.class)) {
+      COMPRESSORS.put(compressor.name(), compressor);
+    }
+  }
+
+  private final EventBus eventBus;
+  private final Map<Class<?>, MessageCodec<?, ?>> codecs = new HashMap<>();
+  private final Map<String, MessageCodec<?, ?>> namedCodecs = new ConcurrentHashMap<>();
+
+  private CodecRegistry(Vertx vertx) {
+    this.eventBus = vertx.eventBus();
+    registerDefaultCodecs();
+  }
+
+  /**
+   * Returns the codec registry for the given Vert.x instance.
+   *
+   * @param vertx The Vert.x instance.
+   * @return The Vert.x instance's codec registry.
+   */
+  public static CodecRegistry registry(Vertx vertx) {
+    LocalMap<String, CodecRegistry> map = vertx.sharedData().getLocalMap(CODECS_KEY);
+    CodecRegistry registry = map.get(REGISTRY_KEY);
+    if (registry == null) {
+      synchronized (CodecRegistry.class) {
+        registry = map.get(REGISTRY_KEY);
+        if (registry == null) {
+          registry = new CodecRegistry(vertx);
+          map.put(REGISTRY_KEY, registry);
+        }
+      }
+    }
+    return registry;
+  }
+
+  /**
+   * Adds a specialized default codec for a type which the event bus can't send natively.
+   */
+  private static <T, C extends MessageCodec<T, ?>> void defaultCodec(Class<T> type, Class<C> codecClass, Supplier<C> factory) {
+    DEFAULT_CODECS.put(type, new DefaultCodec<>(type, codecClass, factory));
+  }
+
+  /**
+   * Returns the specialized default codec for the given port type.
+   *
+   * @param type The port type.
+   * @return The default codec for the type or {@code null} if the event bus supports the type natively.
+   */
+  public static Class<? extends MessageCodec<?, ?>> defaultCodec(Class<?> type) {
+    DefaultCodec<?> codec = type != null ? DEFAULT_CODECS.get(type) : null;
+    return codec != null ? codec.codecClass : null;
+  }
+
+  /**
+   * Registers a compression algorithm.<p>
+   *
+   * Algorithms on the class path are registered automatically through the
+   * {@link Compressor} service loader.
+   *
+   * @param compressor The compressor to register.
+   */
+  public static void registerCompressor(Compressor compressor) {
+    COMPRESSORS.put(compressor.name(), compressor);
+  }
+
+  /**
+   * Returns the compressor for the given algorithm name.
+   *
+   * @param name The compression algorithm name.
+   * @return The compressor.
+   * @throws VertigoException If no compressor is registered for the algorithm.
+   */
+  public static Compressor compressor(String name) {
+    Compressor compressor = COMPRESSORS.get(name);
+    if (compressor == null) {
+      throw new VertigoException("Unknown compression algorithm " + name);
+    }
+    return compressor;
+  }
+
+  /**
+   * Registers the specialized codecs as default codecs for their types so that values
+   * can be sent even on ports which don't declare a type.
+   */
+  private void registerDefaultCodecs() {
+    DEFAULT_CODECS.values().forEach(this::registerDefaultCodec);
+  }
+
+  /**
+   * Registers a specialized codec as the default codec for its type.
+   */
+  private <T> void registerDefaultCodec(DefaultCodec<T> defaultCodec) {
+    MessageCodec<T, ?> codec = defaultCodec.factory.get();
+    try {
+      eventBus.registerDefaultCodec(defaultCodec.type, codec);
+    } catch (IllegalStateException e) {
+      // The codec was already registered outside of the registry.
+    }
+    codecs.put(defaultCodec.codecClass, codec);
+    namedCodecs.put(codec.name(), codec);
+  }
+
+  /**
+   * Registers a codec, returning the shared codec instance.
+   *
+   * @param codecClass The codec class to register.
+   * @param <S> The type of messages sent with the codec.
+   * @param <R> The type of messages received with the codec.
+   * @return The registered codec instance.
+   * @throws VertigoException If the class is not a message codec or can't be instantiated.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <S, R> MessageCodec<S, R> register(Class<?> codecClass) {
+    MessageCodec<?, ?> codec = codecs.get(codecClass);
+    if (codec == null) {
+      if (!MessageCodec.class.isAssignableFrom(codecClass)) {
+        throw new VertigoException(codecClass.getName() + " is not a message codec");
+      }
+      try {
+        codec = (MessageCodec<?, ?>) codecClass.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new VertigoException("Failed to instantiate message codec " + codecClass.getName(), e);
+      }
+      try {
+        eventBus.registerCodec(codec);
+      } catch (IllegalStateException e) {
+        // A codec with the same name was already registered outside of the registry.
+      }
+      codecs.put(codecClass, codec);
+      namedCodecs.put(codec.name(), codec);
+    }
+    return (MessageCodec<S, R>) codec;
+  }
+
+  /**
+   * Returns a codec registered through the registry by name.
+   *
+   * @param name The codec name.
+   * @return The codec or {@code null} if no codec with the name was registered.
+   */
+  @SuppressWarnings("unchecked")
+  public <S, R> MessageCodec<S, R> codec(String name) {
+    return (MessageCodec<S, R>) namedCodecs.get(name);
+  }
+
+  /**
+   * Returns the name of the codec to use when sending messages on a port, registering
+   * the codec if necessary.
+   *
+   * @param port The port context.
+   * @return The codec name or {@code null} if the event bus should select the codec.
+   */
+  public String codecName(PortContext<?, ?> port) {
+    if (port == null) {
+      return null;
+    }
+    Class<?> codecClass = port.codec() != null ? port.codec() : defaultCodec(port.type());
+    return codecClass != null ? register(codecClass).name() : null;
+  }
+
+  /**
+   * Returns the name of the codec to use when sending messages on a connection, registering
+   * the codec if necessary. If the connection enables compression, this is a compressing
+   * codec wrapping the port's codec.
+   *
+   * @param connection The output connection context.
+   * @return The codec name or {@code null} if the event bus should select the codec.
+   */
+  public String codecName(OutputConnectionContext connection) {
+    return compressingCodecName(connection.compression(), connection.compressionThreshold(), codecName(connection.port()));
+  }
+
+  /**
+   * Returns the name of the codec with which messages are received on a connection, registering
+   * the codec if necessary. If the connection enables compression, this is a compressing codec
+   * wrapping the source port's codec, so targets deployed apart from their source can decode
+   * compressed messages.
+   *
+   * @param connection The input connection context.
+   * @return The codec name or {@code null} if the event bus should select the codec.
+   */
+  public String codecName(InputConnectionContext connection) {
+    String codecName = connection.sourceCodec() != null ? register(connection.sourceCodec()).name() : null;
+    return compressingCodecName(connection.compression(), connection.compressionThreshold(), codecName);
+  }
+
+  /**
+   * Registers a compressing codec wrapping the named codec if compression is enabled.
+   */
+  private String compressingCodecName(String compression, int threshold, String codecName) {
+    if (compression == null) {
+      return codecName;
+    }
+    String name = CompressingMessageCodec.name(compression, threshold, codecName);
+    synchronized (this) {
+      if (!namedCodecs.containsKey(name)) {
+        MessageCodec<Object, Object> codec = new CompressingMessageCodec(this, compressor(compression),
+            threshold, codecName != null ? codec(codecName) : null);
+        try {
+          eventBus.registerCodec(codec);
+        } catch (IllegalStateException e) {
+          // A codec with the same name was already registered outside of the registry.
+        }
+        namedCodecs.put(name, codec);
+      }
+    }
+    return name;
+  }
+
+  /**
+   * Registers the codecs for all ports and connections in a network.
+   *
+   * @param network The network context.
+   */
+  public void register(NetworkContext network) {
+    for (ComponentContext component : network.components()) {
+      register(component);
+    }
+  }
+
+  /**
+   * Registers the codecs for all ports and connections of a component.
+   *
+   * @param component The component context.
+   */
+  public void register(ComponentContext component) {
+    for (InputPortContext port : component.input().ports()) {
+      codecName(port);
+      port.connections().forEach(this::codecName);
+    }
+    for (OutputPortContext port : component.output().ports()) {
+      codecName(port);
+      port.connections().forEach(this::codecName);
+    }
+  }
+
+  /**
+   * Specialized default codec for a type.
+   */
+  private static class DefaultCodec<T> {
+    private final Class<T> type;
+    private final Class<? extends MessageCodec<?, ?>> codecClass;
+    private final Supplier<? extends MessageCodec<T, ?>> factory;
+
+    private DefaultCodec(Class<T> type, Class<? extends MessageCodec<?, ?>> codecClass, Supplier<? extends MessageCodec<T, ?>> factory) {
+      this.type = type;
+      this.codecClass = codecClass;
+      this.factory = factory;
+    }
+  }
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.spi.Compressor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Message codec which compresses the encoded form of another codec.<p>
+ *
+ * Compression is only applied when messages are written to the wire, i.e. when they are
+ * sent to another node in the cluster. Messages delivered locally are passed through the
+ * wrapped codec's {@link MessageCodec#transform(Object)} and are never compressed. Encoded
+ * messages smaller than the threshold or which don't compress are sent uncompressed.<p>
+ *
+ * Each message is written with a type tag so that the receiving node can decode it
+ * regardless of its type. Strings, buffers, JSON, byte arrays and boxed primitives are
+ * encoded by the codec itself, and other types are written with the name of the codec
+ * registered for them in the {@link CodecRegistry}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CompressingMessageCodec implements MessageCodec<Object, Object> {
+  private static final byte USER_CODEC = -1;
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BUFFER = 2;
+  private static final byte JSON_OBJECT = 3;
+  private static final byte JSON_ARRAY = 4;
+  private static final byte BYTES = 5;
+  private static final byte BOOLEAN = 6;
+  private static final byte BYTE = 7;
+  private static final byte SHORT = 8;
+  private static final byte CHAR = 9;
+  private static final byte INT = 10;
+  private static final byte LONG = 11;
+  private static final byte FLOAT = 12;
+  private static final byte DOUBLE = 13;
+  private static final byte UNCOMPRESSED = 0;
+  private static final byte COMPRESSED = 1;
+
+  private final CodecRegistry registry;
+  private final String name;
+  private final Compressor compressor;
+  private final int threshold;
+  private final MessageCodec<Object, Object> codec;
+  private final Metrics metrics = new Metrics();
+  private final Counter messages = metrics.counter("messages");
+  private final Counter compressedMessages = metrics.counter("compressed");
+  private final Counter uncompressedBytes = metrics.counter("uncompressed-bytes");
+  private final Counter compressedBytes = metrics.counter("compressed-bytes");
+  private final Histogram compressTime = metrics.histogram("compress-time");
+  private final Histogram decompressTime = metrics.histogram("decompress-time");
+
+  public CompressingMessageCodec(CodecRegistry registry, Compressor compressor, int threshold, MessageCodec<Object, Object> codec) {
+    this.registry = registry;
+    this.compressor = compressor;
+    this.threshold = threshold;
+    this.codec = codec;
+    this.name = name(compressor.name(), threshold, codec != null ? codec.name() : null);
+    metrics.gauge("threshold", () -> threshold);
+    metrics.gauge("ratio-percent", () -> {
+      long uncompressed = uncompressedBytes.count();
+      return uncompressed > 0 ? compressedBytes.count() * 100 / uncompressed : 100;
+    });
+  }
+
+  /**
+   * Returns the codec name for the given compression options.
+   *
+   * @param compression The compression algorithm name.
+   * @param threshold The compression threshold.
+   * @param codec The name of the wrapped codec or {@code null} if the codec is selected by message type.
+   * @return The compressing codec name.
+   */
+  static String name(String compression, int threshold, String codec) {
+    return String.format("vertigo-compressed:%s:%d%s", compression, threshold, codec != null ? ":" + codec : "");
+  }
+
+  /**
+   * Looks up the codec with which to encode a message body, returning {@code null} if
+   * the body is encoded by this codec.
+   */
+  private MessageCodec<Object, Object> lookup(Object body) {
+    if (codec != null) {
+      return codec;
+    }
+    if (body != null) {
+      Class<? extends MessageCodec<?, ?>> defaultCodec = CodecRegistry.defaultCodec(body.getClass());
+      if (defaultCodec != null) {
+        return registry.register(defaultCodec);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the type tag for a body encoded by this codec.
+   */
+  private static byte type(Object body) {
+    if (body == null) {
+      return NULL;
+    } else if (body instanceof String) {
+      return STRING;
+    } else if (body instanceof Buffer) {
+      return BUFFER;
+    } else if (body instanceof JsonObject) {
+      return JSON_OBJECT;
+    } else if (body instanceof JsonArray) {
+      return JSON_ARRAY;
+    } else if (body instanceof byte[]) {
+      return BYTES;
+    } else if (body instanceof Boolean) {
+      return BOOLEAN;
+    } else if (body instanceof Byte) {
+      return BYTE;
+    } else if (body instanceof Short) {
+      return SHORT;
+    } else if (body instanceof Character) {
+      return CHAR;
+    } else if (body instanceof Integer) {
+      return INT;
+    } else if (body instanceof Long) {
+      return LONG;
+    } else if (body instanceof Float) {
+      return FLOAT;
+    } else if (body instanceof Double) {
+      return DOUBLE;
+    }
+    throw new IllegalArgumentException("No message codec for type: " + body.getClass());
+  }
+
+  /**
+   * Encodes a body of the given type.
+   */
+  private static void encode(byte type, Buffer buffer, Object body) {
+    switch (type) {
+      case NULL:
+        break;
+      case STRING:
+        buffer.appendBytes(((String) body).getBytes(StandardCharsets.UTF_8));
+        break;
+      case BUFFER:
+        buffer.appendBuffer((Buffer) body);
+        break;
+      case JSON_OBJECT:
+        buffer.appendBytes(((JsonObject) body).encode().getBytes(StandardCharsets.UTF_8));
+        break;
+      case JSON_ARRAY:
+        buffer.appendBytes(((JsonArray) body).encode().getBytes(StandardCharsets.UTF_8));
+        break;
+      case BYTES:
+        buffer.appendBytes((byte[]) body);
+        break;
+      case BOOLEAN:
+        buffer.appendByte((byte) ((Boolean) body ? 1 : 0));
+        break;
+      case BYTE:
+        buffer.appendByte((Byte) body);
+        break;
+      case SHORT:
+        buffer.appendShort((Short) body);
+        break;
+      case CHAR:
+        buffer.appendShort((short) ((Character) body).charValue());
+        break;
+      case INT:
+        buffer.appendInt((Integer) body);
+        break;
+      case LONG:
+        buffer.appendLong((Long) body);
+        break;
+      case FLOAT:
+        buffer.appendFloat((Float) body);
+        break;
+      case DOUBLE:
+        buffer.appendDouble((Double) body);
+        break;
+    }
+  }
+
+  /**
+   * Decodes a body of the given type.
+   */
+  private static Object decode(byte type, Buffer buffer, int pos, int length) {
+    switch (type) {
+      case NULL:
+        return null;
+      case STRING:
+        return buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name());
+      case BUFFER:
+        return buffer.getBuffer(pos, pos + length);
+      case JSON_OBJECT:
+        return new JsonObject(buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name()));
+      case JSON_ARRAY:
+        return new JsonArray(buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name()));
+      case BYTES:
+        return buffer.getBytes(pos, pos + length);
+      case BOOLEAN:
+        return buffer.getByte(pos) == 1;
+      case BYTE:
+        return buffer.getByte(pos);
+      case SHORT:
+        return buffer.getShort(pos);
+      case CHAR:
+        return (char) buffer.getShort(pos);
+      case INT:
+        return buffer.getInt(pos);
+      case LONG:
+        return buffer.getLong(pos);
+      case FLOAT:
+        return buffer.getFloat(pos);
+      case DOUBLE:
+        return buffer.getDouble(pos);
+      default:
+        throw new VertigoException("Unknown message type " + type);
+    }
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, Object body) {
+    MessageCodec<Object, Object> codec = lookup(body);
+    byte type = codec != null ? USER_CODEC : type(body);
+    buffer.appendByte(type);
+    if (codec != null) {
+      byte[] codecName = codec.name().getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(codecName.length);
+      buffer.appendBytes(codecName);
+    }
+
+    Buffer encoded = Buffer.buffer();
+    if (codec != null) {
+      codec.encodeToWire(encoded, body);
+    } else {
+      encode(type, encoded, body);
+    }
+    messages.increment();
+
+    if (encoded.length() >= threshold) {
+      byte[] bytes = encoded.getBytes();
+      long start = System.nanoTime();
+      byte[] compressed = compressor.compress(bytes);
+      compressTime.record((System.nanoTime() - start) / 1000);
+      if (compressed != null) {
+        compressedMessages.increment();
+        uncompressedBytes.add(bytes.length);
+        compressedBytes.add(compressed.length);
+        buffer.appendByte(COMPRESSED);
+        buffer.appendInt(bytes.length);
+        buffer.appendInt(compressed.length);
+        buffer.appendBytes(compressed);
+        return;
+      }
+    }
+
+    buffer.appendByte(UNCOMPRESSED);
+    buffer.appendInt(encoded.length());
+    buffer.appendBuffer(encoded);
+  }
+
+  @Override
+  public Object decodeFromWire(int pos, Buffer buffer) {
+    MessageCodec<Object, Object> codec = null;
+    byte type = buffer.getByte(pos++);
+    if (type == USER_CODEC) {
+      int nameLength = buffer.getInt(pos);
+      pos += 4;
+      String codecName = new String(buffer.getBytes(pos, pos + nameLength), StandardCharsets.UTF_8);
+      pos += nameLength;
+      codec = registry.codec(codecName);
+      if (codec == null) {
+        throw new VertigoException("No message codec registered with name " + codecName);
+      }
+    }
+
+    int length;
+    byte compression = buffer.getByte(pos++);
+    if (compression == COMPRESSED) {
+      int uncompressedLength = buffer.getInt(pos);
+      pos += 4;
+      int compressedLength = buffer.getInt(pos);
+      pos += 4;
+      long start = System.nanoTime();
+      byte[] bytes = compressor.decompress(buffer.getBytes(pos, pos + compressedLength), uncompressedLength);
+      decompressTime.record((System.nanoTime() - start) / 1000);
+      buffer = Buffer.buffer(bytes);
+      pos = 0;
+      length = bytes.length;
+    } else {
+      length = buffer.getInt(pos);
+      pos += 4;
+    }
+    return codec != null ? codec.decodeFromWire(pos, buffer) : decode(type, buffer, pos, length);
+  }
+
+  @Override
+  public Object transform(Object body) {
+    MessageCodec<Object, Object> codec = lookup(body);
+    if (codec != null) {
+      return codec.transform(body);
+    }
+    switch (type(body)) {
+      case BUFFER:
+        return ((Buffer) body).copy();
+      case JSON_OBJECT:
+        return ((JsonObject) body).copy();
+      case JSON_ARRAY:
+        return ((JsonArray) body).copy();
+      case BYTES:
+        return ((byte[]) body).clone();
+      default:
+        return body;
+    }
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+  /**
+   * Returns the codec's compression metrics.<p>
+   *
+   * The ratio is the total compressed size of all compressed messages as a percentage
+   * of their total uncompressed size. Times are in microseconds.
+   *
+   * @return The codec's compression metrics.
+   */
+  public Metrics metrics() {
+    return metrics;
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.spi.Compressor;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * JDK deflate compressor.<p>
+ *
+ * Uses the fastest deflate level since messages are compressed on the event loop.
+ * Deflaters and inflaters are reused per thread.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class DeflateCompressor implements Compressor {
+  public static final String NAME = "deflate";
+
+  private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+  private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] compress(byte[] bytes) {
+    Deflater deflater = DEFLATERS.get();
+    deflater.reset();
+    deflater.setInput(bytes);
+    deflater.finish();
+    byte[] output = new byte[bytes.length];
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == output.length) {
+        return null;
+      }
+      length += deflater.deflate(output, length, output.length - length);
+    }
+    if (length >= bytes.length) {
+      return null;
+    }
+    byte[] result = new byte[length];
+    System.arraycopy(output, 0, result, 0, length);
+    return result;
+  }
+
+  @Override
+  public byte[] decompress(byte[] bytes, int length) {
+    Inflater inflater = INFLATERS.get();
+    inflater.reset();
+    // Raw inflaters require an extra dummy byte to signal the end of input.
+    byte[] input = new byte[bytes.length + 1];
+    System.arraycopy(bytes, 0, input, 0, bytes.length);
+    inflater.setInput(input);
+    byte[] output = new byte[length];
+    try {
+      int offset = 0;
+      while (offset < length && !inflater.finished()) {
+        int inflated = inflater.inflate(output, offset, length - offset);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        offset += inflated;
+      }
+      if (offset != length) {
+        throw new VertigoException("Compressed message is truncated");
+      }
+    } catch (DataFormatException e) {
+      throw new VertigoException("Failed to decompress message", e);
+    }
+    return output;
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Message codec for {@code float[]} frames.<p>
+ *
+ * Frames are encoded as a length followed by the raw values. Local delivery hands the
+ * frame to the receiver without copying, so senders must not modify a frame after sending it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class FloatArrayMessageCodec implements MessageCodec<float[], float[]> {
+  public static final String NAME = "vertigo-float-array";
+
+  @Override
+  public void encodeToWire(Buffer buffer, float[] values) {
+    buffer.appendInt(values.length);
+    for (float value : values) {
+      buffer.appendFloat(value);
+    }
+  }
+
+  @Override
+  public float[] decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    pos += 4;
+    float[] values = new float[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = buffer.getFloat(pos);
+      pos += 4;
+    }
+    return values;
+  }
+
+  @Override
+  public float[] transform(float[] values) {
+    return values;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+}
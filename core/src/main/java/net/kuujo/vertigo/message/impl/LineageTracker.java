@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import net.kuujo.vertigo.message.Lineage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the lineage of messages sent to a network.<p>
+ *
+ * The tracker holds a single 64-bit checksum per root message rather than a reply handler
+ * for every message derived from it. Components report acks and failures for anchored
+ * messages directly to the tracker, and the root's ack handler is called on the context
+ * on which the tracker was created once the checksum returns to zero, the tree fails or
+ * the timeout expires.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LineageTracker {
+  private final Vertx vertx;
+  private final long timeout;
+  private final String address = String.format("vertigo.lineage.%s", UUID.randomUUID().toString());
+  private final Map<String, Root> roots = new HashMap<>();
+  private final MessageConsumer<Object> consumer;
+  private long nextRoot;
+
+  public LineageTracker(Vertx vertx, long timeout) {
+    this.vertx = vertx;
+    this.timeout = timeout;
+    this.consumer = vertx.eventBus().consumer(address, this::handle);
+  }
+
+  /**
+   * Returns the address to which lineage updates are reported.
+   *
+   * @return The tracker address.
+   */
+  public String address() {
+    return address;
+  }
+
+  /**
+   * Returns the number of root messages currently being tracked.
+   *
+   * @return The number of pending roots.
+   */
+  public int size() {
+    return roots.size();
+  }
+
+  /**
+   * Starts tracking a new root message.<p>
+   *
+   * Messages sent for the root should be anchored to the returned anchor with
+   * {@link Lineage#branch(io.vertx.core.MultiMap, Lineage.Anchor)}, after which the
+   * root must be committed with {@link #commit(Lineage.Anchor)}.
+   *
+   * @param ackHandler The handler to call once the tree has been processed.
+   * @return The root anchor.
+   */
+  public Lineage.Anchor start(Handler<AsyncResult<Void>> ackHandler) {
+    String id = Long.toString(nextRoot++);
+    Root root = new Root(ackHandler);
+    root.timer = vertx.setTimer(timeout, timerId -> {
+      if (roots.remove(id) != null) {
+        ackHandler.handle(Future.failedFuture(new ReplyException(ReplyFailure.TIMEOUT, "Timed out waiting for message lineage to complete")));
+      }
+    });
+    roots.put(id, root);
+    return Lineage.root(address, id);
+  }
+
+  /**
+   * Commits a root message once all messages anchored to it have been sent.
+   *
+   * @param anchor The root anchor.
+   */
+  public void commit(Lineage.Anchor anchor) {
+    update(anchor.root(), anchor.complete());
+  }
+
+  /**
+   * Stops tracking and fails any pending root messages.
+   */
+  public void close() {
+    consumer.unregister();
+    Map<String, Root> pending = new HashMap<>(roots);
+    roots.clear();
+    pending.values().forEach(root -> {
+      vertx.cancelTimer(root.timer);
+      root.ackHandler.handle(Future.failedFuture(new ReplyException(ReplyFailure.NO_HANDLERS, "Lineage tracker closed")));
+    });
+  }
+
+  /**
+   * Handles a lineage update reported by a component.
+   */
+  private void handle(Message<Object> message) {
+    String id = message.headers().get(Lineage.ROOT_HEADER);
+    if (id == null) {
+      return;
+    }
+    if (Lineage.FAIL_ACTION.equals(message.headers().get(Lineage.ACTION_HEADER))) {
+      Root root = roots.remove(id);
+      if (root != null) {
+        vertx.cancelTimer(root.timer);
+        String code = message.headers().get(Lineage.CODE_HEADER);
+        String failure = message.body() != null ? message.body().toString() : null;
+        root.ackHandler.handle(Future.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, code != null ? Integer.parseInt(code) : -1, failure)));
+      }
+    } else {
+      String checksum = message.headers().get(Lineage.CHECKSUM_HEADER);
+      if (checksum != null) {
+        update(id, Long.parseLong(checksum));
+      }
+    }
+  }
+
+  /**
+   * XORs a checksum into a root's checksum, completing the root once it returns to zero.
+   */
+  private void update(String id, long checksum) {
+    Root root = roots.get(id);
+    if (root != null) {
+      root.checksum ^= checksum;
+      if (root.checksum == 0) {
+        roots.remove(id);
+        vertx.cancelTimer(root.timer);
+        root.ackHandler.handle(Future.succeededFuture());
+      }
+    }
+  }
+
+  /**
+   * Tracked root message.
+   */
+  private static class Root {
+    private final Handler<AsyncResult<Void>> ackHandler;
+    private long checksum;
+    private long timer;
+
+    private Root(Handler<AsyncResult<Void>> ackHandler) {
+      this.ackHandler = ackHandler;
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.message.impl;
+
+import io.vertx.core.AsyncResult;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.message.VertigoMessage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message batch implementation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class MessageBatchImpl<T> extends AbstractList<VertigoMessage<T>> implements MessageBatch<T> {
+  private final List<VertigoMessage<T>> messages;
+
+  public MessageBatchImpl(List<VertigoMessage<T>> messages) {
+    this.messages = messages;
+  }
+
+  @Override
+  public VertigoMessage<T> get(int index) {
+    return messages.get(index);
+  }
+
+  @Override
+  public int size() {
+    return messages.size();
+  }
+
+  @Override
+  public List<T> bodies() {
+    List<T> bodies = new ArrayList<>(messages.size());
+    for (VertigoMessage<T> message : messages) {
+      bodies.add(message.body());
+    }
+    return bodies;
+  }
+
+  @Override
+  public void ack() {
+    for (VertigoMessage<T> message : messages) {
+      message.ack();
+    }
+  }
+
+  @Override
+  public void fail(Throwable cause) {
+    for (VertigoMessage<T> message : messages) {
+      message.fail(cause);
+    }
+  }
+
+  @Override
+  public void handle(AsyncResult<Void> result) {
+    if (result.succeeded()) {
+      ack();
+    } else {
+      fail(result.cause());
+    }
+  }
+
+}
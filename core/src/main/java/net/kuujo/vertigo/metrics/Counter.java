@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing counter.<p>
+ *
+ * Counters are backed by a {@link LongAdder} and may be updated from any thread
+ * without locking or allocation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Counter {
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Increments the counter by one.
+   */
+  public void increment() {
+    count.increment();
+  }
+
+  /**
+   * Adds to the counter.
+   *
+   * @param value The value to add.
+   */
+  public void add(long value) {
+    count.add(value);
+  }
+
+  /**
+   * Returns the current count.
+   *
+   * @return The current count.
+   */
+  public long count() {
+    return count.sum();
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.metrics;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named collection of metrics.<p>
+ *
+ * Metrics are organized in a tree: components hold the metrics of their input and output
+ * collectors, collectors hold the metrics of their ports, and ports hold the metrics of
+ * their connections. Metric objects should be looked up once and held by the instrumented
+ * object, since updating a counter or histogram neither locks nor allocates while looking
+ * metrics up by name does.<p>
+ *
+ * Unless otherwise noted, latencies are recorded in microseconds and times in milliseconds.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class Metrics {
+
+  /**
+   * The event bus address to which component instances publish their metrics.
+   */
+  public static final String METRICS_ADDRESS = "vertigo.metrics";
+
+  private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the counter with the given name, creating it if necessary.
+   *
+   * @param name The counter name.
+   * @return The counter.
+   */
+  public Counter counter(String name) {
+    return get(name, Counter.class);
+  }
+
+  /**
+   * Returns the histogram with the given name, creating it if necessary.
+   *
+   * @param name The histogram name.
+   * @return The histogram.
+   */
+  public Histogram histogram(String name) {
+    return get(name, Histogram.class);
+  }
+
+  /**
+   * Returns the child metrics with the given name, creating them if necessary.
+   *
+   * @param name The child name.
+   * @return The child metrics.
+   */
+  public Metrics metrics(String name) {
+    return get(name, Metrics.class);
+  }
+
+  /**
+   * Registers a gauge.
+   *
+   * @param name The gauge name.
+   * @param gauge The gauge.
+   * @return The metrics.
+   */
+  public Metrics gauge(String name, Gauge gauge) {
+    metrics.put(name, gauge);
+    return this;
+  }
+
+  /**
+   * Registers child metrics, e.g. the metrics of a port on its collector.
+   *
+   * @param name The child name.
+   * @param child The child metrics.
+   * @return The metrics.
+   */
+  public Metrics register(String name, Metrics child) {
+    metrics.put(name, child);
+    return this;
+  }
+
+  /**
+   * Removes a metric.
+   *
+   * @param name The metric name.
+   * @return The metrics.
+   */
+  public Metrics unregister(String name) {
+    metrics.remove(name);
+    return this;
+  }
+
+  /**
+   * Returns the metric with the given name and type, creating it if necessary.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T get(String name, Class<T> type) {
+    Object metric = metrics.computeIfAbsent(name, n -> {
+      try {
+        return type.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    if (!type.isInstance(metric)) {
+      throw new IllegalArgumentException(String.format("Metric %s is not a %s", name, type.getSimpleName().toLowerCase()));
+    }
+    return (T) metric;
+  }
+
+  /**
+   * Returns a snapshot of all metrics as JSON.<p>
+   *
+   * Counters and gauges are written as numbers, histograms and child metrics as objects.
+   *
+   * @return A JSON snapshot of the metrics.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+      Object metric = entry.getValue();
+      if (metric instanceof Counter) {
+        json.put(entry.getKey(), ((Counter) metric).count());
+      } else if (metric instanceof Gauge) {
+        json.put(entry.getKey(), ((Gauge) metric).value());
+      } else if (metric instanceof Histogram) {
+        json.put(entry.getKey(), ((Histogram) metric).toJson());
+      } else if (metric instanceof Metrics) {
+        json.put(entry.getKey(), ((Metrics) metric).toJson());
+      }
+    }
+    return json;
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.metrics;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled message tracing.<p>
+ *
+ * Traced messages carry a single compact {@link #TRACE_HEADER} holding the time at which
+ * the message entered the network, the time at which it was last sent, the number of hops
+ * it has traversed and the name of the sending component. Input ports read the header when
+ * a message arrives and make the trace current while the message is handled, so that any
+ * messages sent synchronously from the handler carry the trace on to the next hop. Untraced
+ * messages are never touched, so tracing costs a single header lookup per message unless a
+ * message is sampled.<p>
+ *
+ * Timestamps are wall clock microseconds with nanosecond-timer resolution, so latencies
+ * across nodes are only as accurate as the nodes' clock synchronization.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Tracing {
+
+  /**
+   * The message header holding the trace.
+   */
+  public static final String TRACE_HEADER = "vertigo-trace";
+
+  /**
+   * The source name used for messages entering the network.
+   */
+  public static final String NETWORK_SOURCE = "network";
+
+  private static final long BASE_MICROS = System.currentTimeMillis() * 1000;
+  private static final long BASE_NANOS = System.nanoTime();
+  private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+  private Tracing() {
+  }
+
+  /**
+   * Returns the current wall clock time in microseconds.
+   *
+   * @return The current time in microseconds.
+   */
+  public static long now() {
+    return BASE_MICROS + (System.nanoTime() - BASE_NANOS) / 1000;
+  }
+
+  /**
+   * Returns whether a message should be traced.
+   *
+   * @param rate The sample rate between {@code 0} and {@code 1}.
+   * @return Indicates whether the message should be traced.
+   */
+  public static boolean sample(double rate) {
+    return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  /**
+   * Starts a new trace for a message entering the network.
+   *
+   * @param headers The message headers, or {@code null}.
+   * @return A copy of the headers including the trace header.
+   */
+  public static MultiMap start(MultiMap headers) {
+    long now = now();
+    return stamp(headers, now, now, 1, NETWORK_SOURCE);
+  }
+
+  /**
+   * Continues a trace for a message sent from a component.
+   *
+   * @param headers The message headers, or {@code null}.
+   * @param trace The trace of the message being handled.
+   * @param source The name of the sending component.
+   * @return A copy of the headers including the updated trace header.
+   */
+  public static MultiMap forward(MultiMap headers, Trace trace, String source) {
+    return stamp(headers, trace.origin(), now(), trace.hops() + 1, source);
+  }
+
+  private static MultiMap stamp(MultiMap headers, long origin, long sent, int hops, String source) {
+    MultiMap copy = new CaseInsensitiveHeaders();
+    if (headers != null) {
+      copy.addAll(headers);
+    }
+    copy.set(TRACE_HEADER, origin + ";" + sent + ";" + hops + ";" + source);
+    return copy;
+  }
+
+  /**
+   * Reads the trace of a received message.
+   *
+   * @param headers The message headers.
+   * @return The message trace or {@code null} if the message isn't traced.
+   */
+  public static Trace receive(MultiMap headers) {
+    String header = headers.get(TRACE_HEADER);
+    if (header == null) {
+      return null;
+    }
+    String[] parts = header.split(";", 4);
+    if (parts.length != 4) {
+      return null;
+    }
+    try {
+      return new Trace(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]), parts[3], now());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the trace of the message currently being handled on this thread.
+   *
+   * @return The current trace or {@code null} if the current message isn't traced.
+   */
+  public static Trace current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes a trace current on this thread.
+   *
+   * @param trace The trace of the message being handled.
+   * @return The previously current trace, to be restored with {@link #exit(Trace)}.
+   */
+  public static Trace enter(Trace trace) {
+    Trace previous = CURRENT.get();
+    CURRENT.set(trace);
+    return previous;
+  }
+
+  /**
+   * Restores the previously current trace.
+   *
+   * @param previous The trace returned by {@link #enter(Trace)}.
+   */
+  public static void exit(Trace previous) {
+    CURRENT.set(previous);
+  }
+
+  /**
+   * Trace of a single received message.
+   */
+  public static final class Trace {
+    private final long origin;
+    private final long sent;
+    private final int hops;
+    private final String source;
+    private final long received;
+
+    private Trace(long origin, long sent, int hops, String source, long received) {
+      this.origin = origin;
+      this.sent = sent;
+      this.hops = hops;
+      this.source = source;
+      this.received = received;
+    }
+
+    /**
+     * Returns the time in microseconds at which the message entered the network.
+     *
+     * @return The time at which the message entered the network.
+     */
+    public long origin() {
+      return origin;
+    }
+
+    /**
+     * Returns the time in microseconds at which the message was sent by the previous hop.
+     *
+     * @return The time at which the message was sent.
+     */
+    public long sent() {
+      return sent;
+    }
+
+    /**
+     * Returns the number of hops the message has traversed, including the last one.
+     *
+     * @return The number of hops.
+     */
+    public int hops() {
+      return hops;
+    }
+
+    /**
+     * Returns the name of the component which sent the message.
+     *
+     * @return The sending component name, or {@link #NETWORK_SOURCE}.
+     */
+    public String source() {
+      return source;
+    }
+
+    /**
+     * Returns the time in microseconds at which the message was received.
+     *
+     * @return The time at which the message was received.
+     */
+    public long received() {
+      return received;
+    }
+
+    /**
+     * Returns the latency of the last hop in microseconds.
+     *
+     * @return The latency of the last hop.
+     */
+    public long edgeLatency() {
+      return received - sent;
+    }
+
+    /**
+     * Returns the latency from the network input to this hop in microseconds.
+     *
+     * @return The end-to-end latency.
+     */
+    public long endToEndLatency() {
+      return received - origin;
+    }
+  }
+
+}
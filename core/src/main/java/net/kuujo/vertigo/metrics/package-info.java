@@ -0,0 +1,4 @@
+/**
+ * Contains low-overhead counters, gauges and histograms for instrumenting components, ports and connections.
+ */
+package net.kuujo.vertigo.metrics;
\ No newline at end of file
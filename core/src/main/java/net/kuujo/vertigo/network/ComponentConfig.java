@@ -63,8 +63,8 @@ public interface ComponentConfig extends TypeConfig {
   public static final String COMPONENT_MULTI_THREADED = "multi-threaded";
 
   /**
-   * {@code stateful} is a boolean indicating whether a component is stateful. Defaults
-   * to {@code false}
+   * {@code stateful} is a boolean indicating whether a component is stateful. Only
+   * stateful components may open keyed state stores. Defaults to {@code false}
    */
   public static final String COMPONENT_STATEFUL = "stateful";
 
@@ -74,6 +74,54 @@ public interface ComponentConfig extends TypeConfig {
    */
   public static final String COMPONENT_REPLICAS = "replicas";
 
+  /**
+   * {@code virtual-threads} is a boolean indicating whether message handlers should be
+   * executed on virtual threads rather than on the component's event loop. This allows
+   * components to perform blocking calls without being deployed as workers. Defaults
+   * to {@code false}
+   */
+  public static final String COMPONENT_VIRTUAL_THREADS = "virtual-threads";
+
+  /**
+   * {@code max-concurrency} is an integer indicating the maximum number of messages that
+   * may be handled concurrently when {@code virtual-threads} is {@code true}. Defaults
+   * to {@code 256}
+   */
+  public static final String COMPONENT_MAX_CONCURRENCY = "max-concurrency";
+
+  /**
+   * The default maximum number of messages handled concurrently on virtual threads.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+  /**
+   * {@code metrics-interval} is a long indicating the interval in milliseconds at which
+   * component instances publish their metrics on the event bus. Defaults to {@code 0},
+   * which disables publishing.
+   */
+  public static final String COMPONENT_METRICS_INTERVAL = "metrics-interval";
+
+  /**
+   * {@code fusible} is a boolean indicating whether the component may be fused with
+   * directly connected components into a single verticle by the local deployment
+   * manager. Defaults to {@code true}
+   */
+  public static final String COMPONENT_FUSIBLE = "fusible";
+
+  /**
+   * {@code weight} is an integer indicating the relative load of the component. Components
+   * with a weight are placed on the least loaded event loop by the local deployment
+   * manager. Defaults to {@code 0}, which leaves placement to Vert.x.
+   */
+  public static final String COMPONENT_WEIGHT = "weight";
+
+  /**
+   * {@code event-loop} is an integer indicating the index of the event loop on which the
+   * component should be placed by the local deployment manager. Defaults to {@code -1},
+   * which places the component by weight.
+   */
+  public static final String COMPONENT_EVENT_LOOP = "event-loop";
+
   /**
    * {@code resources} is a list of resources that should be distributed with this
    * component when clustering.
@@ -234,6 +282,117 @@ public interface ComponentConfig extends TypeConfig {
    */
   int getReplicas();
 
+  /**
+   * Sets whether the component handles messages on virtual threads.<p>
+   *
+   * Virtual thread components are deployed as standard verticles, but each message
+   * handler is executed on a virtual thread. Acks and sends performed by the handler are
+   * marshalled back to the component's context. On JVMs without virtual thread support
+   * handlers fall back to the Vert.x worker pool.
+   *
+   * @param virtualThreads Whether to handle messages on virtual threads.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setVirtualThreads(boolean virtualThreads);
+
+  /**
+   * Returns whether the component handles messages on virtual threads.
+   *
+   * @return Whether the component handles messages on virtual threads.
+   */
+  boolean isVirtualThreads();
+
+  /**
+   * Sets the maximum number of messages handled concurrently on virtual threads.
+   *
+   * @param maxConcurrency The maximum number of concurrently handled messages.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setMaxConcurrency(int maxConcurrency);
+
+  /**
+   * Returns the maximum number of messages handled concurrently on virtual threads.
+   *
+   * @return The maximum number of concurrently handled messages.
+   */
+  int getMaxConcurrency();
+
+  /**
+   * Sets the interval at which component instances publish their metrics.
+   *
+   * @param interval The metrics publishing interval in milliseconds, or {@code 0} to disable publishing.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setMetricsInterval(long interval);
+
+  /**
+   * Returns the interval at which component instances publish their metrics.
+   *
+   * @return The metrics publishing interval in milliseconds.
+   */
+  long getMetricsInterval();
+
+  /**
+   * Sets whether the component may be fused with directly connected components.<p>
+   *
+   * Fused components are deployed in a single verticle and messages between them are
+   * delivered by calling the downstream handler directly rather than over the event bus.
+   * Disable fusion for components that must be deployed in their own verticle.
+   *
+   * @param fusible Whether the component may be fused.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setFusible(boolean fusible);
+
+  /**
+   * Returns whether the component may be fused with directly connected components.
+   *
+   * @return Whether the component may be fused.
+   */
+  boolean isFusible();
+
+  /**
+   * Sets the relative load of the component.<p>
+   *
+   * Components with a weight are placed on the event loop with the least total weight
+   * when deployed locally, so that hot components are spread across cores rather than
+   * sharing an event loop. Components without a weight are placed by Vert.x.
+   *
+   * @param weight The component weight.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setWeight(int weight);
+
+  /**
+   * Returns the relative load of the component.
+   *
+   * @return The component weight.
+   */
+  int getWeight();
+
+  /**
+   * Sets the index of the event loop on which the component should be placed.<p>
+   *
+   * Indexes larger than the number of event loops wrap around.
+   *
+   * @param eventLoop The event loop index, or {@code -1} to place the component by weight.
+   * @return The component info.
+   */
+  @Fluent
+  ComponentConfig setEventLoop(int eventLoop);
+
+  /**
+   * Returns the index of the event loop on which the component should be placed.
+   *
+   * @return The event loop index, or {@code -1} if the component is placed by weight.
+   */
+  int getEventLoop();
+
   /**
    * Adds a resource to the component.
    *
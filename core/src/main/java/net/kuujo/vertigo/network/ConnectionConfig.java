@@ -60,6 +60,42 @@ public interface ConnectionConfig extends TypeConfig {
    */
   public static final String CONNECTION_SEND_TIMEOUT = "send-timeout";
 
+  /**
+   * <code>compression</code> is a string indicating the name of the compression algorithm
+   * with which to compress messages sent to remote targets, e.g. <code>deflate</code>.
+   */
+  public static final String CONNECTION_COMPRESSION = "compression";
+
+  /**
+   * <code>compression-threshold</code> is an integer indicating the minimum encoded size in
+   * bytes of a message before it is compressed. Defaults to <code>1024</code>.
+   */
+  public static final String CONNECTION_COMPRESSION_THRESHOLD = "compression-threshold";
+
+  /**
+   * The default compression threshold.
+   */
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+  /**
+   * <code>pull</code> is a boolean indicating whether target instances request batches of
+   * messages from the source as they have capacity rather than having messages pushed to
+   * them. Defaults to <code>false</code>.
+   */
+  public static final String CONNECTION_PULL = "pull";
+
+  /**
+   * <code>pull-batch-size</code> is an integer indicating the number of messages a target
+   * instance requests from the source at a time when <code>pull</code> is <code>true</code>.
+   * Defaults to <code>16</code>.
+   */
+  public static final String CONNECTION_PULL_BATCH_SIZE = "pull-batch-size";
+
+  /**
+   * The default pull batch size.
+   */
+  public static final int DEFAULT_PULL_BATCH_SIZE = 16;
+
   /**
    * Sets the connection source.
    *
@@ -140,4 +176,76 @@ public interface ConnectionConfig extends TypeConfig {
    */
   long getSendTimeout();
 
+  /**
+   * Sets the algorithm with which to compress messages sent to remote targets.<p>
+   *
+   * Messages delivered to targets within the same Vert.x instance are never compressed.
+   *
+   * @param compression The compression algorithm name or {@code null} to disable compression.
+   * @return The connection info.
+   */
+  @Fluent
+  ConnectionConfig setCompression(String compression);
+
+  /**
+   * Returns the algorithm with which to compress messages sent to remote targets.
+   *
+   * @return The compression algorithm name or {@code null} if compression is disabled.
+   */
+  String getCompression();
+
+  /**
+   * Sets the minimum encoded message size in bytes before messages are compressed.
+   *
+   * @param threshold The compression threshold in bytes.
+   * @return The connection info.
+   */
+  @Fluent
+  ConnectionConfig setCompressionThreshold(int threshold);
+
+  /**
+   * Returns the minimum encoded message size in bytes before messages are compressed.
+   *
+   * @return The compression threshold in bytes.
+   */
+  int getCompressionThreshold();
+
+  /**
+   * Sets whether target instances pull messages from the source.<p>
+   *
+   * Pull connections queue messages at the source and hand them to whichever target
+   * instance next requests work, so that messages are distributed across replicas
+   * according to their capacity rather than evenly. Messages sent with an ack handler
+   * are redelivered if the instance they were handed to goes away, while messages sent
+   * without one may be lost.
+   *
+   * @param pull Whether target instances pull messages from the source.
+   * @return The connection info.
+   */
+  @Fluent
+  ConnectionConfig setPull(boolean pull);
+
+  /**
+   * Returns whether target instances pull messages from the source.
+   *
+   * @return Whether target instances pull messages from the source.
+   */
+  boolean isPull();
+
+  /**
+   * Sets the number of messages a target instance requests from the source at a time.
+   *
+   * @param batchSize The pull batch size.
+   * @return The connection info.
+   */
+  @Fluent
+  ConnectionConfig setPullBatchSize(int batchSize);
+
+  /**
+   * Returns the number of messages a target instance requests from the source at a time.
+   *
+   * @return The pull batch size.
+   */
+  int getPullBatchSize();
+
 }
@@ -58,6 +58,20 @@ public interface NetworkConfig extends TypeConfig {
    */
   static final String NETWORK_CONNECTIONS = "connections";
 
+  /**
+   * <code>trace-sample-rate</code> is a number between <code>0</code> and <code>1</code>
+   * indicating the fraction of messages sent to the network's input ports that are traced
+   * through the network. Defaults to <code>0</code>, which disables tracing.
+   */
+  static final String NETWORK_TRACE_SAMPLE_RATE = "trace-sample-rate";
+
+  /**
+   * <code>lineage</code> is a boolean indicating whether acked messages sent to the network's
+   * input ports are acked once the entire tree of messages derived from them has been
+   * processed. Defaults to <code>false</code>.
+   */
+  static final String NETWORK_LINEAGE = "lineage";
+
   /**
    * Constructs a new network object.
    *
@@ -193,6 +207,49 @@ public interface NetworkConfig extends TypeConfig {
   @Fluent
   NetworkConfig setName(String name);
 
+  /**
+   * Sets the fraction of messages sent to the network that are traced.<p>
+   *
+   * Traced messages carry a compact timestamp and hop count header which is updated as
+   * the message is forwarded between components, and each input port records per-edge
+   * and end-to-end latency histograms for traced messages in its metrics.
+   *
+   * @param rate The sample rate between {@code 0} and {@code 1}.
+   * @return The network configuration.
+   */
+  @Fluent
+  NetworkConfig setTraceSampleRate(double rate);
+
+  /**
+   * Returns the fraction of messages sent to the network that are traced.
+   *
+   * @return The sample rate between {@code 0} and {@code 1}.
+   */
+  double getTraceSampleRate();
+
+  /**
+   * Sets whether the lineage of messages sent to the network is tracked.<p>
+   *
+   * When lineage is tracked, messages sent to the network's input ports with an ack handler
+   * are acked once every message derived from them has been acked, and failed if any of them
+   * fails. Messages sent by a component while it handles a tracked message are tracked as
+   * part of the same tree, so components may ack received messages as soon as they have
+   * forwarded them rather than waiting for acks from downstream components. The sender
+   * holds a single checksum per message regardless of how many messages are derived from it.
+   *
+   * @param lineage Whether the lineage of messages sent to the network is tracked.
+   * @return The network configuration.
+   */
+  @Fluent
+  NetworkConfig setLineage(boolean lineage);
+
+  /**
+   * Returns whether the lineage of messages sent to the network is tracked.
+   *
+   * @return Whether the lineage of messages sent to the network is tracked.
+   */
+  boolean isLineage();
+
   /**
    * Gets a list of network components.
    *
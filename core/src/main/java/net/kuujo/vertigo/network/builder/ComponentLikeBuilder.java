@@ -91,4 +91,59 @@ public interface ComponentLikeBuilder<T> {
    */
   T replicas(int replicas);
 
+  /**
+   * Sets the component to handle messages on virtual threads.
+   *
+   * @return The component builder.
+   */
+  T virtualThreads();
+
+  /**
+   * Sets whether the component handles messages on virtual threads.
+   *
+   * @param virtualThreads Whether to handle messages on virtual threads.
+   * @return The component builder.
+   */
+  T virtualThreads(boolean virtualThreads);
+
+  /**
+   * Sets the maximum number of messages handled concurrently on virtual threads.
+   *
+   * @param maxConcurrency The maximum number of concurrently handled messages.
+   * @return The component builder.
+   */
+  T maxConcurrency(int maxConcurrency);
+
+  /**
+   * Sets the interval at which component instances publish their metrics.
+   *
+   * @param interval The metrics publishing interval in milliseconds.
+   * @return The component builder.
+   */
+  T metricsInterval(long interval);
+
+  /**
+   * Sets whether the component may be fused with directly connected components.
+   *
+   * @param fusible Whether the component may be fused.
+   * @return The component builder.
+   */
+  T fusible(boolean fusible);
+
+  /**
+   * Sets the relative load of the component, used to place it on an event loop.
+   *
+   * @param weight The component weight.
+   * @return The component builder.
+   */
+  T weight(int weight);
+
+  /**
+   * Sets the index of the event loop on which the component should be placed.
+   *
+   * @param eventLoop The event loop index.
+   * @return The component builder.
+   */
+  T eventLoop(int eventLoop);
+
 }
@@ -38,4 +38,36 @@ public interface ConnectionEndpointBuilder<T> {
    */
   T sendTimeout(long timeout);
 
+  /**
+   * Sets the algorithm with which to compress messages sent to remote targets.
+   *
+   * @param algorithm The compression algorithm name, e.g. <code>deflate</code>.
+   * @return The connection info.
+   */
+  T compression(String algorithm);
+
+  /**
+   * Sets the minimum encoded message size in bytes before messages are compressed.
+   *
+   * @param threshold The compression threshold in bytes.
+   * @return The connection info.
+   */
+  T compressionThreshold(int threshold);
+
+  /**
+   * Sets the connection to pull mode, in which target instances request messages from
+   * the source as they have capacity.
+   *
+   * @return The connection info.
+   */
+  T pull();
+
+  /**
+   * Sets the connection to pull mode with the given batch size.
+   *
+   * @param batchSize The number of messages a target instance requests at a time.
+   * @return The connection info.
+   */
+  T pull(int batchSize);
+
 }
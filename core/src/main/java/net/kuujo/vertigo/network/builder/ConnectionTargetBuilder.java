@@ -24,8 +24,12 @@ import io.vertx.codegen.annotations.VertxGen;
  */
 @VertxGen
 public interface ConnectionTargetBuilder extends ConnectionBuilder<ConnectionTargetComponentBuilder> {
-//  /**
-//   * Creates a blank connection that can be listened to from outside the network.
-//   */
-//  ConnectionTargetComponentBuilder network();
+
+  /**
+   * Creates a connection to the network's output that can be read from outside the network.
+   *
+   * @return The connection target builder.
+   */
+  ConnectionTargetComponentBuilder network();
+
 }
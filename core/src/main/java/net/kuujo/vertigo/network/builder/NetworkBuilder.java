@@ -35,6 +35,22 @@ public interface NetworkBuilder extends Builder<NetworkConfig>, NetworkLikeBuild
    */
   NetworkBuilder name(String name);
 
+  /**
+   * Sets the fraction of messages sent to the network that are traced.
+   *
+   * @param rate The sample rate between {@code 0} and {@code 1}.
+   * @return The network builder.
+   */
+  NetworkBuilder traceSampleRate(double rate);
+
+  /**
+   * Sets whether the lineage of messages sent to the network is tracked.
+   *
+   * @param lineage Whether the lineage of messages sent to the network is tracked.
+   * @return The network builder.
+   */
+  NetworkBuilder lineage(boolean lineage);
+
   /**
    * Runs validation checks on the network.
    *
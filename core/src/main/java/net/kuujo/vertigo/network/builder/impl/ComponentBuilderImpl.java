@@ -94,6 +94,48 @@ public class ComponentBuilderImpl implements ComponentBuilder {
     return this;
   }
 
+  @Override
+  public ComponentBuilder metricsInterval(long interval) {
+    component.setMetricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder fusible(boolean fusible) {
+    component.setFusible(fusible);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder weight(int weight) {
+    component.setWeight(weight);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder eventLoop(int eventLoop) {
+    component.setEventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder virtualThreads() {
+    component.setVirtualThreads(true);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder virtualThreads(boolean virtualThreads) {
+    component.setVirtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public ComponentBuilder maxConcurrency(int maxConcurrency) {
+    component.setMaxConcurrency(maxConcurrency);
+    return this;
+  }
+
   @Override
   public InputBuilder input() {
     return new InputBuilderImpl(this);
@@ -100,6 +100,48 @@ public class ConnectionSourceComponentBuilderImpl implements ConnectionSourceCom
     return this;
   }
 
+  @Override
+  public ConnectionSourceComponentBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
   @Override
   public ConnectionSourceComponentBuilder port(String port) {
     connection.getSource().setPort(port);
@@ -115,6 +157,31 @@ public class ConnectionSourceComponentBuilderImpl implements ConnectionSourceCom
     return this;
   }
 
+  @Override
+  public ConnectionSourceComponentBuilder compression(String algorithm) {
+    connection.setCompression(algorithm);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder compressionThreshold(int threshold) {
+    connection.setCompressionThreshold(threshold);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder pull() {
+    connection.setPull(true);
+    return this;
+  }
+
+  @Override
+  public ConnectionSourceComponentBuilder pull(int batchSize) {
+    connection.setPull(true);
+    connection.setPullBatchSize(batchSize);
+    return this;
+  }
+
   @Override
   public ConnectionSourceBuilder and() {
     return new ConnectionSourceBuilderImpl(network, connections);
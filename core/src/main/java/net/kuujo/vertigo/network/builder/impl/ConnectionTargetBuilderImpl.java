@@ -50,16 +50,15 @@ public class ConnectionTargetBuilderImpl implements ConnectionTargetBuilder {
     return new ConnectionTargetComponentBuilderImpl(network, network.component(name), newConnections);
   }
 
-
-//  @Override
-//  public ConnectionTargetComponentBuilder network() {
-//    List<ConnectionConfig> newConnections = new ArrayList<>();
-//    for (ConnectionConfig connection : connections) {
-//      newConnections.add(network.network.createConnection(new ConnectionConfigImpl()
-//          .setSource(connection.getSource())
-//          .setTarget(new TargetConfigImpl().setIsNetwork(true))));
-//    }
-//    return new ConnectionTargetComponentBuilderImpl(network, null, newConnections);
-//  }
+  @Override
+  public ConnectionTargetComponentBuilder network() {
+    List<ConnectionConfig> newConnections = new ArrayList<>();
+    for (ConnectionConfig connection : connections) {
+      newConnections.add(network.network.createConnection(new ConnectionConfigImpl()
+          .setSource(connection.getSource())
+          .setTarget(new TargetConfigImpl().setIsNetwork(true))));
+    }
+    return new ConnectionTargetComponentBuilderImpl(network, null, newConnections);
+  }
 
 }
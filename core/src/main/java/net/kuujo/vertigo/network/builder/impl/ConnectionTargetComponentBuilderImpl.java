@@ -91,11 +91,55 @@ public class ConnectionTargetComponentBuilderImpl implements ConnectionTargetCom
     return this;
   }
 
+  @Override
+  public ConnectionTargetComponentBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
   @Override
   public ConnectionTargetComponentBuilder port(String port) {
     for (ConnectionConfig connection : connections) {
       connection.getTarget().setPort(port);
-      network.component(connection.getTarget().getComponent()).input().port(port);
+      if (!connection.getTarget().getIsNetwork()) {
+        network.component(connection.getTarget().getComponent()).input().port(port);
+      }
     }
     return this;
   }
@@ -108,6 +152,39 @@ public class ConnectionTargetComponentBuilderImpl implements ConnectionTargetCom
     return this;
   }
 
+  @Override
+  public ConnectionTargetComponentBuilder compression(String algorithm) {
+    for (ConnectionConfig connection : connections) {
+      connection.setCompression(algorithm);
+    }
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder compressionThreshold(int threshold) {
+    for (ConnectionConfig connection : connections) {
+      connection.setCompressionThreshold(threshold);
+    }
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder pull() {
+    for (ConnectionConfig connection : connections) {
+      connection.setPull(true);
+    }
+    return this;
+  }
+
+  @Override
+  public ConnectionTargetComponentBuilder pull(int batchSize) {
+    for (ConnectionConfig connection : connections) {
+      connection.setPull(true);
+      connection.setPullBatchSize(batchSize);
+    }
+    return this;
+  }
+
   @Override
   public ConnectionTargetBuilder and() {
     return new ConnectionTargetBuilderImpl(network, connections);
@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.network.builder.impl;
 
 import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.network.InputPortConfig;
 import net.kuujo.vertigo.network.builder.InputBuilder;
 import net.kuujo.vertigo.network.builder.InputPortBuilder;
 
@@ -33,7 +34,8 @@ public class InputBuilderImpl implements InputBuilder {
 
   @Override
   public InputPortBuilder port(String name) {
-    return new InputPortBuilderImpl(component, component.component.getInput().addPort(name));
+    InputPortConfig port = component.component.getInput().getPort(name);
+    return new InputPortBuilderImpl(component, port != null ? port : component.component.getInput().addPort(name));
   }
 
   @Override
@@ -90,4 +92,46 @@ public class InputBuilderImpl implements InputBuilder {
     return this;
   }
 
+  @Override
+  public InputBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public InputBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public InputBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public InputBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public InputBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public InputBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public InputBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
 }
@@ -38,7 +38,8 @@ public class InputPortBuilderImpl implements InputPortBuilder {
 
   @Override
   public InputPortBuilder port(String name) {
-    return new InputPortBuilderImpl(component, component.component.getInput().addPort(name));
+    InputPortConfig port = component.component.getInput().getPort(name);
+    return new InputPortBuilderImpl(component, port != null ? port : component.component.getInput().addPort(name));
   }
 
   @Override
@@ -95,6 +96,48 @@ public class InputPortBuilderImpl implements InputPortBuilder {
     return this;
   }
 
+  @Override
+  public InputBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public InputBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public InputBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public InputBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public InputBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public InputBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public InputBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
   @Override
   public InputPortBuilder type(Class<?> type) {
     port.setType(type);
@@ -53,6 +53,18 @@ public class NetworkBuilderImpl implements NetworkBuilder {
     return this;
   }
 
+  @Override
+  public NetworkBuilder traceSampleRate(double rate) {
+    network.setTraceSampleRate(rate);
+    return this;
+  }
+
+  @Override
+  public NetworkBuilder lineage(boolean lineage) {
+    network.setLineage(lineage);
+    return this;
+  }
+
   @Override
   public ComponentBuilder component() {
     return new ComponentBuilderImpl(this, network.addComponent(UUID.randomUUID().toString()));
@@ -16,6 +16,7 @@
 package net.kuujo.vertigo.network.builder.impl;
 
 import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.network.OutputPortConfig;
 import net.kuujo.vertigo.network.builder.OutputBuilder;
 import net.kuujo.vertigo.network.builder.OutputPortBuilder;
 
@@ -33,7 +34,8 @@ public class OutputBuilderImpl implements OutputBuilder {
 
   @Override
   public OutputPortBuilder port(String name) {
-    return new OutputPortBuilderImpl(component, component.component.getOutput().addPort(name));
+    OutputPortConfig port = component.component.getOutput().getPort(name);
+    return new OutputPortBuilderImpl(component, port != null ? port : component.component.getOutput().addPort(name));
   }
 
   @Override
@@ -90,4 +92,46 @@ public class OutputBuilderImpl implements OutputBuilder {
     return this;
   }
 
+  @Override
+  public OutputBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public OutputBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
 }
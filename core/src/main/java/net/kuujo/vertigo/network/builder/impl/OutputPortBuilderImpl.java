@@ -38,7 +38,8 @@ public class OutputPortBuilderImpl implements OutputPortBuilder {
 
   @Override
   public OutputPortBuilder port(String name) {
-    return new OutputPortBuilderImpl(component, component.component.getOutput().addPort(name));
+    OutputPortConfig port = component.component.getOutput().getPort(name);
+    return new OutputPortBuilderImpl(component, port != null ? port : component.component.getOutput().addPort(name));
   }
 
   @Override
@@ -95,6 +96,48 @@ public class OutputPortBuilderImpl implements OutputPortBuilder {
     return this;
   }
 
+  @Override
+  public OutputBuilder metricsInterval(long interval) {
+    component.metricsInterval(interval);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder fusible(boolean fusible) {
+    component.fusible(fusible);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder weight(int weight) {
+    component.weight(weight);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder eventLoop(int eventLoop) {
+    component.eventLoop(eventLoop);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder virtualThreads() {
+    component.virtualThreads();
+    return this;
+  }
+
+  @Override
+  public OutputBuilder virtualThreads(boolean virtualThreads) {
+    component.virtualThreads(virtualThreads);
+    return this;
+  }
+
+  @Override
+  public OutputBuilder maxConcurrency(int maxConcurrency) {
+    component.maxConcurrency(maxConcurrency);
+    return this;
+  }
+
   @Override
   public OutputPortBuilder type(Class<?> type) {
     port.setType(type);
@@ -35,6 +35,12 @@ public class ComponentConfigImpl implements ComponentConfig {
   private boolean multiThreaded;
   private boolean stateful;
   private int replicas;
+  private boolean virtualThreads;
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  private long metricsInterval;
+  private boolean fusible = true;
+  private int weight;
+  private int eventLoop = -1;
   private InputConfig input;
   private OutputConfig output;
   private Set<String> resources = new HashSet<>(10);
@@ -58,6 +64,12 @@ public class ComponentConfigImpl implements ComponentConfig {
     this.multiThreaded = component.isMultiThreaded();
     this.stateful = component.isStateful();
     this.replicas = component.getReplicas();
+    this.virtualThreads = component.isVirtualThreads();
+    this.maxConcurrency = component.getMaxConcurrency();
+    this.metricsInterval = component.getMetricsInterval();
+    this.fusible = component.isFusible();
+    this.weight = component.getWeight();
+    this.eventLoop = component.getEventLoop();
     this.resources = new HashSet<>(component.getResources());
     this.input = component.getInput();
     this.output = component.getOutput();
@@ -145,6 +157,72 @@ public class ComponentConfigImpl implements ComponentConfig {
     return replicas;
   }
 
+  @Override
+  public ComponentConfig setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+    return this;
+  }
+
+  @Override
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  @Override
+  public ComponentConfig setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  @Override
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Override
+  public ComponentConfig setMetricsInterval(long interval) {
+    this.metricsInterval = interval;
+    return this;
+  }
+
+  @Override
+  public long getMetricsInterval() {
+    return metricsInterval;
+  }
+
+  @Override
+  public ComponentConfig setFusible(boolean fusible) {
+    this.fusible = fusible;
+    return this;
+  }
+
+  @Override
+  public boolean isFusible() {
+    return fusible;
+  }
+
+  @Override
+  public ComponentConfig setWeight(int weight) {
+    this.weight = weight;
+    return this;
+  }
+
+  @Override
+  public int getWeight() {
+    return weight;
+  }
+
+  @Override
+  public ComponentConfig setEventLoop(int eventLoop) {
+    this.eventLoop = eventLoop;
+    return this;
+  }
+
+  @Override
+  public int getEventLoop() {
+    return eventLoop;
+  }
+
   @Override
   public InputConfig getInput() {
     return input;
@@ -234,6 +312,24 @@ public class ComponentConfigImpl implements ComponentConfig {
     if (component.containsKey(COMPONENT_REPLICAS)) {
       this.replicas = component.getInteger(COMPONENT_REPLICAS, 1);
     }
+    if (component.containsKey(COMPONENT_VIRTUAL_THREADS)) {
+      this.virtualThreads = component.getBoolean(COMPONENT_VIRTUAL_THREADS);
+    }
+    if (component.containsKey(COMPONENT_MAX_CONCURRENCY)) {
+      this.maxConcurrency = component.getInteger(COMPONENT_MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY);
+    }
+    if (component.containsKey(COMPONENT_METRICS_INTERVAL)) {
+      this.metricsInterval = component.getLong(COMPONENT_METRICS_INTERVAL, 0L);
+    }
+    if (component.containsKey(COMPONENT_FUSIBLE)) {
+      this.fusible = component.getBoolean(COMPONENT_FUSIBLE, true);
+    }
+    if (component.containsKey(COMPONENT_WEIGHT)) {
+      this.weight = component.getInteger(COMPONENT_WEIGHT, 0);
+    }
+    if (component.containsKey(COMPONENT_EVENT_LOOP)) {
+      this.eventLoop = component.getInteger(COMPONENT_EVENT_LOOP, -1);
+    }
     if (component.containsKey(COMPONENT_RESOURCES)) {
       this.resources.addAll(component.getJsonArray(COMPONENT_RESOURCES, new JsonArray()).getList());
     }
@@ -267,6 +363,12 @@ public class ComponentConfigImpl implements ComponentConfig {
     json.put(COMPONENT_MULTI_THREADED, multiThreaded);
     json.put(COMPONENT_STATEFUL, stateful);
     json.put(COMPONENT_REPLICAS, replicas);
+    json.put(COMPONENT_VIRTUAL_THREADS, virtualThreads);
+    json.put(COMPONENT_MAX_CONCURRENCY, maxConcurrency);
+    json.put(COMPONENT_METRICS_INTERVAL, metricsInterval);
+    json.put(COMPONENT_FUSIBLE, fusible);
+    json.put(COMPONENT_WEIGHT, weight);
+    json.put(COMPONENT_EVENT_LOOP, eventLoop);
     json.put(COMPONENT_RESOURCES, new JsonArray(Arrays.asList(resources.toArray(new String[resources.size()]))));
     JsonObject input = new JsonObject();
     for (InputPortConfig port : this.input.getPorts()) {
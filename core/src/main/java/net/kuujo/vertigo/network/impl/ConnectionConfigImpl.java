@@ -38,6 +38,10 @@ public class ConnectionConfigImpl implements ConnectionConfig {
   private boolean ordered;
   private boolean atLeastOnce;
   private long sendTimeout;
+  private String compression;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+  private boolean pull;
+  private int pullBatchSize = DEFAULT_PULL_BATCH_SIZE;
 
   public ConnectionConfigImpl() {
     this.source = new SourceConfigImpl();
@@ -49,6 +53,11 @@ public class ConnectionConfigImpl implements ConnectionConfig {
     this.target = connection.getTarget();
     this.ordered = connection.isOrdered();
     this.atLeastOnce = connection.isAtLeastOnce();
+    this.sendTimeout = connection.getSendTimeout();
+    this.compression = connection.getCompression();
+    this.compressionThreshold = connection.getCompressionThreshold();
+    this.pull = connection.isPull();
+    this.pullBatchSize = connection.getPullBatchSize();
   }
 
   public ConnectionConfigImpl(OutputPortConfig output, InputPortConfig input) {
@@ -115,6 +124,50 @@ public class ConnectionConfigImpl implements ConnectionConfig {
     return sendTimeout;
   }
 
+  @Override
+  public ConnectionConfig setCompression(String compression) {
+    this.compression = compression;
+    return this;
+  }
+
+  @Override
+  public String getCompression() {
+    return compression;
+  }
+
+  @Override
+  public ConnectionConfig setCompressionThreshold(int threshold) {
+    this.compressionThreshold = threshold;
+    return this;
+  }
+
+  @Override
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  @Override
+  public ConnectionConfig setPull(boolean pull) {
+    this.pull = pull;
+    return this;
+  }
+
+  @Override
+  public boolean isPull() {
+    return pull;
+  }
+
+  @Override
+  public ConnectionConfig setPullBatchSize(int batchSize) {
+    this.pullBatchSize = batchSize;
+    return this;
+  }
+
+  @Override
+  public int getPullBatchSize() {
+    return pullBatchSize;
+  }
+
   @Override
   public void update(JsonObject connection) {
     if (connection.containsKey(CONNECTION_SOURCE)) {
@@ -140,6 +193,18 @@ public class ConnectionConfigImpl implements ConnectionConfig {
     if (connection.containsKey(CONNECTION_SEND_TIMEOUT)) {
       this.sendTimeout = connection.getLong(CONNECTION_SEND_TIMEOUT);
     }
+    if (connection.containsKey(CONNECTION_COMPRESSION)) {
+      this.compression = connection.getString(CONNECTION_COMPRESSION);
+    }
+    if (connection.containsKey(CONNECTION_COMPRESSION_THRESHOLD)) {
+      this.compressionThreshold = connection.getInteger(CONNECTION_COMPRESSION_THRESHOLD);
+    }
+    if (connection.containsKey(CONNECTION_PULL)) {
+      this.pull = connection.getBoolean(CONNECTION_PULL);
+    }
+    if (connection.containsKey(CONNECTION_PULL_BATCH_SIZE)) {
+      this.pullBatchSize = connection.getInteger(CONNECTION_PULL_BATCH_SIZE);
+    }
   }
 
   @Override
@@ -150,6 +215,14 @@ public class ConnectionConfigImpl implements ConnectionConfig {
     json.put(CONNECTION_ORDERED, ordered);
     json.put(CONNECTION_AT_LEAST_ONCE, atLeastOnce);
     json.put(CONNECTION_SEND_TIMEOUT, sendTimeout);
+    if (compression != null) {
+      json.put(CONNECTION_COMPRESSION, compression);
+      json.put(CONNECTION_COMPRESSION_THRESHOLD, compressionThreshold);
+    }
+    if (pull) {
+      json.put(CONNECTION_PULL, pull);
+      json.put(CONNECTION_PULL_BATCH_SIZE, pullBatchSize);
+    }
     return json;
   }
 
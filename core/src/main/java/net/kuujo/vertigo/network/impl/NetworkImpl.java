@@ -32,6 +32,8 @@ import java.util.UUID;
  */
 public class NetworkImpl implements NetworkConfig {
   private String name;
+  private double traceSampleRate;
+  private boolean lineage;
   private final Collection<ComponentConfig> components = new ArrayList<>();
   private final Collection<ConnectionConfig> connections = new ArrayList<>();
 
@@ -58,6 +60,28 @@ public class NetworkImpl implements NetworkConfig {
     return this;
   }
 
+  @Override
+  public NetworkConfig setTraceSampleRate(double rate) {
+    this.traceSampleRate = rate;
+    return this;
+  }
+
+  @Override
+  public double getTraceSampleRate() {
+    return traceSampleRate;
+  }
+
+  @Override
+  public NetworkConfig setLineage(boolean lineage) {
+    this.lineage = lineage;
+    return this;
+  }
+
+  @Override
+  public boolean isLineage() {
+    return lineage;
+  }
+
   @Override
   public Collection<ComponentConfig> getComponents() {
     return components;
@@ -159,6 +183,12 @@ public class NetworkImpl implements NetworkConfig {
     if(this.name == null) {
       throw new NetworkFormatException("Network name is mandatory.");
     }
+    if (network.containsKey(NETWORK_TRACE_SAMPLE_RATE)) {
+      this.traceSampleRate = network.getDouble(NETWORK_TRACE_SAMPLE_RATE);
+    }
+    if (network.containsKey(NETWORK_LINEAGE)) {
+      this.lineage = network.getBoolean(NETWORK_LINEAGE);
+    }
     JsonObject components = network.getJsonObject(NETWORK_COMPONENTS);
     if (components != null) {
       for (String name : components.fieldNames()) {
@@ -208,6 +238,12 @@ public class NetworkImpl implements NetworkConfig {
   public JsonObject toJson() {
     JsonObject json = new JsonObject();
     json.put(NETWORK_NAME, name);
+    if (traceSampleRate > 0) {
+      json.put(NETWORK_TRACE_SAMPLE_RATE, traceSampleRate);
+    }
+    if (lineage) {
+      json.put(NETWORK_LINEAGE, lineage);
+    }
     JsonObject components = new JsonObject();
     for (ComponentConfig component : this.components) {
       components.put(component.getName(), component.toJson());
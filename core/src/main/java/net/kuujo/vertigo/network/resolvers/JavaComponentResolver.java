@@ -51,6 +51,12 @@ public class JavaComponentResolver implements ComponentResolver {
       component.setWorker(componentInfo.worker());
       component.setMultiThreaded(componentInfo.multiThreaded());
       component.setStateful(componentInfo.stateful());
+      component.setVirtualThreads(componentInfo.virtualThreads());
+      component.setMaxConcurrency(componentInfo.maxConcurrency());
+      component.setMetricsInterval(componentInfo.metricsInterval());
+      component.setFusible(componentInfo.fusible());
+      component.setWeight(componentInfo.weight());
+      component.setEventLoop(componentInfo.eventLoop());
     }
 
     InputInfo inputInfo = clazz.getAnnotation(InputInfo.class);
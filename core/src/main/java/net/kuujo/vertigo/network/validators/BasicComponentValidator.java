@@ -33,6 +33,15 @@ public class BasicComponentValidator implements ComponentValidator {
     if (component.getIdentifier() == null) {
       throw new ValidationException(String.format("Component identifier cannot be null on %s", component.getName()));
     }
+    if (component.isVirtualThreads() && component.isWorker()) {
+      throw new ValidationException(String.format("Component %s cannot be both a worker and use virtual threads", component.getName()));
+    }
+    if (component.isVirtualThreads() && component.getMaxConcurrency() < 1) {
+      throw new ValidationException(String.format("Component %s max concurrency must be positive", component.getName()));
+    }
+    if (component.getMetricsInterval() < 0) {
+      throw new ValidationException(String.format("Component %s metrics interval cannot be negative", component.getName()));
+    }
   }
 
 }
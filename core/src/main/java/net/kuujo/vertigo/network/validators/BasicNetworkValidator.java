@@ -42,6 +42,9 @@ public class BasicNetworkValidator implements NetworkValidator {
     if (network.getConnections().isEmpty()) {
       throw new ValidationException("NetworkConfig connections cannot be empty");
     }
+    if (network.getTraceSampleRate() < 0 || network.getTraceSampleRate() > 1) {
+      throw new ValidationException("NetworkConfig trace sample rate must be between 0 and 1");
+    }
   }
 
 }
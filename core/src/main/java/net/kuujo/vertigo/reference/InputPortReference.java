@@ -15,11 +15,23 @@
  */
 package net.kuujo.vertigo.reference;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 import net.kuujo.vertigo.instance.Output;
 
+import java.util.List;
+
 /**
- * Input port reference.
+ * Input port reference.<p>
+ *
+ * Input port references support flow control for producers outside of the network.
+ * The target component periodically acknowledges received messages in batches, and
+ * the reference tracks the number of messages which have been sent but not yet
+ * received. Once that number reaches the write queue size, or once the target port
+ * has been paused, {@link #writeQueueFull()} returns {@code true} until the target
+ * catches up, at which point the {@link #drainHandler(Handler) drain handler} is called.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -33,4 +45,56 @@ public interface InputPortReference<T> extends Output<InputPortReference<T>, T>
    */
   String name();
 
+  /**
+   * Sends a batch of messages on the port.
+   *
+   * @param messages The messages to send.
+   * @return The port reference.
+   */
+  @Fluent
+  InputPortReference<T> sendBatch(List<T> messages);
+
+  /**
+   * Sends a batch of messages on the port.
+   *
+   * @param messages The messages to send.
+   * @param ackHandler An asynchronous handler to be called once all the messages in the
+   *                   batch have been acked, or once any message in the batch fails.
+   * @return The port reference.
+   */
+  @Fluent
+  InputPortReference<T> sendBatch(List<T> messages, Handler<AsyncResult<Void>> ackHandler);
+
+  /**
+   * Sets the maximum number of messages which may be in flight to the target.
+   *
+   * @param maxSize The maximum number of unreceived messages.
+   * @return The port reference.
+   */
+  @Fluent
+  InputPortReference<T> setWriteQueueMaxSize(int maxSize);
+
+  /**
+   * Returns the maximum number of messages which may be in flight to the target.
+   *
+   * @return The maximum number of unreceived messages.
+   */
+  int getWriteQueueMaxSize();
+
+  /**
+   * Returns a boolean indicating whether the write queue is full.
+   *
+   * @return Indicates whether the target has been paused or too many messages are in flight.
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Sets a handler to be called once a full write queue has been drained.
+   *
+   * @param handler A handler to be called when the port can accept more messages.
+   * @return The port reference.
+   */
+  @Fluent
+  InputPortReference<T> drainHandler(Handler<Void> handler);
+
 }
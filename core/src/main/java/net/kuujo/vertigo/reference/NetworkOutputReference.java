@@ -1,6 +1,82 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package net.kuujo.vertigo.reference;
 
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
 import net.kuujo.vertigo.instance.Input;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.message.VertigoMessage;
+
+/**
+ * Network output reference.<p>
+ *
+ * The network output is a stream of all messages sent from components to the network.
+ * Messages sent to a port for which a handler has been registered on the
+ * {@link #port(String) port reference} are delivered to that port instead.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@VertxGen
+public interface NetworkOutputReference<T> extends ReadStream<VertigoMessage<T>>, Input<NetworkOutputReference<T>, T> {
+
+  /**
+   * Returns a reference to a network output port.
+   *
+   * @param name The name of the output port to reference.
+   * @param <U> The output port type.
+   * @return The output port reference.
+   */
+  <U> OutputPortReference<U> port(String name);
+
+  @Override
+  NetworkOutputReference<T> handler(Handler<VertigoMessage<T>> handler);
+
+  /**
+   * Registers a batch handler on the network output.
+   *
+   * @param maxSize The maximum number of messages in a batch.
+   * @param maxWait The maximum time in milliseconds to wait for a batch to fill.
+   * @param handler A handler to be called with each batch of messages.
+   * @return The network output reference.
+   */
+  @Fluent
+  NetworkOutputReference<T> batchHandler(int maxSize, long maxWait, Handler<MessageBatch<T>> handler);
+
+  @Override
+  NetworkOutputReference<T> exceptionHandler(Handler<Throwable> handler);
+
+  @Override
+  NetworkOutputReference<T> pause();
+
+  @Override
+  NetworkOutputReference<T> resume();
+
+  /**
+   * Fetches the given number of messages from the network output.
+   *
+   * @param amount The number of messages to fetch.
+   * @return The network output reference.
+   */
+  @Fluent
+  NetworkOutputReference<T> fetch(long amount);
+
+  @Override
+  NetworkOutputReference<T> endHandler(Handler<Void> endHandler);
 
-public interface NetworkOutputReference<T> extends Input<NetworkOutputReference<T>, T> {
 }
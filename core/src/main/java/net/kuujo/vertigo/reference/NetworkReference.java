@@ -33,13 +33,13 @@ public interface NetworkReference {
    */
   ComponentReference component(String id);
 
-//  /**
-//   * Returns an output port that receives all messages connected from components to the network.
-//   * If multiple components are connected, all messages will be received.
-//   * @param <T>
-//   * @return
-//   */
-//  <T> NetworkOutputReference<T> output();
+  /**
+   * Returns an output that receives all messages connected from components to the network.
+   * If multiple components are connected, all messages will be received.
+   * @param <T>
+   * @return
+   */
+  <T> NetworkOutputReference<T> output();
 
   /**
    * Returns an input port that can be used to send messages to components that are connected to the network.
@@ -55,4 +55,11 @@ public interface NetworkReference {
    */
   String name();
 
+  /**
+   * Releases the resources held by the reference.<p>
+   *
+   * Messages sent to the network whose lineage is still being tracked are failed.
+   */
+  void close();
+
 }
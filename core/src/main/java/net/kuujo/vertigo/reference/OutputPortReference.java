@@ -15,16 +15,26 @@
  */
 package net.kuujo.vertigo.reference;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
 import net.kuujo.vertigo.instance.Input;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.message.VertigoMessage;
 
 /**
- * Output port reference.
+ * Output port reference.<p>
+ *
+ * Output port references are streams of the messages sent to a network output port.
+ * When the stream is paused, or when all fetched messages have been delivered, messages
+ * are queued and the components sending to the port are paused until the stream
+ * is resumed or more messages are fetched.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 @VertxGen
-public interface OutputPortReference<T> extends Input<OutputPortReference<T>, T> {
+public interface OutputPortReference<T> extends ReadStream<VertigoMessage<T>>, Input<OutputPortReference<T>, T> {
 
   /**
    * Returns the port name.
@@ -33,4 +43,46 @@ public interface OutputPortReference<T> extends Input<OutputPortReference<T>, T>
    */
   String name();
 
+  @Override
+  OutputPortReference<T> handler(Handler<VertigoMessage<T>> handler);
+
+  /**
+   * Registers a batch handler on the port.<p>
+   *
+   * Messages are collected until either {@code maxSize} messages have been received or
+   * {@code maxWait} milliseconds have passed since the first message of the batch was
+   * received. Registering a batch handler replaces any message handler registered on the port.
+   *
+   * @param maxSize The maximum number of messages in a batch.
+   * @param maxWait The maximum time in milliseconds to wait for a batch to fill.
+   * @param handler A handler to be called with each batch of messages.
+   * @return The output port reference.
+   */
+  @Fluent
+  OutputPortReference<T> batchHandler(int maxSize, long maxWait, Handler<MessageBatch<T>> handler);
+
+  @Override
+  OutputPortReference<T> exceptionHandler(Handler<Throwable> handler);
+
+  @Override
+  OutputPortReference<T> pause();
+
+  @Override
+  OutputPortReference<T> resume();
+
+  /**
+   * Fetches the given number of messages from the port.<p>
+   *
+   * Fetching messages from a paused port delivers up to {@code amount} messages
+   * without resuming the port.
+   *
+   * @param amount The number of messages to fetch.
+   * @return The output port reference.
+   */
+  @Fluent
+  OutputPortReference<T> fetch(long amount);
+
+  @Override
+  OutputPortReference<T> endHandler(Handler<Void> endHandler);
+
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.reference.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import net.kuujo.vertigo.instance.impl.MessageBatcher;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.message.impl.VertigoMessageImpl;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Base class for output references which are read as streams.<p>
+ *
+ * Messages are delivered while the stream has outstanding demand. Pausing the stream
+ * sets the demand to zero, and fetching messages increases it. Messages which are
+ * received without demand are queued, and subclasses are notified whenever the
+ * stream stops or starts accepting messages so that they can pause or resume the
+ * components sending to it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+abstract class AbstractOutputReference<T, R> {
+  protected final Vertx vertx;
+  private final Queue<Message<T>> queue = new ArrayDeque<>();
+  private Handler<VertigoMessage<T>> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+  private long demand = Long.MAX_VALUE;
+  private boolean blocked;
+
+  protected AbstractOutputReference(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * Returns the reference.
+   */
+  @SuppressWarnings("unchecked")
+  private R self() {
+    return (R) this;
+  }
+
+  /**
+   * Called when a handler is registered or unregistered.
+   */
+  protected abstract void handlerChanged();
+
+  /**
+   * Called when the stream stops or starts accepting messages.
+   */
+  protected abstract void flowChanged();
+
+  /**
+   * Returns a boolean indicating whether a handler is registered.
+   */
+  boolean hasHandler() {
+    return handler != null;
+  }
+
+  /**
+   * Returns a boolean indicating whether senders should be paused.
+   */
+  boolean blocked() {
+    return blocked;
+  }
+
+  public R handler(Handler<VertigoMessage<T>> handler) {
+    this.handler = handler;
+    handlerChanged();
+    drain();
+    return self();
+  }
+
+  public R batchHandler(int maxSize, long maxWait, Handler<MessageBatch<T>> handler) {
+    return handler(handler != null ? new MessageBatcher<>(vertx, maxSize, maxWait, handler) : null);
+  }
+
+  public R exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return self();
+  }
+
+  public R endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return self();
+  }
+
+  public R pause() {
+    demand = 0;
+    checkFlow();
+    return self();
+  }
+
+  public R resume() {
+    demand = Long.MAX_VALUE;
+    drain();
+    return self();
+  }
+
+  public R fetch(long amount) {
+    Args.check(amount >= 0, "amount cannot be negative");
+    demand += amount;
+    if (demand < 0) {
+      demand = Long.MAX_VALUE;
+    }
+    drain();
+    return self();
+  }
+
+  /**
+   * Handles a message sent to the stream.
+   */
+  void receive(Message<T> message) {
+    if (demand > 0 && handler != null && queue.isEmpty()) {
+      deliver(message);
+    } else {
+      queue.add(message);
+    }
+    checkFlow();
+  }
+
+  /**
+   * Delivers queued messages while there is demand for them.
+   */
+  private void drain() {
+    while (demand > 0 && handler != null && !queue.isEmpty()) {
+      deliver(queue.poll());
+    }
+    checkFlow();
+  }
+
+  private void deliver(Message<T> message) {
+    if (demand != Long.MAX_VALUE) {
+      demand--;
+    }
+    try {
+      handler.handle(new VertigoMessageImpl<>(message.headers().get("name"), message));
+    } catch (Throwable t) {
+      if (exceptionHandler != null) {
+        exceptionHandler.handle(t);
+      } else {
+        throw t;
+      }
+    }
+  }
+
+  /**
+   * Notifies the subclass once the stream stops or starts accepting messages.
+   */
+  private void checkFlow() {
+    boolean blocked = demand == 0;
+    if (blocked != this.blocked) {
+      this.blocked = blocked;
+      flowChanged();
+    }
+  }
+
+}
@@ -17,23 +17,60 @@ package net.kuujo.vertigo.reference.impl;
 
 import io.vertx.core.*;
 import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.CaseInsensitiveHeaders;
 import net.kuujo.vertigo.reference.InputPortReference;
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.util.CountingCompletionHandler;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Input port reference implementation.
+ * Input port reference implementation.<p>
+ *
+ * Messages are sent with a feedback address to which the target input port sends
+ * batched acks for received messages as well as pause and resume notifications.
+ * Until the feedback consumer has been registered messages are sent without flow
+ * control.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class InputPortReferenceImpl<T> implements InputPortReference<T> {
+  static final String ACTION_HEADER = "action";
+  static final String FEEDBACK_HEADER = "feedback";
+  static final String COUNT_HEADER = "count";
+  static final String ACK_ACTION = "ack";
+  static final String PAUSE_ACTION = "pause";
+  static final String RESUME_ACTION = "resume";
+  private static final int DEFAULT_WRITE_QUEUE_MAX_SIZE = 1000;
+
   private final Vertx vertx;
   private final String address;
   private final String name;
+  private final String codecName;
+  private final String feedbackAddress;
+  private final AtomicLong inFlight = new AtomicLong();
+  private MessageConsumer<Object> feedback;
+  private volatile DeliveryOptions options;
+  private volatile int maxQueueSize = DEFAULT_WRITE_QUEUE_MAX_SIZE;
+  private volatile boolean paused;
+  private volatile boolean full;
+  private volatile Handler<Void> drainHandler;
 
   public InputPortReferenceImpl(Vertx vertx, String address, String name) {
+    this(vertx, address, name, null);
+  }
+
+  public InputPortReferenceImpl(Vertx vertx, String address, String name, String codecName) {
     this.vertx = vertx;
     this.address = address;
     this.name = name;
+    this.codecName = codecName;
+    this.feedbackAddress = String.format("%s.%s.%s", address, name, UUID.randomUUID().toString());
+    this.options = getDeliveryOptions(null);
   }
 
   @Override
@@ -41,24 +78,125 @@ public class InputPortReferenceImpl<T> implements InputPortReference<T> {
     return name;
   }
 
+  @Override
+  public InputPortReference<T> setWriteQueueMaxSize(int maxSize) {
+    this.maxQueueSize = Args.checkPositive(maxSize, "max size must be a positive number");
+    checkDrain();
+    return this;
+  }
+
+  @Override
+  public int getWriteQueueMaxSize() {
+    return maxQueueSize;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    if (paused || inFlight.get() >= maxQueueSize) {
+      full = true;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public InputPortReference<T> drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    checkDrain();
+    return this;
+  }
+
+  /**
+   * Registers the feedback consumer the first time a message is sent.
+   */
+  private void init() {
+    if (feedback == null) {
+      synchronized (this) {
+        if (feedback == null) {
+          feedback = vertx.eventBus().consumer(feedbackAddress, this::doFeedback);
+          feedback.completionHandler(result -> {
+            if (result.succeeded()) {
+              options = getDeliveryOptions(null).addHeader(FEEDBACK_HEADER, feedbackAddress);
+            }
+          });
+        }
+      }
+    }
+  }
+
+  /**
+   * Handles a feedback message from the target port.
+   */
+  private void doFeedback(Message<Object> message) {
+    switch (message.headers().get(ACTION_HEADER)) {
+      case ACK_ACTION:
+        long count = Long.parseLong(message.headers().get(COUNT_HEADER));
+        if (inFlight.addAndGet(-count) < 0) {
+          inFlight.set(0);
+        }
+        break;
+      case PAUSE_ACTION:
+        paused = true;
+        full = true;
+        break;
+      case RESUME_ACTION:
+        paused = false;
+        break;
+    }
+    checkDrain();
+  }
+
+  /**
+   * Calls the drain handler if the write queue was full and has been drained.
+   */
+  private void checkDrain() {
+    if (full && !paused && inFlight.get() < maxQueueSize / 2) {
+      full = false;
+      Handler<Void> handler = drainHandler;
+      if (handler != null) {
+        handler.handle(null);
+      }
+    }
+  }
+
+  /**
+   * Returns delivery options for the next message, counting the message against
+   * the write queue if the feedback consumer is registered.
+   */
+  private DeliveryOptions nextDeliveryOptions(MultiMap headers) {
+    init();
+    DeliveryOptions options = this.options;
+    if (headers != null) {
+      String feedback = options.getHeaders().get(FEEDBACK_HEADER);
+      options = getDeliveryOptions(headers);
+      if (feedback != null) {
+        options.addHeader(FEEDBACK_HEADER, feedback);
+      }
+    }
+    if (options.getHeaders().contains(FEEDBACK_HEADER) && inFlight.incrementAndGet() >= maxQueueSize) {
+      full = true;
+    }
+    return options;
+  }
+
   @Override
   public InputPortReference<T> send(T message) {
     vertx.eventBus()
-        .send(address, message, getDeliveryOptions(null));
+        .send(address, message, nextDeliveryOptions(null));
     return this;
   }
 
   @Override
   public InputPortReference<T> send(T message, MultiMap headers) {
     vertx.eventBus()
-        .send(address, message, getDeliveryOptions(headers));
+        .send(address, message, nextDeliveryOptions(headers));
     return this;
   }
 
   @Override
   public InputPortReference<T> send(T message, Handler<AsyncResult<Void>> ackHandler) {
     vertx.eventBus()
-        .send(address, message, getDeliveryOptions(null), result -> {
+        .send(address, message, nextDeliveryOptions(null), result -> {
           if (result.succeeded()) {
             Future.<Void>succeededFuture().setHandler(ackHandler);
           } else {
@@ -71,7 +209,7 @@ public class InputPortReferenceImpl<T> implements InputPortReference<T> {
   @Override
   public InputPortReference<T> send(T message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
     vertx.eventBus()
-        .send(address, message, getDeliveryOptions(headers), result -> {
+        .send(address, message, nextDeliveryOptions(headers), result -> {
           if (result.succeeded()) {
             Future.<Void>succeededFuture().setHandler(ackHandler);
           } else {
@@ -81,12 +219,41 @@ public class InputPortReferenceImpl<T> implements InputPortReference<T> {
     return this;
   }
 
+  @Override
+  public InputPortReference<T> sendBatch(List<T> messages) {
+    for (T message : messages) {
+      vertx.eventBus().send(address, message, nextDeliveryOptions(null));
+    }
+    return this;
+  }
+
+  @Override
+  public InputPortReference<T> sendBatch(List<T> messages, Handler<AsyncResult<Void>> ackHandler) {
+    // A single counting handler is shared by all messages in the batch.
+    CountingCompletionHandler<Void> counter = new CountingCompletionHandler<>(messages.size());
+    counter.setHandler(ackHandler);
+    for (T message : messages) {
+      vertx.eventBus().send(address, message, nextDeliveryOptions(null), result -> {
+        if (result.succeeded()) {
+          counter.succeed();
+        } else {
+          counter.fail(result.cause());
+        }
+      });
+    }
+    return this;
+  }
+
   private DeliveryOptions getDeliveryOptions(MultiMap headers) {
     DeliveryOptions deliveryOptions = new DeliveryOptions();
     if (headers != null) {
-      deliveryOptions.setHeaders(headers);
+      // Copy the headers since the same headers may be sent to several ports.
+      deliveryOptions.setHeaders(new CaseInsensitiveHeaders().addAll(headers));
     }
     deliveryOptions.addHeader("port", name);
+    if (codecName != null) {
+      deliveryOptions.setCodecName(codecName);
+    }
     return deliveryOptions;
   }
 
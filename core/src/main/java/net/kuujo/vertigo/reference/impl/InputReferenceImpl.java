@@ -20,6 +20,7 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import net.kuujo.vertigo.context.InputContext;
 import net.kuujo.vertigo.context.PortContext;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
 import net.kuujo.vertigo.reference.InputPortReference;
 import net.kuujo.vertigo.reference.InputReference;
 
@@ -44,12 +45,13 @@ public class InputReferenceImpl implements InputReference {
   public InputReferenceImpl(Vertx vertx, String address, InputContext input) {
     this.vertx = vertx;
     this.address = address;
+    CodecRegistry codecs = CodecRegistry.registry(vertx);
     this.ports = input.ports()
         .stream()
         .collect(Collectors
             .toConcurrentMap(
                 PortContext::name,
-                port -> new InputPortReferenceImpl(vertx, address, port.name())));
+                port -> new InputPortReferenceImpl(vertx, address, port.name(), codecs.codecName(port))));
   }
 
   @Override
@@ -4,9 +4,15 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import net.kuujo.vertigo.context.ComponentContext;
 import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.message.Lineage;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+import net.kuujo.vertigo.message.impl.LineageTracker;
+import net.kuujo.vertigo.metrics.Tracing;
 import net.kuujo.vertigo.reference.InputPortReference;
 import net.kuujo.vertigo.util.AckAggregator;
 
@@ -21,6 +27,10 @@ public class NetworkInputPortReference<T> implements InputPortReference<T> {
   private final Vertx vertx;
   private final String name;
   private final List<InputPortReferenceImpl<Object>> ports;
+  private final double traceSampleRate;
+  private final boolean lineage;
+  private LineageTracker tracker;
+  private int maxQueueSize = 1000;
 
   private static final Logger logger = LoggerFactory.getLogger(NetworkInputPortReference.class);
 
@@ -28,6 +38,9 @@ public class NetworkInputPortReference<T> implements InputPortReference<T> {
 
     this.vertx = vertx;
     this.name = name;
+    this.traceSampleRate = context.config().getTraceSampleRate();
+    this.lineage = context.config().isLineage();
+    CodecRegistry codecs = CodecRegistry.registry(vertx);
     ports = context.config()
         .getConnections()
         .stream()
@@ -36,10 +49,9 @@ public class NetworkInputPortReference<T> implements InputPortReference<T> {
                 && name.equals(connection.getSource().getPort())
         )
         .map(connection -> {
-          String address = context
-              .component(connection.getTarget().getComponent())
-              .address();
-          return new InputPortReferenceImpl<>(vertx, address, connection.getTarget().getPort());
+          ComponentContext target = context.component(connection.getTarget().getComponent());
+          String codecName = codecs.codecName(target.input().port(connection.getTarget().getPort()));
+          return new InputPortReferenceImpl<>(vertx, target.address(), connection.getTarget().getPort(), codecName);
         })
         .collect(Collectors.toList());
 
@@ -59,29 +71,136 @@ public class NetworkInputPortReference<T> implements InputPortReference<T> {
 
   @Override
   public InputPortReference<T> send(T message) {
-    ports.forEach(port -> port.send(message));
+    if (Tracing.sample(traceSampleRate)) {
+      MultiMap traced = Tracing.start(null);
+      ports.forEach(port -> port.send(message, traced));
+    } else {
+      ports.forEach(port -> port.send(message));
+    }
     return this;
   }
 
   @Override
   public InputPortReference<T> send(T message, MultiMap headers) {
-    ports.forEach(port -> port.send(message, headers));
+    MultiMap traced = Tracing.sample(traceSampleRate) ? Tracing.start(headers) : headers;
+    ports.forEach(port -> port.send(message, traced));
     return this;
   }
 
   @Override
   public InputPortReference<T> send(T message, Handler<AsyncResult<Void>> ackHandler) {
+    if (lineage && ackHandler != null) {
+      return sendTracked(message, null, ackHandler);
+    }
     AckAggregator acks = new AckAggregator();
-    ports.forEach(port -> port.send(message, acks.increment()));
+    if (Tracing.sample(traceSampleRate)) {
+      MultiMap traced = Tracing.start(null);
+      ports.forEach(port -> port.send(message, traced, acks.increment()));
+    } else {
+      ports.forEach(port -> port.send(message, acks.increment()));
+    }
     acks.completed(ackHandler);
     return this;
   }
 
   @Override
   public InputPortReference<T> send(T message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
+    if (lineage && ackHandler != null) {
+      return sendTracked(message, headers, ackHandler);
+    }
+    MultiMap traced = Tracing.sample(traceSampleRate) ? Tracing.start(headers) : headers;
+    AckAggregator acks = new AckAggregator();
+    ports.forEach(port -> port.send(message, traced, acks.increment()));
+    acks.completed(ackHandler);
+    return this;
+  }
+
+  /**
+   * Sends a message whose lineage is tracked, acking it once every message derived from
+   * it has been processed rather than once each target has acked it.
+   */
+  private InputPortReference<T> sendTracked(T message, MultiMap headers, Handler<AsyncResult<Void>> ackHandler) {
+    if (tracker == null) {
+      tracker = new LineageTracker(vertx, DeliveryOptions.DEFAULT_TIMEOUT);
+    }
+    Lineage.Anchor root = tracker.start(ackHandler);
+    MultiMap traced = Tracing.sample(traceSampleRate) ? Tracing.start(headers) : headers;
+    ports.forEach(port -> port.send(message, Lineage.branch(traced, root)));
+    tracker.commit(root);
+    return this;
+  }
+
+  /**
+   * Stops tracking the lineage of messages sent through the reference.<p>
+   *
+   * Messages whose lineage is still being tracked are failed.
+   */
+  public void close() {
+    if (tracker != null) {
+      tracker.close();
+      tracker = null;
+    }
+  }
+
+  @Override
+  public InputPortReference<T> sendBatch(List<T> messages) {
+    if (traceSampleRate > 0) {
+      messages.forEach(this::send);
+    } else {
+      List<Object> batch = batch(messages);
+      ports.forEach(port -> port.sendBatch(batch));
+    }
+    return this;
+  }
+
+  @Override
+  public InputPortReference<T> sendBatch(List<T> messages, Handler<AsyncResult<Void>> ackHandler) {
     AckAggregator acks = new AckAggregator();
-    ports.forEach(port -> port.send(message, headers, acks.increment()));
+    if (traceSampleRate > 0 || lineage) {
+      messages.forEach(message -> send(message, acks.increment()));
+    } else {
+      List<Object> batch = batch(messages);
+      ports.forEach(port -> port.sendBatch(batch, acks.increment()));
+    }
     acks.completed(ackHandler);
     return this;
   }
+
+  @SuppressWarnings("unchecked")
+  private static List<Object> batch(List<?> messages) {
+    return (List<Object>) messages;
+  }
+
+  @Override
+  public InputPortReference<T> setWriteQueueMaxSize(int maxSize) {
+    ports.forEach(port -> port.setWriteQueueMaxSize(maxSize));
+    this.maxQueueSize = maxSize;
+    return this;
+  }
+
+  @Override
+  public int getWriteQueueMaxSize() {
+    return maxQueueSize;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    // Check every port so that each one records that it must call the drain handler.
+    boolean full = false;
+    for (InputPortReferenceImpl<Object> port : ports) {
+      full |= port.writeQueueFull();
+    }
+    return full;
+  }
+
+  @Override
+  public InputPortReference<T> drainHandler(Handler<Void> handler) {
+    // The network port is drained once none of the target ports are full.
+    ports.forEach(port -> port.drainHandler(handler == null ? null : v -> {
+      if (!writeQueueFull()) {
+        handler.handle(null);
+      }
+    }));
+    return this;
+  }
 }
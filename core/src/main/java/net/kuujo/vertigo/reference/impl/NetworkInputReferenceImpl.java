@@ -55,6 +55,13 @@ public class NetworkInputReferenceImpl implements InputReference {
     return new ArrayList<>(ports.values());
   }
 
+  /**
+   * Closes all network input ports.
+   */
+  public void close() {
+    ports.values().forEach(port -> ((NetworkInputPortReference<?>) port).close());
+  }
+
   //  private final Map<String, List<String>> addresses = new HashMap<>();
   //
   //  public NetworkInputReferenceImpl(Vertx vertx, NetworkContext context) {
@@ -1,28 +1,147 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package net.kuujo.vertigo.reference.impl;
 
-import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyFailure;
+import net.kuujo.vertigo.context.ComponentContext;
 import net.kuujo.vertigo.context.NetworkContext;
-import net.kuujo.vertigo.message.VertigoMessage;
-import net.kuujo.vertigo.message.impl.VertigoMessageImpl;
+import net.kuujo.vertigo.network.ConnectionConfig;
 import net.kuujo.vertigo.reference.NetworkOutputReference;
+import net.kuujo.vertigo.reference.OutputPortReference;
 
-public class NetworkOutputReferenceImpl<T> implements NetworkOutputReference<T> {
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Network output reference implementation.<p>
+ *
+ * A single consumer on the network address dispatches messages to port references
+ * by the port header. When the stream reading a port stops accepting messages, a
+ * pause message is published to the output port of each component connected to
+ * that network port, and a resume message once it accepts messages again.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class NetworkOutputReferenceImpl<T> extends AbstractOutputReference<T, NetworkOutputReference<T>> implements NetworkOutputReference<T> {
+  private static final String ACTION_HEADER = "action";
+  private static final String PORT_HEADER = "port";
+  private static final String SOURCE_HEADER = "source";
+  private static final String INDEX_HEADER = "index";
+  private static final String PAUSE_ACTION = "pause";
+  private static final String RESUME_ACTION = "resume";
 
-  private final Vertx vertx;
   private final NetworkContext context;
+  private final Map<String, OutputPortReferenceImpl<Object>> ports = new HashMap<>();
+  private final Set<String> paused = new HashSet<>();
+  private MessageConsumer<Object> consumer;
 
   public NetworkOutputReferenceImpl(Vertx vertx, NetworkContext context) {
-    this.vertx = vertx;
+    super(vertx);
     this.context = context;
   }
 
   @Override
-  public NetworkOutputReference<T> handler(Handler<VertigoMessage<T>> handler) {
-    vertx.eventBus().<T>consumer(context.address()).handler(message -> {
-      handler.handle(new VertigoMessageImpl<T>(message.headers().get("name"), message));
-    });
-    return this;
+  @SuppressWarnings("unchecked")
+  public <U> OutputPortReference<U> port(String name) {
+    return (OutputPortReference<U>) ports.computeIfAbsent(name, n -> new OutputPortReferenceImpl<>(this, n));
+  }
+
+  @Override
+  protected void handlerChanged() {
+    update();
+  }
+
+  @Override
+  protected void flowChanged() {
+    update();
+  }
+
+  /**
+   * Handles a message sent to the network.
+   */
+  @SuppressWarnings("unchecked")
+  private void handle(Message<Object> message) {
+    OutputPortReferenceImpl<Object> port = ports.get(message.headers().get(PORT_HEADER));
+    if (port != null && port.hasHandler()) {
+      port.receive(message);
+    } else if (hasHandler()) {
+      receive((Message<T>) message);
+    } else {
+      message.fail(ReplyFailure.NO_HANDLERS.toInt(), String.format("No handler for network output port %s", message.headers().get(PORT_HEADER)));
+    }
+  }
+
+  /**
+   * Returns the stream which reads the given network port.
+   */
+  private AbstractOutputReference<?, ?> stream(String port) {
+    OutputPortReferenceImpl<Object> reference = ports.get(port);
+    return reference != null && reference.hasHandler() ? reference : this;
+  }
+
+  /**
+   * Registers or unregisters the consumer and pauses or resumes senders after a
+   * handler or the flow of any stream has changed.
+   */
+  void update() {
+    boolean handled = hasHandler() || ports.values().stream().anyMatch(AbstractOutputReference::hasHandler);
+    if (handled && consumer == null) {
+      consumer = vertx.eventBus().consumer(context.address(), this::handle);
+    } else if (!handled && consumer != null) {
+      consumer.unregister();
+      consumer = null;
+    }
+
+    for (ConnectionConfig connection : context.config().getConnections()) {
+      if (connection.getTarget().getIsNetwork()) {
+        String port = connection.getTarget().getPort();
+        boolean blocked = stream(port).blocked();
+        if (blocked && paused.add(port)) {
+          control(port, PAUSE_ACTION);
+        } else if (!blocked && paused.remove(port)) {
+          control(port, RESUME_ACTION);
+        }
+      }
+    }
+  }
+
+  /**
+   * Publishes a flow control action to the output ports of the components connected
+   * to the given network port. Messages are published since all instances of each
+   * component must be paused.
+   */
+  private void control(String port, String action) {
+    for (ConnectionConfig connection : context.config().getConnections()) {
+      if (connection.getTarget().getIsNetwork() && port.equals(connection.getTarget().getPort())) {
+        ComponentContext source = context.component(connection.getSource().getComponent());
+        if (source != null) {
+          vertx.eventBus().publish(source.address(), null, new DeliveryOptions()
+              .addHeader(ACTION_HEADER, action)
+              .addHeader(PORT_HEADER, connection.getSource().getPort())
+              .addHeader(SOURCE_HEADER, context.address())
+              .addHeader(INDEX_HEADER, "0"));
+        }
+      }
+    }
   }
 
 }
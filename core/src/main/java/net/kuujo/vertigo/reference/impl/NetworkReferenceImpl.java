@@ -27,6 +27,8 @@ import net.kuujo.vertigo.context.NetworkContext;
 public class NetworkReferenceImpl implements NetworkReference {
   private final Vertx vertx;
   private final NetworkContext context;
+  private NetworkOutputReferenceImpl<?> output;
+  private NetworkInputReferenceImpl input;
 
   public NetworkReferenceImpl(Vertx vertx, NetworkContext context) {
     this.vertx = vertx;
@@ -43,14 +45,31 @@ public class NetworkReferenceImpl implements NetworkReference {
     return context.name();
   }
 
-//  @Override
-//  public <T> NetworkOutputReference<T> output() {
-//    return new NetworkOutputReferenceImpl<>(vertx, context);
-//  }
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> NetworkOutputReference<T> output() {
+    // The output is shared since all its ports are read from the same consumer.
+    if (output == null) {
+      output = new NetworkOutputReferenceImpl<>(vertx, context);
+    }
+    return (NetworkOutputReference<T>) output;
+  }
 
   @Override
   public InputReference input() {
-    return new NetworkInputReferenceImpl(vertx, context);
+    // The input is shared so that messages sent through it are tracked by a single lineage tracker.
+    if (input == null) {
+      input = new NetworkInputReferenceImpl(vertx, context);
+    }
+    return input;
+  }
+
+  @Override
+  public void close() {
+    if (input != null) {
+      input.close();
+      input = null;
+    }
   }
 
 }
@@ -15,39 +15,62 @@
  */
 package net.kuujo.vertigo.reference.impl;
 
-import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
-import net.kuujo.vertigo.message.VertigoMessage;
-import net.kuujo.vertigo.message.impl.VertigoMessageImpl;
+import io.vertx.core.eventbus.MessageConsumer;
 import net.kuujo.vertigo.reference.OutputPortReference;
 
 /**
- * Output port reference implementation.
+ * Output port reference implementation.<p>
+ *
+ * Ports of a network output are fed by the network output's consumer. Otherwise the
+ * port reference registers its own consumer while a handler is registered.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class OutputPortReferenceImpl<T> implements OutputPortReference<T> {
-  private final Vertx vertx;
+public class OutputPortReferenceImpl<T> extends AbstractOutputReference<T, OutputPortReference<T>> implements OutputPortReference<T> {
+  private final NetworkOutputReferenceImpl<?> network;
   private final String address;
   private final String name;
+  private MessageConsumer<T> consumer;
 
   public OutputPortReferenceImpl(Vertx vertx, String address, String name) {
-    this.vertx = vertx;
+    super(vertx);
+    this.network = null;
     this.address = address + "." + name;
     this.name = name;
   }
 
+  OutputPortReferenceImpl(NetworkOutputReferenceImpl<?> network, String name) {
+    super(network.vertx);
+    this.network = network;
+    this.address = null;
+    this.name = name;
+  }
+
   @Override
   public String name() {
     return name;
   }
 
   @Override
-  public OutputPortReference<T> handler(Handler<VertigoMessage<T>> handler) {
-    vertx.eventBus().<T>consumer(address).handler(message -> {
-      handler.handle(new VertigoMessageImpl<T>(message.headers().get("name"), message));
-    });
-    return this;
+  protected void handlerChanged() {
+    if (network != null) {
+      network.update();
+    } else if (hasHandler() && consumer == null) {
+      consumer = vertx.eventBus().<T>consumer(address).handler(this::receive);
+    } else if (!hasHandler() && consumer != null) {
+      consumer.unregister();
+      consumer = null;
+    }
+  }
+
+  @Override
+  protected void flowChanged() {
+    // The senders to standalone ports are unknown, so only ports of a network output
+    // pause their senders.
+    if (network != null) {
+      network.update();
+    }
   }
 
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.spi;
+
+/**
+ * Message compression algorithm.<p>
+ *
+ * Compressors are loaded with the {@link java.util.ServiceLoader} and are referenced by
+ * {@link #name()} from connection configurations. Compressors are shared by all connections
+ * using the algorithm and may be called concurrently from multiple threads.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface Compressor {
+
+  /**
+   * Returns the unique algorithm name.
+   *
+   * @return The algorithm name.
+   */
+  String name();
+
+  /**
+   * Compresses the given bytes.
+   *
+   * @param bytes The bytes to compress.
+   * @return The compressed bytes or {@code null} if the bytes could not be compressed
+   *         to fewer bytes than the input.
+   */
+  byte[] compress(byte[] bytes);
+
+  /**
+   * Decompresses the given bytes.
+   *
+   * @param bytes The compressed bytes.
+   * @param length The length of the uncompressed bytes.
+   * @return The uncompressed bytes.
+   */
+  byte[] decompress(byte[] bytes, int length);
+
+}
@@ -35,4 +35,14 @@ public interface DeploymentManagerFactory {
    */
   DeploymentManager createContextManager(Vertx vertx, VertigoOptions options);
 
+  /**
+   * Returns whether the factory creates context managers which deploy networks to a
+   * cluster. Clustered factories are preferred when a cluster address is configured.
+   *
+   * @return Whether the factory creates clustered context managers.
+   */
+  default boolean isClustered() {
+    return false;
+  }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.state;
+
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes state store keys and values.<p>
+ *
+ * Keys are compared by their serialized form, so serializing equal keys must always
+ * produce the same bytes.
+ *
+ * @param <T> The serialized type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface StateSerializer<T> {
+
+  /**
+   * Returns a UTF-8 string serializer.
+   *
+   * @return The string serializer.
+   */
+  static StateSerializer<String> strings() {
+    return new StateSerializer<String>() {
+      @Override
+      public byte[] serialize(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+      }
+      @Override
+      public String deserialize(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+
+  /**
+   * Returns an integer serializer.
+   *
+   * @return The integer serializer.
+   */
+  static StateSerializer<Integer> integers() {
+    return new StateSerializer<Integer>() {
+      @Override
+      public byte[] serialize(Integer value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+      }
+      @Override
+      public Integer deserialize(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getInt();
+      }
+    };
+  }
+
+  /**
+   * Returns a long serializer.
+   *
+   * @return The long serializer.
+   */
+  static StateSerializer<Long> longs() {
+    return new StateSerializer<Long>() {
+      @Override
+      public byte[] serialize(Long value) {
+        return ByteBuffer.allocate(8).putLong(value).array();
+      }
+      @Override
+      public Long deserialize(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getLong();
+      }
+    };
+  }
+
+  /**
+   * Returns a JSON object serializer.
+   *
+   * @return The JSON serializer.
+   */
+  static StateSerializer<JsonObject> json() {
+    return new StateSerializer<JsonObject>() {
+      @Override
+      public byte[] serialize(JsonObject value) {
+        return value.encode().getBytes(StandardCharsets.UTF_8);
+      }
+      @Override
+      public JsonObject deserialize(byte[] bytes) {
+        return new JsonObject(new String(bytes, StandardCharsets.UTF_8));
+      }
+    };
+  }
+
+  /**
+   * Serializes a value.
+   *
+   * @param value The value to serialize.
+   * @return The serialized value.
+   */
+  byte[] serialize(T value);
+
+  /**
+   * Deserializes a value.
+   *
+   * @param bytes The serialized value.
+   * @return The deserialized value.
+   */
+  T deserialize(byte[] bytes);
+
+}
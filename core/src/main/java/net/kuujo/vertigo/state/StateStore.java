@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.state;
+
+import net.kuujo.vertigo.metrics.Metrics;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Keyed component state.<p>
+ *
+ * State stores hold serialized keys and values outside of the Java heap, so large
+ * amounts of state add little garbage collection overhead. Recently used entries are
+ * kept decoded in a small on-heap cache. Values returned by the store may be shared
+ * with the cache and must not be modified; to change a value, put a new one.<p>
+ *
+ * State stores are not thread safe and should only be used from the component's
+ * context. Iterating over the store, e.g. to checkpoint it, fails with a
+ * {@link java.util.ConcurrentModificationException} if keys are added or removed
+ * while iterating.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface StateStore<K, V> extends Iterable<Map.Entry<K, V>> {
+
+  /**
+   * The default number of decoded entries to cache on the heap.
+   */
+  int DEFAULT_CACHE_SIZE = 1024;
+
+  /**
+   * Returns the store name.
+   *
+   * @return The store name.
+   */
+  String name();
+
+  /**
+   * Returns the value for a key.
+   *
+   * @param key The key.
+   * @return The value or {@code null} if the key is not in the store.
+   */
+  V get(K key);
+
+  /**
+   * Returns a boolean indicating whether the store contains a key.
+   *
+   * @param key The key.
+   * @return Indicates whether the key is in the store.
+   */
+  boolean containsKey(K key);
+
+  /**
+   * Sets the value for a key.
+   *
+   * @param key The key.
+   * @param value The value.
+   * @return The state store.
+   */
+  StateStore<K, V> put(K key, V value);
+
+  /**
+   * Merges a value with the current value for a key.
+   *
+   * @param key The key.
+   * @param value The value to set if the key is not in the store, or to merge with the
+   *              current value.
+   * @param merger A function which merges the current and given value. If the function
+   *               returns {@code null} then the key is removed.
+   * @return The new value.
+   */
+  V merge(K key, V value, BinaryOperator<V> merger);
+
+  /**
+   * Removes a key.
+   *
+   * @param key The key.
+   * @return Indicates whether the key was removed.
+   */
+  boolean remove(K key);
+
+  /**
+   * Returns the number of keys in the store.
+   *
+   * @return The number of keys.
+   */
+  int size();
+
+  /**
+   * Returns the off-heap memory held by the store.
+   *
+   * @return The number of bytes allocated by the store.
+   */
+  long memory();
+
+  /**
+   * Calls a function with each key and value in the store.
+   *
+   * @param consumer The function to call.
+   */
+  void forEach(BiConsumer<K, V> consumer);
+
+  /**
+   * Removes all keys from the store.
+   */
+  void clear();
+
+  /**
+   * Closes the store, releasing its off-heap memory. The store cannot be used once it
+   * has been closed.
+   */
+  void close();
+
+  /**
+   * Returns the store metrics.
+   *
+   * @return The store {@code size}, {@code memory}, {@code cache-hits} and {@code cache-misses}.
+   */
+  Metrics metrics();
+
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.state.impl;
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.state.StateSerializer;
+import net.kuujo.vertigo.state.StateStore;
+import net.kuujo.vertigo.util.Args;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * State store backed by direct byte buffers.<p>
+ *
+ * Entries are appended to a data buffer as {@code [key length][value length][key][value]}
+ * and located through an open addressing index of {@code [hash][offset + 1]} slots
+ * with linear probing, where an offset of zero marks an empty slot. Values which are
+ * updated with the same serialized length are overwritten in place; otherwise the
+ * entry is appended again and the old one becomes garbage. The data buffer is compacted
+ * rather than grown once at least half of it is garbage. Removed slots are filled by
+ * shifting back the following slots in the probe sequence, so the index never holds
+ * tombstones.<p>
+ *
+ * Each buffer is limited to 2GB, which bounds the index to some 200 million keys.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class OffHeapStateStore<K, V> implements StateStore<K, V> {
+  private static final int SLOT_SIZE = 8;
+  private static final int ENTRY_HEADER_SIZE = 8;
+  private static final int INITIAL_SLOTS = 1024;
+  private static final int INITIAL_DATA_SIZE = 64 * 1024;
+  private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private final String name;
+  private final StateSerializer<K> keySerializer;
+  private final StateSerializer<V> valueSerializer;
+  private final Map<K, V> cache;
+  private final Metrics metrics = new Metrics();
+  private final Counter hits = metrics.counter("cache-hits");
+  private final Counter misses = metrics.counter("cache-misses");
+  private ByteBuffer index;
+  private int mask;
+  private int threshold;
+  private ByteBuffer data;
+  private int position;
+  private int garbage;
+  private int size;
+  private int modCount;
+
+  public OffHeapStateStore(String name, StateSerializer<K> keySerializer, StateSerializer<V> valueSerializer, int cacheSize) {
+    this.name = Args.checkNotNull(name, "name cannot be null");
+    this.keySerializer = Args.checkNotNull(keySerializer, "key serializer cannot be null");
+    this.valueSerializer = Args.checkNotNull(valueSerializer, "value serializer cannot be null");
+    Args.check(cacheSize >= 0, "cache size cannot be negative");
+    this.cache = new LinkedHashMap<K, V>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > cacheSize;
+      }
+    };
+    metrics.gauge("size", this::size);
+    metrics.gauge("memory", this::memory);
+    init();
+  }
+
+  /**
+   * Allocates empty buffers.
+   */
+  private void init() {
+    index = ByteBuffer.allocateDirect(INITIAL_SLOTS * SLOT_SIZE);
+    mask = INITIAL_SLOTS - 1;
+    threshold = (int) (INITIAL_SLOTS * LOAD_FACTOR);
+    data = ByteBuffer.allocateDirect(INITIAL_DATA_SIZE);
+    position = 0;
+    garbage = 0;
+    size = 0;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public V get(K key) {
+    Args.checkNotNull(key, "key cannot be null");
+    checkOpen();
+    V value = cache.get(key);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    misses.increment();
+    byte[] bytes = keySerializer.serialize(key);
+    int slot = find(bytes, hash(bytes));
+    if (slot < 0) {
+      return null;
+    }
+    int offset = offset(slot);
+    value = valueSerializer.deserialize(read(offset + ENTRY_HEADER_SIZE + data.getInt(offset), data.getInt(offset + 4)));
+    cache.put(key, value);
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    Args.checkNotNull(key, "key cannot be null");
+    checkOpen();
+    if (cache.containsKey(key)) {
+      return true;
+    }
+    byte[] bytes = keySerializer.serialize(key);
+    return find(bytes, hash(bytes)) >= 0;
+  }
+
+  @Override
+  public StateStore<K, V> put(K key, V value) {
+    Args.checkNotNull(key, "key cannot be null");
+    Args.checkNotNull(value, "value cannot be null");
+    checkOpen();
+    byte[] keyBytes = keySerializer.serialize(key);
+    byte[] valueBytes = valueSerializer.serialize(value);
+    int hash = hash(keyBytes);
+    int slot = find(keyBytes, hash);
+    if (slot >= 0) {
+      int offset = offset(slot);
+      int valueLength = data.getInt(offset + 4);
+      if (valueLength == valueBytes.length) {
+        write(offset + ENTRY_HEADER_SIZE + keyBytes.length, valueBytes);
+      } else {
+        // Appending may compact the data buffer and move the old entry, so it only
+        // becomes garbage once the slot points to the new entry.
+        int appended = append(keyBytes, valueBytes);
+        index.putInt(slot * SLOT_SIZE + 4, appended + 1);
+        garbage += ENTRY_HEADER_SIZE + keyBytes.length + valueLength;
+      }
+    } else {
+      int appended = append(keyBytes, valueBytes);
+      slot = -slot - 1;
+      index.putInt(slot * SLOT_SIZE, hash);
+      index.putInt(slot * SLOT_SIZE + 4, appended + 1);
+      size++;
+      modCount++;
+      if (size > threshold) {
+        resize();
+      }
+    }
+    cache.put(key, value);
+    return this;
+  }
+
+  @Override
+  public V merge(K key, V value, BinaryOperator<V> merger) {
+    Args.checkNotNull(merger, "merger cannot be null");
+    V current = get(key);
+    V updated = current != null ? merger.apply(current, value) : value;
+    if (updated != null) {
+      put(key, updated);
+    } else {
+      remove(key);
+    }
+    return updated;
+  }
+
+  @Override
+  public boolean remove(K key) {
+    Args.checkNotNull(key, "key cannot be null");
+    checkOpen();
+    cache.remove(key);
+    byte[] bytes = keySerializer.serialize(key);
+    int slot = find(bytes, hash(bytes));
+    if (slot < 0) {
+      return false;
+    }
+    int offset = offset(slot);
+    garbage += ENTRY_HEADER_SIZE + data.getInt(offset) + data.getInt(offset + 4);
+
+    // Shift back following slots which would otherwise be unreachable.
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (index.getInt(next * SLOT_SIZE + 4) != 0) {
+      int ideal = index.getInt(next * SLOT_SIZE) & mask;
+      if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+        index.putLong(hole * SLOT_SIZE, index.getLong(next * SLOT_SIZE));
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    index.putLong(hole * SLOT_SIZE, 0L);
+    size--;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public long memory() {
+    return data != null ? (long) index.capacity() + data.capacity() : 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<K, V> consumer) {
+    for (Map.Entry<K, V> entry : this) {
+      consumer.accept(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    checkOpen();
+    return new Iterator<Map.Entry<K, V>>() {
+      private final int expectedModCount = modCount;
+      private int slot = advance(0);
+
+      private int advance(int slot) {
+        int slots = mask + 1;
+        while (slot < slots && index.getInt(slot * SLOT_SIZE + 4) == 0) {
+          slot++;
+        }
+        return slot;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return slot <= mask;
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int offset = offset(slot);
+        int keyLength = data.getInt(offset);
+        K key = keySerializer.deserialize(read(offset + ENTRY_HEADER_SIZE, keyLength));
+        V value = valueSerializer.deserialize(read(offset + ENTRY_HEADER_SIZE + keyLength, data.getInt(offset + 4)));
+        slot = advance(slot + 1);
+        return new AbstractMap.SimpleImmutableEntry<>(key, value);
+      }
+    };
+  }
+
+  @Override
+  public void clear() {
+    checkOpen();
+    cache.clear();
+    init();
+    modCount++;
+  }
+
+  @Override
+  public void close() {
+    // Direct buffers are freed once they are collected, so the store drops its only
+    // references to them.
+    cache.clear();
+    index = null;
+    data = null;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * Checks that the store has not been closed.
+   */
+  private void checkOpen() {
+    if (data == null) {
+      throw new IllegalStateException("state store " + name + " is closed");
+    }
+  }
+
+  /**
+   * Hashes a serialized key.
+   */
+  private static int hash(byte[] key) {
+    int hash = 1;
+    for (byte b : key) {
+      hash = 31 * hash + b;
+    }
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Finds the slot for a key.
+   *
+   * @return The slot holding the key, or {@code -(slot + 1)} for the empty slot at which
+   *         the key would be inserted.
+   */
+  private int find(byte[] key, int hash) {
+    int slot = hash & mask;
+    for (;;) {
+      int reference = index.getInt(slot * SLOT_SIZE + 4);
+      if (reference == 0) {
+        return -slot - 1;
+      }
+      if (index.getInt(slot * SLOT_SIZE) == hash && keyEquals(reference - 1, key)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Returns the data offset of the entry in a slot.
+   */
+  private int offset(int slot) {
+    return index.getInt(slot * SLOT_SIZE + 4) - 1;
+  }
+
+  /**
+   * Compares a serialized key with the key of an entry.
+   */
+  private boolean keyEquals(int offset, byte[] key) {
+    if (data.getInt(offset) != key.length) {
+      return false;
+    }
+    int start = offset + ENTRY_HEADER_SIZE;
+    for (int i = 0; i < key.length; i++) {
+      if (data.get(start + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] read(int offset, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer buffer = data.duplicate();
+    buffer.position(offset);
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private void write(int offset, byte[] bytes) {
+    ByteBuffer buffer = data.duplicate();
+    buffer.position(offset);
+    buffer.put(bytes);
+  }
+
+  /**
+   * Appends an entry to the data buffer.
+   *
+   * @return The offset of the entry.
+   */
+  private int append(byte[] key, byte[] value) {
+    long length = (long) ENTRY_HEADER_SIZE + key.length + value.length;
+    if (position + length > data.capacity()) {
+      long live = position - garbage;
+      if (garbage >= position / 2 && live + length <= data.capacity()) {
+        relocate(data.capacity());
+      } else {
+        long capacity = Math.max((long) data.capacity() * 2, live + length);
+        if (capacity > MAX_BUFFER_SIZE) {
+          if (live + length > MAX_BUFFER_SIZE) {
+            throw new VertigoException("state store " + name + " is full");
+          }
+          capacity = MAX_BUFFER_SIZE;
+        }
+        relocate((int) capacity);
+      }
+    }
+    int offset = position;
+    data.putInt(offset, key.length);
+    data.putInt(offset + 4, value.length);
+    write(offset + ENTRY_HEADER_SIZE, key);
+    write(offset + ENTRY_HEADER_SIZE + key.length, value);
+    position += length;
+    return offset;
+  }
+
+  /**
+   * Copies live entries to a new data buffer, dropping garbage.
+   */
+  private void relocate(int capacity) {
+    ByteBuffer relocated = ByteBuffer.allocateDirect(capacity);
+    int offset = 0;
+    int slots = mask + 1;
+    for (int slot = 0; slot < slots; slot++) {
+      int reference = index.getInt(slot * SLOT_SIZE + 4);
+      if (reference != 0) {
+        int source = reference - 1;
+        int length = ENTRY_HEADER_SIZE + data.getInt(source) + data.getInt(source + 4);
+        ByteBuffer entry = data.duplicate();
+        entry.position(source).limit(source + length);
+        ByteBuffer target = relocated.duplicate();
+        target.position(offset);
+        target.put(entry);
+        index.putInt(slot * SLOT_SIZE + 4, offset + 1);
+        offset += length;
+      }
+    }
+    data = relocated;
+    position = offset;
+    garbage = 0;
+  }
+
+  /**
+   * Doubles the number of index slots.
+   */
+  private void resize() {
+    int slots = (mask + 1) * 2;
+    if ((long) slots * SLOT_SIZE > MAX_BUFFER_SIZE) {
+      throw new VertigoException("state store " + name + " is full");
+    }
+    ByteBuffer resized = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+    int newMask = slots - 1;
+    for (int slot = 0; slot <= mask; slot++) {
+      long entry = index.getLong(slot * SLOT_SIZE);
+      if (index.getInt(slot * SLOT_SIZE + 4) != 0) {
+        int target = index.getInt(slot * SLOT_SIZE) & newMask;
+        while (resized.getInt(target * SLOT_SIZE + 4) != 0) {
+          target = (target + 1) & newMask;
+        }
+        resized.putLong(target * SLOT_SIZE, entry);
+      }
+    }
+    index = resized;
+    mask = newMask;
+    threshold = (int) (slots * LOAD_FACTOR);
+  }
+
+}
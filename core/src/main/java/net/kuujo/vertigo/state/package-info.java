@@ -0,0 +1,4 @@
+/**
+ * Contains classes for keeping keyed state in stateful components.
+ */
+package net.kuujo.vertigo.state;
@@ -18,10 +18,12 @@ package net.kuujo.vertigo.util;
 import net.kuujo.vertigo.network.validators.ValidationException;
 import net.kuujo.vertigo.spi.ConfigValidator;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Configuration validator utilities.
@@ -29,7 +31,31 @@ import java.util.ServiceLoader;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public final class Validators {
-  private static final Map<Class, List<?>> validators = new HashMap<>();
+  private static final Map<Class, List<?>> validators = new ConcurrentHashMap<>();
+
+  /**
+   * Loads the set of validators for the given validator type.
+   *
+   * @param type The validator type.
+   * @param <T> The validator type.
+   * @return A list of validators.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends ConfigValidator<?>> Iterable<T> loadValidators(Class<T> type) {
+    List<?> cached = Validators.validators.get(type);
+    if (cached != null) {
+      return (Iterable<T>) cached;
+    }
+
+    // Loading services scans the class path, so validators are only loaded once per type.
+    List<T> validators = new ArrayList<>(10);
+    for (T validator : ServiceLoader.load(type)) {
+      validators.add(validator);
+    }
+    validators = Collections.unmodifiableList(validators);
+    Validators.validators.put(type, validators);
+    return validators;
+  }
 
   /**
    * Validates the configuration for the given value.
@@ -42,7 +68,7 @@ public final class Validators {
    * @throws ValidationException if a validation error occurs.
    */
   public static <T, U extends ConfigValidator<T>> T validate(T value, Class<U> type) {
-    for (U validator : ServiceLoader.load(type)) {
+    for (U validator : loadValidators(type)) {
       validator.validate(value);
     }
     return value;
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * Incrementally aggregates the messages in a window.<p>
+ *
+ * Each message is added to an accumulator as it is received, so only the accumulator
+ * and not the messages themselves is held while a window is open. Accumulators are
+ * merged when session windows are merged.
+ *
+ * @param <T> The message type.
+ * @param <A> The accumulator type.
+ * @param <R> The result type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface Aggregator<T, A, R> {
+
+  /**
+   * Returns an aggregator which counts messages.
+   *
+   * @param <T> The message type.
+   * @return The counting aggregator.
+   */
+  static <T> Aggregator<T, Long, Long> count() {
+    return new Aggregator<T, Long, Long>() {
+      @Override
+      public Long create() {
+        return 0L;
+      }
+      @Override
+      public Long add(Long count, T value) {
+        return count + 1;
+      }
+      @Override
+      public Long merge(Long a, Long b) {
+        return a + b;
+      }
+      @Override
+      public Long result(Long count) {
+        return count;
+      }
+    };
+  }
+
+  /**
+   * Returns an aggregator which reduces messages with a binary operator.
+   *
+   * @param reducer The operator with which to combine messages.
+   * @param <T> The message type.
+   * @return The reducing aggregator.
+   */
+  static <T> Aggregator<T, T, T> reduce(BinaryOperator<T> reducer) {
+    return new Aggregator<T, T, T>() {
+      @Override
+      public T create() {
+        return null;
+      }
+      @Override
+      public T add(T current, T value) {
+        return current != null ? reducer.apply(current, value) : value;
+      }
+      @Override
+      public T merge(T a, T b) {
+        return a == null ? b : b == null ? a : reducer.apply(a, b);
+      }
+      @Override
+      public T result(T current) {
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Creates an empty accumulator.
+   *
+   * @return A new accumulator.
+   */
+  A create();
+
+  /**
+   * Adds a message to an accumulator.
+   *
+   * @param accumulator The accumulator.
+   * @param value The message body.
+   * @return The updated accumulator.
+   */
+  A add(A accumulator, T value);
+
+  /**
+   * Merges two accumulators.
+   *
+   * @param a The first accumulator.
+   * @param b The second accumulator.
+   * @return The merged accumulator.
+   */
+  A merge(A a, A b);
+
+  /**
+   * Returns the result of an accumulator.
+   *
+   * @param accumulator The accumulator.
+   * @return The window result.
+   */
+  R result(A accumulator);
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window;
+
+/**
+ * A window of time.<p>
+ *
+ * Windows include their start time and exclude their end time. Times are in milliseconds
+ * and are either processing times or event times depending on how the window's input
+ * is configured.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Window implements Comparable<Window> {
+  private final long start;
+  private final long end;
+
+  public Window(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns the window start time.
+   *
+   * @return The inclusive window start time.
+   */
+  public long start() {
+    return start;
+  }
+
+  /**
+   * Returns the window end time.
+   *
+   * @return The exclusive window end time.
+   */
+  public long end() {
+    return end;
+  }
+
+  /**
+   * Returns a boolean indicating whether the window overlaps another window.
+   *
+   * @param window The window to check.
+   * @return Indicates whether the windows overlap.
+   */
+  public boolean overlaps(Window window) {
+    return start < window.end && window.start < end;
+  }
+
+  /**
+   * Returns the smallest window which covers this and another window.
+   *
+   * @param window The window to cover.
+   * @return The covering window.
+   */
+  public Window cover(Window window) {
+    return new Window(Math.min(start, window.start), Math.max(end, window.end));
+  }
+
+  @Override
+  public int compareTo(Window window) {
+    int result = Long.compare(end, window.end);
+    return result != 0 ? result : Long.compare(start, window.start);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (!(object instanceof Window)) {
+      return false;
+    }
+    Window window = (Window) object;
+    return start == window.start && end == window.end;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(start) + Long.hashCode(end);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Window[start=%d, end=%d]", start, end);
+  }
+
+}
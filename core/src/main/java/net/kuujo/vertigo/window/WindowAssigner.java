@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window;
+
+import net.kuujo.vertigo.window.impl.SessionWindowAssigner;
+import net.kuujo.vertigo.window.impl.SlidingWindowAssigner;
+import net.kuujo.vertigo.window.impl.TumblingWindowAssigner;
+
+import java.util.List;
+
+/**
+ * Assigns messages to windows by timestamp.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface WindowAssigner {
+
+  /**
+   * Returns an assigner of fixed size, non-overlapping windows.
+   *
+   * @param size The window size in milliseconds.
+   * @return The window assigner.
+   */
+  static WindowAssigner tumbling(long size) {
+    return new TumblingWindowAssigner(size);
+  }
+
+  /**
+   * Returns an assigner of fixed size windows which start every {@code slide} milliseconds.
+   *
+   * @param size The window size in milliseconds.
+   * @param slide The interval in milliseconds at which windows start.
+   * @return The window assigner.
+   */
+  static WindowAssigner sliding(long size, long slide) {
+    return new SlidingWindowAssigner(size, slide);
+  }
+
+  /**
+   * Returns an assigner of session windows, which close once no message has been received
+   * for a key within the session gap.
+   *
+   * @param gap The session gap in milliseconds.
+   * @return The window assigner.
+   */
+  static WindowAssigner session(long gap) {
+    return new SessionWindowAssigner(gap);
+  }
+
+  /**
+   * Assigns a timestamp to windows.
+   *
+   * @param timestamp The message timestamp.
+   * @return The windows to which the message belongs.
+   */
+  List<Window> assign(long timestamp);
+
+  /**
+   * Returns a boolean indicating whether overlapping windows for the same key are merged.
+   *
+   * @return Indicates whether the assigner produces session windows.
+   */
+  boolean merging();
+
+}
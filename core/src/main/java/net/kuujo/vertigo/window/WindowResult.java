@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The result of aggregating a key over a window.
+ *
+ * @param <K> The key type.
+ * @param <R> The result type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class WindowResult<K, R> {
+  private final Window window;
+  private final K key;
+  private final R result;
+
+  public WindowResult(Window window, K key, R result) {
+    this.window = window;
+    this.key = key;
+    this.result = result;
+  }
+
+  /**
+   * Returns the window.
+   *
+   * @return The window over which the result was aggregated.
+   */
+  public Window window() {
+    return window;
+  }
+
+  /**
+   * Returns the key.
+   *
+   * @return The key for which the result was aggregated.
+   */
+  public K key() {
+    return key;
+  }
+
+  /**
+   * Returns the result.
+   *
+   * @return The aggregated result.
+   */
+  public R result() {
+    return result;
+  }
+
+  /**
+   * Returns the result as JSON. The key and result must be JSON compatible.
+   *
+   * @return A JSON object with the window {@code start} and {@code end}, {@code key} and
+   *         {@code result}.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("start", window.start())
+        .put("end", window.end())
+        .put("key", key)
+        .put("result", result);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WindowResult[window=%s, key=%s, result=%s]", window, key, result);
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.window.impl.WindowedInputImpl;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Windowed aggregation of the messages received on an input port.<p>
+ *
+ * Messages are assigned to windows by a {@link WindowAssigner}, grouped by key and added
+ * to an {@link Aggregator} as they arrive, so memory is bounded by the number of open
+ * windows and keys rather than by the number of messages. Messages are acked once they
+ * have been aggregated.<p>
+ *
+ * By default windows are over processing time and fire on a timer once their end time
+ * has passed. If an event time is configured then windows fire once the greatest event
+ * time seen, less the maximum lateness, passes their end. Messages which arrive after
+ * all their windows have fired are dropped and counted in the {@code late} metric.
+ *
+ * <pre>
+ * {@code
+ * WindowedInput.create(vertx, input().port("in"), WindowAssigner.tumbling(60000))
+ *     .aggregate(word -> word, Aggregator.count(), output().port("out"));
+ * }
+ * </pre>
+ *
+ * @param <T> The message type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface WindowedInput<T> {
+
+  /**
+   * Creates a windowed input.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The input port to window.
+   * @param assigner The window assigner.
+   * @param <T> The message type.
+   * @return The windowed input.
+   */
+  static <T> WindowedInput<T> create(Vertx vertx, InputPort<T> port, WindowAssigner assigner) {
+    return new WindowedInputImpl<>(vertx, port, assigner);
+  }
+
+  /**
+   * Windows messages by event time rather than processing time.
+   *
+   * @param timestamp A function which returns the event time of a message in milliseconds.
+   * @param maxLateness The maximum time in milliseconds by which messages may be out of order.
+   * @return The windowed input.
+   */
+  WindowedInput<T> eventTime(ToLongFunction<VertigoMessage<T>> timestamp, long maxLateness);
+
+  /**
+   * Aggregates messages by key and passes window results to a handler.<p>
+   *
+   * This registers a handler on the input port and may only be called once.
+   *
+   * @param key A function which returns the key of a message body.
+   * @param aggregator The aggregator.
+   * @param handler A handler to be called with the result for each key once a window fires.
+   * @param <K> The key type.
+   * @param <A> The accumulator type.
+   * @param <R> The result type.
+   * @return The windowed input.
+   */
+  <K, A, R> WindowedInput<T> aggregate(Function<T, K> key, Aggregator<T, A, R> aggregator, Handler<WindowResult<K, R>> handler);
+
+  /**
+   * Aggregates messages by key and sends window results to an output port.<p>
+   *
+   * Results are sent as {@link WindowResult#toJson() JSON}, so keys and results must be
+   * JSON compatible.
+   *
+   * @param key A function which returns the key of a message body.
+   * @param aggregator The aggregator.
+   * @param port The output port to which to send results.
+   * @param <K> The key type.
+   * @param <A> The accumulator type.
+   * @param <R> The result type.
+   * @return The windowed input.
+   */
+  <K, A, R> WindowedInput<T> aggregate(Function<T, K> key, Aggregator<T, A, R> aggregator, OutputPort<JsonObject> port);
+
+  /**
+   * Fires all open windows, e.g. before the component is stopped.
+   *
+   * @return The windowed input.
+   */
+  WindowedInput<T> flush();
+
+  /**
+   * Returns the windowed input metrics.
+   *
+   * @return The number of {@code late} messages and {@code open-windows}.
+   */
+  Metrics metrics();
+
+}
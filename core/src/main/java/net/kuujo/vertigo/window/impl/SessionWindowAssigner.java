@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window.impl;
+
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.window.Window;
+import net.kuujo.vertigo.window.WindowAssigner;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Session window assigner.<p>
+ *
+ * Each message is assigned a window of the session gap starting at its timestamp, and
+ * overlapping windows for the same key are merged into a single session.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SessionWindowAssigner implements WindowAssigner {
+  private final long gap;
+
+  public SessionWindowAssigner(long gap) {
+    Args.check(gap > 0, "session gap must be positive");
+    this.gap = gap;
+  }
+
+  @Override
+  public List<Window> assign(long timestamp) {
+    return Collections.singletonList(new Window(timestamp, timestamp + gap));
+  }
+
+  @Override
+  public boolean merging() {
+    return true;
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window.impl;
+
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.window.Window;
+import net.kuujo.vertigo.window.WindowAssigner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sliding window assigner.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SlidingWindowAssigner implements WindowAssigner {
+  private final long size;
+  private final long slide;
+
+  public SlidingWindowAssigner(long size, long slide) {
+    Args.check(size > 0, "window size must be positive");
+    Args.check(slide > 0 && slide <= size, "window slide must be positive and no greater than the window size");
+    this.size = size;
+    this.slide = slide;
+  }
+
+  @Override
+  public List<Window> assign(long timestamp) {
+    List<Window> windows = new ArrayList<>((int) (size / slide) + 1);
+    long last = timestamp - Math.floorMod(timestamp, slide);
+    for (long start = last; start > timestamp - size; start -= slide) {
+      windows.add(new Window(start, start + size));
+    }
+    return windows;
+  }
+
+  @Override
+  public boolean merging() {
+    return false;
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window.impl;
+
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.window.Window;
+import net.kuujo.vertigo.window.WindowAssigner;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tumbling window assigner.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TumblingWindowAssigner implements WindowAssigner {
+  private final long size;
+
+  public TumblingWindowAssigner(long size) {
+    Args.check(size > 0, "window size must be positive");
+    this.size = size;
+  }
+
+  @Override
+  public List<Window> assign(long timestamp) {
+    long start = timestamp - Math.floorMod(timestamp, size);
+    return Collections.singletonList(new Window(start, start + size));
+  }
+
+  @Override
+  public boolean merging() {
+    return false;
+  }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.window.Aggregator;
+import net.kuujo.vertigo.window.Window;
+import net.kuujo.vertigo.window.WindowAssigner;
+import net.kuujo.vertigo.window.WindowResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates messages into windows.<p>
+ *
+ * Open windows are held in a map ordered by end time, each holding one accumulator per
+ * key. Windows are fired in order of end time once the watermark passes their end. For
+ * processing time the watermark is the current time and a timer is set for the earliest
+ * window end. For event time the watermark is the greatest event time seen less the
+ * maximum lateness. Session windows are tracked per key so that overlapping sessions
+ * can be found and merged without scanning all open windows.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class WindowOperator<T, K, A, R> implements Handler<VertigoMessage<T>> {
+  private final Vertx vertx;
+  private final WindowAssigner assigner;
+  private final Function<T, K> key;
+  private final Aggregator<T, A, R> aggregator;
+  private final Handler<WindowResult<K, R>> handler;
+  private final TreeMap<Window, Map<K, A>> windows = new TreeMap<>();
+  private final Map<K, List<Window>> sessions = new HashMap<>();
+  private final Counter late;
+  private ToLongFunction<VertigoMessage<T>> timestamp;
+  private long maxLateness;
+  private long watermark = Long.MIN_VALUE;
+  private long timer = -1;
+  private long timerAt;
+
+  public WindowOperator(Vertx vertx, WindowAssigner assigner, Function<T, K> key, Aggregator<T, A, R> aggregator, Handler<WindowResult<K, R>> handler, Metrics metrics) {
+    this.vertx = vertx;
+    this.assigner = assigner;
+    this.key = Args.checkNotNull(key, "key cannot be null");
+    this.aggregator = Args.checkNotNull(aggregator, "aggregator cannot be null");
+    this.handler = Args.checkNotNull(handler, "handler cannot be null");
+    this.late = metrics.counter("late");
+    metrics.gauge("open-windows", windows::size);
+  }
+
+  /**
+   * Windows messages by event time.
+   */
+  public void setEventTime(ToLongFunction<VertigoMessage<T>> timestamp, long maxLateness) {
+    this.timestamp = timestamp;
+    this.maxLateness = maxLateness;
+  }
+
+  @Override
+  public void handle(VertigoMessage<T> message) {
+    try {
+      long time = timestamp != null ? timestamp.applyAsLong(message) : System.currentTimeMillis();
+      T value = message.body();
+      K key = this.key.apply(value);
+      boolean added = false;
+      for (Window window : assigner.assign(time)) {
+        if (window.end() > watermark) {
+          add(assigner.merging() ? merge(key, window) : window, key, value);
+          added = true;
+        }
+      }
+      if (!added) {
+        late.increment();
+      }
+      message.ack();
+      if (timestamp != null) {
+        advance(time - maxLateness);
+      } else {
+        schedule();
+      }
+    } catch (Throwable cause) {
+      message.fail(cause);
+    }
+  }
+
+  /**
+   * Adds a value to the accumulator for a key in a window.
+   */
+  private void add(Window window, K key, T value) {
+    Map<K, A> accumulators = windows.computeIfAbsent(window, w -> new HashMap<>());
+    A accumulator = accumulators.containsKey(key) ? accumulators.get(key) : aggregator.create();
+    accumulators.put(key, aggregator.add(accumulator, value));
+  }
+
+  /**
+   * Merges a session window with the overlapping sessions for the same key.
+   *
+   * @return The merged session window.
+   */
+  private Window merge(K key, Window window) {
+    List<Window> open = sessions.computeIfAbsent(key, k -> new ArrayList<>(1));
+    Window merged = window;
+    A accumulator = null;
+    boolean found = false;
+    Iterator<Window> iterator = open.iterator();
+    while (iterator.hasNext()) {
+      Window session = iterator.next();
+      if (session.overlaps(window)) {
+        iterator.remove();
+        merged = merged.cover(session);
+        A removed = remove(session, key);
+        accumulator = found ? aggregator.merge(accumulator, removed) : removed;
+        found = true;
+      }
+    }
+    open.add(merged);
+    if (found) {
+      windows.computeIfAbsent(merged, w -> new HashMap<>()).put(key, accumulator);
+    }
+    return merged;
+  }
+
+  /**
+   * Removes the accumulator for a key from a window.
+   */
+  private A remove(Window window, K key) {
+    Map<K, A> accumulators = windows.get(window);
+    A accumulator = accumulators.remove(key);
+    if (accumulators.isEmpty()) {
+      windows.remove(window);
+    }
+    return accumulator;
+  }
+
+  /**
+   * Advances the watermark and fires windows which have ended.
+   */
+  private void advance(long watermark) {
+    if (watermark > this.watermark) {
+      this.watermark = watermark;
+      fire(watermark);
+    }
+  }
+
+  /**
+   * Sets a timer for the earliest window end.
+   */
+  private void schedule() {
+    if (windows.isEmpty()) {
+      return;
+    }
+    long end = windows.firstKey().end();
+    if (timer != -1) {
+      if (timerAt <= end) {
+        return;
+      }
+      vertx.cancelTimer(timer);
+    }
+    timerAt = end;
+    timer = vertx.setTimer(Math.max(1, end - System.currentTimeMillis()), id -> {
+      timer = -1;
+      advance(System.currentTimeMillis());
+      schedule();
+    });
+  }
+
+  /**
+   * Fires all windows which end at or before the given time.
+   */
+  private void fire(long time) {
+    while (!windows.isEmpty() && windows.firstKey().end() <= time) {
+      Map.Entry<Window, Map<K, A>> entry = windows.pollFirstEntry();
+      Window window = entry.getKey();
+      for (Map.Entry<K, A> accumulator : entry.getValue().entrySet()) {
+        if (assigner.merging()) {
+          List<Window> open = sessions.get(accumulator.getKey());
+          open.remove(window);
+          if (open.isEmpty()) {
+            sessions.remove(accumulator.getKey());
+          }
+        }
+        handler.handle(new WindowResult<>(window, accumulator.getKey(), aggregator.result(accumulator.getValue())));
+      }
+    }
+  }
+
+  /**
+   * Fires all open windows.
+   */
+  public void flush() {
+    fire(Long.MAX_VALUE);
+    if (timer != -1) {
+      vertx.cancelTimer(timer);
+      timer = -1;
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.window.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.util.Args;
+import net.kuujo.vertigo.window.Aggregator;
+import net.kuujo.vertigo.window.WindowAssigner;
+import net.kuujo.vertigo.window.WindowResult;
+import net.kuujo.vertigo.window.WindowedInput;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Windowed input implementation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class WindowedInputImpl<T> implements WindowedInput<T> {
+  private final Vertx vertx;
+  private final InputPort<T> port;
+  private final WindowAssigner assigner;
+  private final Metrics metrics = new Metrics();
+  private ToLongFunction<VertigoMessage<T>> timestamp;
+  private long maxLateness;
+  private WindowOperator<T, ?, ?, ?> operator;
+
+  public WindowedInputImpl(Vertx vertx, InputPort<T> port, WindowAssigner assigner) {
+    this.vertx = Args.checkNotNull(vertx, "vertx cannot be null");
+    this.port = Args.checkNotNull(port, "port cannot be null");
+    this.assigner = Args.checkNotNull(assigner, "assigner cannot be null");
+  }
+
+  @Override
+  public WindowedInput<T> eventTime(ToLongFunction<VertigoMessage<T>> timestamp, long maxLateness) {
+    Args.check(operator == null, "event time must be configured before aggregating");
+    Args.check(maxLateness >= 0, "max lateness cannot be negative");
+    this.timestamp = Args.checkNotNull(timestamp, "timestamp cannot be null");
+    this.maxLateness = maxLateness;
+    return this;
+  }
+
+  @Override
+  public <K, A, R> WindowedInput<T> aggregate(Function<T, K> key, Aggregator<T, A, R> aggregator, Handler<WindowResult<K, R>> handler) {
+    Args.check(operator == null, "port %s is already being aggregated", port.name());
+    WindowOperator<T, K, A, R> operator = new WindowOperator<>(vertx, assigner, key, aggregator, handler, metrics);
+    if (timestamp != null) {
+      operator.setEventTime(timestamp, maxLateness);
+    }
+    this.operator = operator;
+    port.handler(operator);
+    return this;
+  }
+
+  @Override
+  public <K, A, R> WindowedInput<T> aggregate(Function<T, K> key, Aggregator<T, A, R> aggregator, OutputPort<JsonObject> port) {
+    Args.checkNotNull(port, "port cannot be null");
+    return aggregate(key, aggregator, (Handler<WindowResult<K, R>>) result -> port.send(result.toJson()));
+  }
+
+  @Override
+  public WindowedInput<T> flush() {
+    if (operator != null) {
+      operator.flush();
+    }
+    return this;
+  }
+
+  @Override
+  public Metrics metrics() {
+    return metrics;
+  }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes for aggregating messages received on input ports over windows of time.
+ */
+package net.kuujo.vertigo.window;
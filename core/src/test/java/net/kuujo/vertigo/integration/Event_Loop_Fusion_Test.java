@@ -0,0 +1,82 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+public class Event_Loop_Fusion_Test extends VertigoTestBase {
+  private static volatile boolean sending;
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("event-loop-fusion");
+    builder.component("A")
+        .identifier(SendingComponent.class.getName())
+        .eventLoop(0)
+        .input().port("in")
+        .output().port("out");
+    builder.component("B")
+        .identifier(ReportingComponent.class.getName())
+        .eventLoop(0)
+        .fusible(false)
+        .input().port("in");
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    return builder.build();
+  }
+
+  @Test
+  public void unfused_Host_Member_Test() {
+    NetworkReference network = getNetworkReference();
+    NetworkContext context = vertx.sharedData().<String, NetworkContext>getLocalMap("vertigo").get(network.name());
+    assertEquals(vertx.sharedData().getLocalMap(network.name()).get(context.component("A").address()),
+        vertx.sharedData().getLocalMap(network.name()).get(context.component("B").address()));
+
+    // B shares A's event loop host but is not fusible, so A sends to it over the event bus.
+    vertx.eventBus().<Boolean>consumer("test.direct", message -> {
+      assertFalse(message.body());
+      testComplete();
+    });
+    network.input().port("in").send("Hello");
+    await();
+  }
+
+  public static class SendingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      sending = true;
+      output().<String>port("out").send(message.body());
+      sending = false;
+      message.ack();
+    }
+  }
+
+  public static class ReportingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      vertx.eventBus().send("test.direct", sending);
+      message.ack();
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.deployment.impl.EventLoopScheduler;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Event_Loop_Placement_Test extends VertigoTestBase {
+
+  public static String address = UUID.randomUUID().toString();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+
+    NetworkBuilder builder = NetworkConfig.builder();
+    builder
+        .component("first").identifier(ThreadForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address)).eventLoop(0)
+        .component("second").identifier(ThreadForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address)).eventLoop(1)
+        .component("third").identifier(ThreadForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address)).eventLoop(0)
+        .component("fourth").identifier(ThreadForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address)).weight(5)
+        .component("fifth").identifier(ThreadForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address)).weight(5);
+
+    builder.connect()
+        .network().port("in")
+        .to("first").port("in")
+        .and("second").port("in")
+        .and("third").port("in")
+        .and("fourth").port("in")
+        .and("fifth").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void test() {
+    NetworkReference network = getNetworkReference();
+    NetworkContext context = vertx.sharedData().<String, NetworkContext>getLocalMap("vertigo").get(network.name());
+    LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
+
+    // Components placed on the same event loop share the event loop's host.
+    assertEquals(deploymentIds.get(context.component("first").address()), deploymentIds.get(context.component("third").address()));
+    assertFalse(deploymentIds.get(context.component("first").address()).equals(deploymentIds.get(context.component("second").address())));
+
+    // Weighted components may share the hinted event loops depending on deployment order.
+    EventLoopScheduler scheduler = EventLoopScheduler.scheduler(vertx);
+    int eventLoops = 0;
+    for (EventExecutor ignored : vertx.nettyEventLoopGroup()) {
+      eventLoops++;
+    }
+    assertEquals(eventLoops, scheduler.size());
+    JsonObject metrics = scheduler.metrics().toJson();
+    assertTrue(metrics.getJsonObject("0").getLong("components") >= 2);
+    long components = 0;
+    long weight = 0;
+    for (String index : metrics.fieldNames()) {
+      components += metrics.getJsonObject(index).getLong("components");
+      weight += metrics.getJsonObject(index).getLong("weight");
+    }
+    assertEquals(5, components);
+    assertEquals(13, weight);
+
+    Map<String, String> threads = new ConcurrentHashMap<>();
+    vertx.eventBus().<JsonObject>consumer(address).handler(message -> {
+      threads.put(message.body().getString("component"), message.body().getString("thread"));
+      if (threads.size() == 5) {
+        assertEquals(threads.get("first"), threads.get("third"));
+        assertFalse(threads.get("first").equals(threads.get("second")));
+        // The weighted components are placed on different event loops, each of which
+        // has its own host.
+        assertFalse(threads.get("fourth").equals(threads.get("fifth")));
+        testComplete();
+      }
+    });
+
+    network.input().port("in").send("Word");
+
+    await();
+  }
+
+  public static class ThreadForwardingComponent extends MessageHandlerComponent<Object> {
+    @Override
+    public void handle(VertigoMessage<Object> message) {
+      vertx.eventBus().send(context().config().getString("target"), new JsonObject()
+          .put("component", context().name())
+          .put("thread", Thread.currentThread().getName()));
+      message.ack();
+    }
+  }
+
+}
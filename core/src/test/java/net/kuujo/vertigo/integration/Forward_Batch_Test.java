@@ -0,0 +1,89 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.component.BatchMessageHandlerComponent;
+import net.kuujo.vertigo.message.MessageBatch;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Forward_Batch_Test extends VertigoTestBase {
+  static final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder();
+
+    builder.component("A")
+        .identifier(AutoForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(BatchComponent.class.getName())
+        .config(new JsonObject()
+            .put(BatchMessageHandlerComponent.BATCH_SIZE, 5)
+            .put(BatchMessageHandlerComponent.BATCH_WAIT, 10000))
+        .input().port("in");
+
+    builder
+        .connect("A").port("out")
+        .to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void batch_test() {
+    NetworkReference network = getNetworkReference();
+    CompletableFuture<?>[] acks = new CompletableFuture<?>[5];
+
+    for (int i = 0; i < acks.length; i++) {
+      CompletableFuture<Void> acked = new CompletableFuture<>();
+      acks[i] = acked;
+      network
+          .component("A").input().port("in")
+          .send("Word" + i, result -> {
+            assertTrue(result.succeeded());
+            acked.complete(null);
+          });
+    }
+
+    CompletableFuture.allOf(acks).join();
+    assertEquals(1, batchSizes.size());
+    assertEquals(5, batchSizes.get(0).intValue());
+    testComplete();
+  }
+
+  public static class BatchComponent extends BatchMessageHandlerComponent<String> {
+
+    @Override
+    public void handle(MessageBatch<String> batch) {
+      logger().info("Received batch " + batch.bodies());
+      batchSizes.add(batch.size());
+      batch.ack();
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Forward_Pipe_Test extends VertigoTestBase {
+  static final int MESSAGES = 5;
+  static final int MAX_IN_FLIGHT = 2;
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("pipe-test");
+
+    builder.component("A")
+        .identifier(PipeComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(HoldingComponent.class.getName())
+        .input().port("in");
+
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void pipe_test() {
+    List<Object> received = new CopyOnWriteArrayList<>();
+    vertx.eventBus().consumer("test.received", message -> received.add(message.body()));
+
+    List<CompletableFuture<Void>> acks = new ArrayList<>();
+    for (int i = 0; i < MESSAGES; i++) {
+      CompletableFuture<Void> acked = new CompletableFuture<>();
+      acks.add(acked);
+      getNetworkReference().input().port("in").send("word" + i, result -> {
+        if (result.succeeded()) {
+          acked.complete(null);
+        }
+      });
+    }
+
+    // B holds the messages it receives, so A stops once its send queue is full.
+    waitUntil(() -> received.size() == MAX_IN_FLIGHT);
+    CompletableFuture<Void> waited = new CompletableFuture<>();
+    vertx.setTimer(200, id -> waited.complete(null));
+    waited.join();
+    assertEquals(MAX_IN_FLIGHT, received.size());
+
+    vertx.eventBus().send("test.release", null);
+    CompletableFuture.allOf(acks.toArray(new CompletableFuture[acks.size()])).join();
+    assertEquals(MESSAGES, received.size());
+    assertEquals("WORD0", received.get(0));
+    testComplete();
+  }
+
+  public static class PipeComponent extends MessageHandlerComponent<String> {
+    @Override
+    protected void initComponent() {
+      pipe("in", String::toUpperCase, "out").setWriteQueueMaxSize(MAX_IN_FLIGHT);
+    }
+
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      message.fail(new IllegalStateException("messages should be piped"));
+    }
+  }
+
+  public static class HoldingComponent extends MessageHandlerComponent<String> {
+    private final List<VertigoMessage<String>> held = new ArrayList<>();
+    private boolean holding = true;
+
+    @Override
+    protected void initComponent() {
+      vertx.eventBus().consumer("test.release", message -> {
+        holding = false;
+        held.forEach(VertigoMessage::ack);
+        held.clear();
+      });
+    }
+
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      vertx.eventBus().send("test.received", message.body());
+      if (holding) {
+        held.add(message);
+      } else {
+        message.ack();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.AbstractComponent;
+import net.kuujo.vertigo.instance.LongOutputPort;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class Forward_Primitive_Test extends VertigoTestBase {
+  static final int COUNT = 1000;
+  static CompletableFuture<Long> sum = new CompletableFuture<>();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder();
+
+    builder.component("A")
+        .identifier(SourceComponent.class.getName())
+        .input().port("in")
+        .output().port("out").type(long[].class);
+
+    builder.component("B")
+        .identifier(SumComponent.class.getName())
+        .input().port("in").type(long[].class);
+
+    builder.component("C")
+        .identifier(SumComponent.class.getName())
+        .input().port("in");
+
+    builder
+        .connect("A").port("out")
+        .to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void primitive_test() {
+    getNetworkReference()
+        .component("A").input().port("in")
+        .send("go");
+
+    assertEquals(COUNT * (COUNT + 1L) / 2, sum.join().longValue());
+    testComplete();
+  }
+
+  @Test
+  public void wrong_Type_Test() {
+    getNetworkReference()
+        .component("C").input().port("in")
+        .send("one", result -> {
+          assertTrue(result.failed());
+          testComplete();
+        });
+    await();
+  }
+
+  public static class SourceComponent extends AbstractComponent {
+    @Override
+    protected void initComponent() {
+      LongOutputPort out = component().output().longPort("out");
+      component().input().port("in").handler(message -> {
+        for (long i = 1; i <= COUNT; i++) {
+          out.send(i);
+        }
+        message.ack();
+      });
+    }
+  }
+
+  public static class SumComponent extends AbstractComponent {
+    private long total;
+    private int received;
+
+    @Override
+    protected void initComponent() {
+      component().input().longPort("in").handler(value -> {
+        total += value;
+        if (++received == COUNT) {
+          sum.complete(total);
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.Context;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Forward_Virtual_Thread_Test extends VertigoTestBase {
+  static final AtomicInteger concurrent = new AtomicInteger();
+  static final AtomicInteger maxConcurrent = new AtomicInteger();
+  static final AtomicBoolean blockedEventLoop = new AtomicBoolean();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder();
+
+    builder.component("A")
+        .identifier(BlockingComponent.class.getName())
+        .virtualThreads()
+        .maxConcurrency(2)
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(AutoAckingComponent.class.getName())
+        .input().port("in");
+
+    builder
+        .connect("A").port("out")
+        .to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void virtual_thread_test() {
+    NetworkReference network = getNetworkReference();
+    int count = 6;
+    CompletableFuture<?>[] acks = new CompletableFuture<?>[count];
+
+    for (int i = 0; i < count; i++) {
+      CompletableFuture<Void> acked = new CompletableFuture<>();
+      acks[i] = acked;
+      network
+          .component("A").input().port("in")
+          .send("Word" + i, result -> {
+            assertTrue(result.succeeded());
+            acked.complete(null);
+          });
+    }
+
+    CompletableFuture.allOf(acks).join();
+    assertFalse(blockedEventLoop.get());
+    assertTrue(maxConcurrent.get() <= 2);
+    testComplete();
+  }
+
+  public static class BlockingComponent extends MessageHandlerComponent<String> {
+
+    @Override
+    public void handle(VertigoMessage<String> event) {
+      if (Context.isOnEventLoopThread()) {
+        blockedEventLoop.set(true);
+      }
+      maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        event.fail(e);
+        return;
+      } finally {
+        concurrent.decrementAndGet();
+      }
+      output()
+          .port("out")
+          .send(event.body(), event::handle);
+    }
+  }
+
+}
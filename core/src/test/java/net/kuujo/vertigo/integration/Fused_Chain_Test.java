@@ -0,0 +1,88 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.shareddata.LocalMap;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class Fused_Chain_Test extends VertigoTestBase {
+
+  public static String address = UUID.randomUUID().toString();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+
+    NetworkBuilder builder = NetworkConfig.builder();
+    builder
+        .component("first").identifier(AutoForwardingComponent.class.getName())
+        .component("second").identifier(AutoForwardingComponent.class.getName()).fusible(false)
+        .component("third").identifier(AutoForwardingComponent.class.getName())
+        .component("final").identifier(EventBusForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address));
+
+    builder.connect()
+        .network().port("in")
+        .to("first").port("in");
+
+    builder.connect("first").port("out")
+        .to("second").port("in");
+
+    builder.connect("second").port("out")
+        .to("third").port("in");
+
+    builder.connect("third").port("out")
+        .to("final").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void test() {
+    NetworkReference network = getNetworkReference();
+    NetworkContext context = vertx.sharedData().<String, NetworkContext>getLocalMap("vertigo").get(network.name());
+    LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
+    String first = deploymentIds.get(context.component("first").address());
+    String second = deploymentIds.get(context.component("second").address());
+    String third = deploymentIds.get(context.component("third").address());
+    String last = deploymentIds.get(context.component("final").address());
+
+    // Only the components downstream of the non-fusible component are fused.
+    assertFalse(first.equals(second));
+    assertFalse(second.equals(third));
+    assertEquals(third, last);
+
+    waitFor(2);
+    vertx.eventBus().consumer(address).handler(message -> {
+      assertEquals("Word > first > second > third", message.body());
+      complete();
+    });
+
+    network.input().port("in").send("Word", result -> {
+      assertTrue(result.succeeded());
+      complete();
+    });
+
+    await();
+  }
+
+}
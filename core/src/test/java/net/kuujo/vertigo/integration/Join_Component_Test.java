@@ -0,0 +1,80 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.component.JoinComponent;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Join_Component_Test extends VertigoTestBase {
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("join-test");
+
+    builder.component("join")
+        .identifier(JoinComponent.class.getName())
+        .config(new JsonObject()
+            .put(JoinComponent.LEFT_KEY, "id")
+            .put(JoinComponent.RIGHT_KEY, "order")
+            .put(JoinComponent.INTERVAL, 200)
+            .put(JoinComponent.JOIN_TYPE, "left"))
+        .input().port("left").port("right")
+        .output().port("out");
+
+    builder.component("receiver")
+        .identifier(EventBusForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config("test.joined"))
+        .input().port("in");
+
+    builder.connect().network().port("orders").to("join").port("left");
+    builder.connect().network().port("payments").to("join").port("right");
+    builder.connect("join").port("out").to("receiver").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void left_join_test() throws Exception {
+    List<JsonObject> joined = new CopyOnWriteArrayList<>();
+    vertx.eventBus().<JsonObject>consumer("test.joined", message -> joined.add(message.body()));
+
+    getNetworkReference().input().port("orders").send(new JsonObject().put("id", "1"));
+    getNetworkReference().input().port("orders").send(new JsonObject().put("id", "2"));
+    getNetworkReference().input().port("payments").send(new JsonObject().put("order", "1").put("amount", 10));
+
+    waitUntil(() -> joined.size() == 1);
+    assertEquals("1", joined.get(0).getJsonObject("left").getString("id"));
+    assertEquals(10, joined.get(0).getJsonObject("right").getInteger("amount").intValue());
+
+    // The unmatched order is emitted once the join interval has passed.
+    waitUntil(() -> joined.size() == 2);
+    assertEquals("2", joined.get(1).getJsonObject("left").getString("id"));
+    assertNull(joined.get(1).getJsonObject("right"));
+
+    // The matched order is not emitted again when it expires.
+    Thread.sleep(400);
+    assertEquals(2, joined.size());
+    testComplete();
+  }
+
+}
@@ -0,0 +1,81 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import org.junit.Test;
+
+public class Lineage_Batch_Test extends VertigoTestBase {
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    return Lineage_Tree_Test.network(BatchingSplittingComponent.class, false);
+  }
+
+  @Test
+  public void batch_Sink_Test() {
+    // Acking the batch acks each tracked message, completing the tree.
+    getNetworkReference().input().port("in").send("sink", result -> {
+      assertTrue(result.succeeded());
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void batch_Handler_Test() {
+    // Words sent from a batch handler can't be anchored, so they are rejected rather than
+    // letting the tree complete before they have been processed.
+    vertx.eventBus().consumer("test.rejected", message -> complete());
+    waitFor(2);
+    getNetworkReference().input().port("in").send("a b c", result -> {
+      assertTrue(result.failed());
+      complete();
+    });
+
+    await();
+  }
+
+  public static class BatchingSplittingComponent extends MessageHandlerComponent<String> {
+    @Override
+    protected void initComponent() {
+      input().<String>port("in").batchHandler(3, 10, batch -> {
+        try {
+          for (String body : batch.bodies()) {
+            if (!body.equals("sink")) {
+              for (String word : body.split(" ")) {
+                output().port("out").send(word);
+              }
+            }
+          }
+          batch.ack();
+        } catch (IllegalStateException e) {
+          vertx.eventBus().send("test.rejected", e.getMessage());
+          batch.fail(e);
+        }
+      });
+    }
+
+    @Override
+    public void handle(VertigoMessage<String> message) {
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Lineage_Tree_Test extends VertigoTestBase {
+
+  public static String address = UUID.randomUUID().toString();
+  static final AtomicInteger processed = new AtomicInteger();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    return network(SplittingComponent.class, false);
+  }
+
+  static NetworkConfig network(Class<?> splitter, boolean virtualThreads) {
+
+    NetworkBuilder builder = NetworkConfig.builder().lineage(true);
+    builder
+        .component("splitter").identifier(splitter.getName()).virtualThreads(virtualThreads)
+        .component("middle").identifier(AutoForwardingComponent.class.getName())
+        .component("target").identifier(TargetComponent.class.getName());
+
+    builder.connect()
+        .network().port("in")
+        .to("splitter").port("in");
+
+    builder.connect("splitter").port("out")
+        .to("middle").port("in");
+
+    builder.connect("middle").port("out")
+        .to("target").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void testAck() {
+    NetworkReference network = getNetworkReference();
+    processed.set(0);
+
+    waitFor(4);
+    vertx.eventBus().consumer(address).handler(message -> {
+      assertTrue(message.body().toString().endsWith(" > middle"));
+      complete();
+    });
+
+    // The message is acked only once every word has been processed by the target.
+    network.input().port("in").send("a b c", result -> {
+      assertTrue(result.succeeded());
+      assertEquals(3, processed.get());
+      complete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testFail() {
+    NetworkReference network = getNetworkReference();
+
+    // The splitter acks the message immediately, but the failure of a derived message
+    // still fails the message sent to the network.
+    network.input().port("in").send("a fail c", result -> {
+      assertTrue(result.failed());
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void close_Test() {
+    NetworkReference network = getNetworkReference();
+
+    // Closing the reference fails messages whose lineage is still being tracked.
+    vertx.runOnContext(v -> {
+      network.input().port("in").send("a b c", result -> {
+        assertTrue(result.failed());
+        testComplete();
+      });
+      network.close();
+    });
+    await();
+  }
+
+  public static class SplittingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      for (String word : message.body().split(" ")) {
+        output().port("out").send(word);
+      }
+      message.ack();
+    }
+  }
+
+  public static class TargetComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      if (message.body().startsWith("fail")) {
+        message.fail(new VertigoException("Computer says no"));
+      } else {
+        // Words are processed after the upstream handlers have returned.
+        vertx.setTimer(10, id -> {
+          vertx.eventBus().send(address, message.body());
+          processed.incrementAndGet();
+          message.ack();
+        });
+      }
+    }
+  }
+
+}
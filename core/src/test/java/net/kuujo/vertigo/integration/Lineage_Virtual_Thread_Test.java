@@ -0,0 +1,45 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+
+/**
+ * Runs the lineage tests with a splitter which sends its words from a virtual thread.
+ */
+public class Lineage_Virtual_Thread_Test extends Lineage_Tree_Test {
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    return network(BlockingSplittingComponent.class, true);
+  }
+
+  public static class BlockingSplittingComponent extends SplittingComponent {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        message.fail(e);
+        return;
+      }
+      super.handle(message);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class Metrics_Publish_Test extends VertigoTestBase {
+  static final int COUNT = 5;
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder();
+
+    builder.component("A")
+        .identifier(AutoForwardingComponent.class.getName())
+        .metricsInterval(50)
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(AutoAckingComponent.class.getName())
+        .metricsInterval(50)
+        .input().port("in");
+
+    builder
+        .connect("A").port("out")
+        .to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void metrics_test() {
+    CompletableFuture<JsonObject> published = new CompletableFuture<>();
+    vertx.eventBus().<JsonObject>consumer(Metrics.METRICS_ADDRESS, message -> {
+      JsonObject metrics = message.body().getJsonObject("metrics");
+      if (message.body().getString("component").equals("A")
+          && metrics.getJsonObject("output").getJsonObject("out").getLong("sent") == COUNT) {
+        published.complete(metrics);
+      }
+    });
+
+    NetworkReference network = getNetworkReference();
+    CompletableFuture<Void> acked = new CompletableFuture<>();
+    int[] acks = new int[1];
+    for (int i = 0; i < COUNT; i++) {
+      network.component("A").input().port("in").send("Word", result -> {
+        if (++acks[0] == COUNT) {
+          acked.complete(null);
+        }
+      });
+    }
+    acked.join();
+
+    JsonObject metrics = published.join();
+    assertEquals(COUNT, metrics.getJsonObject("input").getJsonObject("in").getLong("received").longValue());
+    JsonObject out = metrics.getJsonObject("output").getJsonObject("out");
+    JsonObject connection = out.stream()
+        .filter(entry -> entry.getValue() instanceof JsonObject)
+        .map(entry -> (JsonObject) entry.getValue())
+        .findFirst()
+        .get();
+    assertEquals(COUNT, connection.getLong("sent").longValue());
+    assertEquals(COUNT, connection.getJsonObject("ack-latency").getLong("count").longValue());
+    testComplete();
+  }
+
+  @Test
+  public void source_Metrics_Test() {
+    boolean[] done = new boolean[1];
+    vertx.eventBus().<JsonObject>consumer(Metrics.METRICS_ADDRESS, message -> {
+      if (done[0] || !message.body().getString("component").equals("B")) {
+        return;
+      }
+      // Messages from A are counted by the connection from A rather than the external connection.
+      JsonObject in = message.body().getJsonObject("metrics").getJsonObject("input").getJsonObject("in");
+      JsonObject connection = in.stream()
+          .filter(entry -> !entry.getKey().equals("external") && entry.getValue() instanceof JsonObject)
+          .map(entry -> (JsonObject) entry.getValue())
+          .findFirst()
+          .orElse(null);
+      if (connection != null && connection.getLong("received") == COUNT) {
+        done[0] = true;
+        assertEquals(0, in.getJsonObject("external").getLong("received").longValue());
+        testComplete();
+      }
+    });
+
+    NetworkReference network = getNetworkReference();
+    for (int i = 0; i < COUNT; i++) {
+      network.component("A").input().port("in").send("Word");
+    }
+    await();
+  }
+
+}
@@ -0,0 +1,110 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.instance.ControllableInput;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.InputPortReference;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Network_Backpressure_Test extends VertigoTestBase {
+  static final int MAX_QUEUE_SIZE = 10;
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("backpressure-test");
+
+    builder.component("A")
+        .identifier(PausableComponent.class.getName())
+        .input().port("in");
+
+    builder.connect().network().port("in").to("A").port("in");
+
+    return builder.build();
+  }
+
+  private void request(String address) {
+    CompletableFuture<Void> replied = new CompletableFuture<>();
+    vertx.eventBus().send(address, null, result -> replied.complete(null));
+    replied.join();
+  }
+
+  @Test
+  public void backpressure_test() {
+    List<Object> received = new CopyOnWriteArrayList<>();
+    vertx.eventBus().consumer("test.received", message -> received.add(message.body()));
+
+    InputPortReference<String> port = getNetworkReference().input().port("in");
+    port.setWriteQueueMaxSize(MAX_QUEUE_SIZE);
+
+    // The first batch registers the producer with the target port.
+    CompletableFuture<Void> acked = new CompletableFuture<>();
+    port.sendBatch(Arrays.asList("a", "b", "c"), result -> acked.complete(null));
+    acked.join();
+    port.send("d");
+    waitUntil(() -> received.size() == 4);
+
+    // Messages are queued at the paused target until the producer's write queue is full.
+    request("test.pause");
+    int sent = 0;
+    while (!port.writeQueueFull()) {
+      port.send("message" + sent++);
+      assertTrue(sent <= MAX_QUEUE_SIZE);
+    }
+    assertEquals(4, received.size());
+
+    // Resuming the target delivers the queued messages and drains the producer.
+    CompletableFuture<Void> drained = new CompletableFuture<>();
+    port.drainHandler(v -> drained.complete(null));
+    request("test.resume");
+    drained.join();
+    assertFalse(port.writeQueueFull());
+    int total = 4 + sent;
+    waitUntil(() -> received.size() == total);
+    testComplete();
+  }
+
+  public static class PausableComponent extends MessageHandlerComponent<String> {
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected void initComponent() {
+      vertx.eventBus().consumer("test.pause", message -> {
+        ((ControllableInput) input().port("in")).pause();
+        message.reply(null);
+      });
+      vertx.eventBus().consumer("test.resume", message -> {
+        ((ControllableInput) input().port("in")).resume();
+        message.reply(null);
+      });
+    }
+
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      vertx.eventBus().send("test.received", message.body());
+      message.ack();
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.instance.ControllableOutput;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.OutputPortReference;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Network_Output_Stream_Test extends VertigoTestBase {
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("output-test");
+
+    builder.component("A")
+        .identifier(QueueReportingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to().network().port("out");
+
+    return builder.build();
+  }
+
+  private void onContext(Runnable runnable) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      runnable.run();
+      future.complete(null);
+    });
+    future.join();
+  }
+
+  @Test
+  public void pause_fetch_resume_test() {
+    AtomicInteger queued = new AtomicInteger();
+    vertx.eventBus().<Integer>consumer("test.queued", message -> queued.set(message.body()));
+
+    List<String> received = new CopyOnWriteArrayList<>();
+    OutputPortReference<String> port = getNetworkReference().output().port("out");
+    onContext(() -> port.pause().handler(message -> {
+      received.add(message.body());
+      message.ack();
+    }));
+
+    for (int i = 0; i < 3; i++) {
+      getNetworkReference().input().port("in").send("Word" + i);
+    }
+
+    // Pausing the port pauses the component's connection to the network.
+    waitUntil(() -> queued.get() == 3);
+    assertTrue(received.isEmpty());
+
+    onContext(() -> port.fetch(2));
+    waitUntil(() -> received.size() == 2);
+
+    onContext(port::resume);
+    waitUntil(() -> received.size() == 3);
+    assertEquals("Word0 > A", received.get(0));
+    assertEquals("Word2 > A", received.get(2));
+    testComplete();
+  }
+
+  @Test
+  public void batch_test() {
+    List<Integer> batches = new CopyOnWriteArrayList<>();
+    CompletableFuture<Void> acked = new CompletableFuture<>();
+    onContext(() -> getNetworkReference().<String>output().batchHandler(3, 10000, batch -> {
+      batches.add(batch.size());
+      batch.ack();
+    }));
+
+    for (int i = 0; i < 3; i++) {
+      getNetworkReference().input().port("in").send("Word" + i, result -> {
+        if (result.succeeded()) {
+          acked.complete(null);
+        }
+      });
+    }
+
+    acked.join();
+    assertEquals(1, batches.size());
+    assertEquals(3, batches.get(0).intValue());
+    testComplete();
+  }
+
+  public static class QueueReportingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      output().<String>port("out").send(message.body() + " > " + context().name(), message::handle);
+      vertx.eventBus().send("test.queued", ((ControllableOutput) output().port("out")).size());
+    }
+  }
+
+}
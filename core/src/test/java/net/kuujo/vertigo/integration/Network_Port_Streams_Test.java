@@ -0,0 +1,94 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.streams.WriteStream;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.instance.PortStreams;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.OutputPortReference;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Network_Port_Streams_Test extends VertigoTestBase {
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder("streams-test");
+
+    builder.component("A")
+        .identifier(DrainingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to().network().port("out");
+
+    return builder.build();
+  }
+
+  private void onContext(Runnable runnable) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      runnable.run();
+      future.complete(null);
+    });
+    future.join();
+  }
+
+  @Test
+  public void shared_Port_Drain_Test() {
+    Set<String> drained = ConcurrentHashMap.newKeySet();
+    vertx.eventBus().<String>consumer("test.drained", message -> drained.add(message.body()));
+
+    List<VertigoMessage<String>> received = new CopyOnWriteArrayList<>();
+    OutputPortReference<String> port = getNetworkReference().output().port("out");
+    onContext(() -> port.handler(received::add));
+
+    getNetworkReference().input().port("in").send("Hello");
+    waitUntil(() -> received.size() == 2);
+    assertTrue(drained.isEmpty());
+
+    // Both streams writing to the port are notified once the port drains.
+    onContext(() -> received.forEach(VertigoMessage::ack));
+    waitUntil(() -> drained.size() == 2);
+    testComplete();
+  }
+
+  public static class DrainingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      OutputPort<String> port = output().port("out");
+      WriteStream<String> first = PortStreams.writeStream(port).setWriteQueueMaxSize(2);
+      WriteStream<String> second = PortStreams.writeStream(port);
+      first.write(message.body());
+      second.write(message.body());
+      first.drainHandler(v -> vertx.eventBus().send("test.drained", "first"));
+      second.drainHandler(v -> vertx.eventBus().send("test.drained", "second"));
+      message.ack();
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.Vertigo;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+public class Network_Update_Test extends VertigoTestBase {
+  static final String NETWORK = "update-test";
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    return network(false);
+  }
+
+  private static NetworkConfig network(boolean withC) {
+    NetworkBuilder builder = NetworkConfig.builder(NETWORK);
+
+    builder.component("A")
+        .identifier(AutoForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(EventBusForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config("test.b"))
+        .input().port("in");
+
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+
+    if (withC) {
+      builder.component("C")
+          .identifier(EventBusForwardingComponent.class.getName())
+          .config(EventBusForwardingComponent.config("test.c"))
+          .input().port("in");
+      builder.connect("A").port("out").to("C").port("in");
+    }
+
+    return builder.build();
+  }
+
+  @Test
+  public void update_test() {
+    waitFor(2);
+    vertx.eventBus().consumer("test.b", message -> {
+      assertEquals("Word > A", message.body());
+      complete();
+    });
+    vertx.eventBus().consumer("test.c", message -> {
+      assertEquals("Word > A", message.body());
+      complete();
+    });
+
+    String deploymentB = vertx.sharedData().<String, String>getLocalMap(NETWORK).get(NETWORK + ".B");
+    assertNotNull(deploymentB);
+
+    vertx.runOnContext(v -> Vertigo.vertigo(vertx).updateNetwork(network(true), result -> {
+      assertTrue(result.succeeded());
+      assertEquals(deploymentB, vertx.sharedData().<String, String>getLocalMap(NETWORK).get(NETWORK + ".B"));
+      result.result().input().port("in").send("Word");
+    }));
+    await();
+  }
+
+}
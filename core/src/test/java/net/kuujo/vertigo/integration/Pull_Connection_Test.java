@@ -0,0 +1,117 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.shareddata.LocalMap;
+import net.kuujo.vertigo.Vertigo;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class Pull_Connection_Test extends VertigoTestBase {
+
+  public static String address = UUID.randomUUID().toString();
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    return network(NetworkConfig.builder(), true);
+  }
+
+  private static NetworkConfig network(NetworkBuilder builder, boolean pull) {
+    builder
+        .component("first").identifier(AutoForwardingComponent.class.getName())
+        .component("second").identifier(AutoForwardingComponent.class.getName())
+        .component("final").identifier(EventBusForwardingComponent.class.getName())
+        .config(EventBusForwardingComponent.config(address));
+
+    builder.connect()
+        .network().port("in")
+        .to("first").port("in");
+
+    if (pull) {
+      builder.connect("first").port("out")
+          .to("second").port("in").pull(2);
+    } else {
+      builder.connect("first").port("out")
+          .to("second").port("in");
+    }
+
+    builder.connect("second").port("out")
+        .to("final").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void test() {
+    NetworkReference network = getNetworkReference();
+    NetworkContext context = vertx.sharedData().<String, NetworkContext>getLocalMap("vertigo").get(network.name());
+    LocalMap<String, String> deploymentIds = vertx.sharedData().getLocalMap(network.name());
+
+    // Components connected by a pull connection are never fused.
+    assertFalse(deploymentIds.get(context.component("first").address()).equals(deploymentIds.get(context.component("second").address())));
+
+    int count = 10;
+    waitFor(count * 2);
+    vertx.eventBus().consumer(address).handler(message -> {
+      assertEquals("Word > first > second", message.body());
+      complete();
+    });
+
+    // More messages are sent than the target requests at a time.
+    for (int i = 0; i < count; i++) {
+      network.input().port("in").send("Word", result -> {
+        assertTrue(result.succeeded());
+        complete();
+      });
+    }
+
+    await();
+  }
+
+  @Test
+  public void update_Closes_Pull_Connections_Test() {
+    NetworkReference network = getNetworkReference();
+    NetworkContext context = vertx.sharedData().<String, NetworkContext>getLocalMap("vertigo").get(network.name());
+    String pullAddress = String.format("%s.out.%s.in.pull", context.component("first").address(), context.component("second").address());
+
+    waitFor(2);
+    vertx.eventBus().consumer(address).handler(message -> {
+      assertEquals("Word > first > second", message.body());
+      complete();
+    });
+
+    // Once the connection no longer pulls, the source stops accepting requests for work.
+    vertx.runOnContext(v -> Vertigo.vertigo(vertx).updateNetwork(network(NetworkConfig.builder(network.name()), false), updated -> {
+      assertTrue(updated.succeeded());
+      vertx.eventBus().send(pullAddress, null, result -> {
+        assertTrue(result.failed());
+        assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) result.cause()).failureType());
+        updated.result().input().port("in").send("Word");
+        complete();
+      });
+    }));
+    await();
+  }
+
+}
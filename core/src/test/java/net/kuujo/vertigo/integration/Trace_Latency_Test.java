@@ -0,0 +1,73 @@
+package net.kuujo.vertigo.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class Trace_Latency_Test extends VertigoTestBase {
+  static final int COUNT = 5;
+
+  @Override
+  protected NetworkConfig createNetwork() {
+    NetworkBuilder builder = NetworkConfig.builder().traceSampleRate(1.0);
+
+    builder.component("A")
+        .identifier(AutoForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+
+    builder.component("B")
+        .identifier(AutoAckingComponent.class.getName())
+        .metricsInterval(50)
+        .input().port("in");
+
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to("B").port("in");
+
+    return builder.build();
+  }
+
+  @Test
+  public void trace_test() {
+    CompletableFuture<JsonObject> published = new CompletableFuture<>();
+    vertx.eventBus().<JsonObject>consumer(Metrics.METRICS_ADDRESS, message -> {
+      JsonObject in = message.body().getJsonObject("metrics").getJsonObject("input").getJsonObject("in");
+      if (message.body().getString("component").equals("B") && in.getLong("received") == COUNT) {
+        published.complete(in.getJsonObject("trace"));
+      }
+    });
+
+    NetworkReference network = getNetworkReference();
+    for (int i = 0; i < COUNT; i++) {
+      network.input().port("in").send("Word");
+    }
+
+    JsonObject trace = published.join();
+    assertEquals(COUNT, trace.getJsonObject("end-to-end").getLong("count").longValue());
+    assertEquals(2, trace.getJsonObject("hops").getLong("max").longValue());
+    assertEquals(COUNT, trace.getJsonObject("edges").getJsonObject("A").getLong("count").longValue());
+    testComplete();
+  }
+
+}
@@ -0,0 +1,247 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.ContextBuilder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.context.OutputPortContext;
+import net.kuujo.vertigo.message.impl.CodecRegistry;
+import net.kuujo.vertigo.message.impl.CompressingMessageCodec;
+import net.kuujo.vertigo.message.impl.DeflateCompressor;
+import net.kuujo.vertigo.message.impl.LongArrayMessageCodec;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class CodecRegistryTest {
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void registry_Shares_Codec_Instances_Test() {
+    CodecRegistry registry = CodecRegistry.registry(vertx);
+    assertSame(registry, CodecRegistry.registry(vertx));
+    MessageCodec<?, ?> codec = registry.register(TestCodec.class);
+    assertSame(codec, registry.register(TestCodec.class));
+    Vertx other = Vertx.vertx();
+    try {
+      assertNotSame(registry, CodecRegistry.registry(other));
+    } finally {
+      other.close();
+    }
+  }
+
+  @Test
+  public void primitive_Array_Default_Codecs_Test() {
+    CodecRegistry registry = CodecRegistry.registry(vertx);
+    Object[] arrays = new Object[]{
+        new long[]{1, Long.MAX_VALUE},
+        new int[]{2, Integer.MIN_VALUE},
+        new short[]{3, Short.MAX_VALUE},
+        new char[]{'a', Character.MAX_VALUE},
+        new boolean[]{true, false},
+        new float[]{1.5f, Float.MIN_VALUE},
+        new double[]{2.5, Double.MAX_VALUE}
+    };
+    for (Object array : arrays) {
+      Class<? extends MessageCodec<?, ?>> codecClass = CodecRegistry.defaultCodec(array.getClass());
+      assertNotNull(array.getClass().getSimpleName(), codecClass);
+      MessageCodec<Object, Object> codec = registry.register(codecClass);
+      Buffer buffer = Buffer.buffer();
+      codec.encodeToWire(buffer, array);
+      Object decoded = codec.decodeFromWire(0, buffer);
+      assertEquals(array.getClass(), decoded.getClass());
+      assertTrue(Objects.deepEquals(array, decoded));
+    }
+    assertNull(CodecRegistry.defaultCodec(String.class));
+    assertNull(CodecRegistry.defaultCodec(byte[].class));
+  }
+
+  @Test(expected = VertigoException.class)
+  public void register_Rejects_Non_Codecs_Test() {
+    CodecRegistry.registry(vertx).register(String.class);
+  }
+
+  @Test
+  public void default_Codec_From_Port_Type_Test() {
+    NetworkBuilder builder = NetworkConfig.builder("codecs");
+    builder.component("A")
+        .identifier("A")
+        .output().port("longs").type(long[].class)
+        .output().port("strings").type(String.class)
+        .output().port("custom").type(String.class).codec(TestCodec.class);
+    builder.component("B")
+        .identifier("B")
+        .input().port("in");
+    builder.connect("A").port("longs").to("B").port("in");
+
+    NetworkContext network = ContextBuilder.buildContext(builder.build());
+    CodecRegistry registry = CodecRegistry.registry(vertx);
+    registry.register(network);
+
+    OutputPortContext longs = network.component("A").output().port("longs");
+    assertEquals(LongArrayMessageCodec.class, longs.codec());
+    assertEquals(LongArrayMessageCodec.NAME, registry.codecName(longs));
+    assertNull(registry.codecName(network.component("A").output().port("strings")));
+    assertEquals(TestCodec.NAME, registry.codecName(network.component("A").output().port("custom")));
+  }
+
+  @Test
+  public void compressing_Codec_Round_Trip_Test() {
+    NetworkBuilder builder = NetworkConfig.builder("compression");
+    builder.component("A")
+        .identifier("A")
+        .output().port("out");
+    builder.component("B")
+        .identifier("B")
+        .input().port("in");
+    builder.connect("A").port("out").to("B").port("in").compression(DeflateCompressor.NAME).compressionThreshold(64);
+
+    NetworkContext network = ContextBuilder.buildContext(builder.build());
+    CodecRegistry registry = CodecRegistry.registry(vertx);
+    registry.register(network);
+
+    OutputConnectionContext connection = network.component("A").output().port("out").connections().iterator().next();
+    MessageCodec<Object, Object> codec = registry.codec(registry.codecName(connection));
+    assertNotNull(codec);
+
+    JsonObject large = new JsonObject();
+    for (int i = 0; i < 100; i++) {
+      large.put("key" + i, "value");
+    }
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, large);
+    assertTrue(buffer.length() < large.encode().length());
+    assertEquals(large, codec.decodeFromWire(0, buffer));
+
+    buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, "small");
+    assertEquals("small", codec.decodeFromWire(0, buffer));
+
+    long[] longs = new long[1000];
+    buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, longs);
+    assertArrayEquals(longs, (long[]) codec.decodeFromWire(0, buffer));
+
+    buffer = Buffer.buffer().appendInt(42);
+    codec.encodeToWire(buffer, 42);
+    assertEquals(42, codec.decodeFromWire(4, buffer.appendString("trailing")));
+
+    for (Object body : new Object[]{null, true, 'c', 3L, 1.5, Buffer.buffer("buffer"), new JsonArray().add(1).add("two")}) {
+      buffer = Buffer.buffer();
+      codec.encodeToWire(buffer, body);
+      assertEquals(body, codec.decodeFromWire(0, buffer));
+    }
+
+    JsonObject metrics = ((CompressingMessageCodec) codec).metrics().toJson();
+    assertEquals(11, (long) metrics.getLong("messages"));
+    assertEquals(2, (long) metrics.getLong("compressed"));
+    assertTrue(metrics.getLong("ratio-percent") < 100);
+  }
+
+  @Test
+  public void compressing_Codec_Target_Node_Test() {
+    NetworkBuilder builder = NetworkConfig.builder("compression");
+    builder.component("A")
+        .identifier("A")
+        .output().port("out").type(long[].class);
+    builder.component("B")
+        .identifier("B")
+        .input().port("in");
+    builder.connect("A").port("out").to("B").port("in").compression(DeflateCompressor.NAME).compressionThreshold(64);
+
+    NetworkContext network = ContextBuilder.buildContext(builder.build());
+    CodecRegistry source = CodecRegistry.registry(vertx);
+    source.register(network.component("A"));
+    OutputConnectionContext connection = network.component("A").output().port("out").connections().iterator().next();
+    String name = source.codecName(connection);
+
+    // The target node only receives the target component's context, serialized as on deployment.
+    Vertx other = Vertx.vertx();
+    try {
+      CodecRegistry target = CodecRegistry.registry(other);
+      ComponentContext component = ComponentContext.builder()
+          .update(network.component("B").toJson())
+          .build();
+      target.register(component);
+      assertEquals(name, target.codecName(component.input().port("in").connections().iterator().next()));
+
+      MessageCodec<Object, Object> codec = target.codec(name);
+      assertNotNull(codec);
+      long[] longs = new long[1000];
+      Buffer buffer = Buffer.buffer();
+      source.codec(name).encodeToWire(buffer, longs);
+      assertArrayEquals(longs, (long[]) codec.decodeFromWire(0, buffer));
+    } finally {
+      other.close();
+    }
+  }
+
+  public static class TestCodec implements MessageCodec<String, String> {
+    static final String NAME = "test-codec";
+
+    @Override
+    public void encodeToWire(Buffer buffer, String s) {
+      buffer.appendInt(s.length()).appendString(s);
+    }
+
+    @Override
+    public String decodeFromWire(int pos, Buffer buffer) {
+      int length = buffer.getInt(pos);
+      return buffer.getString(pos + 4, pos + 4 + length);
+    }
+
+    @Override
+    public String transform(String s) {
+      return s;
+    }
+
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+      return -1;
+    }
+  }
+
+}
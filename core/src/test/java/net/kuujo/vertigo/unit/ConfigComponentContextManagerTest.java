@@ -0,0 +1,119 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.Vertigo;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.component.AbstractComponent;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.deployment.impl.ConfigComponentContextManager;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ConfigComponentContextManagerTest {
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  private static NetworkConfig network() {
+    NetworkBuilder builder = NetworkConfig.builder("contexts");
+    builder
+        .connect("A").identifier(TestComponent.class.getName()).port("out")
+        .to("B").identifier(TestComponent.class.getName()).port("in");
+    NetworkConfig network = builder.build();
+    network.getComponent("A").setConfig(new JsonObject().put("foo", "bar"));
+    return network;
+  }
+
+  private static ComponentContext component() {
+    return ContextBuilder.buildContext(network()).component("A");
+  }
+
+  @Test
+  public void local_Config_Passes_Token_Test() {
+    ComponentContext context = component();
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, context, true);
+    assertNotNull(config.getString(ConfigComponentContextManager.CONTEXT_TOKEN_KEY));
+    assertNull(config.getJsonObject(ConfigComponentContextManager.CONTEXT_KEY));
+    assertEquals("bar", config.getString("foo"));
+    assertSame(context, ConfigComponentContextManager.context(vertx, config));
+
+    ConfigComponentContextManager.release(vertx, config);
+    try {
+      ConfigComponentContextManager.context(vertx, config);
+      fail("released context should not resolve");
+    } catch (VertigoException e) {
+    }
+  }
+
+  @Test
+  public void remote_Config_Falls_Back_To_Json_Test() {
+    ComponentContext context = component();
+    JsonObject config = ConfigComponentContextManager.deploymentConfig(vertx, context, false);
+    assertNull(config.getString(ConfigComponentContextManager.CONTEXT_TOKEN_KEY));
+    assertNotNull(config.getJsonObject(ConfigComponentContextManager.CONTEXT_KEY));
+    assertEquals("bar", config.getString("foo"));
+
+    // The context is parsed from JSON on a Vert.x instance which never registered it.
+    Vertx remote = Vertx.vertx();
+    try {
+      ComponentContext resolved = ConfigComponentContextManager.context(remote, config.copy());
+      assertNotSame(context, resolved);
+      assertEquals(context.address(), resolved.address());
+      assertEquals(context.toJson(), resolved.toJson());
+    } finally {
+      remote.close();
+    }
+  }
+
+  @Test
+  public void deploy_Releases_Local_Contexts_Test() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Vertigo.vertigo(vertx).deployNetwork(network(), result -> {
+      error.set(result.cause());
+      latch.countDown();
+    });
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertNull(error.get());
+    assertTrue(vertx.sharedData().getLocalMap("vertigo.contexts").isEmpty());
+  }
+
+  public static class TestComponent extends AbstractComponent {
+  }
+
+}
@@ -0,0 +1,131 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.context.ComponentContext;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.network.ComponentConfig;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.spi.ConfigValidator;
+import net.kuujo.vertigo.util.Validators;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ContextBuilderTest {
+
+  @Test
+  public void max_Concurrency_Only_Applies_To_Virtual_Threads_Test() {
+    NetworkBuilder builder = NetworkConfig.builder("concurrency");
+    builder.component("A").identifier("A").output().port("out");
+    builder.component("B").identifier("B").input().port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    NetworkConfig config = builder.build();
+    config.getComponent("A").setMaxConcurrency(0);
+    config.getComponent("B").setVirtualThreads(true).setMaxConcurrency(8);
+
+    NetworkContext network = ContextBuilder.buildContext(config);
+    assertEquals(ComponentConfig.DEFAULT_MAX_CONCURRENCY, network.component("A").maxConcurrency());
+    assertEquals(8, network.component("B").maxConcurrency());
+  }
+
+  @Test
+  public void multi_Edge_Contexts_Match_Previous_Builder_Test() {
+    NetworkBuilder builder = NetworkConfig.builder("topology");
+    builder.component("A").identifier("A").replicas(2).config(new JsonObject().put("key", "value"))
+        .input().port("in")
+        .output().port("out").output().port("side");
+    builder.component("B").identifier("B").input().port("in").output().port("out");
+    builder.component("C").identifier("C").replicas(3).input().port("in").output().port("out");
+    builder.component("D").identifier("D").input().port("in").input().port("side");
+    builder.connect("A").port("out").to("B").port("in");
+    builder.connect("A").port("out").to("C").port("in");
+    builder.connect("B").port("out").to("D").port("in");
+    builder.connect("C").port("out").to("D").port("in");
+    builder.connect("A").port("side").to("D").port("side");
+    NetworkContext network = ContextBuilder.buildContext(builder.build());
+
+    // Component contexts as built by the per-connection builder which preceded the
+    // single-pass builder. Fields added to contexts since then are not compared.
+    InputStream stream = getClass().getClassLoader().getResourceAsStream("context-builder-topology.json");
+    JsonObject expected = new JsonObject(new Scanner(stream, "UTF-8").useDelimiter("\\A").next());
+    assertEquals(expected.size(), network.components().size());
+    for (ComponentContext component : network.components()) {
+      assertContains(component.name(), expected.getJsonObject(component.name()), component.toJson());
+    }
+  }
+
+  private static void assertContains(String path, Object expected, Object actual) {
+    if (expected instanceof JsonObject) {
+      assertTrue(path, actual instanceof JsonObject);
+      for (Map.Entry<String, Object> entry : (JsonObject) expected) {
+        assertContains(path + "." + entry.getKey(), entry.getValue(), ((JsonObject) actual).getValue(entry.getKey()));
+      }
+    } else if (expected instanceof JsonArray) {
+      assertTrue(path, actual instanceof JsonArray);
+      assertEquals(path, ((JsonArray) expected).size(), ((JsonArray) actual).size());
+      for (int i = 0; i < ((JsonArray) expected).size(); i++) {
+        assertContains(path + "[" + i + "]", ((JsonArray) expected).getValue(i), ((JsonArray) actual).getValue(i));
+      }
+    } else if (expected instanceof Number) {
+      // Numbers parsed from JSON may be boxed as a different type than the built value.
+      assertTrue(path, actual instanceof Number);
+      assertEquals(path, ((Number) expected).doubleValue(), ((Number) actual).doubleValue(), 0);
+    } else {
+      assertEquals(path, expected, actual);
+    }
+  }
+
+  @Test
+  public void validators_Are_Loaded_Once_Test() {
+    Iterable<CountingValidator> validators = Validators.loadValidators(CountingValidator.class);
+    assertEquals(1, CountingValidatorImpl.instances.get());
+    assertSame(validators, Validators.loadValidators(CountingValidator.class));
+    for (int i = 0; i < 10; i++) {
+      Validators.validate("value", CountingValidator.class);
+    }
+    assertEquals(1, CountingValidatorImpl.instances.get());
+    assertEquals(10, CountingValidatorImpl.validated.get());
+  }
+
+  public interface CountingValidator extends ConfigValidator<String> {
+  }
+
+  public static class CountingValidatorImpl implements CountingValidator {
+    static final AtomicInteger instances = new AtomicInteger();
+    static final AtomicInteger validated = new AtomicInteger();
+
+    public CountingValidatorImpl() {
+      instances.incrementAndGet();
+    }
+
+    @Override
+    public void validate(String value) {
+      validated.incrementAndGet();
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.instance.impl.MessageBatcher;
+import net.kuujo.vertigo.message.MessageBatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class MessageBatcherTest {
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void flush_After_Max_Wait_Test() throws Exception {
+    List<MessageBatch<String>> batches = new CopyOnWriteArrayList<>();
+    MessageBatcher<String> batcher = new MessageBatcher<>(vertx, 10, 50, batches::add);
+    batcher.handle(null);
+    batcher.handle(null);
+    Thread.sleep(500);
+    assertEquals(1, batches.size());
+    assertEquals(2, batches.get(0).size());
+  }
+
+  @Test
+  public void close_Cancels_Flush_Timer_Test() throws Exception {
+    List<MessageBatch<String>> batches = new CopyOnWriteArrayList<>();
+    MessageBatcher<String> batcher = new MessageBatcher<>(vertx, 10, 50, batches::add);
+    batcher.handle(null);
+    batcher.close();
+    batcher.handle(null);
+    Thread.sleep(500);
+    assertTrue(batches.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zero_Max_Size_Test() {
+    new MessageBatcher<String>(vertx, 0, 50, batch -> {
+    });
+  }
+
+  @Test
+  public void zero_Max_Wait_Flushes_Immediately_Test() {
+    List<MessageBatch<String>> batches = new CopyOnWriteArrayList<>();
+    MessageBatcher<String> batcher = new MessageBatcher<>(vertx, 10, 0, batches::add);
+    batcher.handle(null);
+    assertEquals(1, batches.size());
+  }
+
+}
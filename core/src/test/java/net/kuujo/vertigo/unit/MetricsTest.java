@@ -0,0 +1,140 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import net.kuujo.vertigo.context.ContextBuilder;
+import net.kuujo.vertigo.context.NetworkContext;
+import net.kuujo.vertigo.context.OutputConnectionContext;
+import net.kuujo.vertigo.instance.impl.ControlledOutputConnection;
+import net.kuujo.vertigo.metrics.Counter;
+import net.kuujo.vertigo.metrics.Histogram;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+  @Test
+  public void histogram_Percentiles_Test() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.count());
+    assertEquals(1000, histogram.max());
+    assertEquals(500.5, histogram.mean(), 0.001);
+    assertEquals(500, histogram.percentile(0.5), 500 * 0.125);
+    assertEquals(990, histogram.percentile(0.99), 990 * 0.125);
+    assertEquals(1000, histogram.percentile(1.0));
+    assertEquals(1, histogram.percentile(0.0));
+  }
+
+  @Test
+  public void histogram_Concurrent_Record_Test() throws Exception {
+    Histogram histogram = new Histogram();
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 10000; j++) {
+          histogram.record(j);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40000, histogram.count());
+    assertEquals(9999, histogram.max());
+  }
+
+  @Test
+  public void metrics_Tree_Test() {
+    Metrics metrics = new Metrics();
+    Counter sent = metrics.counter("sent");
+    assertSame(sent, metrics.counter("sent"));
+    sent.add(3);
+    metrics.gauge("depth", () -> 7);
+    Metrics child = new Metrics();
+    child.histogram("latency").record(5);
+    metrics.register("child", child);
+
+    JsonObject json = metrics.toJson();
+    assertEquals(3, json.getLong("sent").longValue());
+    assertEquals(7, json.getLong("depth").longValue());
+    assertEquals(1, json.getJsonObject("child").getJsonObject("latency").getLong("count").longValue());
+
+    try {
+      metrics.histogram("sent");
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  @Test
+  public void controlled_Connection_Queue_Depth_Test() throws Exception {
+    NetworkBuilder builder = NetworkConfig.builder("metrics");
+    builder.component("A")
+        .identifier("A")
+        .output().port("out");
+    builder.component("B")
+        .identifier("B")
+        .input().port("in");
+    builder.connect("A").port("out").to("B").port("in");
+    NetworkContext network = ContextBuilder.buildContext(builder.build());
+    OutputConnectionContext context = network.component("A").output().port("out").connections().iterator().next();
+
+    Vertx vertx = Vertx.vertx();
+    try {
+      List<Message<Object>> received = new CopyOnWriteArrayList<>();
+      CountDownLatch delivered = new CountDownLatch(3);
+      vertx.eventBus().consumer(context.target().address(), message -> {
+        received.add(message);
+        delivered.countDown();
+      });
+
+      ControlledOutputConnection<String> connection = new ControlledOutputConnection<>(vertx, context);
+      connection.setSendQueueMaxSize(3);
+      CountDownLatch acked = new CountDownLatch(3);
+      for (int i = 0; i < 3; i++) {
+        connection.send("message", result -> acked.countDown());
+      }
+      assertTrue(delivered.await(10, TimeUnit.SECONDS));
+      assertEquals(3, connection.metrics().toJson().getLong("queue-depth").longValue());
+      assertTrue(connection.sendQueueFull());
+
+      received.forEach(message -> message.reply(null));
+      assertTrue(acked.await(10, TimeUnit.SECONDS));
+      assertEquals(0, connection.metrics().toJson().getLong("queue-depth").longValue());
+      assertFalse(connection.sendQueueFull());
+    } finally {
+      vertx.close();
+    }
+  }
+
+}
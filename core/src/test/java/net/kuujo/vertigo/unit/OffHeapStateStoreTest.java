@@ -0,0 +1,144 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.kuujo.vertigo.state.StateSerializer;
+import net.kuujo.vertigo.state.StateStore;
+import net.kuujo.vertigo.state.impl.OffHeapStateStore;
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OffHeapStateStoreTest {
+
+  private StateStore<String, Integer> store(int cacheSize) {
+    return new OffHeapStateStore<>("test", StateSerializer.strings(), StateSerializer.integers(), cacheSize);
+  }
+
+  @Test
+  public void put_Get_Remove_Test() {
+    StateStore<String, Integer> store = store(0);
+    int count = 100000;
+    for (int i = 0; i < count; i++) {
+      store.put("key" + i, i);
+    }
+    assertEquals(count, store.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, store.get("key" + i).intValue());
+    }
+
+    // Removing keys shifts back colliding slots, so the remaining keys stay reachable.
+    for (int i = 0; i < count; i += 2) {
+      assertTrue(store.remove("key" + i));
+    }
+    assertFalse(store.remove("key0"));
+    assertEquals(count / 2, store.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i % 2 == 1, store.containsKey("key" + i));
+    }
+    assertNull(store.get("key0"));
+  }
+
+  @Test
+  public void update_And_Compact_Test() {
+    StateStore<String, String> store = new OffHeapStateStore<>("test", StateSerializer.strings(), StateSerializer.strings(), 0);
+    for (int i = 0; i < 1000; i++) {
+      store.put("a", "value" + i);
+      store.put("b", "b");
+    }
+    assertEquals("value999", store.get("a"));
+    assertEquals("b", store.get("b"));
+    assertEquals(2, store.size());
+
+    // Repeatedly appended values are compacted rather than growing the store.
+    long memory = store.memory();
+    for (int i = 0; i < 100000; i++) {
+      store.put("a", "value" + i);
+    }
+    assertEquals(memory, store.memory());
+    assertEquals("value99999", store.get("a"));
+  }
+
+  @Test
+  public void merge_And_Cache_Test() {
+    StateStore<String, Integer> store = store(2);
+    for (int i = 0; i < 10; i++) {
+      store.merge("count", 1, Integer::sum);
+    }
+    assertEquals(10, store.get("count").intValue());
+    assertTrue(store.metrics().counter("cache-hits").count() > 0);
+
+    assertNull(store.merge("count", 1, (a, b) -> null));
+    assertFalse(store.containsKey("count"));
+  }
+
+  @Test
+  public void iterate_Test() {
+    StateStore<String, Integer> store = store(0);
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 5000; i++) {
+      store.put("key" + i, i);
+      expected.put("key" + i, i);
+    }
+    Map<String, Integer> actual = new HashMap<>();
+    store.forEach(actual::put);
+    assertEquals(expected, actual);
+
+    Iterator<Map.Entry<String, Integer>> iterator = store.iterator();
+    iterator.next();
+    store.put("new", 1);
+    try {
+      iterator.next();
+      fail();
+    } catch (ConcurrentModificationException e) {
+    }
+
+    store.clear();
+    assertEquals(0, store.size());
+    assertFalse(store.iterator().hasNext());
+  }
+
+  @Test
+  public void close_Test() {
+    StateStore<String, Integer> store = store(16);
+    for (int i = 0; i < 100; i++) {
+      store.put("key" + i, i);
+    }
+    assertTrue(store.memory() > 0);
+
+    store.close();
+    assertEquals(0, store.memory());
+    assertEquals(0, store.size());
+    assertEquals(0, store.metrics().toJson().getLong("memory").longValue());
+    try {
+      store.get("key0");
+      fail();
+    } catch (IllegalStateException e) {
+    }
+    try {
+      store.put("key0", 0);
+      fail();
+    } catch (IllegalStateException e) {
+    }
+  }
+
+}
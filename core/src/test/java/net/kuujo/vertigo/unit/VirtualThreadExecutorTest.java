@@ -0,0 +1,74 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.component.impl.VirtualThreadExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VirtualThreadExecutorTest {
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void close_Fails_Queued_Tasks_Test() throws Exception {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<AsyncResult<Object>> queued = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(vertx, 1);
+      executor.execute(() -> {
+        running.countDown();
+        return release.await(10, TimeUnit.SECONDS);
+      }, result -> {
+      });
+      executor.execute(() -> null, queued::complete);
+      assertEquals(1, executor.queued());
+      executor.close();
+    });
+
+    AsyncResult<Object> result = queued.get(10, TimeUnit.SECONDS);
+    release.countDown();
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+    assertTrue(result.failed());
+    assertTrue(result.cause() instanceof IllegalStateException);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zero_Max_Concurrency_Test() {
+    new VirtualThreadExecutor(vertx, 0);
+  }
+
+}
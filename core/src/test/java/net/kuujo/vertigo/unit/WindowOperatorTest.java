@@ -0,0 +1,179 @@
+package net.kuujo.vertigo.unit;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.metrics.Metrics;
+import net.kuujo.vertigo.window.Aggregator;
+import net.kuujo.vertigo.window.Window;
+import net.kuujo.vertigo.window.WindowAssigner;
+import net.kuujo.vertigo.window.WindowResult;
+import net.kuujo.vertigo.window.impl.WindowOperator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class WindowOperatorTest {
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  private <K, A, R> WindowOperator<Event, K, A, R> operator(WindowAssigner assigner, Function<Event, K> key, Aggregator<Event, A, R> aggregator, List<WindowResult<K, R>> results, Metrics metrics, long maxLateness) {
+    WindowOperator<Event, K, A, R> operator = new WindowOperator<>(vertx, assigner, key, aggregator, results::add, metrics);
+    operator.setEventTime(message -> message.body().time, maxLateness);
+    return operator;
+  }
+
+  @Test
+  public void tumbling_Window_Test() {
+    List<WindowResult<String, Long>> results = new ArrayList<>();
+    Metrics metrics = new Metrics();
+    WindowOperator<Event, String, Long, Long> operator = operator(WindowAssigner.tumbling(10), event -> event.key, Aggregator.count(), results, metrics, 0);
+
+    operator.handle(new TestMessage(new Event("a", 0)));
+    operator.handle(new TestMessage(new Event("b", 5)));
+    operator.handle(new TestMessage(new Event("a", 9)));
+    assertTrue(results.isEmpty());
+
+    TestMessage message = new TestMessage(new Event("a", 10));
+    operator.handle(message);
+    assertTrue(message.acked);
+    assertEquals(2, results.size());
+    for (WindowResult<String, Long> result : results) {
+      assertEquals(new Window(0, 10), result.window());
+      assertEquals(result.key().equals("a") ? 2L : 1L, result.result().longValue());
+    }
+
+    // Messages for windows which have already fired are dropped.
+    operator.handle(new TestMessage(new Event("a", 3)));
+    assertEquals(1, metrics.counter("late").count());
+
+    operator.flush();
+    assertEquals(3, results.size());
+    assertEquals(new Window(10, 20), results.get(2).window());
+    assertEquals(1L, results.get(2).result().longValue());
+  }
+
+  @Test
+  public void sliding_Window_Test() {
+    List<WindowResult<Object, Event>> results = new ArrayList<>();
+    WindowOperator<Event, Object, Event, Event> operator = operator(WindowAssigner.sliding(10, 5), event -> null,
+        Aggregator.reduce((a, b) -> new Event("sum", a.time + b.time)), results, new Metrics(), 0);
+
+    operator.handle(new TestMessage(new Event("a", 2)));
+    operator.handle(new TestMessage(new Event("a", 7)));
+    operator.flush();
+
+    assertEquals(3, results.size());
+    assertEquals(new Window(-5, 5), results.get(0).window());
+    assertEquals(2, results.get(0).result().time);
+    assertEquals(new Window(0, 10), results.get(1).window());
+    assertEquals(9, results.get(1).result().time);
+    assertEquals(new Window(5, 15), results.get(2).window());
+    assertEquals(7, results.get(2).result().time);
+  }
+
+  @Test
+  public void session_Window_Test() {
+    List<WindowResult<String, Long>> results = new ArrayList<>();
+    Metrics metrics = new Metrics();
+    WindowOperator<Event, String, Long, Long> operator = operator(WindowAssigner.session(5), event -> event.key, Aggregator.count(), results, metrics, 10);
+
+    operator.handle(new TestMessage(new Event("a", 0)));
+    operator.handle(new TestMessage(new Event("a", 8)));
+    operator.handle(new TestMessage(new Event("b", 2)));
+    assertEquals(3, metrics.toJson().getLong("open-windows").longValue());
+
+    // A late message bridges the gap between two sessions.
+    operator.handle(new TestMessage(new Event("a", 4)));
+    assertEquals(2, metrics.toJson().getLong("open-windows").longValue());
+
+    operator.handle(new TestMessage(new Event("a", 30)));
+    assertEquals(2, results.size());
+    assertEquals(new Window(2, 7), results.get(0).window());
+    assertEquals("b", results.get(0).key());
+    assertEquals(new Window(0, 13), results.get(1).window());
+    assertEquals(3L, results.get(1).result().longValue());
+  }
+
+  private static class Event {
+    private final String key;
+    private final long time;
+
+    private Event(String key, long time) {
+      this.key = key;
+      this.time = time;
+    }
+  }
+
+  private static class TestMessage implements VertigoMessage<Event> {
+    private final Event body;
+    private boolean acked;
+
+    private TestMessage(Event body) {
+      this.body = body;
+    }
+
+    @Override
+    public String id() {
+      return null;
+    }
+
+    @Override
+    public Event body() {
+      return body;
+    }
+
+    @Override
+    public MultiMap headers() {
+      return MultiMap.caseInsensitiveMultiMap();
+    }
+
+    @Override
+    public void ack() {
+      acked = true;
+    }
+
+    @Override
+    public void fail(Throwable cause) {
+      throw new AssertionError(cause);
+    }
+
+    @Override
+    public void handle(AsyncResult<Void> result) {
+      acked = result.succeeded();
+    }
+  }
+
+}
@@ -10,7 +10,7 @@ import net.kuujo.vertigo.network.builder.NetworkBuilder;
 public class WordCountNetwork {
 
   public static NetworkConfig build(String resultAddress) {
-    NetworkBuilder builder = NetworkConfig.builder();
+    NetworkBuilder builder = NetworkConfig.builder().lineage(true);
 
     // Connect network input to word mapper
     builder
@@ -2,7 +2,6 @@ package net.kuujo.vertigo.examples.wordcount;
 
 import net.kuujo.vertigo.component.MessageHandlerComponent;
 import net.kuujo.vertigo.message.VertigoMessage;
-import net.kuujo.vertigo.util.AckAggregator;
 
 /**
  * Vertigo component which splits incoming strings into words.
@@ -17,12 +16,12 @@ public class WordMapper extends MessageHandlerComponent<String> {
     String input = message.body();
     String[] words = input.split(" ");
 
-    // Forward words individually, and ack when they are all completed
-    AckAggregator acks = new AckAggregator();
+    // Forward words individually. The network tracks the lineage of the input, so it
+    // is acked to the sender once all of the words have been counted.
     for (String word : words) {
-      output().port("words").send(word, acks.increment());
+      output().port("words").send(word);
     }
-    acks.completed(message::handle);
+    message.ack();
 
   }
 
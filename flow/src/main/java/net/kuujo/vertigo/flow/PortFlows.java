@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.flow;
+
+import io.vertx.core.Vertx;
+import net.kuujo.vertigo.flow.impl.InputPortReferenceWriteStream;
+import net.kuujo.vertigo.flow.impl.StreamPublisher;
+import net.kuujo.vertigo.flow.impl.StreamSubscriber;
+import net.kuujo.vertigo.instance.InputPort;
+import net.kuujo.vertigo.instance.OutputPort;
+import net.kuujo.vertigo.instance.PortStreams;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.reference.InputPortReference;
+import net.kuujo.vertigo.reference.NetworkOutputReference;
+import net.kuujo.vertigo.reference.OutputPortReference;
+
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow} adapters for ports.<p>
+ *
+ * Publishers and subscribers allow networks to be embedded in reactive pipelines
+ * outside of Vert.x. Demand requested by a subscriber is mapped onto the port's flow
+ * control, fetching exactly the requested number of messages from network outputs and
+ * pausing input ports once demand is exhausted. Subscribers hand items to the port's
+ * event loop through bounded queues and only request as many items as the port can
+ * accept, so neither direction buffers without bound.<p>
+ *
+ * Adapters must be created on the context which owns the port, e.g. in a component's
+ * {@code start()} method. Publishers pass messages to the subscriber unacked; the
+ * subscriber must ack or fail each message.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class PortFlows {
+
+  /**
+   * The default number of items a subscriber will buffer.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 128;
+
+  private PortFlows() {
+  }
+
+  /**
+   * Returns a publisher of the messages received on an input port.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The input port.
+   * @param <T> The message type.
+   * @return A publisher which supports a single subscriber.
+   */
+  public static <T> Flow.Publisher<VertigoMessage<T>> publisher(Vertx vertx, InputPort<T> port) {
+    return new StreamPublisher<>(vertx.getOrCreateContext(), PortStreams.messages(port), null);
+  }
+
+  /**
+   * Returns a publisher of the messages output by a network.
+   *
+   * @param vertx The Vert.x instance.
+   * @param output The network output reference.
+   * @param <T> The message type.
+   * @return A publisher which supports a single subscriber.
+   */
+  public static <T> Flow.Publisher<VertigoMessage<T>> publisher(Vertx vertx, NetworkOutputReference<T> output) {
+    return new StreamPublisher<>(vertx.getOrCreateContext(), output, output::fetch);
+  }
+
+  /**
+   * Returns a publisher of the messages output on a network output port.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The output port reference.
+   * @param <T> The message type.
+   * @return A publisher which supports a single subscriber.
+   */
+  public static <T> Flow.Publisher<VertigoMessage<T>> publisher(Vertx vertx, OutputPortReference<T> port) {
+    return new StreamPublisher<>(vertx.getOrCreateContext(), port, port::fetch);
+  }
+
+  /**
+   * Returns a subscriber which sends items to an output port.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The output port.
+   * @param <T> The message type.
+   * @return A subscriber which buffers at most {@link #DEFAULT_BUFFER_SIZE} items.
+   */
+  public static <T> Flow.Subscriber<T> subscriber(Vertx vertx, OutputPort<T> port) {
+    return subscriber(vertx, port, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Returns a subscriber which sends items to an output port.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The output port.
+   * @param bufferSize The maximum number of items to buffer.
+   * @param <T> The message type.
+   * @return A subscriber which sends items to the port.
+   */
+  public static <T> Flow.Subscriber<T> subscriber(Vertx vertx, OutputPort<T> port, int bufferSize) {
+    return new StreamSubscriber<>(vertx.getOrCreateContext(), PortStreams.writeStream(port), bufferSize);
+  }
+
+  /**
+   * Returns a subscriber which sends items to an input port reference.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The input port reference.
+   * @param <T> The message type.
+   * @return A subscriber which buffers at most {@link #DEFAULT_BUFFER_SIZE} items.
+   */
+  public static <T> Flow.Subscriber<T> subscriber(Vertx vertx, InputPortReference<T> port) {
+    return subscriber(vertx, port, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Returns a subscriber which sends items to an input port reference.
+   *
+   * @param vertx The Vert.x instance.
+   * @param port The input port reference.
+   * @param bufferSize The maximum number of items to buffer.
+   * @param <T> The message type.
+   * @return A subscriber which sends items to the port.
+   */
+  public static <T> Flow.Subscriber<T> subscriber(Vertx vertx, InputPortReference<T> port, int bufferSize) {
+    return new StreamSubscriber<>(vertx.getOrCreateContext(), new InputPortReferenceWriteStream<>(port), bufferSize);
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.flow.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.WriteStream;
+import net.kuujo.vertigo.reference.InputPortReference;
+import net.kuujo.vertigo.util.Args;
+
+/**
+ * Write stream which sends to an input port reference.<p>
+ *
+ * The write queue is full while the target port is paused or too many messages are
+ * in flight to it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class InputPortReferenceWriteStream<T> implements WriteStream<T> {
+  private final InputPortReference<T> port;
+  private Handler<Throwable> exceptionHandler;
+
+  public InputPortReferenceWriteStream(InputPortReference<T> port) {
+    this.port = Args.checkNotNull(port, "port cannot be null");
+  }
+
+  @Override
+  public InputPortReferenceWriteStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public InputPortReferenceWriteStream<T> write(T data) {
+    port.send(data, result -> {
+      if (result.failed() && exceptionHandler != null) {
+        exceptionHandler.handle(result.cause());
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public void end() {
+    // Ports are never closed.
+  }
+
+  @Override
+  public InputPortReferenceWriteStream<T> setWriteQueueMaxSize(int maxSize) {
+    port.setWriteQueueMaxSize(maxSize);
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return port.writeQueueFull();
+  }
+
+  @Override
+  public InputPortReferenceWriteStream<T> drainHandler(Handler<Void> handler) {
+    port.drainHandler(handler);
+    return this;
+  }
+
+}
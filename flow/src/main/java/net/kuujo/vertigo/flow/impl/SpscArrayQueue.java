@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.flow.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for a single producer and a single consumer.<p>
+ *
+ * Reactive streams serialize calls to a subscriber, so items handed from a publisher's
+ * thread to a component's event loop have exactly one producer and one consumer. The
+ * queue is a power-of-two ring buffer whose head and tail are only ever written by
+ * the consumer and producer respectively.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SpscArrayQueue<T> {
+  private final AtomicReferenceArray<T> buffer;
+  private final int mask;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  public SpscArrayQueue(int capacity) {
+    int size = 1;
+    while (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Adds an item to the queue. Must only be called by the producer.
+   *
+   * @param item The item to add.
+   * @return Indicates whether the item was added or the queue is full.
+   */
+  public boolean offer(T item) {
+    long index = tail.get();
+    int offset = (int) index & mask;
+    if (buffer.get(offset) != null) {
+      return false;
+    }
+    buffer.lazySet(offset, item);
+    tail.lazySet(index + 1);
+    return true;
+  }
+
+  /**
+   * Removes an item from the queue. Must only be called by the consumer.
+   *
+   * @return The next item or {@code null} if the queue is empty.
+   */
+  public T poll() {
+    long index = head.get();
+    int offset = (int) index & mask;
+    T item = buffer.get(offset);
+    if (item == null) {
+      return null;
+    }
+    buffer.lazySet(offset, null);
+    head.lazySet(index + 1);
+    return item;
+  }
+
+  /**
+   * Returns a boolean indicating whether the queue is empty.
+   */
+  public boolean isEmpty() {
+    return buffer.get((int) head.get() & mask) == null;
+  }
+
+  /**
+   * Returns the number of items in the queue.
+   */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+}
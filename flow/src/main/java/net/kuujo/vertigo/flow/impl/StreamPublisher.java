@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.flow.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.streams.ReadStream;
+import net.kuujo.vertigo.VertigoException;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Publisher of the messages read from a stream.<p>
+ *
+ * Demand requested by the subscriber is mapped onto the stream's flow control. Streams
+ * which support fetching are fetched exactly the requested number of messages, and
+ * other streams are resumed while there is outstanding demand and paused once it is
+ * exhausted. Requests may be made from any thread; the stream itself is only ever
+ * touched on the context on which the publisher was created. Messages are passed to
+ * the subscriber unacked.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class StreamPublisher<T> implements Flow.Publisher<VertigoMessage<T>> {
+  private final Context context;
+  private final ReadStream<VertigoMessage<T>> stream;
+  private final LongConsumer fetch;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public StreamPublisher(Context context, ReadStream<VertigoMessage<T>> stream, LongConsumer fetch) {
+    this.context = Args.checkNotNull(context, "context cannot be null");
+    this.stream = Args.checkNotNull(stream, "stream cannot be null");
+    this.fetch = fetch;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super VertigoMessage<T>> subscriber) {
+    Args.checkNotNull(subscriber, "subscriber cannot be null");
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("publisher supports only a single subscriber"));
+      return;
+    }
+    context.runOnContext(v -> new StreamSubscription(subscriber).start());
+  }
+
+  /**
+   * Subscription to the stream.
+   */
+  private class StreamSubscription implements Flow.Subscription {
+    private final Flow.Subscriber<? super VertigoMessage<T>> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final Queue<VertigoMessage<T>> pending = new ArrayDeque<>();
+    private volatile boolean cancelled;
+    private boolean paused;
+    private boolean done;
+
+    private StreamSubscription(Flow.Subscriber<? super VertigoMessage<T>> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    /**
+     * Pauses the stream and registers handlers. Called on the stream's context.
+     */
+    private void start() {
+      stream.pause();
+      paused = true;
+      stream.exceptionHandler(this::error);
+      stream.endHandler(v -> complete());
+      stream.handler(this::handle);
+      subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancel();
+        context.runOnContext(v -> error(new IllegalArgumentException("request must be positive")));
+        return;
+      }
+      if (cancelled) {
+        return;
+      }
+      long previous = demand.getAndAccumulate(n, (current, amount) -> {
+        long total = current + amount;
+        return total < 0 ? Long.MAX_VALUE : total;
+      });
+      if (fetch != null) {
+        context.runOnContext(v -> fetch.accept(n));
+      } else if (previous == 0) {
+        context.runOnContext(v -> flow());
+      }
+    }
+
+    /**
+     * Delivers pending messages and resumes the stream if demand remains.
+     */
+    private void flow() {
+      drain();
+      if (!cancelled && paused && demand.get() > 0) {
+        paused = false;
+        stream.resume();
+      }
+    }
+
+    /**
+     * Delivers messages received while there was no demand.
+     */
+    private void drain() {
+      VertigoMessage<T> message;
+      while (!cancelled && demand.get() > 0 && (message = pending.poll()) != null) {
+        demand.decrementAndGet();
+        subscriber.onNext(message);
+      }
+    }
+
+    /**
+     * Handles a message from the stream.
+     */
+    private void handle(VertigoMessage<T> message) {
+      if (cancelled) {
+        message.fail(new VertigoException("subscription cancelled"));
+        return;
+      }
+      if (pending.isEmpty() && demand.get() > 0) {
+        if (demand.decrementAndGet() == 0 && fetch == null) {
+          pause();
+        }
+        subscriber.onNext(message);
+      } else {
+        // Streams may deliver messages already in flight when paused.
+        pending.add(message);
+        if (fetch == null) {
+          pause();
+        }
+      }
+    }
+
+    private void pause() {
+      if (!paused) {
+        paused = true;
+        stream.pause();
+      }
+    }
+
+    private void error(Throwable t) {
+      if (!done) {
+        done = true;
+        subscriber.onError(t);
+      }
+    }
+
+    private void complete() {
+      if (!done && !cancelled) {
+        done = true;
+        subscriber.onComplete();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled) {
+        cancelled = true;
+        context.runOnContext(v -> {
+          pause();
+          VertigoMessage<T> message;
+          while ((message = pending.poll()) != null) {
+            message.fail(new VertigoException("subscription cancelled"));
+          }
+        });
+      }
+    }
+  }
+
+}
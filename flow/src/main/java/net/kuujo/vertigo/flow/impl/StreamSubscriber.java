@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kuujo.vertigo.flow.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.WriteStream;
+import net.kuujo.vertigo.util.Args;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscriber which writes to a stream.<p>
+ *
+ * Items may be published from any thread. Each item is handed to the stream's context
+ * through a bounded lock-free queue, and the subscriber never requests more items than
+ * the queue can hold. Items are only written while the stream's write queue has room,
+ * so a full stream stops requests to the publisher until it is drained.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class StreamSubscriber<T> implements Flow.Subscriber<T> {
+  private static final Logger log = LoggerFactory.getLogger(StreamSubscriber.class);
+  private final Context context;
+  private final WriteStream<T> stream;
+  private final SpscArrayQueue<T> queue;
+  private final int bufferSize;
+  private final int limit;
+  private final AtomicInteger wip = new AtomicInteger();
+  private volatile Flow.Subscription subscription;
+  private volatile boolean done;
+  private volatile Throwable error;
+  private boolean terminated;
+  private int consumed;
+
+  public StreamSubscriber(Context context, WriteStream<T> stream, int bufferSize) {
+    this.context = Args.checkNotNull(context, "context cannot be null");
+    this.stream = Args.checkNotNull(stream, "stream cannot be null");
+    this.bufferSize = Args.checkPositive(bufferSize, "buffer size must be a positive number");
+    this.limit = Math.max(1, bufferSize - (bufferSize >> 2));
+    this.queue = new SpscArrayQueue<>(bufferSize);
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    Args.checkNotNull(subscription, "subscription cannot be null");
+    if (this.subscription != null) {
+      subscription.cancel();
+      return;
+    }
+    this.subscription = subscription;
+    subscription.request(bufferSize);
+  }
+
+  @Override
+  public void onNext(T item) {
+    Args.checkNotNull(item, "item cannot be null");
+    if (done) {
+      return;
+    }
+    if (!queue.offer(item)) {
+      subscription.cancel();
+      onError(new IllegalStateException("publisher exceeded requested demand"));
+      return;
+    }
+    schedule();
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    Args.checkNotNull(t, "error cannot be null");
+    error = t;
+    done = true;
+    schedule();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    schedule();
+  }
+
+  /**
+   * Schedules a drain of the queue on the stream's context.
+   */
+  private void schedule() {
+    if (wip.getAndIncrement() == 0) {
+      context.runOnContext(v -> drain());
+    }
+  }
+
+  /**
+   * Writes queued items to the stream until the queue is empty or the stream is full.
+   */
+  private void drain() {
+    int missed = 1;
+    for (;;) {
+      T item;
+      while (!stream.writeQueueFull() && (item = queue.poll()) != null) {
+        stream.write(item);
+        if (++consumed == limit) {
+          consumed = 0;
+          subscription.request(limit);
+        }
+      }
+
+      if (!queue.isEmpty()) {
+        stream.drainHandler(v -> schedule());
+      } else if (done && !terminated) {
+        terminated = true;
+        if (error != null) {
+          log.error("Publisher failed", error);
+        }
+      }
+
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        break;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,163 @@
+package net.kuujo.vertigo.flow.integration;
+
+/*
+ * Copyright 2013-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.vertx.test.core.VertxTestBase;
+import net.kuujo.vertigo.Vertigo;
+import net.kuujo.vertigo.component.MessageHandlerComponent;
+import net.kuujo.vertigo.flow.PortFlows;
+import net.kuujo.vertigo.message.VertigoMessage;
+import net.kuujo.vertigo.network.NetworkConfig;
+import net.kuujo.vertigo.network.builder.NetworkBuilder;
+import net.kuujo.vertigo.reference.NetworkReference;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+public class Port_Flow_Test extends VertxTestBase {
+  private NetworkReference network;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    NetworkBuilder builder = NetworkConfig.builder("flow-test");
+    builder.component("A")
+        .identifier(ForwardingComponent.class.getName())
+        .input().port("in")
+        .output().port("out");
+    builder.connect().network().port("in").to("A").port("in");
+    builder.connect("A").port("out").to().network().port("out");
+
+    CompletableFuture<NetworkReference> deployed = new CompletableFuture<>();
+    vertx.runOnContext(v -> Vertigo.vertigo(vertx).deployNetwork(builder.build(), result -> {
+      if (result.failed()) {
+        deployed.completeExceptionally(result.cause());
+      } else {
+        deployed.complete(result.result());
+      }
+    }));
+    network = deployed.join();
+  }
+
+  private void onContext(Runnable runnable) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      runnable.run();
+      future.complete(null);
+    });
+    future.join();
+  }
+
+  @Test
+  public void publisher_demand_test() throws Exception {
+    List<String> received = new CopyOnWriteArrayList<>();
+    CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+    onContext(() -> PortFlows.publisher(vertx, network.<String>output()).subscribe(new Flow.Subscriber<VertigoMessage<String>>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(2);
+        subscribed.complete(subscription);
+      }
+      @Override
+      public void onNext(VertigoMessage<String> message) {
+        received.add(message.body());
+        message.ack();
+      }
+      @Override
+      public void onError(Throwable t) {
+        fail(t.getMessage());
+      }
+      @Override
+      public void onComplete() {
+      }
+    }));
+    Flow.Subscription subscription = subscribed.join();
+
+    for (int i = 0; i < 5; i++) {
+      network.input().port("in").send("Word" + i);
+    }
+
+    // Only the requested messages are delivered.
+    waitUntil(() -> received.size() == 2);
+    Thread.sleep(100);
+    assertEquals(2, received.size());
+
+    subscription.request(3);
+    waitUntil(() -> received.size() == 5);
+    assertEquals("Word0 > A", received.get(0));
+    assertEquals("Word4 > A", received.get(4));
+    testComplete();
+  }
+
+  @Test
+  public void subscriber_test() {
+    int count = 500;
+    List<String> received = new CopyOnWriteArrayList<>();
+    onContext(() -> {
+      PortFlows.publisher(vertx, network.<String>output()).subscribe(new Flow.Subscriber<VertigoMessage<String>>() {
+        private Flow.Subscription subscription;
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+          this.subscription = subscription;
+          subscription.request(1);
+        }
+        @Override
+        public void onNext(VertigoMessage<String> message) {
+          received.add(message.body());
+          message.ack();
+          subscription.request(1);
+        }
+        @Override
+        public void onError(Throwable t) {
+          fail(t.getMessage());
+        }
+        @Override
+        public void onComplete() {
+        }
+      });
+    });
+
+    CompletableFuture<Flow.Subscriber<String>> subscriber = new CompletableFuture<>();
+    onContext(() -> subscriber.complete(PortFlows.subscriber(vertx, network.input().<String>port("in"), 16)));
+
+    // Items are submitted from a thread outside of Vert.x.
+    try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(subscriber.join());
+      for (int i = 0; i < count; i++) {
+        publisher.submit("Word" + i);
+      }
+    }
+
+    waitUntil(() -> received.size() == count);
+    for (int i = 0; i < count; i++) {
+      assertEquals("Word" + i + " > A", received.get(i));
+    }
+    testComplete();
+  }
+
+  public static class ForwardingComponent extends MessageHandlerComponent<String> {
+    @Override
+    public void handle(VertigoMessage<String> message) {
+      output().<String>port("out").send(message.body() + " > " + context().name(), message::handle);
+    }
+  }
+
+}